@@ -0,0 +1,104 @@
+package org.parallaxsecond.parsec.benchmarks;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.parallaxsecond.parsec.benchmarks.load.Target;
+import org.parallaxsecond.parsec.benchmarks.load.Workload;
+import org.parallaxsecond.parsec.client.core.BasicClient;
+
+/**
+ * Client operations end to end, from several threads sharing one {@link BasicClient}. Run with
+ * {@code -t} to change the number of threads and {@code -p target=unix:/run/parsec/parsec.sock} to
+ * measure a real service; see {@link Target}.
+ *
+ * <p>
+ * JMH runs closed loop, so the latencies it samples are service times. Use
+ * {@link org.parallaxsecond.parsec.benchmarks.load.LoadHarness} for latencies at a target rate.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ClientBenchmark {
+  @Param({Target.MOCK})
+  public String target;
+
+  /** Bytes per operation for generateRandom and aeadEncrypt */
+  @Param({"32"})
+  public int payloadSize;
+
+  /** Time the mock service adds to each response, in microseconds */
+  @Param({"0"})
+  public long mockLatencyMicros;
+
+  private Target service;
+  private Workload.Task signHash;
+  private Workload.Task verifyHash;
+  private Workload.Task generateRandom;
+  private Workload.Task aeadEncrypt;
+  private Workload.Task listKeys;
+
+  @Setup
+  public void setup() throws IOException {
+    // enough connections for the threads of any -t up to 64
+    service = Target.open(target, 64, Duration.ofNanos(mockLatencyMicros * 1000));
+    BasicClient client = BasicClient.client("parsec-benchmark", service.getIpcHandler());
+    signHash = Workload.SIGN_HASH.prepare(client, payloadSize);
+    verifyHash = Workload.VERIFY_HASH.prepare(client, payloadSize);
+    generateRandom = Workload.GENERATE_RANDOM.prepare(client, payloadSize);
+    aeadEncrypt = Workload.AEAD_ENCRYPT.prepare(client, payloadSize);
+    // turns the key cache off for the whole client, after the keys above are created
+    listKeys = Workload.LIST_KEYS.prepare(client, payloadSize);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    signHash.close();
+    verifyHash.close();
+    aeadEncrypt.close();
+    service.close();
+  }
+
+  @Benchmark
+  public Object signHash() {
+    return signHash.run();
+  }
+
+  @Benchmark
+  public Object verifyHash() {
+    return verifyHash.run();
+  }
+
+  @Benchmark
+  public Object generateRandom() {
+    return generateRandom.run();
+  }
+
+  @Benchmark
+  public Object aeadEncrypt() {
+    return aeadEncrypt.run();
+  }
+
+  @Benchmark
+  public Object listKeys() {
+    return listKeys.run();
+  }
+}
@@ -0,0 +1,94 @@
+package org.parallaxsecond.parsec.benchmarks;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.parallaxsecond.parsec.protocol.operations.NativeOperation;
+import org.parallaxsecond.parsec.protocol.operations.NativeResult;
+import org.parallaxsecond.parsec.protocol.operations_protobuf.ProtobufConverter;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
+import org.parallaxsecond.parsec.protocol.requests.response.ResponseBody;
+
+/**
+ * The protobuf converters in both directions: operations and results as encoded and decoded by the
+ * client, and as decoded and encoded by a service.
+ *
+ * <p>
+ * Only the opcodes listed in {@link Samples#OPCODES} have converters implemented both ways.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConverterBenchmark {
+  @Param({"PING", "LIST_PROVIDERS", "LIST_AUTHENTICATORS", "LIST_KEYS", "PSA_GENERATE_KEY",
+      "PSA_IMPORT_KEY", "PSA_SIGN_HASH", "PSA_VERIFY_HASH", "PSA_ASYMMETRIC_ENCRYPT",
+      "PSA_ASYMMETRIC_DECRYPT", "PSA_AEAD_ENCRYPT", "PSA_AEAD_DECRYPT", "PSA_GENERATE_RANDOM",
+      "PSA_HASH_COMPUTE", "PSA_HASH_COMPARE"})
+  public Opcode opcode;
+
+  /** Size of the byte fields of the operation and result, see {@link Samples} */
+  @Param({"32", "1024", "16384"})
+  public int payloadSize;
+
+  private final ProtobufConverter converter = new ProtobufConverter();
+  private NativeOperation operation;
+  private NativeResult result;
+  private byte[] encodedOperation;
+  private byte[] encodedResult;
+  private ByteBuffer frame;
+
+  @Setup
+  public void setup() {
+    operation = Samples.operation(opcode, payloadSize);
+    result = Samples.result(opcode, payloadSize);
+    ByteBuffer operationBuffer = converter.operationToBody(operation).getBuffer();
+    encodedOperation = new byte[operationBuffer.remaining()];
+    operationBuffer.duplicate().get(encodedOperation);
+    ByteBuffer resultBuffer = converter.resultToBody(result).getBuffer();
+    encodedResult = new byte[resultBuffer.remaining()];
+    resultBuffer.duplicate().get(encodedResult);
+    frame = ByteBuffer.allocate(encodedOperation.length);
+  }
+
+  /** Client: encode an operation into the request frame. */
+  @Benchmark
+  public ByteBuffer operationToBody() {
+    ((Buffer) frame).clear();
+    converter.operationToBody(operation).writeTo(frame);
+    return frame;
+  }
+
+  /** Client: decode the result from the response body. */
+  @Benchmark
+  public NativeResult bodyToResult() {
+    return converter.bodyToResult(new ResponseBody(encodedResult), opcode);
+  }
+
+  /** Service: decode the operation from the request body. */
+  @Benchmark
+  public NativeOperation bodyToOperation() throws Exception {
+    return converter.bodyToOperation(new RequestBody(encodedOperation), opcode);
+  }
+
+  /** Service: encode the result into the response body. */
+  @Benchmark
+  public ResponseBody resultToBody() {
+    return converter.resultToBody(result);
+  }
+}
@@ -0,0 +1,60 @@
+package org.parallaxsecond.parsec.benchmarks;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/** In-memory channels, so that the benchmarks measure the codecs rather than a socket. */
+final class MemoryChannels {
+  private MemoryChannels() {}
+
+  /** Swallows everything written to it. */
+  static WritableByteChannel discard() {
+    return new WritableByteChannel() {
+      @Override
+      public int write(ByteBuffer src) {
+        int written = src.remaining();
+        ((Buffer) src).position(src.limit());
+        return written;
+      }
+
+      @Override
+      public boolean isOpen() {
+        return true;
+      }
+
+      @Override
+      public void close() {}
+    };
+  }
+
+  /**
+   * Reads {@code frame} over and over again. Each read stops at the end of the frame, so a decoder
+   * that consumes one frame per call always starts at the beginning of the next one.
+   */
+  static ReadableByteChannel replay(byte[] frame) {
+    return new ReadableByteChannel() {
+      private int position;
+
+      @Override
+      public int read(ByteBuffer dst) {
+        int read = Math.min(dst.remaining(), frame.length - position);
+        dst.put(frame, position, read);
+        position += read;
+        if (position == frame.length) {
+          position = 0;
+        }
+        return read;
+      }
+
+      @Override
+      public boolean isOpen() {
+        return true;
+      }
+
+      @Override
+      public void close() {}
+    };
+  }
+}
@@ -0,0 +1,72 @@
+package org.parallaxsecond.parsec.benchmarks;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.parallaxsecond.parsec.protocol.operations_protobuf.ProtobufConverter;
+import org.parallaxsecond.parsec.protocol.requests.AuthType;
+import org.parallaxsecond.parsec.protocol.requests.BodyType;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+import org.parallaxsecond.parsec.protocol.requests.request.Request;
+import org.parallaxsecond.parsec.protocol.requests.request.RequestAuth;
+import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
+import org.parallaxsecond.parsec.protocol.requests.request.RequestHeader;
+
+/** Framing and writing a request, as the client does for every operation. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestBenchmark {
+  /** Size of the body, in bytes */
+  @Param({"0", "256", "4096", "65536"})
+  public int bodySize;
+
+  private final ProtobufConverter converter = new ProtobufConverter();
+  private RequestHeader header;
+  private RequestAuth auth;
+  private Request encodedRequest;
+  private WritableByteChannel sink;
+
+  @Setup
+  public void setup() {
+    header = RequestHeader.builder().provider(ProviderId.MBED_CRYPTO).session(0)
+        .contentType(BodyType.PROTOBUF).acceptType(BodyType.PROTOBUF).authType(AuthType.DIRECT)
+        .opcode(Opcode.PSA_SIGN_HASH).build();
+    auth = RequestAuth.immutable("benchmark".getBytes(StandardCharsets.UTF_8));
+    encodedRequest = Request.builder().header(header)
+        .body(new RequestBody(Samples.bytes(bodySize))).auth(auth).build();
+    sink = MemoryChannels.discard();
+  }
+
+  /** Write a request whose body is already encoded. */
+  @Benchmark
+  public void writeToStream() throws IOException {
+    encodedRequest.writeToStream(sink);
+  }
+
+  /** Encode a sign hash operation straight into the frame and write it, as the client does. */
+  @Benchmark
+  public void writeOperationToStream() throws IOException {
+    Request request = Request.builder().header(header)
+        .body(converter.operationToBody(Samples.operation(Opcode.PSA_SIGN_HASH, bodySize)))
+        .auth(auth).build();
+    request.writeToStream(sink);
+  }
+}
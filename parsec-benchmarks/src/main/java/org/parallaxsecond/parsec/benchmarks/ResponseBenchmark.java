@@ -0,0 +1,75 @@
+package org.parallaxsecond.parsec.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.parallaxsecond.parsec.protocol.operations.NativeResult;
+import org.parallaxsecond.parsec.protocol.operations_protobuf.ProtobufConverter;
+import org.parallaxsecond.parsec.protocol.requests.BodyType;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+import org.parallaxsecond.parsec.protocol.requests.response.Response;
+import org.parallaxsecond.parsec.protocol.requests.response.ResponseBody;
+import org.parallaxsecond.parsec.protocol.requests.response.ResponseHeader;
+
+/** Reading and decoding a response, as the client does for every operation. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseBenchmark {
+  /** Size of the signature in the response body, in bytes */
+  @Param({"0", "256", "4096", "65536"})
+  public int bodySize;
+
+  private final ProtobufConverter converter = new ProtobufConverter();
+  private ReadableByteChannel source;
+
+  @Setup
+  public void setup() throws IOException {
+    ResponseBody body =
+        converter.resultToBody(Samples.result(Opcode.PSA_SIGN_HASH, bodySize));
+    ResponseHeader header = ResponseHeader.builder().provider(ProviderId.MBED_CRYPTO).session(0)
+        .contentType(BodyType.PROTOBUF).opcode(Opcode.PSA_SIGN_HASH)
+        .status(ResponseStatus.Success).build();
+    ByteArrayOutputStream frame = new ByteArrayOutputStream();
+    new Response(header, body).writeToStream(Channels.newChannel(frame));
+    source = MemoryChannels.replay(frame.toByteArray());
+  }
+
+  /** Read the header and the raw body. */
+  @Benchmark
+  public Response readFromStream() throws IOException {
+    Response response = Response.readFromStream(source, Integer.MAX_VALUE);
+    response.getBody().release();
+    return response;
+  }
+
+  /** Read the response and decode its body. */
+  @Benchmark
+  public NativeResult readAndDecode() throws IOException {
+    Response response = Response.readFromStream(source, Integer.MAX_VALUE);
+    try {
+      return converter.bodyToResult(response.getBody(), response.getHeader().getOpcode());
+    } finally {
+      response.getBody().release();
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package org.parallaxsecond.parsec.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.parallaxsecond.parsec.protobuf.psa_algorithm.PsaAlgorithm;
+import org.parallaxsecond.parsec.protobuf.psa_key_attributes.PsaKeyAttributes;
+import org.parallaxsecond.parsec.protocol.operations.NativeOperation;
+import org.parallaxsecond.parsec.protocol.operations.NativeResult;
+import org.parallaxsecond.parsec.protocol.requests.AuthType;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+
+/**
+ * Operations and results to feed the codecs with.
+ *
+ * <p>
+ * {@code payloadSize} is the size of the byte fields (hash, signature, plaintext...). Listings get
+ * one entry per 64 bytes of payload, at least one.
+ */
+final class Samples {
+  /** Opcodes whose protobuf converter is implemented in both directions */
+  static final Opcode[] OPCODES = {Opcode.PING, Opcode.LIST_PROVIDERS, Opcode.LIST_AUTHENTICATORS,
+      Opcode.LIST_KEYS, Opcode.PSA_GENERATE_KEY, Opcode.PSA_IMPORT_KEY, Opcode.PSA_SIGN_HASH,
+      Opcode.PSA_VERIFY_HASH, Opcode.PSA_ASYMMETRIC_ENCRYPT, Opcode.PSA_ASYMMETRIC_DECRYPT,
+      Opcode.PSA_AEAD_ENCRYPT, Opcode.PSA_AEAD_DECRYPT, Opcode.PSA_GENERATE_RANDOM,
+      Opcode.PSA_HASH_COMPUTE, Opcode.PSA_HASH_COMPARE};
+
+  static final String KEY_NAME = "benchmark-key";
+  static final PsaAlgorithm.Algorithm.AsymmetricSignature SIGN_ALG =
+      PsaAlgorithm.Algorithm.AsymmetricSignature.newBuilder()
+          .setRsaPkcs1V15Sign(PsaAlgorithm.Algorithm.AsymmetricSignature.RsaPkcs1v15Sign
+              .newBuilder().setHashAlg(PsaAlgorithm.Algorithm.AsymmetricSignature.SignHash
+                  .newBuilder().setSpecific(PsaAlgorithm.Algorithm.Hash.SHA_256)))
+          .build();
+  static final PsaAlgorithm.Algorithm.AsymmetricEncryption ENCRYPT_ALG =
+      PsaAlgorithm.Algorithm.AsymmetricEncryption.newBuilder()
+          .setRsaPkcs1V15Crypt(
+              PsaAlgorithm.Algorithm.AsymmetricEncryption.RsaPkcs1v15Crypt.newBuilder())
+          .build();
+  static final PsaAlgorithm.Algorithm.Aead AEAD_ALG = PsaAlgorithm.Algorithm.Aead.newBuilder()
+      .setAeadWithDefaultLengthTag(PsaAlgorithm.Algorithm.Aead.AeadWithDefaultLengthTag.GCM)
+      .build();
+  static final PsaKeyAttributes.KeyAttributes ATTRIBUTES = PsaKeyAttributes.KeyAttributes
+      .newBuilder().setKeyBits(2048)
+      .setKeyType(PsaKeyAttributes.KeyType.newBuilder()
+          .setRsaKeyPair(PsaKeyAttributes.KeyType.RsaKeyPair.newBuilder()))
+      .setKeyPolicy(PsaKeyAttributes.KeyPolicy.newBuilder()
+          .setKeyUsageFlags(PsaKeyAttributes.UsageFlags.newBuilder().setSignHash(true)
+              .setVerifyHash(true))
+          .setKeyAlgorithm(PsaAlgorithm.Algorithm.newBuilder().setAsymmetricSignature(SIGN_ALG)))
+      .build();
+
+  private Samples() {}
+
+  /** @return random bytes, the same for a given size */
+  static byte[] bytes(int size) {
+    byte[] bytes = new byte[size];
+    new Random(size).nextBytes(bytes);
+    return bytes;
+  }
+
+  static NativeOperation operation(Opcode opcode, int payloadSize) {
+    byte[] payload = bytes(payloadSize);
+    switch (opcode) {
+      case PING:
+        return NativeOperation.PingOperation.builder().build();
+      case LIST_PROVIDERS:
+        return NativeOperation.ListProvidersOperation.builder().build();
+      case LIST_AUTHENTICATORS:
+        return NativeOperation.ListAuthenticatorsOperation.builder().build();
+      case LIST_KEYS:
+        return NativeOperation.ListKeysOperation.builder().build();
+      case PSA_GENERATE_KEY:
+        return NativeOperation.PsaGenerateKeyOperation.builder().keyName(KEY_NAME)
+            .attributes(ATTRIBUTES).build();
+      case PSA_IMPORT_KEY:
+        return NativeOperation.PsaImportKeyOperation.builder().keyName(KEY_NAME)
+            .attributes(ATTRIBUTES).data(payload).build();
+      case PSA_SIGN_HASH:
+        return NativeOperation.PsaSignHashOperation.builder().keyName(KEY_NAME).alg(SIGN_ALG)
+            .hash(payload).build();
+      case PSA_VERIFY_HASH:
+        return NativeOperation.PsaVerifyHashOperation.builder().keyName(KEY_NAME).alg(SIGN_ALG)
+            .hash(payload).signature(payload).build();
+      case PSA_ASYMMETRIC_ENCRYPT:
+        return NativeOperation.PsaAsymmetricEncryptOperation.builder().keyName(KEY_NAME)
+            .alg(ENCRYPT_ALG).plaintext(payload).salt(new byte[0]).build();
+      case PSA_ASYMMETRIC_DECRYPT:
+        return NativeOperation.PsaAsymmetricDecryptOperation.builder().keyName(KEY_NAME)
+            .alg(ENCRYPT_ALG).ciphertext(payload).salt(new byte[0]).build();
+      case PSA_AEAD_ENCRYPT:
+        return NativeOperation.PsaAeadEncryptOperation.builder().keyName(KEY_NAME).alg(AEAD_ALG)
+            .nonce(bytes(12)).additionalData(bytes(16)).plaintext(payload).build();
+      case PSA_AEAD_DECRYPT:
+        return NativeOperation.PsaAeadDecryptOperation.builder().keyName(KEY_NAME).alg(AEAD_ALG)
+            .nonce(bytes(12)).additionalData(bytes(16)).ciphertext(payload).build();
+      case PSA_GENERATE_RANDOM:
+        return NativeOperation.PsaGenerateRandomOperation.builder().size(payloadSize).build();
+      case PSA_HASH_COMPUTE:
+        return NativeOperation.PsaHashComputeOperation.builder()
+            .alg(PsaAlgorithm.Algorithm.Hash.SHA_256).input(payload).build();
+      case PSA_HASH_COMPARE:
+        return NativeOperation.PsaHashCompareOperation.builder()
+            .alg(PsaAlgorithm.Algorithm.Hash.SHA_256).input(payload).hash(bytes(32)).build();
+      default:
+        throw new IllegalArgumentException("no sample operation for " + opcode);
+    }
+  }
+
+  static NativeResult result(Opcode opcode, int payloadSize) {
+    byte[] payload = bytes(payloadSize);
+    int entries = Math.max(1, payloadSize / 64);
+    switch (opcode) {
+      case PING:
+        return NativeResult.PingResult.builder().wireProtocolVersionMaj((byte) 1)
+            .wireProtocolVersionMin((byte) 0).build();
+      case LIST_PROVIDERS: {
+        List<NativeResult.ListProvidersResult.ProviderInfo> providers = new ArrayList<>();
+        for (int i = 0; i < entries; i++) {
+          providers.add(NativeResult.ListProvidersResult.ProviderInfo.builder()
+              .uuid(new UUID(i, i)).description("Mbed Crypto provider").vendor("Arm")
+              .versionMaj(1).versionMin(0).versionRev(0).id(ProviderId.MBED_CRYPTO).build());
+        }
+        return NativeResult.ListProvidersResult.builder().providers(providers).build();
+      }
+      case LIST_AUTHENTICATORS: {
+        List<NativeResult.ListAuthenticatorsResult.AuthenticatorInfo> authenticators =
+            new ArrayList<>();
+        for (int i = 0; i < entries; i++) {
+          authenticators.add(NativeResult.ListAuthenticatorsResult.AuthenticatorInfo.builder()
+              .description("Direct authentication").versionMaj(1).versionMin(0).versionRev(0)
+              .id(AuthType.DIRECT).build());
+        }
+        return NativeResult.ListAuthenticatorsResult.builder().authenticators(authenticators)
+            .build();
+      }
+      case LIST_KEYS: {
+        List<NativeResult.ListKeysResult.KeyInfo> keys = new ArrayList<>();
+        for (int i = 0; i < entries; i++) {
+          keys.add(NativeResult.ListKeysResult.KeyInfo.builder()
+              .providerId(ProviderId.MBED_CRYPTO).name(KEY_NAME + i).attributes(ATTRIBUTES)
+              .build());
+        }
+        return NativeResult.ListKeysResult.builder().keys(keys).build();
+      }
+      case PSA_GENERATE_KEY:
+        return NativeResult.PsaGenerateKeyResult.builder().build();
+      case PSA_IMPORT_KEY:
+        return NativeResult.PsaImportKeyResult.builder().build();
+      case PSA_SIGN_HASH:
+        return NativeResult.PsaSignHashResult.builder().signature(payload).build();
+      case PSA_VERIFY_HASH:
+        return NativeResult.PsaVerifyHashResult.builder().build();
+      case PSA_ASYMMETRIC_ENCRYPT:
+        return NativeResult.PsaAsymmetricEncryptResult.builder().ciphertext(payload).build();
+      case PSA_ASYMMETRIC_DECRYPT:
+        return NativeResult.PsaAsymmetricDecryptResult.builder().plaintext(payload).build();
+      case PSA_AEAD_ENCRYPT:
+        return NativeResult.PsaAeadEncryptResult.builder().ciphertext(payload).build();
+      case PSA_AEAD_DECRYPT:
+        return NativeResult.PsaAeadDecryptResult.builder().plaintext(payload).build();
+      case PSA_GENERATE_RANDOM:
+        return NativeResult.PsaGenerateRandomResult.builder().randomBytes(payload).build();
+      case PSA_HASH_COMPUTE:
+        return NativeResult.PsaHashComputeResult.builder().hash(payload).build();
+      case PSA_HASH_COMPARE:
+        return NativeResult.PsaHashCompareResult.builder().build();
+      default:
+        throw new IllegalArgumentException("no sample result for " + opcode);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package org.parallaxsecond.parsec.benchmarks;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.parallaxsecond.parsec.protocol.requests.request.common.WireHeaderView;
+import org.parallaxsecond.parsec.protocol.requests.request.common.WireHeader_1_0;
+
+/** Encoding and decoding of the fixed size header that starts every request and response. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WireHeaderBenchmark {
+  private WireHeader_1_0 header;
+  private ByteBuffer frame;
+  private ByteBuffer encoded;
+  private ReadableByteChannel source;
+  private WritableByteChannel sink;
+  private final WireHeaderView view = new WireHeaderView();
+
+  @Setup
+  public void setup() {
+    header = WireHeader_1_0.builder().flags((short) 0).provider((byte) 1).session(0)
+        .contentType((byte) 0).acceptType((byte) 0).authType((byte) 1).bodyLen(1024)
+        .authLen((short) 8).opcode(0x0004).status((short) 0).reserved1((byte) 0)
+        .reserved2((byte) 0).build();
+    frame = ByteBuffer.allocate(WireHeaderView.SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    encoded = header.toBuffer();
+    byte[] bytes = new byte[encoded.remaining()];
+    encoded.duplicate().get(bytes);
+    source = MemoryChannels.replay(bytes);
+    sink = MemoryChannels.discard();
+  }
+
+  /** Serialise into a new buffer. */
+  @Benchmark
+  public ByteBuffer toBuffer() {
+    return header.toBuffer();
+  }
+
+  /** Serialise into a reused buffer, as when framing a request. */
+  @Benchmark
+  public ByteBuffer writeTo() {
+    ((Buffer) frame).clear();
+    header.writeTo(frame);
+    return frame;
+  }
+
+  @Benchmark
+  public void writeToStream() throws IOException {
+    header.writeToStream(sink);
+  }
+
+  @Benchmark
+  public WireHeader_1_0 readFromStream() throws IOException {
+    return WireHeader_1_0.readFromStream(source);
+  }
+
+  /** Read the fields needed to frame a response, without building a header. */
+  @Benchmark
+  public void readView(Blackhole blackhole) {
+    view.wrap(encoded);
+    blackhole.consume(view.getBodyLen());
+    blackhole.consume(view.getOpcode());
+    blackhole.consume(view.getStatus());
+  }
+}
@@ -0,0 +1,125 @@
+package org.parallaxsecond.parsec.benchmarks.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Recorder;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Repeats a {@link Workload.Task} from {@code concurrency} threads, as fast as possible or at a
+ * target rate, and records its latency.
+ *
+ * <p>
+ * At a target rate each thread has a schedule of intended start times. The response time is
+ * measured from the intended start, so that an operation delayed by a slow one before it counts
+ * the time it spent waiting: this is the coordinated omission correction. The service time is
+ * measured from the actual start. Without a target rate the two are the same.
+ */
+@Slf4j
+public class LoadGenerator {
+  private final Workload.Task task;
+  private final int concurrency;
+  private final double rate;
+  private final long warmupNanos;
+  private final long durationNanos;
+
+  /**
+   * @param task operation to repeat
+   * @param concurrency number of threads, 1 if null
+   * @param rate target operations per second across all threads, as fast as possible if null or
+   *        not positive
+   * @param warmup time run before recording, none if null
+   * @param duration time recorded
+   */
+  @Builder
+  public LoadGenerator(@NonNull Workload.Task task, Integer concurrency, Double rate,
+      Duration warmup, @NonNull Duration duration) {
+    this.task = task;
+    this.concurrency = concurrency != null ? concurrency : 1;
+    if (this.concurrency < 1) {
+      throw new IllegalArgumentException("concurrency must be positive, got " + concurrency);
+    }
+    this.rate = rate != null && rate > 0 ? rate : 0;
+    this.warmupNanos = warmup != null ? warmup.toNanos() : 0;
+    this.durationNanos = duration.toNanos();
+  }
+
+  public LoadReport run() throws InterruptedException {
+    Recorder responseTimes = new Recorder(3);
+    Recorder serviceTimes = new Recorder(3);
+    LongAdder completed = new LongAdder();
+    LongAdder errors = new LongAdder();
+    long intervalNanos = rate > 0 ? (long) (1e9 * concurrency / rate) : 0;
+    long start = System.nanoTime();
+    long measureStart = start + warmupNanos;
+    long end = measureStart + durationNanos;
+
+    List<Thread> workers = new ArrayList<>(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      // spread the schedules of the threads over one interval
+      long firstStart = start + intervalNanos * i / concurrency;
+      Thread worker = new Thread(() -> {
+        long next = firstStart;
+        while (true) {
+          long intended;
+          if (intervalNanos > 0) {
+            intended = next;
+            next += intervalNanos;
+            parkUntil(intended);
+          } else {
+            intended = System.nanoTime();
+          }
+          if (intended >= end) {
+            return;
+          }
+          long begin = System.nanoTime();
+          boolean failed = false;
+          try {
+            task.run();
+          } catch (RuntimeException e) {
+            failed = true;
+            log.debug("Operation failed", e);
+          }
+          long done = System.nanoTime();
+          if (intended < measureStart) {
+            // warming up
+            continue;
+          }
+          if (failed) {
+            errors.increment();
+          } else {
+            completed.increment();
+            responseTimes.recordValue(done - intended);
+            serviceTimes.recordValue(done - begin);
+          }
+        }
+      }, "parsec-load-" + i);
+      worker.setDaemon(true);
+      workers.add(worker);
+    }
+    for (Thread worker : workers) {
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    long elapsed = System.nanoTime() - measureStart;
+    return new LoadReport(responseTimes.getIntervalHistogram(),
+        serviceTimes.getIntervalHistogram(), completed.sum(), errors.sum(), elapsed, rate,
+        concurrency);
+  }
+
+  private static void parkUntil(long deadline) {
+    long remaining;
+    while ((remaining = deadline - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(remaining);
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package org.parallaxsecond.parsec.benchmarks.load;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.parallaxsecond.parsec.client.core.BasicClient;
+
+/**
+ * Command line load generator, for sizing a Parsec deployment.
+ *
+ * <pre>
+ * java -cp benchmarks.jar org.parallaxsecond.parsec.benchmarks.load.LoadHarness \
+ *     --target unix:/run/parsec/parsec.sock --workload sign-hash --concurrency 16 \
+ *     --rate 2000 --warmup 10s --duration 60s
+ * </pre>
+ */
+public final class LoadHarness {
+  private static final String USAGE = String.join(System.lineSeparator(),
+      "options:",
+      "  --target      mock (default), mock-socket or a socket URL,",
+      "                e.g. unix:/run/parsec/parsec.sock",
+      "  --workload    sign-hash (default), verify-hash, generate-random, aead-encrypt, list-keys",
+      "  --concurrency client threads, default 8",
+      "  --rate        target operations per second, default as fast as possible",
+      "  --warmup      e.g. 5s (default), 500ms or 1m",
+      "  --duration    time measured, default 30s",
+      "  --payload     bytes per operation for generate-random and aead-encrypt, default 32",
+      "  --app-name    application name for direct authentication, default parsec-load",
+      "  --mock-latency time the mock service adds to each response, default 0ms",
+      "  --histogram   file to write the response time distribution to, .hgrm format");
+
+  private LoadHarness() {}
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options;
+    try {
+      options = parse(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      System.exit(2);
+      return;
+    }
+    int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "8"));
+    Workload workload = Workload.parse(options.getOrDefault("workload", "sign-hash"));
+    int payloadSize = Integer.parseInt(options.getOrDefault("payload", "32"));
+
+    try (Target target = Target.open(options.getOrDefault("target", Target.MOCK), concurrency,
+        duration(options.getOrDefault("mock-latency", "0ms")))) {
+      BasicClient client = BasicClient.client(options.getOrDefault("app-name", "parsec-load"),
+          target.getIpcHandler());
+      try (Workload.Task task = workload.prepare(client, payloadSize)) {
+        LoadReport report = LoadGenerator.builder().task(task).concurrency(concurrency)
+            .rate(Double.parseDouble(options.getOrDefault("rate", "0")))
+            .warmup(duration(options.getOrDefault("warmup", "5s")))
+            .duration(duration(options.getOrDefault("duration", "30s"))).build().run();
+        System.out.println("workload: " + workload.name().toLowerCase(Locale.ROOT));
+        report.print(System.out);
+        String histogram = options.get("histogram");
+        if (histogram != null) {
+          try (PrintStream out = new PrintStream(Files.newOutputStream(Paths.get(histogram)))) {
+            report.printDistribution(out);
+          }
+        }
+      }
+    }
+  }
+
+  private static Map<String, String> parse(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (int i = 0; i < args.length; i++) {
+      if (!args[i].startsWith("--") || i + 1 == args.length) {
+        throw new IllegalArgumentException("unexpected argument " + args[i]);
+      }
+      options.put(args[i].substring(2), args[++i]);
+    }
+    return options;
+  }
+
+  /** Parse {@code 500ms}, {@code 30s} or {@code 2m}. */
+  static Duration duration(String value) {
+    String v = value.trim().toLowerCase(Locale.ROOT);
+    if (v.endsWith("ms")) {
+      return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+    }
+    if (v.endsWith("s")) {
+      return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+    }
+    if (v.endsWith("m")) {
+      return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+    }
+    throw new IllegalArgumentException(
+        "expected a duration such as 500ms, 30s or 2m, got " + value);
+  }
+}
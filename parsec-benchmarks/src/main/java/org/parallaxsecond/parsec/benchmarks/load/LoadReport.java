@@ -0,0 +1,69 @@
+package org.parallaxsecond.parsec.benchmarks.load;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+import org.HdrHistogram.Histogram;
+
+import lombok.Getter;
+
+/** Throughput and latency percentiles of a {@link LoadGenerator} run. */
+@Getter
+public class LoadReport {
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+  private static final double NANOS_PER_MICRO = 1000.0;
+
+  /** Latency from the intended start, in nanoseconds */
+  private final Histogram responseTimes;
+  /** Latency from the actual start, in nanoseconds */
+  private final Histogram serviceTimes;
+  private final long completed;
+  private final long errors;
+  private final long elapsedNanos;
+  /** Target rate, 0 if none */
+  private final double targetRate;
+  private final int concurrency;
+
+  LoadReport(Histogram responseTimes, Histogram serviceTimes, long completed, long errors,
+      long elapsedNanos, double targetRate, int concurrency) {
+    this.responseTimes = responseTimes;
+    this.serviceTimes = serviceTimes;
+    this.completed = completed;
+    this.errors = errors;
+    this.elapsedNanos = elapsedNanos;
+    this.targetRate = targetRate;
+    this.concurrency = concurrency;
+  }
+
+  /** @return completed operations per second */
+  public double getThroughput() {
+    return completed * 1e9 / elapsedNanos;
+  }
+
+  /** Print throughput and percentiles, in microseconds. */
+  public void print(PrintStream out) {
+    out.printf(Locale.ROOT, "threads: %d, target rate: %s%n", concurrency,
+        targetRate > 0 ? String.format(Locale.ROOT, "%.0f/s", targetRate) : "none");
+    out.printf(Locale.ROOT, "completed: %d, errors: %d, throughput: %.1f/s%n", completed, errors,
+        getThroughput());
+    out.printf(Locale.ROOT, "%-10s %14s %14s%n", "latency", "response (us)", "service (us)");
+    for (double percentile : PERCENTILES) {
+      out.printf(Locale.ROOT, "%-10s %14.1f %14.1f%n", "p" + format(percentile),
+          responseTimes.getValueAtPercentile(percentile) / NANOS_PER_MICRO,
+          serviceTimes.getValueAtPercentile(percentile) / NANOS_PER_MICRO);
+    }
+    out.printf(Locale.ROOT, "%-10s %14.1f %14.1f%n", "max",
+        responseTimes.getMaxValue() / NANOS_PER_MICRO,
+        serviceTimes.getMaxValue() / NANOS_PER_MICRO);
+  }
+
+  /** Print the full response time distribution, in the .hgrm format of the HdrHistogram plotter. */
+  public void printDistribution(PrintStream out) {
+    responseTimes.outputPercentileDistribution(out, NANOS_PER_MICRO);
+  }
+
+  private static String format(double percentile) {
+    return percentile == Math.rint(percentile) ? String.valueOf((long) percentile)
+        : String.valueOf(percentile);
+  }
+}
@@ -0,0 +1,79 @@
+package org.parallaxsecond.parsec.benchmarks.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.parallaxsecond.parsec.client.core.ipc_handler.IpcHandler;
+import org.parallaxsecond.parsec.mock.InMemoryIpcHandler;
+import org.parallaxsecond.parsec.mock.MockParsecService;
+
+import lombok.Getter;
+
+/**
+ * Where the load goes: a Parsec service socket, or a {@link MockParsecService} started for the run.
+ *
+ * <ul>
+ * <li>{@code mock}: mock service reached through in-memory channels, measures the client alone
+ * <li>{@code mock-socket}: mock service on a temporary Unix domain socket
+ * <li>anything else: a socket URL for {@link IpcHandler#connectFromUrl}, e.g.
+ * {@code unix:/run/parsec/parsec.sock}
+ * </ul>
+ */
+public final class Target implements AutoCloseable {
+  public static final String MOCK = "mock";
+  public static final String MOCK_SOCKET = "mock-socket";
+
+  @Getter
+  private final IpcHandler ipcHandler;
+  private final MockParsecService service;
+  private final Path socketDir;
+
+  private Target(IpcHandler ipcHandler, MockParsecService service, Path socketDir) {
+    this.ipcHandler = ipcHandler;
+    this.service = service;
+    this.socketDir = socketDir;
+  }
+
+  /**
+   * @param spec {@link #MOCK}, {@link #MOCK_SOCKET} or a socket URL
+   * @param concurrency number of connections the mock service serves at the same time
+   * @param mockLatency time the mock service adds to each response
+   */
+  public static Target open(String spec, int concurrency, Duration mockLatency)
+      throws IOException {
+    switch (spec) {
+      case MOCK: {
+        MockParsecService service = mock(null, concurrency, mockLatency);
+        return new Target(new InMemoryIpcHandler(service), service, null);
+      }
+      case MOCK_SOCKET: {
+        Path socketDir = Files.createTempDirectory("parsec-load");
+        MockParsecService service =
+            mock(socketDir.resolve("parsec.sock"), concurrency, mockLatency);
+        return new Target(IpcHandler.connectFromUrl(service.getSocketUri()), service, socketDir);
+      }
+      default:
+        return new Target(IpcHandler.connectFromUrl(URI.create(spec)), null, null);
+    }
+  }
+
+  private static MockParsecService mock(Path socketPath, int concurrency, Duration latency)
+      throws IOException {
+    // room for the client's connections plus the ones it opens while setting itself up
+    return MockParsecService.builder().socketPath(socketPath).concurrency(concurrency + 4)
+        .latency(latency).build();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (service != null) {
+      service.close();
+    }
+    if (socketDir != null) {
+      Files.deleteIfExists(socketDir);
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package org.parallaxsecond.parsec.benchmarks.load;
+
+import java.security.SecureRandom;
+import java.util.Locale;
+
+import org.parallaxsecond.parsec.client.core.BasicClient;
+import org.parallaxsecond.parsec.client.core.KeyCache;
+import org.parallaxsecond.parsec.protobuf.psa_algorithm.PsaAlgorithm;
+import org.parallaxsecond.parsec.protobuf.psa_key_attributes.PsaKeyAttributes;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The client operations the load harness can drive. Each run works on its own keys, named
+ * {@code parsec-load-<random>}, which are destroyed when the task is closed.
+ */
+@Slf4j
+public enum Workload {
+  /** ECDSA P-256 signature of a SHA-256 hash */
+  SIGN_HASH {
+    @Override
+    public Task prepare(BasicClient client, int payloadSize) {
+      String keyName = generateKey(client, eccSigningKey());
+      byte[] hash = new byte[32];
+      return task(client, keyName, () -> client.psaSignHash(keyName, hash, ECDSA_SHA256));
+    }
+  },
+  /** ECDSA P-256 verification of a SHA-256 hash */
+  VERIFY_HASH {
+    @Override
+    public Task prepare(BasicClient client, int payloadSize) {
+      String keyName = generateKey(client, eccSigningKey());
+      byte[] hash = new byte[32];
+      byte[] signature = client.psaSignHash(keyName, hash, ECDSA_SHA256).getSignature();
+      return task(client, keyName,
+          () -> client.psaVerifyHash(keyName, hash, ECDSA_SHA256, signature));
+    }
+  },
+  /** {@code payloadSize} random bytes */
+  GENERATE_RANDOM {
+    @Override
+    public Task prepare(BasicClient client, int payloadSize) {
+      return () -> client.psaGenerateRandom(payloadSize);
+    }
+  },
+  /** AES-128-GCM encryption of {@code payloadSize} bytes */
+  AEAD_ENCRYPT {
+    @Override
+    public Task prepare(BasicClient client, int payloadSize) {
+      String keyName = generateKey(client, aesKey());
+      // the nonce is reused: fine to measure, never to protect anything
+      byte[] nonce = new byte[12];
+      byte[] additionalData = new byte[0];
+      byte[] plaintext = new byte[payloadSize];
+      return task(client, keyName,
+          () -> client.psaAeadEncrypt(keyName, GCM, nonce, additionalData, plaintext));
+    }
+  },
+  /** Key listing, from the service rather than from the client's key cache */
+  LIST_KEYS {
+    @Override
+    public Task prepare(BasicClient client, int payloadSize) {
+      client.setKeyCache(KeyCache.disabled());
+      return client::listKeys;
+    }
+  };
+
+  private static final PsaAlgorithm.Algorithm.AsymmetricSignature ECDSA_SHA256 =
+      PsaAlgorithm.Algorithm.AsymmetricSignature.newBuilder()
+          .setEcdsa(PsaAlgorithm.Algorithm.AsymmetricSignature.Ecdsa.newBuilder()
+              .setHashAlg(PsaAlgorithm.Algorithm.AsymmetricSignature.SignHash.newBuilder()
+                  .setSpecific(PsaAlgorithm.Algorithm.Hash.SHA_256)))
+          .build();
+  private static final PsaAlgorithm.Algorithm.Aead GCM = PsaAlgorithm.Algorithm.Aead.newBuilder()
+      .setAeadWithDefaultLengthTag(PsaAlgorithm.Algorithm.Aead.AeadWithDefaultLengthTag.GCM)
+      .build();
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  /** One operation of a workload, set up and ready to be repeated from several threads. */
+  @FunctionalInterface
+  public interface Task extends AutoCloseable {
+    /** @return the result of the operation, for benchmarks to consume */
+    Object run();
+
+    /** Destroy the keys created for the task. */
+    @Override
+    default void close() {}
+  }
+
+  /** Create the keys the workload needs. */
+  public abstract Task prepare(BasicClient client, int payloadSize);
+
+  /** Case insensitive {@link #valueOf(String)}, dashes or underscores. */
+  public static Workload parse(String name) {
+    return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+  }
+
+  private static Task task(BasicClient client, String keyName, Task operation) {
+    return new Task() {
+      @Override
+      public Object run() {
+        return operation.run();
+      }
+
+      @Override
+      public void close() {
+        try {
+          client.psaDestroyKey(keyName);
+        } catch (RuntimeException e) {
+          log.warn("Failed to destroy key {}", keyName, e);
+        }
+      }
+    };
+  }
+
+  private static String generateKey(BasicClient client,
+      PsaKeyAttributes.KeyAttributes attributes) {
+    String keyName = "parsec-load-" + Long.toHexString(RANDOM.nextLong());
+    client.psaGenerateKey(keyName, attributes);
+    return keyName;
+  }
+
+  private static PsaKeyAttributes.KeyAttributes eccSigningKey() {
+    return PsaKeyAttributes.KeyAttributes.newBuilder().setKeyBits(256)
+        .setKeyType(PsaKeyAttributes.KeyType.newBuilder()
+            .setEccKeyPair(PsaKeyAttributes.KeyType.EccKeyPair.newBuilder()
+                .setCurveFamily(PsaKeyAttributes.KeyType.EccFamily.SECP_R1)))
+        .setKeyPolicy(PsaKeyAttributes.KeyPolicy.newBuilder()
+            .setKeyUsageFlags(PsaKeyAttributes.UsageFlags.newBuilder().setSignHash(true)
+                .setVerifyHash(true))
+            .setKeyAlgorithm(
+                PsaAlgorithm.Algorithm.newBuilder().setAsymmetricSignature(ECDSA_SHA256)))
+        .build();
+  }
+
+  private static PsaKeyAttributes.KeyAttributes aesKey() {
+    return PsaKeyAttributes.KeyAttributes.newBuilder().setKeyBits(128)
+        .setKeyType(PsaKeyAttributes.KeyType.newBuilder()
+            .setAes(PsaKeyAttributes.KeyType.Aes.newBuilder()))
+        .setKeyPolicy(PsaKeyAttributes.KeyPolicy.newBuilder()
+            .setKeyUsageFlags(PsaKeyAttributes.UsageFlags.newBuilder().setEncrypt(true)
+                .setDecrypt(true))
+            .setKeyAlgorithm(PsaAlgorithm.Algorithm.newBuilder().setAead(GCM)))
+        .build();
+  }
+}
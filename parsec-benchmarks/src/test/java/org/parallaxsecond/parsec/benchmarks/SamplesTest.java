@@ -0,0 +1,29 @@
+package org.parallaxsecond.parsec.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.parallaxsecond.parsec.protocol.operations.NativeOperation;
+import org.parallaxsecond.parsec.protocol.operations.NativeResult;
+import org.parallaxsecond.parsec.protocol.operations_protobuf.ProtobufConverter;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
+
+class SamplesTest {
+  private final ProtobufConverter converter = new ProtobufConverter();
+
+  /** A benchmark run fails late, check up front that every sample goes through its converter. */
+  @Test
+  void samplesConvertBothWays() throws Exception {
+    for (Opcode opcode : Samples.OPCODES) {
+      NativeOperation operation = Samples.operation(opcode, 64);
+      RequestBody body = converter.operationToBody(operation);
+      assertEquals(opcode, converter.bodyToOperation(body, opcode).getOpcode(), opcode.name());
+
+      NativeResult result = Samples.result(opcode, 64);
+      assertEquals(opcode,
+          converter.bodyToResult(converter.resultToBody(result), opcode).getOpcode(),
+          opcode.name());
+    }
+  }
+}
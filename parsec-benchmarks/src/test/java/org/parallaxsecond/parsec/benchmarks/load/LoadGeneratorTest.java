@@ -0,0 +1,53 @@
+package org.parallaxsecond.parsec.benchmarks.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class LoadGeneratorTest {
+
+  @Test
+  void stallCountsAgainstTheOperationsQueuedBehindIt() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    Workload.Task task = () -> {
+      sleepMillis(calls.incrementAndGet() == 50 ? 200 : 0);
+      return null;
+    };
+
+    LoadReport report = LoadGenerator.builder().task(task).concurrency(1).rate(500.0)
+        .duration(Duration.ofMillis(500)).build().run();
+
+    // the stall holds back the ~100 operations scheduled during it, out of 250
+    assertTrue(report.getResponseTimes().getValueAtPercentile(90) > TimeUnit.MILLISECONDS
+        .toNanos(50));
+    assertTrue(report.getServiceTimes().getValueAtPercentile(90) < TimeUnit.MILLISECONDS
+        .toNanos(50));
+  }
+
+  @Test
+  void failuresAreCountedNotRecorded() throws Exception {
+    Workload.Task task = () -> {
+      throw new IllegalStateException();
+    };
+
+    LoadReport report = LoadGenerator.builder().task(task).concurrency(2)
+        .duration(Duration.ofMillis(50)).build().run();
+
+    assertEquals(0, report.getCompleted());
+    assertTrue(report.getErrors() > 0);
+    assertEquals(0, report.getResponseTimes().getTotalCount());
+  }
+
+  private static void sleepMillis(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -1,18 +1,12 @@
 package org.parallaxsecond.parsec.client;
 
-import org.parallaxsecond.parsec.client.exceptions.SpiffeException;
 import org.parallaxsecond.parsec.client.jna.Uid;
 import org.parallaxsecond.parsec.protocol.requests.AuthType;
 import org.parallaxsecond.parsec.protocol.requests.request.RequestAuth;
-import io.spiffe.exception.JwtSvidException;
-import io.spiffe.exception.SocketEndpointAddressException;
-import io.spiffe.workloadapi.DefaultWorkloadApiClient;
-import io.spiffe.workloadapi.WorkloadApiClient;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 
-import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
@@ -24,13 +18,26 @@ public interface Authentication {
 
   RequestAuth createRequestAuth();
 
+  /**
+   * @return true if {@link #createRequestAuth()} always returns the same data within the process,
+   *     so that it can be created once and reused
+   */
+  default boolean hasStaticCredentials() {
+    return false;
+  }
+
   /** Used in cases where no authentication is desired or required */
   class None implements Authentication {
     @Getter private final AuthType authType = AuthType.NO_AUTH;
 
     @Override
     public RequestAuth createRequestAuth() {
-      return new RequestAuth();
+      return RequestAuth.EMPTY;
+    }
+
+    @Override
+    public boolean hasStaticCredentials() {
+      return true;
     }
   }
   /**
@@ -41,14 +48,22 @@ public interface Authentication {
    * Model](https://parallaxsecond.github.io/parsec-book/parsec_security/parsec_threat_model/threat_model.html)
    * for more information.
    */
-  @RequiredArgsConstructor
   class Direct implements Authentication {
     @Getter private final AuthType authType = AuthType.DIRECT;
-    @NonNull private final String name;
+    private final RequestAuth auth;
+
+    public Direct(@NonNull String name) {
+      this.auth = RequestAuth.immutable(name.getBytes(StandardCharsets.UTF_8));
+    }
 
     @Override
     public RequestAuth createRequestAuth() {
-      return new RequestAuth(name.getBytes(StandardCharsets.UTF_8));
+      return auth;
+    }
+
+    @Override
+    public boolean hasStaticCredentials() {
+      return true;
     }
   }
   /**
@@ -60,27 +75,40 @@ public interface Authentication {
 
     @Override
     public RequestAuth createRequestAuth() {
-      int currentUId = Uid.getUid();
-      return new RequestAuth(
-          ByteBuffer.allocate(4).order(LITTLE_ENDIAN).putInt(currentUId).array());
+      return CurrentUid.AUTH;
+    }
+
+    /** The user ID of the process, looked up on first use */
+    private static final class CurrentUid {
+      private static final RequestAuth AUTH = RequestAuth.immutable(
+          ByteBuffer.allocate(4).order(LITTLE_ENDIAN).putInt(Uid.getUid()).array());
+    }
+
+    @Override
+    public boolean hasStaticCredentials() {
+      return true;
     }
   }
   /**
    * Authentication using JWT SVID tokens. The will fetch its JWT-SVID and pass it in the
    * Authentication field. The socket endpoint is found through the SPIFFE_ENDPOINT_SOCKET
    * environment variable.
+   *
+   * <p>The token is cached until shortly before it expires, see {@link JwtSvidCache}.
    */
+  @RequiredArgsConstructor
   class JwtSvid implements Authentication {
     @Getter private final AuthType authType = AuthType.JWT_SVID;
+    @NonNull private final JwtSvidCache tokens;
+
+    /** Use the process-wide {@link JwtSvidCache#shared()} cache. */
+    public JwtSvid() {
+      this(JwtSvidCache.shared());
+    }
 
     @Override
     public RequestAuth createRequestAuth() {
-      try (WorkloadApiClient client = DefaultWorkloadApiClient.newClient()) {
-        io.spiffe.svid.jwtsvid.JwtSvid token = client.fetchJwtSvid("parsec");
-        return new RequestAuth(token.getToken().getBytes(StandardCharsets.UTF_8));
-      } catch (IOException | SocketEndpointAddressException | JwtSvidException e) {
-        throw new SpiffeException(e);
-      }
+      return tokens.getRequestAuth();
     }
   }
 }
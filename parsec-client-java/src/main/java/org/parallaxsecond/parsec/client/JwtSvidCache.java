@@ -0,0 +1,250 @@
+package org.parallaxsecond.parsec.client;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.parallaxsecond.parsec.client.exceptions.SpiffeException;
+import org.parallaxsecond.parsec.protocol.requests.request.RequestAuth;
+import org.parallaxsecond.parsec.protocol.secrecy.Secret;
+
+import io.spiffe.workloadapi.DefaultWorkloadApiClient;
+import io.spiffe.workloadapi.WorkloadApiClient;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * JWT-SVID fetched from the SPIFFE Workload API, cached until shortly before it expires.
+ *
+ * <p>
+ * The token is refreshed in the background {@code refreshMargin} before it expires, or half way
+ * through its lifetime if that comes first. If the background refresh fails, callers keep using the
+ * cached token until it is within {@code expiryMargin} of its expiry, after which they fetch a new
+ * one themselves. A token fetched within {@code expiryMargin} of its expiry is rejected. Concurrent
+ * callers share a single fetch, and the Workload API client is kept open between fetches.
+ */
+@Slf4j
+public final class JwtSvidCache implements AutoCloseable {
+  public static final String DEFAULT_AUDIENCE = "parsec";
+  public static final Duration DEFAULT_REFRESH_MARGIN = Duration.ofSeconds(30);
+  public static final Duration DEFAULT_EXPIRY_MARGIN = Duration.ofSeconds(5);
+  private static final long RETRY_DELAY_MILLIS = 1000;
+
+  private final Fetcher fetcher;
+  private final long refreshMarginMillis;
+  private final long expiryMarginMillis;
+  private final LongSupplier clock;
+  private final ScheduledExecutorService scheduler;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder refreshes = new LongAdder();
+  private final LongAdder refreshFailures = new LongAdder();
+  private volatile Token current;
+  /** Fetch in progress, guarded by {@code this} */
+  private CompletableFuture<Token> inFlight;
+  /** Next background refresh, guarded by {@code this} */
+  private ScheduledFuture<?> nextRefresh;
+
+  /**
+   * @param audience audience of the JWT-SVID, {@link #DEFAULT_AUDIENCE} if null
+   * @param refreshMargin how long before expiry the token is refreshed in the background
+   * @param expiryMargin how long before expiry the token stops being used
+   */
+  @Builder
+  public JwtSvidCache(String audience, Duration refreshMargin, Duration expiryMargin) {
+    this(new WorkloadApiFetcher(audience != null ? audience : DEFAULT_AUDIENCE), refreshMargin,
+        expiryMargin, System::currentTimeMillis, Executors.newSingleThreadScheduledExecutor(r -> {
+          Thread thread = new Thread(r, "parsec-jwt-svid-refresh");
+          thread.setDaemon(true);
+          return thread;
+        }));
+  }
+
+  JwtSvidCache(Fetcher fetcher, Duration refreshMargin, Duration expiryMargin, LongSupplier clock,
+      ScheduledExecutorService scheduler) {
+    this.fetcher = fetcher;
+    this.refreshMarginMillis =
+        (refreshMargin != null ? refreshMargin : DEFAULT_REFRESH_MARGIN).toMillis();
+    this.expiryMarginMillis =
+        (expiryMargin != null ? expiryMargin : DEFAULT_EXPIRY_MARGIN).toMillis();
+    this.clock = clock;
+    this.scheduler = scheduler;
+  }
+
+  /** @return the cache used by {@link Authentication.JwtSvid} by default */
+  public static JwtSvidCache shared() {
+    return Shared.INSTANCE;
+  }
+
+  /** @return the authentication data holding a valid JWT-SVID */
+  public RequestAuth getRequestAuth() {
+    Token token = current;
+    if (token != null && clock.getAsLong() < token.expiresAt - expiryMarginMillis) {
+      hits.increment();
+      return token.auth;
+    }
+    misses.increment();
+    try {
+      return fetch().join().auth;
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SpiffeException) {
+        throw (SpiffeException) cause;
+      }
+      throw new SpiffeException(cause instanceof Exception ? (Exception) cause : e);
+    }
+  }
+
+  /** @return the number of requests served with the cached token */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /** @return the number of requests that waited for a token to be fetched */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /** @return the number of tokens fetched, in the background or not */
+  public long getRefreshes() {
+    return refreshes.sum();
+  }
+
+  /** @return the number of failed fetches */
+  public long getRefreshFailures() {
+    return refreshFailures.sum();
+  }
+
+  /** Stop refreshing the token and close the Workload API client. */
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+    fetcher.close();
+  }
+
+  /** Refresh the token ahead of its expiry, run by the scheduler. */
+  void backgroundRefresh() {
+    fetch().whenComplete((token, e) -> {
+      if (e != null) {
+        log.warn("Failed to refresh JWT-SVID, retrying", e);
+        schedule(RETRY_DELAY_MILLIS);
+      }
+    });
+  }
+
+  private CompletableFuture<Token> fetch() {
+    CompletableFuture<Token> pending;
+    synchronized (this) {
+      if (inFlight != null) {
+        return inFlight;
+      }
+      pending = new CompletableFuture<>();
+      inFlight = pending;
+    }
+    try {
+      Token token = fetcher.fetch();
+      long lifetime = token.expiresAt - clock.getAsLong();
+      if (lifetime <= expiryMarginMillis) {
+        // expired already or clocks skewed, it would be rejected and refreshed in a loop
+        throw new SpiffeException(
+            String.format("JWT-SVID fetched %d ms before its expiry", lifetime));
+      }
+      current = token;
+      refreshes.increment();
+      schedule(Math.max(RETRY_DELAY_MILLIS,
+          lifetime - Math.min(refreshMarginMillis, lifetime / 2)));
+      pending.complete(token);
+    } catch (Exception e) {
+      refreshFailures.increment();
+      pending.completeExceptionally(e);
+    } finally {
+      synchronized (this) {
+        inFlight = null;
+      }
+    }
+    return pending;
+  }
+
+  private synchronized void schedule(long delayMillis) {
+    if (nextRefresh != null) {
+      nextRefresh.cancel(false);
+    }
+    try {
+      nextRefresh = scheduler.schedule(this::backgroundRefresh, Math.max(0, delayMillis),
+          TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // closed
+      nextRefresh = null;
+    }
+  }
+
+  /** Source of JWT-SVIDs */
+  interface Fetcher {
+    Token fetch() throws Exception;
+
+    default void close() {}
+  }
+
+  static final class Token {
+    private final RequestAuth auth;
+    /** Expiry, in milliseconds since the epoch */
+    private final long expiresAt;
+
+    Token(String token, long expiresAt) {
+      byte[] encoded = token.getBytes(StandardCharsets.UTF_8);
+      // shared by all requests until the next refresh, wiped once unreachable
+      this.auth = RequestAuth.shared(Secret.SecretBytes.offHeap(encoded));
+      Arrays.fill(encoded, (byte) 0);
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  /** Fetches tokens through a Workload API client that is reopened after a failure. */
+  private static final class WorkloadApiFetcher implements Fetcher {
+    private final String audience;
+    private WorkloadApiClient client;
+
+    private WorkloadApiFetcher(String audience) {
+      this.audience = audience;
+    }
+
+    @Override
+    public synchronized Token fetch() throws Exception {
+      if (client == null) {
+        client = DefaultWorkloadApiClient.newClient();
+      }
+      try {
+        io.spiffe.svid.jwtsvid.JwtSvid svid = client.fetchJwtSvid(audience);
+        return new Token(svid.getToken(), svid.getExpiry().getTime());
+      } catch (Exception e) {
+        close();
+        throw new SpiffeException(e);
+      }
+    }
+
+    @Override
+    public synchronized void close() {
+      if (client != null) {
+        try {
+          client.close();
+        } catch (Exception e) {
+          log.debug("Failed to close Workload API client", e);
+        }
+        client = null;
+      }
+    }
+  }
+
+  private static final class Shared {
+    private static final JwtSvidCache INSTANCE = JwtSvidCache.builder().build();
+  }
+}
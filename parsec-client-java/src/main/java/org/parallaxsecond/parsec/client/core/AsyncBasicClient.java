@@ -0,0 +1,355 @@
+package org.parallaxsecond.parsec.client.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.parallaxsecond.parsec.client.Authentication;
+import org.parallaxsecond.parsec.client.core.ipc_handler.IpcHandler;
+import org.parallaxsecond.parsec.client.exceptions.InvalidServiceResponseTypeException;
+import org.parallaxsecond.parsec.protobuf.psa_algorithm.PsaAlgorithm;
+import org.parallaxsecond.parsec.protobuf.psa_key_attributes.PsaKeyAttributes;
+import org.parallaxsecond.parsec.protobuf.psa_raw_key_agreement.PsaRawKeyAgreement;
+import org.parallaxsecond.parsec.protocol.operations.NativeOperation;
+import org.parallaxsecond.parsec.protocol.operations.NativeResult;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Non-blocking counterpart of {@link BasicClient}.
+ *
+ * <p>
+ * Every operation of {@link BasicClient} is available with the same parameters, but returns a
+ * {@link CompletableFuture} instead of waiting for the service. The futures fail with the
+ * exceptions the blocking methods would throw. Preflight checks and local verification apply as
+ * well; when they are on, they run on the async executor before the request is sent.
+ * Authentication, implicit provider and IPC settings are read from the wrapped
+ * {@link BasicClient} on each call, so changes made to it apply to both.
+ * Wrap a client derived with {@link BasicClient#toImmutable()} or one of its {@code with*} methods
+ * to share an instance between threads.
+ *
+ * <p>
+ * Requests are multiplexed on a selector when the IPC handler provides selectable channels (the
+ * JDK Unix socket handler on Java 16+), otherwise they run on the async executor of the
+ * {@link RequestClient}.
+ */
+@RequiredArgsConstructor
+public class AsyncBasicClient {
+  @Getter
+  @NonNull
+  private final BasicClient client;
+
+  /** @see BasicClient#client(String) */
+  public static AsyncBasicClient client(String appName) {
+    return new AsyncBasicClient(BasicClient.client(appName));
+  }
+
+  /** @see BasicClient#client(String, IpcHandler) */
+  public static AsyncBasicClient client(String appName, IpcHandler ipcHandler) {
+    return new AsyncBasicClient(BasicClient.client(appName, ipcHandler));
+  }
+
+  /** @see BasicClient#listOpcodes(ProviderId) */
+  public CompletableFuture<NativeResult.ListOpcodesResult> listOpcodes(ProviderId provider) {
+    return process(NativeOperation.ListOpcodesOperation.builder().providerId(provider).build(),
+        ProviderId.CORE, NativeResult.ListOpcodesResult.class);
+  }
+
+  /** @see BasicClient#listProviders() */
+  public CompletableFuture<NativeResult.ListProvidersResult> listProviders() {
+    return process(NativeOperation.ListProvidersOperation.builder().build(), ProviderId.CORE,
+        NativeResult.ListProvidersResult.class);
+  }
+
+  /** @see BasicClient#listAuthenticators() */
+  public CompletableFuture<NativeResult.ListAuthenticatorsResult> listAuthenticators() {
+    return process(NativeOperation.ListAuthenticatorsOperation.builder().build(), ProviderId.CORE,
+        NativeResult.ListAuthenticatorsResult.class);
+  }
+
+  /** @see BasicClient#listKeys() */
+  public CompletableFuture<NativeResult.ListKeysResult> listKeys() {
+    return process(NativeOperation.ListKeysOperation.builder().build(), ProviderId.CORE,
+        NativeResult.ListKeysResult.class);
+  }
+
+  /** @see BasicClient#listClients() */
+  public CompletableFuture<NativeResult.ListClientsResult> listClients() {
+    return process(NativeOperation.ListClientsOperation.builder().build(), ProviderId.CORE,
+        NativeResult.ListClientsResult.class);
+  }
+
+  /** @see BasicClient#deleteClient(String) */
+  public CompletableFuture<Void> deleteClient(String clientName) {
+    return process(NativeOperation.DeleteClientOperation.builder().client(clientName).build(),
+        ProviderId.CORE, NativeResult.DeleteClientResult.class).thenApply(res -> null);
+  }
+
+  /** @see BasicClient#ping() */
+  public CompletableFuture<NativeResult.PingResult> ping() {
+    return process(NativeOperation.PingOperation.builder().build(), ProviderId.CORE,
+        new Authentication.None(), NativeResult.PingResult.class);
+  }
+
+  /** @see BasicClient#psaGenerateKey(String, PsaKeyAttributes.KeyAttributes) */
+  public CompletableFuture<Void> psaGenerateKey(String keyName,
+      PsaKeyAttributes.KeyAttributes keyAttributes) {
+    return changeKey(NativeOperation.PsaGenerateKeyOperation.builder().keyName(keyName)
+        .attributes(keyAttributes).build(), NativeResult.PsaGenerateKeyResult.class, keyName,
+        (cache, provider) -> cache.put(provider, keyName, keyAttributes));
+  }
+
+  /** @see BasicClient#psaDestroyKey(String) */
+  public CompletableFuture<Void> psaDestroyKey(String keyName) {
+    return changeKey(NativeOperation.PsaDestroyKeyOperation.builder().keyName(keyName).build(),
+        NativeResult.PsaDestroyKeyResult.class, keyName,
+        (cache, provider) -> cache.remove(provider, keyName));
+  }
+
+  /** @see BasicClient#psaImportKey(String, byte[], PsaKeyAttributes.KeyAttributes) */
+  public CompletableFuture<Void> psaImportKey(String keyName, byte[] keyMaterial,
+      PsaKeyAttributes.KeyAttributes keyAttributes) {
+    return changeKey(NativeOperation.PsaImportKeyOperation.builder().keyName(keyName)
+        .attributes(keyAttributes).data(keyMaterial).build(), NativeResult.PsaImportKeyResult.class,
+        keyName, (cache, provider) -> {
+          if (keyAttributes.getBits() != 0) {
+            cache.put(provider, keyName, keyAttributes);
+          } else {
+            // the service works out the size from the key material
+            cache.evict(provider, keyName);
+          }
+        });
+  }
+
+  /** @see BasicClient#psaExportPublicKey(String) */
+  public CompletableFuture<NativeResult.PsaExportPublicKeyResult> psaExportPublicKey(
+      String keyName) {
+    return processCrypto(
+        NativeOperation.PsaExportPublicKeyOperation.builder().keyName(keyName).build(),
+        null, NativeResult.PsaExportPublicKeyResult.class);
+  }
+
+  /** @see BasicClient#psaExportKey(String) */
+  public CompletableFuture<NativeResult.PsaExportKeyResult> psaExportKey(String keyName) {
+    return processCrypto(NativeOperation.PsaExportKeyOperation.builder().keyName(keyName).build(),
+        keyName, NativeResult.PsaExportKeyResult.class);
+  }
+
+  /** @see BasicClient#psaSignHash(String, byte[], PsaAlgorithm.Algorithm.AsymmetricSignature) */
+  public CompletableFuture<NativeResult.PsaSignHashResult> psaSignHash(String keyName,
+      byte[] hash, PsaAlgorithm.Algorithm.AsymmetricSignature signAlgorithm) {
+    return processCrypto(NativeOperation.PsaSignHashOperation.builder().keyName(keyName)
+        .alg(signAlgorithm).hash(hash).build(), keyName, NativeResult.PsaSignHashResult.class);
+  }
+
+  /**
+   * @see BasicClient#psaVerifyHash(String, byte[], PsaAlgorithm.Algorithm.AsymmetricSignature,
+   *      byte[])
+   */
+  public CompletableFuture<NativeResult.PsaVerifyHashResult> psaVerifyHash(String keyName,
+      byte[] hash, PsaAlgorithm.Algorithm.AsymmetricSignature signAlgorithm, byte[] signature) {
+    return processCrypto(
+        NativeOperation.PsaVerifyHashOperation.builder().keyName(keyName).alg(signAlgorithm)
+            .hash(hash).signature(signature).build(),
+        keyName, NativeResult.PsaVerifyHashResult.class, cryptoProvider -> client
+            .verifyLocally(cryptoProvider, keyName, signAlgorithm, hash, signature));
+  }
+
+  /**
+   * @see BasicClient#psaSignMessage(String, byte[], PsaAlgorithm.Algorithm.AsymmetricSignature)
+   */
+  public CompletableFuture<NativeResult.PsaSignMessageResult> psaSignMessage(String keyName,
+      byte[] message, PsaAlgorithm.Algorithm.AsymmetricSignature signAlgorithm) {
+    return processCrypto(NativeOperation.PsaSignMessageOperation.builder().keyName(keyName)
+        .alg(signAlgorithm).message(message).build(), keyName,
+        NativeResult.PsaSignMessageResult.class);
+  }
+
+  /**
+   * @see BasicClient#psaVerifyMessage(String, byte[], PsaAlgorithm.Algorithm.AsymmetricSignature,
+   *      byte[])
+   */
+  public CompletableFuture<NativeResult.PsaVerifyMessageResult> psaVerifyMessage(String keyName,
+      byte[] msg, PsaAlgorithm.Algorithm.AsymmetricSignature signAlgorithm, byte[] signature) {
+    return processCrypto(
+        NativeOperation.PsaVerifyMessageOperation.builder().keyName(keyName).alg(signAlgorithm)
+            .message(msg).signature(signature).build(),
+        keyName, NativeResult.PsaVerifyMessageResult.class);
+  }
+
+  /**
+   * @see BasicClient#psaAsymmetricEncrypt(String, PsaAlgorithm.Algorithm.AsymmetricEncryption,
+   *      byte[], byte[])
+   */
+  public CompletableFuture<NativeResult.PsaAsymmetricEncryptResult> psaAsymmetricEncrypt(
+      String keyName, PsaAlgorithm.Algorithm.AsymmetricEncryption encryptAlg, byte[] plaintext,
+      byte[] salt) {
+    return processCrypto(
+        NativeOperation.PsaAsymmetricEncryptOperation.builder().keyName(keyName).alg(encryptAlg)
+            .plaintext(plaintext).salt(salt).build(),
+        keyName, NativeResult.PsaAsymmetricEncryptResult.class);
+  }
+
+  /**
+   * @see BasicClient#psaAsymmetricDecrypt(String, PsaAlgorithm.Algorithm.AsymmetricEncryption,
+   *      byte[], byte[])
+   */
+  public CompletableFuture<NativeResult.PsaAsymmetricDecryptResult> psaAsymmetricDecrypt(
+      String keyName, PsaAlgorithm.Algorithm.AsymmetricEncryption encryptAlg, byte[] ciphertext,
+      byte[] salt) {
+    return processCrypto(
+        NativeOperation.PsaAsymmetricDecryptOperation.builder().keyName(keyName).alg(encryptAlg)
+            .ciphertext(ciphertext).salt(salt).build(),
+        keyName, NativeResult.PsaAsymmetricDecryptResult.class);
+  }
+
+  /** @see BasicClient#psaHashCompute(PsaAlgorithm.Algorithm.Hash, byte[]) */
+  public CompletableFuture<NativeResult.PsaHashComputeResult> psaHashCompute(
+      PsaAlgorithm.Algorithm.Hash alg, byte[] input) {
+    return processCrypto(
+        NativeOperation.PsaHashComputeOperation.builder().alg(alg).input(input).build(),
+        null, NativeResult.PsaHashComputeResult.class);
+  }
+
+  /** @see BasicClient#psaHashCompare(PsaAlgorithm.Algorithm.Hash, byte[], byte[]) */
+  public CompletableFuture<NativeResult.PsaHashCompareResult> psaHashCompare(
+      PsaAlgorithm.Algorithm.Hash alg, byte[] input, byte[] hash) {
+    return processCrypto(
+        NativeOperation.PsaHashCompareOperation.builder().alg(alg).input(input).hash(hash).build(),
+        null, NativeResult.PsaHashCompareResult.class);
+  }
+
+  /**
+   * @see BasicClient#psaAeadEncrypt(String, PsaAlgorithm.Algorithm.Aead, byte[], byte[], byte[])
+   */
+  public CompletableFuture<NativeResult.PsaAeadEncryptResult> psaAeadEncrypt(String keyName,
+      PsaAlgorithm.Algorithm.Aead encryptAlg, byte[] nonce, byte[] additionalData,
+      byte[] plaintext) {
+    return processCrypto(
+        NativeOperation.PsaAeadEncryptOperation.builder().keyName(keyName).alg(encryptAlg)
+            .nonce(nonce).additionalData(additionalData).plaintext(plaintext).build(),
+        keyName, NativeResult.PsaAeadEncryptResult.class);
+  }
+
+  /**
+   * @see BasicClient#psaAeadDecrypt(String, PsaAlgorithm.Algorithm.Aead, byte[], byte[], byte[])
+   */
+  public CompletableFuture<NativeResult.PsaAeadDecryptResult> psaAeadDecrypt(String keyName,
+      PsaAlgorithm.Algorithm.Aead encryptAlg, byte[] nonce, byte[] additionalData,
+      byte[] ciphertext) {
+    return processCrypto(
+        NativeOperation.PsaAeadDecryptOperation.builder().keyName(keyName).alg(encryptAlg)
+            .nonce(nonce).additionalData(additionalData).ciphertext(ciphertext).build(),
+        keyName, NativeResult.PsaAeadDecryptResult.class);
+  }
+
+  /** @see BasicClient#psaRawKeyAgreement(PsaRawKeyAgreement, String, byte[]) */
+  public CompletableFuture<NativeResult.PsaRawKeyAgreementResult> psaRawKeyAgreement(
+      PsaRawKeyAgreement alg, String privateKeyName, byte[] peerKey) {
+    return processCrypto(
+        NativeOperation.PsaRawKeyAgreementOperation.builder().alg(alg).peerKey(peerKey)
+            .privateKeyName(privateKeyName).build(),
+        privateKeyName, NativeResult.PsaRawKeyAgreementResult.class);
+  }
+
+  /** @see BasicClient#psaGenerateRandom(long) */
+  public CompletableFuture<byte[]> psaGenerateRandom(long nbytes) {
+    return processCrypto(NativeOperation.PsaGenerateRandomOperation.builder().size(nbytes).build(),
+        null, NativeResult.PsaGenerateRandomResult.class)
+            .thenApply(NativeResult.PsaGenerateRandomResult::getRandomBytes);
+  }
+
+  /**
+   * Run an operation creating or destroying key {@code keyName}, keeping the key cache of the
+   * client in step as {@link BasicClient} does.
+   */
+  private CompletableFuture<Void> changeKey(NativeOperation operation,
+      Class<? extends NativeResult> resultType, String keyName,
+      BiConsumer<KeyCache, ProviderId> update) {
+    final ProviderId cryptoProvider;
+    try {
+      cryptoProvider = client.canProvideCrypto();
+    } catch (RuntimeException e) {
+      CompletableFuture<Void> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+    KeyCache cache = client.getKeyCache();
+    return process(operation, cryptoProvider, null, resultType, null).handle((res, e) -> {
+      if (e != null) {
+        // the key may or may not have changed, let the next lookup ask the service
+        cache.evict(cryptoProvider, keyName);
+        throw e instanceof CompletionException ? (CompletionException) e
+            : new CompletionException(e);
+      }
+      update.accept(cache, cryptoProvider);
+      return null;
+    });
+  }
+
+  /** @param keyName key used by the operation, for the preflight checks */
+  private <T extends NativeResult> CompletableFuture<T> processCrypto(NativeOperation operation,
+      String keyName, Class<T> resultType) {
+    return processCrypto(operation, keyName, resultType, null);
+  }
+
+  /**
+   * @param keyName key used by the operation, for the preflight checks
+   * @param local computes the result without the service, returns null when it cannot
+   */
+  private <T extends NativeResult> CompletableFuture<T> processCrypto(NativeOperation operation,
+      String keyName, Class<T> resultType, Function<ProviderId, T> local) {
+    final ProviderId cryptoProvider;
+    try {
+      cryptoProvider = client.canProvideCrypto();
+    } catch (RuntimeException e) {
+      CompletableFuture<T> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+    return process(operation, cryptoProvider, keyName, resultType, local);
+  }
+
+  /**
+   * Run the preflight checks and {@code local} as {@link BasicClient} does, then send the operation
+   * if needed. The checks may have to fetch key metadata from the service, so they run on the async
+   * executor rather than on the calling thread.
+   */
+  private <T extends NativeResult> CompletableFuture<T> process(NativeOperation operation,
+      ProviderId cryptoProvider, String keyName, Class<T> resultType,
+      Function<ProviderId, T> local) {
+    if (!client.isPreflight() && (local == null || !client.isLocalVerification())) {
+      return process(operation, cryptoProvider, resultType);
+    }
+    Executor executor = client.getOperationClient().asyncExecutor();
+    return CompletableFuture.supplyAsync(() -> {
+      client.preflight(cryptoProvider, operation.getOpcode(), keyName);
+      return local != null ? local.apply(cryptoProvider) : null;
+    }, executor).thenCompose(res -> res != null ? CompletableFuture.completedFuture(res)
+        : process(operation, cryptoProvider, resultType));
+  }
+
+  private <T extends NativeResult> CompletableFuture<T> process(NativeOperation operation,
+      ProviderId provider, Class<T> resultType) {
+    return process(operation, provider, client.getAuthData(), resultType);
+  }
+
+  private <T extends NativeResult> CompletableFuture<T> process(NativeOperation operation,
+      ProviderId provider, Authentication auth, Class<T> resultType) {
+    return client.getOperationClient()
+        .processOperationAsync(operation, provider, auth, client.getCallTimeout())
+        .thenApply(res -> {
+          if (resultType.isInstance(res)) {
+            return resultType.cast(res);
+          }
+          // Should really not be reached given the checks we do, but it's not impossible
+          // if some changes happen in the interface
+          throw new InvalidServiceResponseTypeException();
+        });
+  }
+}
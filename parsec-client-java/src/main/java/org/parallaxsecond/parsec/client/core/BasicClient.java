@@ -1,6 +1,8 @@
 package org.parallaxsecond.parsec.client.core;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 import static java.util.Optional.ofNullable;
 
 import org.parallaxsecond.parsec.client.Authentication;
@@ -11,16 +13,31 @@ import org.parallaxsecond.parsec.client.exceptions.MissingParamException;
 import org.parallaxsecond.parsec.client.exceptions.NoAuthenticatorException;
 import org.parallaxsecond.parsec.client.exceptions.NoProviderException;
 import org.parallaxsecond.parsec.client.exceptions.NotFoundException;
+import org.parallaxsecond.parsec.client.exceptions.ServiceException;
+import org.parallaxsecond.parsec.client.metrics.OperationListener;
+import org.parallaxsecond.parsec.protobuf.psa_aead_decrypt.PsaAeadDecrypt;
+import org.parallaxsecond.parsec.protobuf.psa_aead_encrypt.PsaAeadEncrypt;
 import org.parallaxsecond.parsec.protobuf.psa_algorithm.PsaAlgorithm;
+import org.parallaxsecond.parsec.protobuf.psa_asymmetric_decrypt.PsaAsymmetricDecrypt;
+import org.parallaxsecond.parsec.protobuf.psa_asymmetric_encrypt.PsaAsymmetricEncrypt;
 import org.parallaxsecond.parsec.protobuf.psa_key_attributes.PsaKeyAttributes;
 import org.parallaxsecond.parsec.protobuf.psa_raw_key_agreement.PsaRawKeyAgreement;
+import org.parallaxsecond.parsec.protobuf.psa_sign_hash.PsaSignHash;
+import org.parallaxsecond.parsec.protobuf.psa_verify_hash.PsaVerifyHash;
 import org.parallaxsecond.parsec.protocol.operations.NativeOperation;
 import org.parallaxsecond.parsec.protocol.operations.NativeResult;
+import org.parallaxsecond.parsec.protocol.operations_protobuf.PreparedBody;
+import org.parallaxsecond.parsec.protocol.requests.BodyType;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
 import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
 
-import lombok.AllArgsConstructor;
+import com.google.protobuf.MessageLite;
+
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -45,18 +62,70 @@ import lombok.extern.slf4j.Slf4j;
  * `InvalidProvider` type is returned. See the operation-specific response codes returned by the
  * service in the operation's page
  * [here](https://parallaxsecond.github.io/parsec-book/parsec_client/operations/index.html).
+ *
+ * <p>
+ * The setters change the client for every thread using it. To share one client, and its
+ * connection pool, across threads, use {@link #toImmutable()} and pick the provider,
+ * authentication or timeout of a call with {@link #withProvider(ProviderId)},
+ * {@link #withAuthentication(Authentication)} and {@link #withTimeout(Duration)}.
  */
-@AllArgsConstructor
 @Getter
 @Setter
-@Builder
 @Slf4j
 @SuppressWarnings("unused")
 public class BasicClient {
 
-  private OperationClient operationClient;
-  private Authentication authData;
-  private ProviderId implicitProvider;
+  private volatile OperationClient operationClient;
+  private volatile Authentication authData;
+  private volatile ProviderId implicitProvider;
+  /** Key metadata, see {@link KeyCache} */
+  private volatile KeyCache keyCache;
+  /** Whether {@link #psaVerifyHash} verifies with the exported public key when it can */
+  private volatile boolean localVerification;
+  /** Whether crypto operations are checked against cached metadata first, see {@link Preflight} */
+  private volatile boolean preflight;
+  /** Read and write timeout of each operation, the IPC handler's if null */
+  @Setter(AccessLevel.NONE)
+  private final Duration callTimeout;
+  /** Whether the setters are disabled, see {@link #toImmutable()} */
+  @Setter(AccessLevel.NONE)
+  private final boolean immutable;
+  /** Whether clients were derived from this one, sharing its connections */
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private volatile boolean derived;
+
+  public BasicClient(OperationClient operationClient, Authentication authData,
+      ProviderId implicitProvider) {
+    this(operationClient, authData, implicitProvider, KeyCache.builder().build());
+  }
+
+  public BasicClient(OperationClient operationClient, Authentication authData,
+      ProviderId implicitProvider, KeyCache keyCache) {
+    this(operationClient, authData, implicitProvider, keyCache, false, false, null);
+  }
+
+  /** @param keyCache key metadata, a default {@link KeyCache} if null */
+  @Builder
+  public BasicClient(OperationClient operationClient, Authentication authData,
+      ProviderId implicitProvider, KeyCache keyCache, boolean localVerification, boolean preflight,
+      Duration callTimeout) {
+    this(operationClient, authData, implicitProvider, keyCache, localVerification, preflight,
+        callTimeout, false);
+  }
+
+  private BasicClient(OperationClient operationClient, Authentication authData,
+      ProviderId implicitProvider, KeyCache keyCache, boolean localVerification, boolean preflight,
+      Duration callTimeout, boolean immutable) {
+    this.operationClient = operationClient;
+    this.authData = authData;
+    this.implicitProvider = implicitProvider;
+    this.keyCache = keyCache != null ? keyCache : KeyCache.builder().build();
+    this.localVerification = localVerification;
+    this.preflight = preflight;
+    this.callTimeout = callTimeout;
+    this.immutable = immutable;
+  }
 
   /**
    * Create a new Parsec client.
@@ -150,6 +219,7 @@ public class BasicClient {
    * client.set_default_auth(Some("main_client".to_string())); # Ok(())} ```
    */
   public void setDefaultAuth(String appName) {
+    checkMutable();
     NativeResult.ListAuthenticatorsResult authenticators = this.listAuthenticators();
     if (authenticators.getAuthenticators().isEmpty()) {
       throw new NoAuthenticatorException(null);
@@ -173,6 +243,7 @@ public class BasicClient {
               authenticator.getId());
           continue;
       }
+      this.keyCache.invalidate();
       return;
     }
     throw new NoAuthenticatorException(null);
@@ -189,9 +260,14 @@ public class BasicClient {
    *
    * <p>
    * See [`set_default_provider`].
+   *
+   * <p>
+   * Keys belong to the application, so the cached key metadata is dropped.
    */
   public void setAuthData(Authentication authData) {
+    checkMutable();
     this.authData = authData;
+    this.keyCache.invalidate();
   }
 
   /**
@@ -230,6 +306,7 @@ public class BasicClient {
    * Ok(())} ```
    */
   public void setDefaultProvider() {
+    checkMutable();
     NativeResult.ListProvidersResult providers = this.listProviders();
     if (providers.getProviders().isEmpty()) {
       throw new NoProviderException();
@@ -247,9 +324,136 @@ public class BasicClient {
    * See [`set_default_auth`].
    */
   public void setImplicitProvider(ProviderId provider) {
+    checkMutable();
     this.implicitProvider = provider;
   }
 
+  public void setOperationClient(OperationClient operationClient) {
+    checkMutable();
+    this.operationClient = operationClient;
+  }
+
+  public void setKeyCache(KeyCache keyCache) {
+    checkMutable();
+    this.keyCache = keyCache;
+  }
+
+  /**
+   * Verify signatures in {@link #psaVerifyHash} with the JCA providers of the JVM, using the public
+   * key exported once by the service and kept in the {@link KeyCache}.
+   *
+   * <p>
+   * Verifications then run in parallel on the calling threads, without a round trip. PKCS#1 v1.5
+   * and ECDSA signatures of SECP R1 keys are verified locally if the key policy permits them; other
+   * algorithms, and keys whose public key cannot be exported, still go to the service. An invalid
+   * signature fails with the same {@link ServiceException} either way.
+   */
+  public void setLocalVerification(boolean localVerification) {
+    checkMutable();
+    this.localVerification = localVerification;
+  }
+
+  /**
+   * Reject crypto operations that the service would reject anyway without a round trip: opcodes
+   * that the provider does not list in ListOpcodes, and usages that the key policy does not allow.
+   * They fail with a {@link ServiceException} of the status the service would return.
+   *
+   * <p>
+   * The opcodes of each provider and the key attributes are taken from the {@link KeyCache}, so
+   * preflight checks are skipped when it is disabled. Keys missing from the cache are left to the
+   * service.
+   */
+  public void setPreflight(boolean preflight) {
+    checkMutable();
+    this.preflight = preflight;
+  }
+
+  /**
+   * Derive an immutable client, safe to share between threads. Its setters throw
+   * {@link UnsupportedOperationException}; use the {@code with*} methods to run operations with
+   * other settings.
+   *
+   * <p>
+   * Derived clients share the connection pool of this client, so one pool can serve the whole JVM.
+   * They are cheap to create, e.g. for a single call: {@code client.withTimeout(t).ping()}. They
+   * start with the operation listener and request coalescing of this client, later changes to
+   * either only apply to this client. The IPC handler, maximum body size and timeout of the pool
+   * can no longer be changed once a client has been derived.
+   */
+  public BasicClient toImmutable() {
+    return derive(this.authData, this.implicitProvider, this.callTimeout, this.localVerification,
+        this.preflight);
+  }
+
+  /** @return an immutable copy of this client using {@code provider} for crypto operations */
+  public BasicClient withProvider(@NonNull ProviderId provider) {
+    return derive(this.authData, provider, this.callTimeout, this.localVerification,
+        this.preflight);
+  }
+
+  /**
+   * @return an immutable copy of this client authenticating with {@code authData}. Keys belong to
+   *         the application, so it starts with an empty key cache.
+   */
+  public BasicClient withAuthentication(@NonNull Authentication authData) {
+    return derive(authData, this.implicitProvider, this.callTimeout, this.localVerification,
+        this.preflight);
+  }
+
+  /**
+   * @return an immutable copy of this client with a read and write timeout of {@code timeout} for
+   *         each operation. The timeout applies to IPC handlers whose connections implement
+   *         {@link org.parallaxsecond.parsec.client.core.ipc_handler.TimeoutChannel}, which the
+   *         Unix socket handlers do.
+   */
+  public BasicClient withTimeout(@NonNull Duration timeout) {
+    return derive(this.authData, this.implicitProvider, timeout, this.localVerification,
+        this.preflight);
+  }
+
+  /**
+   * @return an immutable copy of this client verifying signatures locally when it can, see
+   *         {@link #setLocalVerification(boolean)}
+   */
+  public BasicClient withLocalVerification(boolean localVerification) {
+    return derive(this.authData, this.implicitProvider, this.callTimeout, localVerification,
+        this.preflight);
+  }
+
+  /**
+   * @return an immutable copy of this client checking crypto operations before sending them, see
+   *         {@link #setPreflight(boolean)}
+   */
+  public BasicClient withPreflight(boolean preflight) {
+    return derive(this.authData, this.implicitProvider, this.callTimeout, this.localVerification,
+        preflight);
+  }
+
+  private BasicClient derive(Authentication authData, ProviderId provider, Duration timeout,
+      boolean localVerification, boolean preflight) {
+    KeyCache cache = authData == this.authData ? this.keyCache : this.keyCache.emptyCopy();
+    OperationClient operations = this.operationClient;
+    this.derived = true;
+    return new BasicClient(operations != null ? operations.view() : null, authData, provider,
+        cache, localVerification, preflight, timeout, true);
+  }
+
+  private void checkMutable() {
+    if (immutable) {
+      throw new UnsupportedOperationException(
+          "immutable client, derive a new one with the with* methods instead");
+    }
+  }
+
+  /** Settings of the connections, which derived clients share. */
+  private void checkPoolMutable() {
+    checkMutable();
+    if (derived) {
+      throw new IllegalStateException(
+          "connections are shared with derived clients, configure them before deriving");
+    }
+  }
+
   /**
    * Retrieve client's implicit provider.
    *
@@ -285,7 +489,7 @@ public class BasicClient {
   public NativeResult.ListOpcodesResult listOpcodes(ProviderId provider) {
     NativeResult res = this.operationClient.processOperation(
         NativeOperation.ListOpcodesOperation.builder().providerId(provider).build(),
-        ProviderId.CORE, this.authData);
+        ProviderId.CORE, this.authData, this.callTimeout);
     if (res instanceof NativeResult.ListOpcodesResult) {
       return (NativeResult.ListOpcodesResult) res;
     } else {
@@ -313,7 +517,8 @@ public class BasicClient {
    */
   public NativeResult.ListProvidersResult listProviders() {
     NativeResult res = this.operationClient.processOperation(
-        NativeOperation.ListProvidersOperation.builder().build(), ProviderId.CORE, this.authData);
+        NativeOperation.ListProvidersOperation.builder().build(), ProviderId.CORE, this.authData,
+        this.callTimeout);
     if (res instanceof NativeResult.ListProvidersResult) {
       return (NativeResult.ListProvidersResult) res;
     } else {
@@ -341,7 +546,7 @@ public class BasicClient {
   public NativeResult.ListAuthenticatorsResult listAuthenticators() {
     NativeResult res = this.operationClient.processOperation(
         NativeOperation.ListAuthenticatorsOperation.builder().build(), ProviderId.CORE,
-        this.authData);
+        this.authData, this.callTimeout);
     if (res instanceof NativeResult.ListAuthenticatorsResult) {
       return (NativeResult.ListAuthenticatorsResult) res;
     } else {
@@ -364,12 +569,21 @@ public class BasicClient {
    *
    * <p>
    * let client: BasicClient = BasicClient::new(None); let keys = client.list_keys(); # Ok(())} ```
+   *
+   * <p>
+   * The listing is served from the {@link KeyCache} while it is fresh.
    */
   public NativeResult.ListKeysResult listKeys() {
+    return NativeResult.ListKeysResult.builder().keys(this.keyCache.list(this::fetchKeys))
+        .build();
+  }
+
+  private List<NativeResult.ListKeysResult.KeyInfo> fetchKeys() {
     NativeResult res = this.operationClient.processOperation(
-        NativeOperation.ListKeysOperation.builder().build(), ProviderId.CORE, this.authData);
+        NativeOperation.ListKeysOperation.builder().build(), ProviderId.CORE, this.authData,
+        this.callTimeout);
     if (res instanceof NativeResult.ListKeysResult) {
-      return (NativeResult.ListKeysResult) res;
+      return ((NativeResult.ListKeysResult) res).getKeys();
     } else {
       // Should really not be reached given the checks we do, but it's not impossible
       // if some
@@ -379,10 +593,10 @@ public class BasicClient {
   }
 
   /**
-   * Get the key attributes.
+   * Get the attributes of the key with this name in the implicit provider.
    *
    * <p>
-   * This is a convenience method that uses `list_keys` underneath.
+   * This is a convenience method that uses `list_keys` underneath, through the {@link KeyCache}.
    *
    * <p>
    * # Errors
@@ -402,8 +616,12 @@ public class BasicClient {
    * client.key_attributes("my_key"); # Ok(())} ```
    */
   public PsaKeyAttributes.KeyAttributes keyAttributes(String keyName) {
-    return listKeys().getKeys().stream().filter(ki -> ki.getName().equals(keyName)).findFirst()
-        .orElseThrow(NotFoundException::new).getAttributes();
+    NativeResult.ListKeysResult.KeyInfo keyInfo =
+        this.keyCache.get(this.implicitProvider, keyName, this::fetchKeys);
+    if (keyInfo == null) {
+      throw new NotFoundException();
+    }
+    return keyInfo.getAttributes();
   }
 
   /**
@@ -422,7 +640,8 @@ public class BasicClient {
    */
   public NativeResult.ListClientsResult listClients() {
     NativeResult res = this.operationClient.processOperation(
-        NativeOperation.ListClientsOperation.builder().build(), ProviderId.CORE, this.authData);
+        NativeOperation.ListClientsOperation.builder().build(), ProviderId.CORE, this.authData,
+        this.callTimeout);
     if (res instanceof NativeResult.ListClientsResult) {
       return (NativeResult.ListClientsResult) res;
     } else {
@@ -450,7 +669,7 @@ public class BasicClient {
   public void deleteClient(String client) {
     NativeResult res = this.operationClient.processOperation(
         NativeOperation.DeleteClientOperation.builder().client(client).build(), ProviderId.CORE,
-        this.authData);
+        this.authData, this.callTimeout);
     if (!(res instanceof NativeResult.DeleteClientResult)) {
       // Should really not be reached given the checks we do, but it's not impossible
       // if some
@@ -475,7 +694,7 @@ public class BasicClient {
   public NativeResult.PingResult ping() {
     NativeResult res =
         this.operationClient.processOperation(NativeOperation.PingOperation.builder().build(),
-            ProviderId.CORE, new Authentication.None());
+            ProviderId.CORE, new Authentication.None(), this.callTimeout);
 
     if (res instanceof NativeResult.PingResult) {
       return (NativeResult.PingResult) res;
@@ -521,11 +740,14 @@ public class BasicClient {
    */
   public void psaGenerateKey(String keyName, PsaKeyAttributes.KeyAttributes keyAttributes) {
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_GENERATE_KEY, null);
 
     NativeResult res =
         this.operationClient.processOperation(NativeOperation.PsaGenerateKeyOperation.builder()
-            .keyName(keyName).attributes(keyAttributes).build(), cryptoProvider, this.authData);
+            .keyName(keyName).attributes(keyAttributes).build(), cryptoProvider, this.authData,
+            this.callTimeout);
     if (res instanceof NativeResult.PsaGenerateKeyResult) {
+      this.keyCache.put(cryptoProvider, keyName, keyAttributes);
       return;
     }
     throw new InvalidServiceResponseTypeException();
@@ -551,11 +773,13 @@ public class BasicClient {
    */
   public void psaDestroyKey(String keyName) {
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_DESTROY_KEY, null);
 
     NativeResult res = this.operationClient.processOperation(
         NativeOperation.PsaDestroyKeyOperation.builder().keyName(keyName).build(), cryptoProvider,
-        this.authData);
+        this.authData, this.callTimeout);
     if (res instanceof NativeResult.PsaDestroyKeyResult) {
+      this.keyCache.remove(cryptoProvider, keyName);
       return;
     }
     throw new InvalidServiceResponseTypeException();
@@ -601,12 +825,19 @@ public class BasicClient {
   public void psaImportKey(String keyName, byte[] keyMaterial,
       PsaKeyAttributes.KeyAttributes keyAttributes) {
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_IMPORT_KEY, null);
     NativeResult res =
         this.operationClient.processOperation(
             NativeOperation.PsaImportKeyOperation.builder().keyName(keyName)
                 .attributes(keyAttributes).data(keyMaterial).build(),
-            cryptoProvider, this.authData);
+            cryptoProvider, this.authData, this.callTimeout);
     if (res instanceof NativeResult.PsaImportKeyResult) {
+      if (keyAttributes.getBits() != 0) {
+        this.keyCache.put(cryptoProvider, keyName, keyAttributes);
+      } else {
+        // the service works out the size from the key material
+        this.keyCache.evict(cryptoProvider, keyName);
+      }
       return;
     }
     throw new InvalidServiceResponseTypeException();
@@ -634,10 +865,11 @@ public class BasicClient {
    */
   public NativeResult.PsaExportPublicKeyResult psaExportPublicKey(String keyName) {
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_EXPORT_PUBLIC_KEY, null);
 
     NativeResult res = this.operationClient.processOperation(
         NativeOperation.PsaExportPublicKeyOperation.builder().keyName(keyName).build(),
-        cryptoProvider, this.authData);
+        cryptoProvider, this.authData, this.callTimeout);
 
     if (res instanceof NativeResult.PsaExportPublicKeyResult) {
       return (NativeResult.PsaExportPublicKeyResult) res;
@@ -671,10 +903,11 @@ public class BasicClient {
    */
   public NativeResult.PsaExportKeyResult psaExportKey(String keyName) {
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_EXPORT_KEY, keyName);
 
     NativeResult res = this.operationClient.processOperation(
         NativeOperation.PsaExportKeyOperation.builder().keyName(keyName).build(), cryptoProvider,
-        this.authData);
+        this.authData, this.callTimeout);
 
     if (res instanceof NativeResult.PsaExportKeyResult) {
       return (NativeResult.PsaExportKeyResult) res;
@@ -722,10 +955,12 @@ public class BasicClient {
       PsaAlgorithm.Algorithm.AsymmetricSignature signAlgorithm) {
 
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_SIGN_HASH, keyName);
 
     NativeResult res =
         this.operationClient.processOperation(NativeOperation.PsaSignHashOperation.builder()
-            .keyName(keyName).alg(signAlgorithm).hash(hash).build(), cryptoProvider, this.authData);
+            .keyName(keyName).alg(signAlgorithm).hash(hash).build(), cryptoProvider, this.authData,
+            this.callTimeout);
 
     if (res instanceof NativeResult.PsaSignHashResult) {
       return (NativeResult.PsaSignHashResult) res;
@@ -775,16 +1010,63 @@ public class BasicClient {
       PsaAlgorithm.Algorithm.AsymmetricSignature signAlgorithm, byte[] signature) {
 
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_VERIFY_HASH, keyName);
+
+    NativeResult.PsaVerifyHashResult local =
+        verifyLocally(cryptoProvider, keyName, signAlgorithm, hash, signature);
+    if (local != null) {
+      return local;
+    }
 
     NativeResult res = this.operationClient.processOperation(NativeOperation.PsaVerifyHashOperation
         .builder().keyName(keyName).alg(signAlgorithm).hash(hash).signature(signature).build(),
-        cryptoProvider, this.authData);
+        cryptoProvider, this.authData, this.callTimeout);
     if (res instanceof NativeResult.PsaVerifyHashResult) {
       return (NativeResult.PsaVerifyHashResult) res;
     }
     throw new InvalidServiceResponseTypeException();
   }
 
+  /**
+   * Verify a signature with the exported public key, when local verification is on.
+   *
+   * @return the result, null if the service has to verify the signature
+   */
+  NativeResult.PsaVerifyHashResult verifyLocally(ProviderId cryptoProvider, String keyName,
+      PsaAlgorithm.Algorithm.AsymmetricSignature signAlgorithm, byte[] hash, byte[] signature) {
+    if (!this.localVerification) {
+      return null;
+    }
+    LocalVerifier verifier = this.keyCache.verifier(cryptoProvider, keyName,
+        () -> exportVerifier(cryptoProvider, keyName));
+    Boolean valid = verifier != null ? verifier.verify(signAlgorithm, hash, signature) : null;
+    if (valid == null) {
+      return null;
+    }
+    if (!valid) {
+      throw new ServiceException(ResponseStatus.PsaErrorInvalidSignature);
+    }
+    return NativeResult.PsaVerifyHashResult.builder().build();
+  }
+
+  /** @return a verifier of the exported public key, null if it cannot be used locally */
+  private LocalVerifier exportVerifier(ProviderId cryptoProvider, String keyName) {
+    try {
+      PsaKeyAttributes.KeyAttributes attributes = keyAttributes(keyName);
+      NativeResult res = this.operationClient.processOperation(
+          NativeOperation.PsaExportPublicKeyOperation.builder().keyName(keyName).build(),
+          cryptoProvider, this.authData, this.callTimeout);
+      if (res instanceof NativeResult.PsaExportPublicKeyResult) {
+        return LocalVerifier.of(attributes,
+            ((NativeResult.PsaExportPublicKeyResult) res).getData());
+      }
+    } catch (ServiceException | NotFoundException e) {
+      // let the service verify, and fail with its status
+      log.debug("Cannot export the public key of {}", keyName, e);
+    }
+    return null;
+  }
+
   /**
    * [Cryptographic Operation]** Create an asymmetric signature on a message.
    *
@@ -815,10 +1097,11 @@ public class BasicClient {
   public NativeResult.PsaSignMessageResult psaSignMessage(String keyName, byte[] message,
       PsaAlgorithm.Algorithm.AsymmetricSignature signAlgorithm) {
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_SIGN_MESSAGE, keyName);
 
     NativeResult res = this.operationClient.processOperation(NativeOperation.PsaSignMessageOperation
         .builder().keyName(keyName).alg(signAlgorithm).message(message).build(), cryptoProvider,
-        this.authData);
+        this.authData, this.callTimeout);
 
     if (res instanceof NativeResult.PsaSignMessageResult) {
       return (NativeResult.PsaSignMessageResult) res;
@@ -861,12 +1144,13 @@ public class BasicClient {
       PsaAlgorithm.Algorithm.AsymmetricSignature signAlgorithm, byte[] signature) {
 
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_VERIFY_MESSAGE, keyName);
     NativeResult res =
         this.operationClient
             .processOperation(
                 NativeOperation.PsaVerifyMessageOperation.builder().keyName(keyName)
                     .alg(signAlgorithm).message(msg).signature(signature).build(),
-                cryptoProvider, this.authData);
+                cryptoProvider, this.authData, this.callTimeout);
 
     if (res instanceof NativeResult.PsaVerifyMessageResult) {
       return res;
@@ -894,13 +1178,14 @@ public class BasicClient {
       PsaAlgorithm.Algorithm.AsymmetricEncryption encryptAlg, byte[] plaintext, byte[] salt) {
 
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_ASYMMETRIC_ENCRYPT, keyName);
 
     NativeResult res =
         this.operationClient
             .processOperation(
                 NativeOperation.PsaAsymmetricEncryptOperation.builder().keyName(keyName)
                     .alg(encryptAlg).plaintext(plaintext).salt(salt).build(),
-                cryptoProvider, this.authData);
+                cryptoProvider, this.authData, this.callTimeout);
 
     if (res instanceof NativeResult.PsaAsymmetricEncryptResult) {
       return (NativeResult.PsaAsymmetricEncryptResult) res;
@@ -928,20 +1213,21 @@ public class BasicClient {
    * The decryption will be performed with the algorithm defined in `alg`, but only after checking
    * that the key policy and type conform with it.
    */
-  public NativeResult.PsaAeadDecryptResult psaAsymmetricDecrypt(String keyName,
+  public NativeResult.PsaAsymmetricDecryptResult psaAsymmetricDecrypt(String keyName,
       PsaAlgorithm.Algorithm.AsymmetricEncryption encryptAlg, byte[] ciphertext, byte[] salt) {
 
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_ASYMMETRIC_DECRYPT, keyName);
 
     NativeResult res =
         this.operationClient
             .processOperation(
                 NativeOperation.PsaAsymmetricDecryptOperation.builder().keyName(keyName)
                     .alg(encryptAlg).ciphertext(ciphertext).salt(salt).build(),
-                cryptoProvider, this.authData);
+                cryptoProvider, this.authData, this.callTimeout);
 
-    if (res instanceof NativeResult.PsaAeadDecryptResult) {
-      return (NativeResult.PsaAeadDecryptResult) res;
+    if (res instanceof NativeResult.PsaAsymmetricDecryptResult) {
+      return (NativeResult.PsaAsymmetricDecryptResult) res;
     } else {
       // Should really not be reached given the checks we do, but it's not impossible
       // if some
@@ -959,10 +1245,11 @@ public class BasicClient {
   public NativeResult.PsaHashComputeResult psaHashCompute(PsaAlgorithm.Algorithm.Hash alg,
       byte[] input) {
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_HASH_COMPUTE, null);
 
     NativeResult res = this.operationClient.processOperation(
         NativeOperation.PsaHashComputeOperation.builder().alg(alg).input(input).build(),
-        cryptoProvider, this.authData);
+        cryptoProvider, this.authData, this.callTimeout);
     if (res instanceof NativeResult.PsaHashComputeResult) {
       return (NativeResult.PsaHashComputeResult) res;
     } else {
@@ -986,9 +1273,10 @@ public class BasicClient {
   public NativeResult.PsaHashCompareResult psaHashCompare(PsaAlgorithm.Algorithm.Hash alg,
       byte[] input, byte[] hash) {
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_HASH_COMPARE, null);
     NativeResult res = this.operationClient.processOperation(
         NativeOperation.PsaHashCompareOperation.builder().alg(alg).input(input).hash(hash).build(),
-        cryptoProvider, this.authData);
+        cryptoProvider, this.authData, this.callTimeout);
     if (res instanceof NativeResult.PsaHashCompareResult) {
       return (NativeResult.PsaHashCompareResult) res;
     }
@@ -1018,11 +1306,12 @@ public class BasicClient {
       PsaAlgorithm.Algorithm.Aead encryptAlg, byte[] nonce, byte[] additionalData,
       byte[] plaintext) {
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_AEAD_ENCRYPT, keyName);
 
     NativeResult res = this.operationClient.processOperation(
         NativeOperation.PsaAeadEncryptOperation.builder().keyName(keyName).alg(encryptAlg)
             .nonce(nonce).additionalData(additionalData).plaintext(plaintext).build(),
-        cryptoProvider, this.authData);
+        cryptoProvider, this.authData, this.callTimeout);
 
     if (res instanceof NativeResult.PsaAeadEncryptResult) {
       return (NativeResult.PsaAeadEncryptResult) res;
@@ -1056,11 +1345,12 @@ public class BasicClient {
       PsaAlgorithm.Algorithm.Aead encryptAlg, byte[] nonce, byte[] additionalData,
       byte[] ciphertext) {
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_AEAD_DECRYPT, keyName);
 
     NativeResult res = this.operationClient.processOperation(
         NativeOperation.PsaAeadDecryptOperation.builder().keyName(keyName).alg(encryptAlg)
             .nonce(nonce).additionalData(additionalData).ciphertext(ciphertext).build(),
-        cryptoProvider, this.authData);
+        cryptoProvider, this.authData, this.callTimeout);
 
     if (res instanceof NativeResult.PsaAeadDecryptResult) {
       return (NativeResult.PsaAeadDecryptResult) res;
@@ -1091,10 +1381,11 @@ public class BasicClient {
   public NativeResult.PsaRawKeyAgreementResult psaRawKeyAgreement(PsaRawKeyAgreement alg,
       String privateKeyName, byte[] peerKey) {
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_RAW_KEY_AGREEMENT, privateKeyName);
     NativeResult res = this.operationClient.processOperation(
         NativeOperation.PsaRawKeyAgreementOperation.builder().alg(alg).peerKey(peerKey)
             .privateKeyName(privateKeyName).build(),
-        cryptoProvider, this.authData);
+        cryptoProvider, this.authData, this.callTimeout);
     if (res instanceof NativeResult.PsaRawKeyAgreementResult) {
       return (NativeResult.PsaRawKeyAgreementResult) res;
     } else {
@@ -1122,11 +1413,13 @@ public class BasicClient {
    */
   public byte[] psaGenerateRandom(long nbytes) {
     ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, Opcode.PSA_GENERATE_RANDOM, null);
 
     NativeOperation.PsaGenerateRandomOperation op =
         NativeOperation.PsaGenerateRandomOperation.builder().size(nbytes).build();
 
-    NativeResult res = this.operationClient.processOperation(op, cryptoProvider, this.authData);
+    NativeResult res =
+        this.operationClient.processOperation(op, cryptoProvider, this.authData, this.callTimeout);
 
     if (res instanceof NativeResult.PsaGenerateRandomResult) {
       return ((NativeResult.PsaGenerateRandomResult) res).getRandomBytes();
@@ -1138,8 +1431,115 @@ public class BasicClient {
     }
   }
 
+  /**
+   * Prepare {@link #psaSignHash} for signing many hashes with the same key and algorithm.
+   *
+   * <p>
+   * {@link PreparedOperation#process(byte[]...)} takes the hash to sign.
+   */
+  public PreparedOperation<NativeResult.PsaSignHashResult> prepareSignHash(String keyName,
+      PsaAlgorithm.Algorithm.AsymmetricSignature signAlgorithm) {
+    return prepare(Opcode.PSA_SIGN_HASH, keyName,
+        PsaSignHash.Operation.newBuilder().setKeyName(keyName).setAlg(signAlgorithm).build(),
+        NativeResult.PsaSignHashResult.class, PsaSignHash.Operation.HASH_FIELD_NUMBER);
+  }
+
+  /**
+   * Prepare {@link #psaVerifyHash} for verifying many signatures with the same key and algorithm.
+   *
+   * <p>
+   * {@link PreparedOperation#process(byte[]...)} takes the hash, then the signature.
+   */
+  public PreparedOperation<NativeResult.PsaVerifyHashResult> prepareVerifyHash(String keyName,
+      PsaAlgorithm.Algorithm.AsymmetricSignature signAlgorithm) {
+    return prepare(Opcode.PSA_VERIFY_HASH, keyName,
+        PsaVerifyHash.Operation.newBuilder().setKeyName(keyName).setAlg(signAlgorithm).build(),
+        NativeResult.PsaVerifyHashResult.class, PsaVerifyHash.Operation.HASH_FIELD_NUMBER,
+        PsaVerifyHash.Operation.SIGNATURE_FIELD_NUMBER);
+  }
+
+  /**
+   * Prepare {@link #psaAeadEncrypt} for encrypting many messages with the same key and algorithm.
+   *
+   * <p>
+   * {@link PreparedOperation#process(byte[]...)} takes the nonce, the additional data, then the
+   * plaintext.
+   */
+  public PreparedOperation<NativeResult.PsaAeadEncryptResult> prepareAeadEncrypt(String keyName,
+      PsaAlgorithm.Algorithm.Aead encryptAlg) {
+    return prepare(Opcode.PSA_AEAD_ENCRYPT, keyName,
+        PsaAeadEncrypt.Operation.newBuilder().setKeyName(keyName).setAlg(encryptAlg).build(),
+        NativeResult.PsaAeadEncryptResult.class, PsaAeadEncrypt.Operation.NONCE_FIELD_NUMBER,
+        PsaAeadEncrypt.Operation.ADDITIONAL_DATA_FIELD_NUMBER,
+        PsaAeadEncrypt.Operation.PLAINTEXT_FIELD_NUMBER);
+  }
+
+  /**
+   * Prepare {@link #psaAeadDecrypt} for decrypting many messages with the same key and algorithm.
+   *
+   * <p>
+   * {@link PreparedOperation#process(byte[]...)} takes the nonce, the additional data, then the
+   * ciphertext.
+   */
+  public PreparedOperation<NativeResult.PsaAeadDecryptResult> prepareAeadDecrypt(String keyName,
+      PsaAlgorithm.Algorithm.Aead encryptAlg) {
+    return prepare(Opcode.PSA_AEAD_DECRYPT, keyName,
+        PsaAeadDecrypt.Operation.newBuilder().setKeyName(keyName).setAlg(encryptAlg).build(),
+        NativeResult.PsaAeadDecryptResult.class, PsaAeadDecrypt.Operation.NONCE_FIELD_NUMBER,
+        PsaAeadDecrypt.Operation.ADDITIONAL_DATA_FIELD_NUMBER,
+        PsaAeadDecrypt.Operation.CIPHERTEXT_FIELD_NUMBER);
+  }
+
+  /**
+   * Prepare {@link #psaAsymmetricEncrypt} for encrypting many messages with the same key and
+   * algorithm.
+   *
+   * <p>
+   * {@link PreparedOperation#process(byte[]...)} takes the plaintext, then the salt, which may be
+   * null.
+   */
+  public PreparedOperation<NativeResult.PsaAsymmetricEncryptResult> prepareAsymmetricEncrypt(
+      String keyName, PsaAlgorithm.Algorithm.AsymmetricEncryption encryptAlg) {
+    return prepare(Opcode.PSA_ASYMMETRIC_ENCRYPT, keyName,
+        PsaAsymmetricEncrypt.Operation.newBuilder().setKeyName(keyName).setAlg(encryptAlg)
+            .build(),
+        NativeResult.PsaAsymmetricEncryptResult.class,
+        PsaAsymmetricEncrypt.Operation.PLAINTEXT_FIELD_NUMBER,
+        PsaAsymmetricEncrypt.Operation.SALT_FIELD_NUMBER);
+  }
+
+  /**
+   * Prepare {@link #psaAsymmetricDecrypt} for decrypting many messages with the same key and
+   * algorithm.
+   *
+   * <p>
+   * {@link PreparedOperation#process(byte[]...)} takes the ciphertext, then the salt, which may be
+   * null.
+   */
+  public PreparedOperation<NativeResult.PsaAsymmetricDecryptResult> prepareAsymmetricDecrypt(
+      String keyName, PsaAlgorithm.Algorithm.AsymmetricEncryption encryptAlg) {
+    return prepare(Opcode.PSA_ASYMMETRIC_DECRYPT, keyName,
+        PsaAsymmetricDecrypt.Operation.newBuilder().setKeyName(keyName).setAlg(encryptAlg)
+            .build(),
+        NativeResult.PsaAsymmetricDecryptResult.class,
+        PsaAsymmetricDecrypt.Operation.CIPHERTEXT_FIELD_NUMBER,
+        PsaAsymmetricDecrypt.Operation.SALT_FIELD_NUMBER);
+  }
+
+  private <R extends NativeResult> PreparedOperation<R> prepare(Opcode opcode, String keyName,
+      MessageLite invariantFields, Class<R> resultType, int... fieldNumbers) {
+    if (this.operationClient.contentType() != BodyType.PROTOBUF) {
+      throw new UnsupportedOperationException("prepared operations need protobuf bodies");
+    }
+    ProviderId cryptoProvider = this.canProvideCrypto();
+    this.preflight(cryptoProvider, opcode, keyName);
+    return new PreparedOperation<>(this.operationClient, opcode, cryptoProvider, this.authData,
+        this.callTimeout, new PreparedBody(invariantFields, fieldNumbers), resultType);
+  }
+
   ProviderId canProvideCrypto() {
-    switch (this.implicitProvider) {
+    ProviderId provider = this.implicitProvider;
+    switch (provider) {
       case CORE:
         throw new InvalidProviderException(null);
       case MBED_CRYPTO:
@@ -1148,19 +1548,81 @@ public class BasicClient {
       case TRUSTED_SERVICE:
       case CRYPTO_AUTH_LIB:
       default:
-        return this.implicitProvider;
+        return provider;
+    }
+  }
+
+  /**
+   * Fail as the service would if {@code opcode} cannot succeed, when preflight checks are on.
+   *
+   * @param keyName key used by the operation, null if none
+   */
+  void preflight(ProviderId cryptoProvider, Opcode opcode, String keyName) {
+    KeyCache cache = this.keyCache;
+    if (!this.preflight || !cache.isEnabled()) {
+      return;
+    }
+    Set<Opcode> opcodes = cache.opcodes(cryptoProvider, () -> supportedOpcodes(cryptoProvider));
+    NativeResult.ListKeysResult.KeyInfo key = null;
+    if (keyName != null) {
+      try {
+        key = cache.get(cryptoProvider, keyName, this::fetchKeys);
+      } catch (ServiceException e) {
+        // let the operation fail with the status of the service
+        log.debug("Cannot look up {}", keyName, e);
+      }
+    }
+    ResponseStatus status = Preflight.check(opcode, cryptoProvider, opcodes, key);
+    if (status != null) {
+      throw new ServiceException(status);
+    }
+  }
+
+  /** @return the opcodes of a provider, null if the service does not tell */
+  private Set<Opcode> supportedOpcodes(ProviderId provider) {
+    try {
+      return listOpcodes(provider).getOpcodes();
+    } catch (ServiceException e) {
+      log.debug("Cannot list the opcodes of {}", provider, e);
+      return null;
     }
   }
 
   void setMaxBodySize(long maxBodySize) {
+    checkPoolMutable();
     this.operationClient.setMaxBodySize(maxBodySize);
   }
 
   void setIpcHandler(IpcHandler ipcHandler) {
+    checkPoolMutable();
     this.operationClient.setIpcHandler(ipcHandler);
   }
 
   void setTimeout(Duration timeout) {
+    checkPoolMutable();
     this.operationClient.setTimeout(timeout);
   }
+
+  /**
+   * Report every operation of this client to {@code listener}, e.g. an
+   * {@link org.parallaxsecond.parsec.client.metrics.InMemoryMetrics}. Null, the default, stops
+   * reporting. Clients already derived from this one keep their listener.
+   */
+  public void setOperationListener(OperationListener listener) {
+    checkMutable();
+    this.operationClient.setListener(listener);
+  }
+
+  /**
+   * Share one call to the service between identical listing, ping or public key export requests
+   * sent at the same time, such as many threads listing keys or exporting the same public key on
+   * startup. Requests are identical when they have the same opcode, provider, authentication, body
+   * and timeout. Off by
+   * default. The results are then shared between the callers, which must not modify them. Clients
+   * already derived from this one keep their setting.
+   */
+  public void setRequestCoalescing(boolean coalescing) {
+    checkMutable();
+    this.operationClient.setCoalescing(coalescing);
+  }
 }
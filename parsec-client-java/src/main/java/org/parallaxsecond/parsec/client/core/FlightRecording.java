@@ -0,0 +1,31 @@
+package org.parallaxsecond.parsec.client.core;
+
+import org.parallaxsecond.parsec.client.metrics.Phase;
+import org.parallaxsecond.parsec.protocol.requests.AuthType;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+
+/**
+ * Java Flight Recorder events of one operation: connect, request write, response read and the whole
+ * operation, all in the {@code Parsec} category.
+ *
+ * <p>
+ * The {@code jdk.jfr} API is not part of Java 8. This is the placeholder compiled for older
+ * runtimes, which records nothing; the working implementation lives in {@code META-INF/versions/11}
+ * of the multi-release jar.
+ */
+final class FlightRecording {
+  private FlightRecording() {}
+
+  /** @return the recording of an operation starting now, null if JFR is not recording it */
+  static FlightRecording start(Opcode opcode, ProviderId provider, AuthType authType) {
+    return null;
+  }
+
+  /** End {@code phase}, which took {@code nanos}, and start the one following it. */
+  void lap(Phase phase, long nanos, long requestBytes, long responseBytes) {}
+
+  void complete(ResponseStatus status, RuntimeException error, long requestBytes,
+      long responseBytes) {}
+}
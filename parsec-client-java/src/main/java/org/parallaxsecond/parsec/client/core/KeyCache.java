@@ -0,0 +1,318 @@
+package org.parallaxsecond.parsec.client.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.parallaxsecond.parsec.protobuf.psa_key_attributes.PsaKeyAttributes;
+import org.parallaxsecond.parsec.protocol.operations.NativeResult.ListKeysResult.KeyInfo;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+
+import lombok.Builder;
+
+/**
+ * Client-side cache of the key metadata returned by ListKeys, and of the opcodes of each provider.
+ *
+ * <p>
+ * The whole key listing is cached for {@code ttl}, so that looking up the attributes of a key
+ * neither goes to the service nor scans the listing. {@link BasicClient} keeps the cache up to date
+ * with the keys it generates, imports and destroys. Keys destroyed or changed by other clients of
+ * the service are only seen once the listing expires or {@link #invalidate()} is called. A key
+ * missing from the listing is looked up again, at most once every {@code missReloadInterval}, so
+ * that keys created by other clients are found.
+ *
+ * <p>
+ * The public keys exported for local signature verification are cached for {@code ttl} too, and
+ * dropped as soon as this client changes or destroys the key. The opcodes returned by ListOpcodes
+ * are cached for {@code ttl} as well.
+ *
+ * <p>
+ * A zero {@code ttl} disables caching.
+ */
+public class KeyCache {
+  public static final Duration DEFAULT_TTL = Duration.ofSeconds(10);
+  public static final Duration DEFAULT_MISS_RELOAD_INTERVAL = Duration.ofSeconds(1);
+
+  private final long ttlNanos;
+  private final long missReloadNanos;
+  private final LongSupplier clock;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private volatile Listing listing;
+  /** Verifiers of exported public keys, by provider and key name */
+  private final Map<String, Verifier> verifiers = new ConcurrentHashMap<>();
+  /** Opcodes supported by each provider */
+  private final Map<ProviderId, Opcodes> opcodes = new ConcurrentHashMap<>();
+  /** Bumped on every change, so that a listing fetched before the change is not cached */
+  private long generation;
+
+  public KeyCache(Duration ttl) {
+    this(ttl, null, System::nanoTime);
+  }
+
+  /**
+   * @param ttl how long listings are cached, {@link #DEFAULT_TTL} if null
+   * @param missReloadInterval how long a key missing from the listing is trusted not to exist,
+   *        {@link #DEFAULT_MISS_RELOAD_INTERVAL} if null
+   */
+  @Builder
+  public KeyCache(Duration ttl, Duration missReloadInterval) {
+    this(ttl, missReloadInterval, System::nanoTime);
+  }
+
+  KeyCache(Duration ttl, LongSupplier clock) {
+    this(ttl, null, clock);
+  }
+
+  KeyCache(Duration ttl, Duration missReloadInterval, LongSupplier clock) {
+    this.ttlNanos = (ttl != null ? ttl : DEFAULT_TTL).toNanos();
+    if (this.ttlNanos < 0) {
+      throw new IllegalArgumentException("ttl must not be negative, got " + ttl);
+    }
+    this.missReloadNanos =
+        (missReloadInterval != null ? missReloadInterval : DEFAULT_MISS_RELOAD_INTERVAL).toNanos();
+    if (this.missReloadNanos < 0) {
+      throw new IllegalArgumentException(
+          "missReloadInterval must not be negative, got " + missReloadInterval);
+    }
+    this.clock = clock;
+  }
+
+  /** @return a cache that always goes to the service */
+  public static KeyCache disabled() {
+    return new KeyCache(Duration.ZERO);
+  }
+
+  /** @return an empty cache with the same settings, for another application */
+  KeyCache emptyCopy() {
+    return new KeyCache(Duration.ofNanos(ttlNanos), Duration.ofNanos(missReloadNanos), clock);
+  }
+
+  /** @return all the keys, from the cache or from {@code loader} */
+  public List<KeyInfo> list(Supplier<List<KeyInfo>> loader) {
+    Listing current = listing;
+    if (isFresh(current) && current.complete) {
+      hits.increment();
+      return current.keys;
+    }
+    misses.increment();
+    return load(loader).keys;
+  }
+
+  /**
+   * Look up a key, from the cache or from {@code loader}.
+   *
+   * @param providerId provider holding the key, null for the first key with this name listed by
+   *        the service
+   * @return the key, or null if the service does not know it
+   */
+  public KeyInfo get(ProviderId providerId, String keyName, Supplier<List<KeyInfo>> loader) {
+    Listing current = listing;
+    if (isFresh(current)) {
+      KeyInfo key = current.get(providerId, keyName);
+      // an incomplete listing cannot tell that a key does not exist, and another client may have
+      // created it since the listing was loaded
+      if (key != null
+          || current.complete && clock.getAsLong() - current.loadedAt < missReloadNanos) {
+        hits.increment();
+        return key;
+      }
+    }
+    misses.increment();
+    return load(loader).get(providerId, keyName);
+  }
+
+  /** Record a key created by this client. */
+  public void put(ProviderId providerId, String keyName,
+      PsaKeyAttributes.KeyAttributes attributes) {
+    update(providerId, keyName,
+        KeyInfo.builder().providerId(providerId).name(keyName).attributes(attributes).build(),
+        true);
+  }
+
+  /**
+   * Forget a key that changed, its metadata is fetched again the next time it is looked up.
+   */
+  public void evict(ProviderId providerId, String keyName) {
+    update(providerId, keyName, null, false);
+  }
+
+  /** Record that a key was destroyed by this client. */
+  public void remove(ProviderId providerId, String keyName) {
+    update(providerId, keyName, null, true);
+  }
+
+  /** Drop everything, the next lookup fetches the listing again. */
+  public synchronized void invalidate() {
+    generation++;
+    listing = null;
+    verifiers.clear();
+    opcodes.clear();
+  }
+
+  /**
+   * @return the opcodes supported by a provider, from the cache or from {@code loader}, null if
+   *         they are not known
+   */
+  Set<Opcode> opcodes(ProviderId providerId, Supplier<Set<Opcode>> loader) {
+    Opcodes current = opcodes.get(providerId);
+    long now = clock.getAsLong();
+    if (current != null && now - current.loadedAt < ttlNanos) {
+      hits.increment();
+      return current.opcodes;
+    }
+    misses.increment();
+    Set<Opcode> loaded = loader.get();
+    if (ttlNanos > 0) {
+      opcodes.put(providerId, new Opcodes(loaded, now));
+    }
+    return loaded;
+  }
+
+  /** @return whether lookups can be answered without going to the service */
+  boolean isEnabled() {
+    return ttlNanos > 0;
+  }
+
+  /**
+   * @return the verifier of a key, from the cache or from {@code loader}, null if the key cannot be
+   *         verified locally
+   */
+  LocalVerifier verifier(ProviderId providerId, String keyName, Supplier<LocalVerifier> loader) {
+    String id = id(providerId, keyName);
+    Verifier current = verifiers.get(id);
+    long now = clock.getAsLong();
+    if (current != null && now - current.loadedAt < ttlNanos) {
+      hits.increment();
+      return current.verifier;
+    }
+    misses.increment();
+    long loadedGeneration;
+    synchronized (this) {
+      loadedGeneration = generation;
+    }
+    LocalVerifier loaded = loader.get();
+    synchronized (this) {
+      // the key did not change while it was exported
+      if (ttlNanos > 0 && generation == loadedGeneration) {
+        verifiers.put(id, new Verifier(loaded, now));
+      }
+    }
+    return loaded;
+  }
+
+  /** @return the number of lookups answered from the cache */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /** @return the number of lookups that went to the service */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  private static String id(ProviderId providerId, String keyName) {
+    return providerId + "\0" + keyName;
+  }
+
+  private boolean isFresh(Listing current) {
+    return current != null && clock.getAsLong() - current.loadedAt < ttlNanos;
+  }
+
+  private Listing load(Supplier<List<KeyInfo>> loader) {
+    long loadedAt = clock.getAsLong();
+    long loadedGeneration;
+    synchronized (this) {
+      loadedGeneration = generation;
+    }
+    Listing loaded = new Listing(loader.get(), loadedAt, true);
+    synchronized (this) {
+      if (ttlNanos > 0 && generation == loadedGeneration) {
+        listing = loaded;
+      }
+    }
+    return loaded;
+  }
+
+  /** Copy the listing, replacing or removing one key, keeping its expiry. */
+  private synchronized void update(ProviderId providerId, String keyName, KeyInfo replacement,
+      boolean complete) {
+    generation++;
+    verifiers.remove(id(providerId, keyName));
+    Listing current = listing;
+    if (!isFresh(current)) {
+      return;
+    }
+    List<KeyInfo> keys = new ArrayList<>(current.keys.size() + 1);
+    for (KeyInfo key : current.keys) {
+      if (key.getProviderId() != providerId || !key.getName().equals(keyName)) {
+        keys.add(key);
+      }
+    }
+    if (replacement != null) {
+      keys.add(replacement);
+    }
+    listing = new Listing(keys, current.loadedAt, current.complete && complete);
+  }
+
+  private static final class Verifier {
+    private final LocalVerifier verifier;
+    private final long loadedAt;
+
+    private Verifier(LocalVerifier verifier, long loadedAt) {
+      this.verifier = verifier;
+      this.loadedAt = loadedAt;
+    }
+  }
+
+  private static final class Opcodes {
+    private final Set<Opcode> opcodes;
+    private final long loadedAt;
+
+    private Opcodes(Set<Opcode> opcodes, long loadedAt) {
+      this.opcodes = opcodes;
+      this.loadedAt = loadedAt;
+    }
+  }
+
+  private static final class Listing {
+    private final List<KeyInfo> keys;
+    /** Keys by provider and name */
+    private final Map<String, KeyInfo> byId;
+    private final long loadedAt;
+    /** Whether all the keys known to the service are listed */
+    private final boolean complete;
+
+    private Listing(List<KeyInfo> keys, long loadedAt, boolean complete) {
+      this.keys = Collections.unmodifiableList(new ArrayList<>(keys));
+      this.byId = new HashMap<>();
+      for (KeyInfo key : keys) {
+        byId.put(id(key.getProviderId(), Objects.requireNonNull(key.getName())), key);
+      }
+      this.loadedAt = loadedAt;
+      this.complete = complete;
+    }
+
+    private KeyInfo get(ProviderId providerId, String keyName) {
+      if (providerId != null) {
+        return byId.get(id(providerId, keyName));
+      }
+      for (KeyInfo key : keys) {
+        if (key.getName().equals(keyName)) {
+          return key;
+        }
+      }
+      return null;
+    }
+  }
+}
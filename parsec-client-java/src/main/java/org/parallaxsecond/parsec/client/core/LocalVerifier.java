@@ -0,0 +1,245 @@
+package org.parallaxsecond.parsec.client.core;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Arrays;
+
+import org.parallaxsecond.parsec.protobuf.psa_algorithm.PsaAlgorithm;
+import org.parallaxsecond.parsec.protobuf.psa_algorithm.PsaAlgorithm.Algorithm.AsymmetricSignature;
+import org.parallaxsecond.parsec.protobuf.psa_key_attributes.PsaKeyAttributes;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verifies signatures of hashes with an exported public key, using the JCA providers of the JVM.
+ *
+ * <p>
+ * Supports PKCS#1 v1.5 signatures with SHA-1 or SHA-2 hashes and ECDSA signatures with SECP R1
+ * keys. It only verifies locally what the service would accept: the key policy must allow
+ * verifying hashes with exactly the requested algorithm. Anything else is left to the service, so
+ * that it fails with the status the service returns. Instances are immutable and are shared by
+ * the threads verifying with the same key.
+ */
+@Slf4j
+final class LocalVerifier {
+  private static final byte SEQUENCE = 0x30;
+  private static final byte INTEGER = 0x02;
+  private static final byte OCTET_STRING = 0x04;
+  /** Prefix of the AlgorithmIdentifier of the NIST hashes, before the last byte of the OID */
+  private static final byte[] NIST_HASH_OID = {0x06, 0x09, 0x60, (byte) 0x86, 0x48, 0x01, 0x65,
+      0x03, 0x04, 0x02};
+  private static final byte[] SHA1_ALGORITHM =
+      {0x30, 0x09, 0x06, 0x05, 0x2b, 0x0e, 0x03, 0x02, 0x1a, 0x05, 0x00};
+
+  private final PublicKey publicKey;
+  private final PsaKeyAttributes.KeyAttributes attributes;
+  /** Size of the field of an EC key in bytes, 0 for RSA */
+  private final int fieldSize;
+
+  private LocalVerifier(PublicKey publicKey, PsaKeyAttributes.KeyAttributes attributes,
+      int fieldSize) {
+    this.publicKey = publicKey;
+    this.attributes = attributes;
+    this.fieldSize = fieldSize;
+  }
+
+  /**
+   * @param attributes attributes of the key
+   * @param data public key exported by the service
+   * @return a verifier, or null if the key cannot be used locally
+   */
+  static LocalVerifier of(PsaKeyAttributes.KeyAttributes attributes, byte[] data) {
+    PsaKeyAttributes.KeyType type = attributes.getKeyType();
+    try {
+      if (type.hasRsaKeyPair() || type.hasRsaPublicKey()) {
+        int[] pos = {0};
+        expect(data, pos, SEQUENCE);
+        readLength(data, pos);
+        BigInteger modulus = readInteger(data, pos);
+        BigInteger exponent = readInteger(data, pos);
+        return new LocalVerifier(
+            KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(modulus, exponent)),
+            attributes, 0);
+      }
+      PsaKeyAttributes.KeyType.EccFamily family = type.hasEccKeyPair()
+          ? type.getEccKeyPair().getCurveFamily()
+          : type.hasEccPublicKey() ? type.getEccPublicKey().getCurveFamily() : null;
+      if (family == PsaKeyAttributes.KeyType.EccFamily.SECP_R1) {
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp" + attributes.getKeyBits() + "r1"));
+        ECParameterSpec spec = parameters.getParameterSpec(ECParameterSpec.class);
+        int n = (spec.getCurve().getField().getFieldSize() + 7) / 8;
+        // uncompressed point only
+        if (data.length != 1 + 2 * n || data[0] != 4) {
+          return null;
+        }
+        ECPoint point = new ECPoint(new BigInteger(1, Arrays.copyOfRange(data, 1, 1 + n)),
+            new BigInteger(1, Arrays.copyOfRange(data, 1 + n, data.length)));
+        return new LocalVerifier(
+            KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, spec)),
+            attributes, n);
+      }
+    } catch (GeneralSecurityException | IllegalArgumentException
+        | ArrayIndexOutOfBoundsException e) {
+      log.debug("Cannot use the public key locally", e);
+    }
+    return null;
+  }
+
+  /**
+   * @return whether the signature is valid, or null if it must be verified by the service
+   */
+  Boolean verify(AsymmetricSignature alg, byte[] hash, byte[] signature) {
+    PsaKeyAttributes.KeyPolicy policy = attributes.getKeyPolicy();
+    if (!policy.getKeyUsageFlags().getVerifyHash()
+        || !alg.equals(policy.getKeyAlgorithm().getAsymmetricSignature())) {
+      return null;
+    }
+    try {
+      if (alg.hasRsaPkcs1V15Sign() && fieldSize == 0) {
+        AsymmetricSignature.SignHash signHash = alg.getRsaPkcs1V15Sign().getHashAlg();
+        byte[] digestInfo =
+            signHash.hasSpecific() ? digestInfo(signHash.getSpecific(), hash) : null;
+        if (digestInfo == null) {
+          return null;
+        }
+        Signature verifier = Signature.getInstance("NONEwithRSA");
+        verifier.initVerify(publicKey);
+        verifier.update(digestInfo);
+        return verifier.verify(signature);
+      }
+      AsymmetricSignature.SignHash signHash = alg.hasEcdsa() ? alg.getEcdsa().getHashAlg()
+          : alg.hasDeterministicEcdsa() ? alg.getDeterministicEcdsa().getHashAlg() : null;
+      if (signHash != null && signHash.hasSpecific() && fieldSize > 0
+          && hash.length == digestLength(signHash.getSpecific())
+          && signature.length == 2 * fieldSize) {
+        Signature verifier = Signature.getInstance("NONEwithECDSA");
+        verifier.initVerify(publicKey);
+        verifier.update(hash);
+        return verifier.verify(rawToEcdsa(signature));
+      }
+    } catch (GeneralSecurityException e) {
+      log.debug("Cannot verify locally", e);
+    }
+    return null;
+  }
+
+  /** @return the digest length of a hash, 0 if unknown to the JVM */
+  private static int digestLength(PsaAlgorithm.Algorithm.Hash hash) {
+    try {
+      return MessageDigest.getInstance(digestName(hash)).getDigestLength();
+    } catch (GeneralSecurityException e) {
+      return 0;
+    }
+  }
+
+  /** @return the JCA name of a PSA hash */
+  private static String digestName(PsaAlgorithm.Algorithm.Hash hash) {
+    // SHA_256 is SHA-256, SHA3_256 is SHA3-256, SHA_512_224 is SHA-512/224
+    String name = hash.name().replace('_', '-');
+    return name.startsWith("SHA-512-") ? "SHA-512/" + name.substring("SHA-512-".length()) : name;
+  }
+
+  /** @return the DigestInfo of a PKCS#1 v1.5 signature, or null if not supported */
+  private static byte[] digestInfo(PsaAlgorithm.Algorithm.Hash hash, byte[] value) {
+    final byte[] algorithm;
+    switch (hash) {
+      case SHA_1:
+        algorithm = SHA1_ALGORITHM;
+        break;
+      case SHA_256:
+        algorithm = nistHashAlgorithm(1);
+        break;
+      case SHA_384:
+        algorithm = nistHashAlgorithm(2);
+        break;
+      case SHA_512:
+        algorithm = nistHashAlgorithm(3);
+        break;
+      case SHA_224:
+        algorithm = nistHashAlgorithm(4);
+        break;
+      default:
+        return null;
+    }
+    if (value.length != digestLength(hash)) {
+      return null;
+    }
+    return tlv(SEQUENCE, concat(algorithm, tlv(OCTET_STRING, value)));
+  }
+
+  private static byte[] nistHashAlgorithm(int id) {
+    return tlv(SEQUENCE, concat(NIST_HASH_OID, new byte[] {(byte) id, 0x05, 0}));
+  }
+
+  /** Convert a PSA ECDSA signature, r followed by s, to a DER ECDSA-Sig-Value. */
+  private static byte[] rawToEcdsa(byte[] raw) {
+    int n = raw.length / 2;
+    byte[] r = new BigInteger(1, Arrays.copyOfRange(raw, 0, n)).toByteArray();
+    byte[] s = new BigInteger(1, Arrays.copyOfRange(raw, n, raw.length)).toByteArray();
+    return tlv(SEQUENCE, concat(tlv(INTEGER, r), tlv(INTEGER, s)));
+  }
+
+  private static BigInteger readInteger(byte[] der, int[] pos) {
+    expect(der, pos, INTEGER);
+    int len = readLength(der, pos);
+    BigInteger value = new BigInteger(Arrays.copyOfRange(der, pos[0], pos[0] + len));
+    pos[0] += len;
+    return value;
+  }
+
+  private static void expect(byte[] der, int[] pos, byte tag) {
+    if (pos[0] >= der.length || der[pos[0]] != tag) {
+      throw new IllegalArgumentException("malformed DER, expected tag " + tag);
+    }
+    pos[0]++;
+  }
+
+  private static int readLength(byte[] der, int[] pos) {
+    int first = der[pos[0]++] & 0xff;
+    if (first < 0x80) {
+      return first;
+    }
+    int len = 0;
+    for (int i = 0; i < (first & 0x7f); i++) {
+      len = (len << 8) | (der[pos[0]++] & 0xff);
+    }
+    return len;
+  }
+
+  private static byte[] tlv(byte tag, byte[] value) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(value.length + 6);
+    out.write(tag);
+    int len = value.length;
+    if (len < 0x80) {
+      out.write(len);
+    } else {
+      int bytes = len > 0xffff ? 3 : len > 0xff ? 2 : 1;
+      out.write(0x80 | bytes);
+      for (int i = bytes - 1; i >= 0; i--) {
+        out.write(len >>> (8 * i));
+      }
+    }
+    out.write(value, 0, value.length);
+    return out.toByteArray();
+  }
+
+  private static byte[] concat(byte[]... parts) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (byte[] part : parts) {
+      out.write(part, 0, part.length);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,108 @@
+package org.parallaxsecond.parsec.client.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.parallaxsecond.parsec.client.Authentication;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Runs operations for many applications over one shared {@link BasicClient}, using direct
+ * authentication.
+ *
+ * <p>
+ * Each application gets an immutable client derived from the shared one, see
+ * {@link BasicClient#withAuthentication(Authentication)}. It holds the application's encoded
+ * authentication data and key cache, and uses the shared connection pool, so serving a new
+ * application costs no round trip to the service. The clients of the {@code maxTenants} most
+ * recently used applications are kept; the others are derived again when needed.
+ *
+ * <pre>
+ * MultiTenantClient tenants = MultiTenantClient.builder().client(BasicClient.client("gateway"))
+ *     .build();
+ * tenants.forApplication("tenant-a").psaSignHash(keyName, hash, alg);
+ * </pre>
+ *
+ * <p>
+ * The service must have the direct authenticator enabled. Use
+ * {@link BasicClient#withAuthentication(Authentication)} for other authentication methods.
+ */
+public class MultiTenantClient {
+  public static final int DEFAULT_MAX_TENANTS = 1024;
+
+  @Getter
+  private final BasicClient client;
+  @Getter
+  private final int maxTenants;
+  private final Map<String, BasicClient> tenants;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * @param client client whose connection pool, provider and timeout the applications share
+   * @param maxTenants number of application clients kept, defaults to
+   *        {@link #DEFAULT_MAX_TENANTS}
+   */
+  @Builder
+  public MultiTenantClient(@NonNull BasicClient client, Integer maxTenants) {
+    this.client = client.toImmutable();
+    this.maxTenants = maxTenants != null ? maxTenants : DEFAULT_MAX_TENANTS;
+    if (this.maxTenants < 1) {
+      throw new IllegalArgumentException("maxTenants must be at least 1, got " + maxTenants);
+    }
+    this.tenants = new LinkedHashMap<String, BasicClient>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, BasicClient> eldest) {
+        return size() > MultiTenantClient.this.maxTenants;
+      }
+    };
+  }
+
+  /** @return an immutable client authenticating as {@code appName} */
+  public BasicClient forApplication(@NonNull String appName) {
+    synchronized (tenants) {
+      BasicClient tenant = tenants.get(appName);
+      if (tenant != null) {
+        hits.increment();
+        return tenant;
+      }
+    }
+    misses.increment();
+    // encode outside of the lock, a concurrent miss for the same application keeps the first one
+    BasicClient tenant = client.withAuthentication(new Authentication.Direct(appName));
+    synchronized (tenants) {
+      BasicClient raced = tenants.putIfAbsent(appName, tenant);
+      return raced != null ? raced : tenant;
+    }
+  }
+
+  /** Forget the client of {@code appName}, e.g. after deleting the application's keys. */
+  public void evict(@NonNull String appName) {
+    synchronized (tenants) {
+      tenants.remove(appName);
+    }
+  }
+
+  /** @return the number of application clients kept */
+  public int size() {
+    synchronized (tenants) {
+      return tenants.size();
+    }
+  }
+
+  /** @return the number of lookups answered with a kept client */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /** @return the number of lookups that derived a new client */
+  public long getMisses() {
+    return misses.sum();
+  }
+}
@@ -2,16 +2,23 @@ package org.parallaxsecond.parsec.client.core;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.parallaxsecond.parsec.client.Authentication;
 import org.parallaxsecond.parsec.client.core.ipc_handler.IpcHandler;
 import org.parallaxsecond.parsec.client.exceptions.ClientException;
 import org.parallaxsecond.parsec.client.exceptions.InvalidServiceResponseTypeException;
 import org.parallaxsecond.parsec.client.exceptions.ServiceException;
+import org.parallaxsecond.parsec.client.metrics.OperationListener;
+import org.parallaxsecond.parsec.client.metrics.Phase;
 import org.parallaxsecond.parsec.protocol.operations.Convert;
 import org.parallaxsecond.parsec.protocol.operations.NativeOperation;
 import org.parallaxsecond.parsec.protocol.operations.NativeResult;
 import org.parallaxsecond.parsec.protocol.operations_protobuf.ProtobufConverter;
+import org.parallaxsecond.parsec.protocol.requests.AuthType;
+import org.parallaxsecond.parsec.protocol.requests.BodyType;
 import org.parallaxsecond.parsec.protocol.requests.InterfaceException;
 import org.parallaxsecond.parsec.protocol.requests.Opcode;
 import org.parallaxsecond.parsec.protocol.requests.ProviderId;
@@ -21,11 +28,14 @@ import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
 import org.parallaxsecond.parsec.protocol.requests.request.RequestHeader;
 import org.parallaxsecond.parsec.protocol.requests.response.Response;
 
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @RequiredArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
 @Builder
 @Slf4j
 public class OperationClient {
@@ -35,6 +45,10 @@ public class OperationClient {
   private final Convert acceptConverter;
   /** Client for request and response objects */
   private final RequestClient requestClient;
+  /** Told about every operation, none if null */
+  private volatile OperationListener listener;
+  /** Shares calls between identical read-only requests, none if null */
+  private volatile RequestCoalescer coalescer;
 
   public static OperationClient withDefaults() {
     return OperationClient.builder().contentConverter(new ProtobufConverter())
@@ -44,15 +58,128 @@ public class OperationClient {
 
   public NativeResult processOperation(NativeOperation operation, ProviderId providerId,
       Authentication auth) {
-    Opcode reqOpCode = operation.getOpcode();
-    Request request = operationToRequest(operation, providerId, auth);
+    return processOperation(operation, providerId, auth, null);
+  }
+
+  /**
+   * Send an operation with its own read and write timeout.
+   *
+   * @param timeout timeout of this operation, the IPC handler's if null
+   */
+  public NativeResult processOperation(NativeOperation operation, ProviderId providerId,
+      Authentication auth, Duration timeout) {
+    OperationTimer timer =
+        OperationTimer.start(listener, operation.getOpcode(), providerId, auth.getAuthType());
+    if (timer == null) {
+      return coalesce(operationToRequest(operation, providerId, auth), operation.getOpcode(), null,
+          timeout);
+    }
+    final Request request;
+    try {
+      request = operationToRequest(operation, providerId, auth);
+    } catch (RuntimeException e) {
+      timer.complete(null, e);
+      throw e;
+    }
+    timer.lap(Phase.ENCODE);
+    return coalesce(request, operation.getOpcode(), timer, timeout);
+  }
+
+  private NativeResult coalesce(Request request, Opcode opcode, OperationTimer timer,
+      Duration timeout) {
+    RequestCoalescer coalescer = this.coalescer;
+    if (coalescer == null || !RequestCoalescer.coalesces(opcode)) {
+      return processRequest(request, opcode, timer, timeout);
+    }
+    return coalescer.call(request, timeout, timer,
+        () -> processRequest(request, opcode, timer, timeout));
+  }
+
+  /** Send a request already encoded for {@code opcode} and decode its result. */
+  NativeResult processRequest(Request request, Opcode opcode, Duration timeout) {
+    return processRequest(request, opcode, timer(request), timeout);
+  }
+
+  private NativeResult processRequest(Request request, Opcode opcode, OperationTimer timer,
+      Duration timeout) {
     Response response = null;
     try {
-      response = requestClient.processRequest(request);
+      response = requestClient.processRequest(request, timer, timeout);
     } catch (IOException e) {
-      throw new ClientException("error in processRequest", e);
+      throw failed(timer, new ClientException("error in processRequest", e));
+    } catch (RuntimeException e) {
+      throw failed(timer, e);
+    } finally {
+      request.close();
+    }
+    return responseToResult(response, opcode, timer);
+  }
+
+  /**
+   * Asynchronous variant of {@link #processOperation(NativeOperation, ProviderId, Authentication)}.
+   *
+   * <p>
+   * The request is encoded on the calling thread, the response is decoded once it arrives. The
+   * future fails with the same exceptions the blocking call would throw.
+   */
+  public CompletableFuture<NativeResult> processOperationAsync(NativeOperation operation,
+      ProviderId providerId, Authentication auth) {
+    return processOperationAsync(operation, providerId, auth, null);
+  }
+
+  /**
+   * Asynchronous variant of
+   * {@link #processOperation(NativeOperation, ProviderId, Authentication, Duration)}.
+   */
+  public CompletableFuture<NativeResult> processOperationAsync(NativeOperation operation,
+      ProviderId providerId, Authentication auth, Duration timeout) {
+    final Request request;
+    try {
+      request = operationToRequest(operation, providerId, auth);
+    } catch (RuntimeException e) {
+      CompletableFuture<NativeResult> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+    return processRequestAsync(request, operation.getOpcode(), timeout);
+  }
+
+  /** @return the executor of async callbacks and blocking work done for async callers */
+  Executor asyncExecutor() {
+    return requestClient.asyncExecutor();
+  }
+
+  /** Asynchronous variant of {@link #processRequest(Request, Opcode, Duration)}. */
+  CompletableFuture<NativeResult> processRequestAsync(Request request, Opcode opcode,
+      Duration timeout) {
+    OperationTimer timer = timer(request);
+    return requestClient.processRequestAsync(request, timer, timeout).handle((response, e) -> {
+      request.close();
+      if (e != null) {
+        Throwable cause =
+            e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof IOException) {
+          throw failed(timer, new ClientException("error in processRequest", (IOException) cause));
+        }
+        throw failed(timer, cause instanceof RuntimeException ? (RuntimeException) cause
+            : new CompletionException(cause));
+      }
+      return responseToResult(response, opcode, timer);
+    });
+  }
+
+  /** @return a timer for a request already encoded, null if the operation is not observed */
+  private OperationTimer timer(Request request) {
+    RequestHeader header = request.getHeader();
+    return OperationTimer.start(listener, header.getOpcode(), header.getProvider(),
+        header.getAuthType());
+  }
+
+  private static RuntimeException failed(OperationTimer timer, RuntimeException e) {
+    if (timer != null) {
+      timer.complete(null, e);
     }
-    return responseToResult(response, reqOpCode);
+    return e;
   }
 
   private Request operationToRequest(NativeOperation operation, ProviderId providerId,
@@ -65,31 +192,70 @@ public class OperationClient {
     } catch (Exception e) {
       throw new InterfaceException(e);
     }
+    RequestHeader header = requestHeader(opcode, providerId, auth.getAuthType());
+    return Request.builder().header(header).body(body).auth(auth.createRequestAuth()).build();
+  }
+
+  RequestHeader requestHeader(Opcode opcode, ProviderId providerId, AuthType authType) {
     // no provisioning of sessions yet
-    RequestHeader header = RequestHeader.builder().provider(providerId).session(0)
+    return RequestHeader.builder().provider(providerId).session(0)
         .contentType(contentConverter.bodyType()).acceptType(acceptConverter.bodyType())
-        .authType(auth.getAuthType()).opcode(opcode).build();
-    return Request.builder().header(header).body(body).auth(auth.createRequestAuth()).build();
+        .authType(authType).opcode(opcode).build();
   }
 
-  private NativeResult responseToResult(Response response, Opcode expectedOpcode) {
-    ResponseStatus status = response.getHeader().getStatus();
-    if (status != ResponseStatus.Success) {
-      throw new ServiceException(status);
-    }
+  BodyType contentType() {
+    return contentConverter.bodyType();
+  }
 
-    Opcode opcode = response.getHeader().getOpcode();
-    if (opcode != expectedOpcode) {
-      throw new InvalidServiceResponseTypeException(expectedOpcode, opcode);
+  private NativeResult responseToResult(Response response, Opcode expectedOpcode,
+      OperationTimer timer) {
+    if (timer == null) {
+      return responseToResult(response, expectedOpcode);
+    }
+    try {
+      NativeResult result = responseToResult(response, expectedOpcode);
+      timer.lap(Phase.DECODE);
+      timer.complete(response.getHeader().getStatus(), null);
+      return result;
+    } catch (RuntimeException e) {
+      timer.lap(Phase.DECODE);
+      timer.complete(response.getHeader().getStatus(), e);
+      throw e;
     }
+  }
 
+  private NativeResult responseToResult(Response response, Opcode expectedOpcode) {
     try {
-      return acceptConverter.bodyToResult(response.getBody(), opcode);
-    } catch (Exception e) {
-      throw new InterfaceException(e);
+      ResponseStatus status = response.getHeader().getStatus();
+      if (status != ResponseStatus.Success) {
+        throw new ServiceException(status);
+      }
+
+      Opcode opcode = response.getHeader().getOpcode();
+      if (opcode != expectedOpcode) {
+        throw new InvalidServiceResponseTypeException(expectedOpcode, opcode);
+      }
+
+      try {
+        return acceptConverter.bodyToResult(response.getBody(), opcode);
+      } catch (Exception e) {
+        throw new InterfaceException(e);
+      }
+    } finally {
+      // the converters copy what they need out of the body
+      response.getBody().release();
     }
   }
 
+  /**
+   * @return a client sharing the converters and connections of this one, starting with the same
+   *         listener and coalescing settings, which it can then change on its own
+   */
+  OperationClient view() {
+    return new OperationClient(contentConverter, acceptConverter, requestClient, listener,
+        coalescer);
+  }
+
   void setMaxBodySize(long maxBodySize) {
     this.requestClient.setMaxBodySize(maxBodySize);
   }
@@ -101,4 +267,20 @@ public class OperationClient {
   void setTimeout(Duration timeout) {
     this.requestClient.setTimeout(timeout);
   }
+
+  void setListener(OperationListener listener) {
+    this.listener = listener;
+  }
+
+  void setCoalescing(boolean coalescing) {
+    if (coalescing != (this.coalescer != null)) {
+      this.coalescer = coalescing ? new RequestCoalescer() : null;
+    }
+  }
+
+  /** @return the number of requests that shared the call of an identical request */
+  long getCoalesced() {
+    RequestCoalescer coalescer = this.coalescer;
+    return coalescer != null ? coalescer.getCoalesced() : 0;
+  }
 }
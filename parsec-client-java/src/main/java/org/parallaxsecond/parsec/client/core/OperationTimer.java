@@ -0,0 +1,139 @@
+package org.parallaxsecond.parsec.client.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+
+import org.parallaxsecond.parsec.client.metrics.OperationEvent;
+import org.parallaxsecond.parsec.client.metrics.OperationListener;
+import org.parallaxsecond.parsec.client.metrics.Phase;
+import org.parallaxsecond.parsec.protocol.requests.AuthType;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Times the phases of one operation and reports them to an {@link OperationListener} and to the
+ * {@link FlightRecording}. Only created when one of them wants the operation. Used by one thread at
+ * a time, possibly handed over through a future.
+ */
+@Slf4j
+final class OperationTimer {
+  private final OperationListener listener;
+  private final FlightRecording recording;
+  private final Opcode opcode;
+  private final ProviderId provider;
+  private final AuthType authType;
+  private final long start;
+  private final long[] phaseNanos = new long[Phase.values().length];
+  private long mark;
+  private long requestBytes;
+  private long responseBytes;
+
+  private OperationTimer(OperationListener listener, FlightRecording recording, Opcode opcode,
+      ProviderId provider, AuthType authType) {
+    this.listener = listener;
+    this.recording = recording;
+    this.opcode = opcode;
+    this.provider = provider;
+    this.authType = authType;
+    this.start = System.nanoTime();
+    this.mark = start;
+  }
+
+  /** @return a timer for an operation starting now, null if nobody wants it */
+  static OperationTimer start(OperationListener listener, Opcode opcode, ProviderId provider,
+      AuthType authType) {
+    FlightRecording recording = FlightRecording.start(opcode, provider, authType);
+    if (listener == null && recording == null) {
+      return null;
+    }
+    return new OperationTimer(listener, recording, opcode, provider, authType);
+  }
+
+  /** Account the time since the previous lap to {@code phase}. */
+  void lap(Phase phase) {
+    long now = System.nanoTime();
+    phaseNanos[phase.ordinal()] += now - mark;
+    if (recording != null) {
+      recording.lap(phase, now - mark, requestBytes, responseBytes);
+    }
+    mark = now;
+  }
+
+  void sent(long bytes) {
+    requestBytes += bytes;
+  }
+
+  void received(long bytes) {
+    responseBytes += bytes;
+  }
+
+  /**
+   * @return {@code channel}, counting the bytes exchanged and ending {@link Phase#SERVICE_WAIT}
+   *         when the first response bytes arrive
+   */
+  ByteChannel channel(ByteChannel channel) {
+    return new TimedChannel(channel);
+  }
+
+  /** Report the operation to the listener and the flight recorder. */
+  void complete(ResponseStatus status, RuntimeException error) {
+    if (recording != null) {
+      recording.complete(status, error, requestBytes, responseBytes);
+    }
+    if (listener == null) {
+      return;
+    }
+    OperationEvent event = OperationEvent.builder().opcode(opcode).provider(provider)
+        .authType(authType).status(status).error(error).requestBytes(requestBytes)
+        .responseBytes(responseBytes).durationNanos(System.nanoTime() - start)
+        .phaseNanos(phaseNanos).build();
+    try {
+      listener.operationCompleted(event);
+    } catch (RuntimeException e) {
+      log.warn("Operation listener failed", e);
+    }
+  }
+
+  private final class TimedChannel implements ByteChannel {
+    private final ByteChannel channel;
+    private boolean responding;
+
+    private TimedChannel(ByteChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+      int n = channel.read(dst);
+      if (n > 0) {
+        if (!responding) {
+          responding = true;
+          lap(Phase.SERVICE_WAIT);
+        }
+        received(n);
+      }
+      return n;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+      int n = channel.write(src);
+      sent(n);
+      return n;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package org.parallaxsecond.parsec.client.core;
+
+import java.util.Set;
+
+import org.parallaxsecond.parsec.protobuf.psa_key_attributes.PsaKeyAttributes;
+import org.parallaxsecond.parsec.protocol.operations.NativeResult.ListKeysResult.KeyInfo;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+
+/**
+ * Tells, from cached metadata, whether the service would reject an operation before running it.
+ *
+ * <p>
+ * Only the checks the service makes first are repeated: whether the provider supports the opcode,
+ * and whether the key policy allows its usage. Anything that cannot be told for sure, such as a key
+ * missing from the cached listing, is left to the service.
+ */
+final class Preflight {
+  private Preflight() {}
+
+  /**
+   * @param supported opcodes of the provider, null if not known
+   * @param key key used by the operation, null if none or not known
+   * @return the status the service would fail with, null if the operation may succeed
+   */
+  static ResponseStatus check(Opcode opcode, ProviderId provider, Set<Opcode> supported,
+      KeyInfo key) {
+    if (supported != null && !supported.contains(opcode)) {
+      return ResponseStatus.PsaErrorNotSupported;
+    }
+    if (key == null || key.getProviderId() != provider || key.getAttributes() == null) {
+      return null;
+    }
+    PsaKeyAttributes.UsageFlags usage = key.getAttributes().getKeyPolicy().getKeyUsageFlags();
+    return permitted(opcode, usage) ? null : ResponseStatus.PsaErrorNotPermitted;
+  }
+
+  /** @return whether the usage flags of a key allow {@code opcode} */
+  private static boolean permitted(Opcode opcode, PsaKeyAttributes.UsageFlags usage) {
+    switch (opcode) {
+      case PSA_SIGN_HASH:
+        return usage.getSignHash();
+      case PSA_VERIFY_HASH:
+        return usage.getVerifyHash();
+      case PSA_SIGN_MESSAGE:
+        // signing hashes permits signing messages too
+        return usage.getSignMessage() || usage.getSignHash();
+      case PSA_VERIFY_MESSAGE:
+        return usage.getVerifyMessage() || usage.getVerifyHash();
+      case PSA_ASYMMETRIC_ENCRYPT:
+      case PSA_AEAD_ENCRYPT:
+        return usage.getEncrypt();
+      case PSA_ASYMMETRIC_DECRYPT:
+      case PSA_AEAD_DECRYPT:
+        return usage.getDecrypt();
+      case PSA_EXPORT_KEY:
+        return usage.getExport();
+      case PSA_RAW_KEY_AGREEMENT:
+        return usage.getDerive();
+      default:
+        return true;
+    }
+  }
+}
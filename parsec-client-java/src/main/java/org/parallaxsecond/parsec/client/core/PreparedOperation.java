@@ -0,0 +1,91 @@
+package org.parallaxsecond.parsec.client.core;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.parallaxsecond.parsec.client.Authentication;
+import org.parallaxsecond.parsec.client.exceptions.InvalidServiceResponseTypeException;
+import org.parallaxsecond.parsec.protocol.operations.NativeResult;
+import org.parallaxsecond.parsec.protocol.operations_protobuf.PreparedBody;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+import org.parallaxsecond.parsec.protocol.requests.request.Request;
+import org.parallaxsecond.parsec.protocol.requests.request.RequestAuth;
+import org.parallaxsecond.parsec.protocol.requests.request.RequestTemplate;
+
+import lombok.Getter;
+
+/**
+ * Cryptographic operation with a fixed key and algorithm, created by one of the
+ * {@code BasicClient.prepare*} methods.
+ *
+ * <p>
+ * The request header, the key name and algorithm, and the authentication data when it cannot
+ * change, are encoded once. Each call then only encodes the inputs that vary, such as the hash to
+ * sign. The provider, authentication and timeout of the client are captured when the operation is
+ * prepared.
+ *
+ * <p>
+ * Prepared operations are thread safe.
+ */
+public final class PreparedOperation<R extends NativeResult> {
+  private final OperationClient operationClient;
+  @Getter
+  private final Opcode opcode;
+  private final RequestTemplate template;
+  private final PreparedBody body;
+  private final Authentication authData;
+  /** Created once if the credentials cannot change, null otherwise */
+  private final RequestAuth auth;
+  private final Class<R> resultType;
+  /** Timeout of each call, the IPC handler's if null */
+  private final Duration timeout;
+
+  PreparedOperation(OperationClient operationClient, Opcode opcode, ProviderId providerId,
+      Authentication authData, Duration timeout, PreparedBody body, Class<R> resultType) {
+    this.operationClient = operationClient;
+    this.opcode = opcode;
+    this.template = new RequestTemplate(
+        operationClient.requestHeader(opcode, providerId, authData.getAuthType()));
+    this.body = body;
+    this.authData = authData;
+    this.auth = authData.hasStaticCredentials() ? authData.createRequestAuth() : null;
+    this.resultType = resultType;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Run the operation.
+   *
+   * @param inputs the variable inputs, in the order documented by the method that prepared the
+   *     operation. They are not copied and must not be modified until the call returns.
+   */
+  public R process(byte[]... inputs) {
+    return cast(operationClient.processRequest(newRequest(inputs), opcode, timeout));
+  }
+
+  /** Asynchronous variant of {@link #process(byte[]...)}. */
+  public CompletableFuture<R> processAsync(byte[]... inputs) {
+    final Request request;
+    try {
+      request = newRequest(inputs);
+    } catch (RuntimeException e) {
+      CompletableFuture<R> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+    return operationClient.processRequestAsync(request, opcode, timeout).thenApply(this::cast);
+  }
+
+  private Request newRequest(byte[]... inputs) {
+    return template.newRequest(body.body(inputs),
+        auth != null ? auth : authData.createRequestAuth());
+  }
+
+  private R cast(NativeResult res) {
+    if (resultType.isInstance(res)) {
+      return resultType.cast(res);
+    }
+    throw new InvalidServiceResponseTypeException();
+  }
+}
@@ -0,0 +1,259 @@
+package org.parallaxsecond.parsec.client.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Random bytes fetched from the service ahead of time, so that small requests are served from
+ * memory instead of a round trip each.
+ *
+ * <pre>
+ * RandomReservoir random = RandomReservoir.builder().source(client::psaGenerateRandom).build();
+ * byte[] sessionId = random.generate(16);
+ * </pre>
+ *
+ * <p>
+ * Requests of up to {@code chunkSize} bytes are served from the reservoir. Once it holds fewer than
+ * {@code lowWaterMark} bytes, it is filled up again in the background, {@code chunkSize} bytes at a
+ * time. A request the reservoir cannot serve yet goes to the service. Larger requests go to the
+ * service directly, split into chunks of {@code chunkSize} bytes fetched in parallel. Bytes are
+ * wiped from memory once handed out, and all of them on {@link #close()}.
+ */
+@Slf4j
+public final class RandomReservoir implements AutoCloseable {
+  public static final int DEFAULT_CAPACITY = 4096;
+  public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+  private final IntFunction<byte[]> source;
+  private final int chunkSize;
+  private final int lowWaterMark;
+  private final Executor executor;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder fetches = new LongAdder();
+  /** Ring buffer of unused bytes, guarded by {@code this} */
+  private final byte[] buffer;
+  private int start;
+  private int available;
+  private boolean refilling;
+  private boolean closed;
+
+  /**
+   * @param source fetches random bytes from the service, e.g. {@code client::psaGenerateRandom}
+   * @param capacity max bytes held, defaults to {@link #DEFAULT_CAPACITY}
+   * @param lowWaterMark bytes held below which the reservoir is filled up, half the capacity by
+   *        default
+   * @param chunkSize bytes fetched per request to the service, and largest request served from the
+   *        reservoir, defaults to {@link #DEFAULT_CHUNK_SIZE} or the capacity if smaller
+   * @param executor runs the background refills and parallel fetches, defaults to a shared pool of
+   *        daemon threads
+   */
+  @Builder
+  public RandomReservoir(@NonNull IntFunction<byte[]> source, Integer capacity,
+      Integer lowWaterMark, Integer chunkSize, Executor executor) {
+    int size = capacity != null ? capacity : DEFAULT_CAPACITY;
+    if (size < 1) {
+      throw new IllegalArgumentException("capacity must be positive, got " + capacity);
+    }
+    this.chunkSize = chunkSize != null ? chunkSize : Math.min(DEFAULT_CHUNK_SIZE, size);
+    if (this.chunkSize < 1 || this.chunkSize > size) {
+      throw new IllegalArgumentException(
+          "chunkSize must be between 1 and the capacity, got " + chunkSize);
+    }
+    this.lowWaterMark = lowWaterMark != null ? lowWaterMark : size / 2;
+    if (this.lowWaterMark < 0 || this.lowWaterMark >= size) {
+      throw new IllegalArgumentException(
+          "lowWaterMark must be between 0 and the capacity, got " + lowWaterMark);
+    }
+    this.source = source;
+    this.executor = executor != null ? executor : DefaultExecutor.INSTANCE;
+    this.buffer = new byte[size];
+  }
+
+  /** @return {@code size} random bytes */
+  public byte[] generate(int size) {
+    byte[] bytes = new byte[size];
+    nextBytes(bytes);
+    return bytes;
+  }
+
+  /** Fill {@code bytes} with random bytes. */
+  public void nextBytes(byte[] bytes) {
+    if (bytes.length > chunkSize) {
+      misses.increment();
+      fetchParallel(bytes);
+      return;
+    }
+    boolean served;
+    boolean refill;
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("random reservoir is closed");
+      }
+      served = available >= bytes.length;
+      if (served) {
+        take(bytes);
+      }
+      refill = !refilling && (!served || available < lowWaterMark);
+      refilling |= refill;
+    }
+    if (refill) {
+      startRefill();
+    }
+    if (served) {
+      hits.increment();
+    } else {
+      misses.increment();
+      fetchInto(bytes, 0);
+    }
+  }
+
+  /** @return the number of requests served from the reservoir */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /** @return the number of requests that went to the service */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /** @return the number of requests made to the service, for refills or not */
+  public long getFetches() {
+    return fetches.sum();
+  }
+
+  /** @return the max number of bytes held */
+  public int getCapacity() {
+    return buffer.length;
+  }
+
+  /** @return the number of bytes held */
+  public synchronized int getAvailable() {
+    return available;
+  }
+
+  /** Wipe the bytes held and stop refilling. */
+  @Override
+  public synchronized void close() {
+    closed = true;
+    Arrays.fill(buffer, (byte) 0);
+    available = 0;
+  }
+
+  private void startRefill() {
+    try {
+      executor.execute(this::refill);
+    } catch (RejectedExecutionException e) {
+      log.warn("Cannot refill the random reservoir", e);
+      synchronized (this) {
+        refilling = false;
+      }
+    }
+  }
+
+  private void refill() {
+    try {
+      while (true) {
+        int size;
+        synchronized (this) {
+          size = closed ? 0 : Math.min(chunkSize, buffer.length - available);
+        }
+        if (size == 0) {
+          return;
+        }
+        byte[] bytes = fetch(size);
+        synchronized (this) {
+          if (!closed) {
+            put(bytes, Math.min(bytes.length, buffer.length - available));
+          }
+        }
+        Arrays.fill(bytes, (byte) 0);
+      }
+    } catch (RuntimeException e) {
+      // the next requests go to the service and try again
+      log.warn("Cannot refill the random reservoir", e);
+    } finally {
+      synchronized (this) {
+        refilling = false;
+      }
+    }
+  }
+
+  private void fetchParallel(byte[] bytes) {
+    List<CompletableFuture<Void>> chunks = new ArrayList<>();
+    for (int offset = chunkSize; offset < bytes.length; offset += chunkSize) {
+      int chunkOffset = offset;
+      chunks.add(CompletableFuture.runAsync(() -> fetchInto(bytes, chunkOffset), executor));
+    }
+    fetchInto(bytes, 0);
+    try {
+      CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).join();
+    } catch (CompletionException e) {
+      Arrays.fill(bytes, (byte) 0);
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private void fetchInto(byte[] bytes, int offset) {
+    int size = Math.min(chunkSize, bytes.length - offset);
+    byte[] chunk = fetch(size);
+    System.arraycopy(chunk, 0, bytes, offset, size);
+    Arrays.fill(chunk, (byte) 0);
+  }
+
+  private byte[] fetch(int size) {
+    fetches.increment();
+    byte[] bytes = source.apply(size);
+    if (bytes.length < size) {
+      throw new IllegalStateException(
+          "expected " + size + " random bytes from the service, got " + bytes.length);
+    }
+    return bytes;
+  }
+
+  /** Move the oldest {@code bytes.length} bytes to {@code bytes}, wiping them. */
+  private void take(byte[] bytes) {
+    int first = Math.min(bytes.length, buffer.length - start);
+    System.arraycopy(buffer, start, bytes, 0, first);
+    Arrays.fill(buffer, start, start + first, (byte) 0);
+    System.arraycopy(buffer, 0, bytes, first, bytes.length - first);
+    Arrays.fill(buffer, 0, bytes.length - first, (byte) 0);
+    start = (start + bytes.length) % buffer.length;
+    available -= bytes.length;
+  }
+
+  /** Append the first {@code length} bytes of {@code bytes}. */
+  private void put(byte[] bytes, int length) {
+    int end = (start + available) % buffer.length;
+    int first = Math.min(length, buffer.length - end);
+    System.arraycopy(bytes, 0, buffer, end, first);
+    System.arraycopy(bytes, first, buffer, 0, length - first);
+    available += length;
+  }
+
+  private static final class DefaultExecutor {
+    private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(r -> {
+      Thread thread = Executors.defaultThreadFactory().newThread(r);
+      thread.setName("parsec-random-" + thread.getName());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+}
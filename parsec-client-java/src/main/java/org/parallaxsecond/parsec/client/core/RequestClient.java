@@ -1,15 +1,28 @@
 package org.parallaxsecond.parsec.client.core;
 
 import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.nio.channels.ByteChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.parallaxsecond.parsec.client.core.ipc_handler.ConnectionPool;
+import org.parallaxsecond.parsec.client.core.ipc_handler.ConnectionPool.PooledConnection;
 import org.parallaxsecond.parsec.client.core.ipc_handler.IpcHandler;
+import org.parallaxsecond.parsec.client.core.ipc_handler.SelectorLoop;
+import org.parallaxsecond.parsec.client.core.ipc_handler.TimeoutChannel;
 import org.parallaxsecond.parsec.client.core.ipc_handler.UnixSocket;
+import org.parallaxsecond.parsec.client.exceptions.ConnectionClosedException;
+import org.parallaxsecond.parsec.client.metrics.Phase;
 import org.parallaxsecond.parsec.protocol.requests.request.Request;
 import org.parallaxsecond.parsec.protocol.requests.response.Response;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
 
@@ -17,11 +30,18 @@ import lombok.extern.slf4j.Slf4j;
  * Low level client structure optimised for communicating with the service at a request level of
  * abstraction Usage is recommended when fine control over the request header and IPC handler is
  * needed.
+ *
+ * <p>
+ * Connections are taken from a {@link ConnectionPool} unless {@code maxPoolSize} is set to 0, in
+ * which case a new connection is opened and closed for every request.
+ *
+ * <p>
+ * {@link #processRequestAsync(Request)} multiplexes requests on a {@link SelectorLoop} when the IPC
+ * handler provides selectable channels, and runs {@link #processRequest(Request)} on the async
+ * executor otherwise.
  */
-@Builder
-@AllArgsConstructor
 @Slf4j
-public class RequestClient {
+public class RequestClient implements AutoCloseable {
   // FIXME taken from the rust code, seems unreasonably big
   private static final long DEFAULT_MAX_BODY_SIZE = Long.MAX_VALUE;
   /**
@@ -32,33 +52,308 @@ public class RequestClient {
    * Handler for IPC-related functionality Defaults to using Unix domain sockets
    */
   private IpcHandler ipcHandler;
+  /** Max number of open connections, 0 disables pooling */
+  private final int maxPoolSize;
+  private final Duration poolBorrowTimeout;
+  private final Duration poolIdleTimeout;
+  private final Duration poolMaxLifetime;
+  private final boolean poolValidateOnBorrow;
+  private volatile ConnectionPool connectionPool;
+  /** Executor for decoding async responses, or running blocking requests for async callers */
+  private final Executor asyncExecutor;
+  private Duration timeout = IpcHandler.DEFAULT_TIMEOUT;
+  private SelectorLoop selectorLoop;
+
+  /**
+   * @param maxPoolSize max number of open connections, defaults to
+   *        {@link ConnectionPool#DEFAULT_MAX_SIZE}. 0 disables pooling.
+   * @param poolBorrowTimeout max time to wait for a free connection
+   * @param poolIdleTimeout time after which an unused connection is closed
+   * @param poolMaxLifetime time after which a connection is closed regardless of use
+   * @param poolValidateOnBorrow check that idle connections are still open before reusing them,
+   *        defaults to true
+   * @param asyncExecutor executor used by {@link #processRequestAsync(Request)}, defaults to a
+   *        shared pool of daemon threads
+   */
+  @Builder
+  public RequestClient(long maxBodySize, IpcHandler ipcHandler, Integer maxPoolSize,
+      Duration poolBorrowTimeout, Duration poolIdleTimeout, Duration poolMaxLifetime,
+      Boolean poolValidateOnBorrow, Executor asyncExecutor) {
+    this.maxBodySize = maxBodySize;
+    this.ipcHandler = ipcHandler;
+    this.maxPoolSize = maxPoolSize != null ? maxPoolSize : ConnectionPool.DEFAULT_MAX_SIZE;
+    this.poolBorrowTimeout = poolBorrowTimeout;
+    this.poolIdleTimeout = poolIdleTimeout;
+    this.poolMaxLifetime = poolMaxLifetime;
+    this.poolValidateOnBorrow = poolValidateOnBorrow == null || poolValidateOnBorrow;
+    this.connectionPool = createPool(ipcHandler);
+    this.asyncExecutor = asyncExecutor != null ? asyncExecutor : DefaultAsyncExecutor.INSTANCE;
+  }
 
   public static RequestClient withDefaults() {
     return RequestClient.builder().maxBodySize(DEFAULT_MAX_BODY_SIZE)
-        .ipcHandler(UnixSocket.withDefaults()).build();
+        .ipcHandler(IpcHandler.unixSocket(UnixSocket.DEFAULT_SOCKET_PATH)).build();
   }
 
   /** Send a request and get a response. */
   public Response processRequest(Request request) throws IOException {
+    return processRequest(request, null, null);
+  }
+
+  /**
+   * Send a request and get a response, timing the exchange with {@code timer} if not null.
+   *
+   * @param timeout read and write timeout of this request, the IPC handler's if null. Only applied
+   *        to connections implementing {@link TimeoutChannel}.
+   */
+  Response processRequest(Request request, OperationTimer timer, Duration timeout)
+      throws IOException {
     log.info("Processing request: " + request);
-    // Try to connect once, wait for a timeout until trying again.
-    try (ByteChannel stream = ipcHandler.connect()) {
-      log.info("Connected to stream");
-      request.writeToStream(stream);
+    ConnectionPool pool = this.connectionPool;
+    if (pool == null) {
+      // Try to connect once, wait for a timeout until trying again.
+      try (ByteChannel stream = ipcHandler.connect()) {
+        log.info("Connected to stream");
+        return exchange(stream, request, timer, timeout);
+      }
+    }
+    PooledConnection connection = pool.borrow();
+    try {
+      return exchange(pool, connection, request, timer, timeout);
+    } catch (ConnectionClosedException e) {
+      // the service may close an idle connection at any time. A request it did not read in full
+      // cannot have run, and a read-only one is harmless to run twice: both can be sent again.
+      boolean unsent = e instanceof UnsentRequestException;
+      if (!connection.isReused() || connection.bytesRead() > 0
+          || !(unsent || request.getHeader().getOpcode().isReadOnly())) {
+        throw e;
+      }
+      log.debug("pooled connection was closed by the service, retrying on a new connection");
+      return exchange(pool, pool.borrowFresh(), request, timer, timeout);
+    }
+  }
+
+  private Response exchange(ConnectionPool pool, PooledConnection connection, Request request,
+      OperationTimer timer, Duration timeout) throws IOException {
+    boolean reusable = false;
+    try {
+      Response response = exchange(connection, request, timer, timeout);
+      reusable = true;
+      return response;
+    } finally {
+      pool.release(connection, reusable);
+    }
+  }
+
+  private Response exchange(ByteChannel stream, Request request, OperationTimer timer,
+      Duration timeout) throws IOException {
+    Duration previous = null;
+    if (timeout != null && stream instanceof TimeoutChannel) {
+      previous = ((TimeoutChannel) stream).getTimeout();
+      ((TimeoutChannel) stream).setTimeout(timeout);
+    }
+    try {
+      return exchange(stream, request, timer);
+    } finally {
+      // pooled connections go back to callers using the default timeout
+      if (previous != null && stream.isOpen()) {
+        ((TimeoutChannel) stream).setTimeout(previous);
+      }
+    }
+  }
+
+  private Response exchange(ByteChannel stream, Request request, OperationTimer timer)
+      throws IOException {
+    if (timer == null) {
+      write(stream, request);
       log.info("Wrote request to stream");
       return Response.readFromStream(stream, maxBodySize);
     }
+    timer.lap(Phase.CONNECT);
+    ByteChannel channel = timer.channel(stream);
+    write(channel, request);
+    log.info("Wrote request to stream");
+    timer.lap(Phase.WRITE);
+    Response response = Response.readFromStream(channel, maxBodySize);
+    timer.lap(Phase.READ);
+    return response;
+  }
+
+  private static void write(ByteChannel stream, Request request) throws IOException {
+    try {
+      request.writeToStream(stream);
+    } catch (ConnectionClosedException e) {
+      throw new UnsentRequestException(e.getMessage());
+    }
+  }
+
+  /** Send a request without blocking the caller. */
+  public CompletableFuture<Response> processRequestAsync(Request request) {
+    return processRequestAsync(request, null, null);
+  }
+
+  /** Asynchronous variant of {@link #processRequest(Request, OperationTimer, Duration)}. */
+  CompletableFuture<Response> processRequestAsync(Request request, OperationTimer timer,
+      Duration timeout) {
+    SelectorLoop loop = selectorLoop();
+    if (loop == null) {
+      return CompletableFuture.supplyAsync(() -> {
+        try {
+          return processRequest(request, timer, timeout);
+        } catch (IOException e) {
+          throw new CompletionException(e);
+        }
+      }, asyncExecutor);
+    }
+    log.debug("Processing async request: {}", request.getHeader().getOpcode());
+    ByteBuffer frame;
+    try {
+      frame = request.toByteBuffer();
+    } catch (RuntimeException e) {
+      CompletableFuture<Response> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+    Runnable written = null;
+    if (timer != null) {
+      timer.sent(frame.remaining());
+      written = () -> timer.lap(Phase.WRITE);
+    }
+    CompletableFuture<ByteBuffer> response = loop.exchange(frame, timeout, written);
+    // the loop is done with the frame once the exchange completes, either way
+    response.whenComplete((r, e) -> request.wipeAuth(frame));
+    // responses are completed on the selector thread, keep decoding off it
+    return response.thenApplyAsync(r -> decode(r, timer), asyncExecutor);
+  }
+
+  /** @return the executor of async callbacks and blocking work done for async callers */
+  Executor asyncExecutor() {
+    return asyncExecutor;
+  }
+
+  private synchronized SelectorLoop selectorLoop() {
+    if (selectorLoop != null && selectorLoop.isClosed()) {
+      // the event loop stopped on an unexpected error, start a new one
+      selectorLoop = null;
+    }
+    if (selectorLoop == null && ipcHandler != null && ipcHandler.isSelectable()) {
+      selectorLoop = SelectorLoop.builder().ipcHandler(ipcHandler)
+          .maxConnections(maxPoolSize > 0 ? maxPoolSize : SelectorLoop.DEFAULT_MAX_CONNECTIONS)
+          .timeout(timeout).idleTimeout(poolIdleTimeout).maxBodySize(maxBodySize).build();
+    }
+    return selectorLoop;
+  }
+
+  private Response decode(ByteBuffer frame, OperationTimer timer) {
+    try {
+      if (timer == null) {
+        return Response.readFromStream(new FrameChannel(frame), maxBodySize);
+      }
+      timer.lap(Phase.SERVICE_WAIT);
+      timer.received(frame.remaining());
+      Response response = Response.readFromStream(new FrameChannel(frame), maxBodySize);
+      timer.lap(Phase.READ);
+      return response;
+    } catch (IOException e) {
+      throw new CompletionException(e);
+    }
+  }
+
+  /** Close all pooled connections. */
+  @Override
+  public synchronized void close() {
+    ConnectionPool pool = this.connectionPool;
+    if (pool != null) {
+      pool.close();
+    }
+    if (selectorLoop != null) {
+      selectorLoop.close();
+      selectorLoop = null;
+    }
+  }
+
+  private ConnectionPool createPool(IpcHandler ipcHandler) {
+    if (maxPoolSize <= 0 || ipcHandler == null) {
+      return null;
+    }
+    return ConnectionPool.builder().ipcHandler(ipcHandler).maxSize(maxPoolSize)
+        .borrowTimeout(poolBorrowTimeout).idleTimeout(poolIdleTimeout)
+        .maxLifetime(poolMaxLifetime).validateOnBorrow(poolValidateOnBorrow).build();
   }
 
   void setMaxBodySize(long maxBodySize) {
     this.maxBodySize = maxBodySize;
   }
 
-  void setIpcHandler(IpcHandler ipcHandler) {
+  synchronized void setIpcHandler(IpcHandler ipcHandler) {
     this.ipcHandler = ipcHandler;
+    ConnectionPool previous = this.connectionPool;
+    this.connectionPool = createPool(ipcHandler);
+    if (previous != null) {
+      previous.close();
+    }
+    if (selectorLoop != null) {
+      selectorLoop.close();
+      selectorLoop = null;
+    }
   }
 
-  void setTimeout(Duration timeout) {
+  synchronized void setTimeout(Duration timeout) {
+    this.timeout = timeout;
     this.ipcHandler.setTimeout(timeout);
+    if (selectorLoop != null) {
+      selectorLoop.setTimeout(timeout);
+    }
+    ConnectionPool pool = this.connectionPool;
+    if (pool != null) {
+      // idle connections were opened with the previous timeout
+      pool.evictAll();
+    }
+  }
+
+  /** The connection was closed before the whole request was written. */
+  private static final class UnsentRequestException extends ConnectionClosedException {
+    private UnsentRequestException(String message) {
+      super(message);
+    }
+  }
+
+  /** Reads a response frame already held in memory. */
+  private static final class FrameChannel implements ReadableByteChannel {
+    private final ByteBuffer frame;
+
+    private FrameChannel(ByteBuffer frame) {
+      this.frame = frame;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) {
+      if (!frame.hasRemaining()) {
+        return -1;
+      }
+      int n = Math.min(dst.remaining(), frame.remaining());
+      ByteBuffer chunk = frame.duplicate();
+      ((Buffer) chunk).limit(chunk.position() + n);
+      dst.put(chunk);
+      ((Buffer) frame).position(frame.position() + n);
+      return n;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  private static final class DefaultAsyncExecutor {
+    private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(r -> {
+      Thread thread = Executors.defaultThreadFactory().newThread(r);
+      thread.setName("parsec-async-" + thread.getName());
+      thread.setDaemon(true);
+      return thread;
+    });
   }
 }
@@ -0,0 +1,159 @@
+package org.parallaxsecond.parsec.client.core;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.parallaxsecond.parsec.client.metrics.Phase;
+import org.parallaxsecond.parsec.protocol.operations.NativeResult;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+import org.parallaxsecond.parsec.protocol.requests.request.Request;
+import org.parallaxsecond.parsec.protocol.requests.request.RequestHeader;
+
+/**
+ * Shares one call to the service between identical requests sent at the same time.
+ *
+ * <p>
+ * Only the small read-only requests of {@link #coalesces(Opcode)} are shared: hashing the payload
+ * of a hash or a verification would cost more than the call it saves. Requests are identical when
+ * they have the same header, authentication, body and timeout. A request arriving while an
+ * identical one is in flight waits for it and gets the same result, or the same exception, instead
+ * of opening its own connection. Results are shared, callers must not modify them.
+ */
+final class RequestCoalescer {
+  /** Listings, ping and public key export */
+  private static final Set<Opcode> COALESCED = EnumSet.of(Opcode.PING, Opcode.LIST_PROVIDERS,
+      Opcode.LIST_OPCODES, Opcode.LIST_AUTHENTICATORS, Opcode.LIST_KEYS, Opcode.LIST_CLIENTS,
+      Opcode.PSA_EXPORT_PUBLIC_KEY);
+
+  private final ConcurrentHashMap<Key, CompletableFuture<NativeResult>> inFlight =
+      new ConcurrentHashMap<>();
+  private final LongAdder coalesced = new LongAdder();
+
+  /**
+   * @param call sends {@code request} and decodes its result
+   * @param timer timer of this request, null if not observed
+   * @return the result of {@code call}, or of the identical request in flight
+   */
+  NativeResult call(Request request, Duration timeout, OperationTimer timer,
+      Supplier<NativeResult> call) {
+    final Key key;
+    try {
+      key = Key.of(request, timeout);
+    } catch (RuntimeException e) {
+      // cannot be framed, fail the usual way
+      return call.get();
+    }
+    CompletableFuture<NativeResult> own = new CompletableFuture<>();
+    CompletableFuture<NativeResult> leader = inFlight.putIfAbsent(key, own);
+    if (leader != null) {
+      request.close();
+      coalesced.increment();
+      return join(leader, timer);
+    }
+    final NativeResult result;
+    try {
+      result = call.get();
+    } catch (RuntimeException | Error e) {
+      inFlight.remove(key, own);
+      own.completeExceptionally(e);
+      throw e;
+    }
+    // later requests get a fresh result
+    inFlight.remove(key, own);
+    own.complete(result);
+    return result;
+  }
+
+  /** @return whether requests for {@code opcode} are shared */
+  static boolean coalesces(Opcode opcode) {
+    return COALESCED.contains(opcode);
+  }
+
+  /** @return the number of requests that shared the call of an identical request */
+  long getCoalesced() {
+    return coalesced.sum();
+  }
+
+  private static NativeResult join(CompletableFuture<NativeResult> leader, OperationTimer timer) {
+    try {
+      NativeResult result = leader.join();
+      if (timer != null) {
+        timer.lap(Phase.SERVICE_WAIT);
+        timer.complete(ResponseStatus.Success, null);
+      }
+      return result;
+    } catch (CompletionException e) {
+      RuntimeException cause =
+          e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+      if (timer != null) {
+        timer.lap(Phase.SERVICE_WAIT);
+        timer.complete(null, cause);
+      }
+      throw cause;
+    }
+  }
+
+  /** SHA-256 of a request, so that the map does not hold on to authentication data. */
+  private static final class Key {
+    private final byte[] digest;
+    private final Duration timeout;
+    private final int hash;
+
+    private Key(byte[] digest, Duration timeout) {
+      this.digest = digest;
+      this.timeout = timeout;
+      this.hash = Arrays.hashCode(digest) * 31 + Objects.hashCode(timeout);
+    }
+
+    /** Hash the header fields and the encoded body, kept to be framed, without framing them. */
+    static Key of(Request request, Duration timeout) {
+      RequestHeader header = request.getHeader();
+      ByteBuffer auth = ByteBuffer.allocate(request.getAuth().length());
+      request.getAuth().writeTo(auth);
+      try {
+        MessageDigest sha = MessageDigest.getInstance("SHA-256");
+        sha.update(ByteBuffer.allocate(16).putInt(header.getOpcode().getCode())
+            .put(header.getProvider().getId()).putLong(header.getSession())
+            .put(header.getContentType().getId()).put(header.getAcceptType().getId())
+            .put(header.getAuthType().getId()).array());
+        sha.update(request.getBody().getBuffer().duplicate());
+        sha.update(auth.array());
+        return new Key(sha.digest(), timeout);
+      } catch (NoSuchAlgorithmException e) {
+        // every JVM has SHA-256
+        throw new IllegalStateException(e);
+      } finally {
+        Arrays.fill(auth.array(), (byte) 0);
+      }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return Arrays.equals(digest, key.digest) && Objects.equals(timeout, key.timeout);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,269 @@
+package org.parallaxsecond.parsec.client.core.ipc_handler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.parallaxsecond.parsec.client.exceptions.IpcException;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded, thread-safe pool of connections to the service.
+ *
+ * <p>
+ * At most {@code maxSize} connections are borrowed or idle at any time. Idle connections are kept
+ * most-recently-used first, so a busy client keeps reusing the same few sockets while the rest age
+ * out. Connections are dropped once they have been idle longer than {@code idleTimeout} or open
+ * longer than {@code maxLifetime}. With {@code validateOnBorrow} set, idle connections are checked
+ * with {@link IpcHandler#isReusable(ByteChannel)} before being handed out, which catches those the
+ * service closed after sending its last response.
+ */
+@Slf4j
+public class ConnectionPool implements AutoCloseable {
+  public static final int DEFAULT_MAX_SIZE = 8;
+  public static final Duration DEFAULT_BORROW_TIMEOUT = IpcHandler.DEFAULT_TIMEOUT;
+  public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofSeconds(30);
+  public static final Duration DEFAULT_MAX_LIFETIME = Duration.ofMinutes(10);
+
+  private final IpcHandler ipcHandler;
+  @Getter
+  private final int maxSize;
+  private final long borrowTimeoutNanos;
+  private final long idleTimeoutNanos;
+  private final long maxLifetimeNanos;
+  private final boolean validateOnBorrow;
+  private final Semaphore permits;
+  private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+  private volatile boolean closed;
+
+  @Builder
+  public ConnectionPool(@NonNull IpcHandler ipcHandler, Integer maxSize, Duration borrowTimeout,
+      Duration idleTimeout, Duration maxLifetime, Boolean validateOnBorrow) {
+    this.ipcHandler = ipcHandler;
+    this.maxSize = maxSize != null ? maxSize : DEFAULT_MAX_SIZE;
+    if (this.maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be at least 1, got " + this.maxSize);
+    }
+    this.borrowTimeoutNanos =
+        (borrowTimeout != null ? borrowTimeout : DEFAULT_BORROW_TIMEOUT).toNanos();
+    this.idleTimeoutNanos = (idleTimeout != null ? idleTimeout : DEFAULT_IDLE_TIMEOUT).toNanos();
+    this.maxLifetimeNanos = (maxLifetime != null ? maxLifetime : DEFAULT_MAX_LIFETIME).toNanos();
+    this.validateOnBorrow = validateOnBorrow == null || validateOnBorrow;
+    this.permits = new Semaphore(this.maxSize);
+  }
+
+  /**
+   * Borrow a connection, reusing an idle one when possible.
+   *
+   * <p>
+   * Blocks for at most the borrow timeout when all connections are in use. The connection must be
+   * handed back with {@link #release(PooledConnection, boolean)}.
+   */
+  public PooledConnection borrow() {
+    return borrow(false);
+  }
+
+  /** Borrow a newly opened connection, bypassing any idle ones. */
+  public PooledConnection borrowFresh() {
+    return borrow(true);
+  }
+
+  private PooledConnection borrow(boolean fresh) {
+    if (closed) {
+      throw new IpcException("connection pool is closed");
+    }
+    acquirePermit();
+    try {
+      long now = System.nanoTime();
+      if (!fresh) {
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+          if (isUsable(connection, now)) {
+            connection.borrowed(now);
+            return connection;
+          }
+          connection.closeQuietly();
+        }
+      }
+      PooledConnection connection = new PooledConnection(ipcHandler.connect(), now);
+      connection.borrowed(now);
+      return connection;
+    } catch (RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Hand a connection back to the pool.
+   *
+   * @param reusable whether the last exchange completed cleanly. Connections that saw an error are
+   *        closed, as the stream may be left in the middle of a message.
+   */
+  public void release(@NonNull PooledConnection connection, boolean reusable) {
+    try {
+      long now = System.nanoTime();
+      if (reusable && !closed && connection.isOpen() && !isExpired(connection, now)) {
+        connection.lastUsed = now;
+        idle.offerFirst(connection);
+        if (closed && idle.remove(connection)) {
+          connection.closeQuietly();
+        }
+      } else {
+        connection.closeQuietly();
+      }
+      evictIdle(now);
+    } finally {
+      permits.release();
+    }
+  }
+
+  /** Close all idle connections, e.g. after the IPC settings changed. */
+  public void evictAll() {
+    PooledConnection connection;
+    while ((connection = idle.pollLast()) != null) {
+      connection.closeQuietly();
+    }
+  }
+
+  /** @return number of connections currently idle in the pool */
+  public int idleCount() {
+    return idle.size();
+  }
+
+  /** @return number of connections currently borrowed */
+  public int activeCount() {
+    return maxSize - permits.availablePermits();
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    evictAll();
+  }
+
+  private void acquirePermit() {
+    try {
+      if (!permits.tryAcquire(borrowTimeoutNanos, TimeUnit.NANOSECONDS)) {
+        throw new IpcException(String.format(
+            "timed out after %d ms waiting for one of %d pooled connections",
+            TimeUnit.NANOSECONDS.toMillis(borrowTimeoutNanos), maxSize));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IpcException("interrupted while waiting for a pooled connection");
+    }
+  }
+
+  private boolean isUsable(PooledConnection connection, long now) {
+    if (isExpired(connection, now) || now - connection.lastUsed > idleTimeoutNanos) {
+      return false;
+    }
+    return !validateOnBorrow || ipcHandler.isReusable(connection.channel);
+  }
+
+  private boolean isExpired(PooledConnection connection, long now) {
+    return now - connection.created > maxLifetimeNanos;
+  }
+
+  /** idle connections are most-recently-used first, so the stale ones sit at the tail. */
+  private void evictIdle(long now) {
+    Iterator<PooledConnection> it = idle.descendingIterator();
+    while (it.hasNext()) {
+      PooledConnection connection = it.next();
+      if (!isExpired(connection, now) && now - connection.lastUsed <= idleTimeoutNanos) {
+        break;
+      }
+      if (idle.removeLastOccurrence(connection)) {
+        log.debug("evicting idle connection");
+        connection.closeQuietly();
+      }
+    }
+  }
+
+  /** A connection owned by a {@link ConnectionPool}. */
+  public static final class PooledConnection implements TimeoutChannel {
+    private final ByteChannel channel;
+    private final long created;
+    private volatile long lastUsed;
+    private int borrowCount;
+    private long bytesRead;
+
+    private PooledConnection(ByteChannel channel, long created) {
+      this.channel = channel;
+      this.created = created;
+      this.lastUsed = created;
+    }
+
+    private void borrowed(long now) {
+      this.lastUsed = now;
+      this.borrowCount++;
+      this.bytesRead = 0;
+    }
+
+    /** @return true if the connection already served a previous request */
+    public boolean isReused() {
+      return borrowCount > 1;
+    }
+
+    /** @return number of bytes read since the connection was borrowed */
+    public long bytesRead() {
+      return bytesRead;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+      int read = channel.read(dst);
+      if (read > 0) {
+        bytesRead += read;
+      }
+      return read;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+      return channel.write(src);
+    }
+
+    @Override
+    public Duration getTimeout() {
+      return channel instanceof TimeoutChannel ? ((TimeoutChannel) channel).getTimeout() : null;
+    }
+
+    @Override
+    public void setTimeout(Duration timeout) {
+      if (channel instanceof TimeoutChannel) {
+        ((TimeoutChannel) channel).setTimeout(timeout);
+      }
+    }
+
+    @Override
+    public boolean isOpen() {
+      return channel.isOpen();
+    }
+
+    /** Close the underlying channel. Connections are normally closed by their pool. */
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+
+    private void closeQuietly() {
+      try {
+        channel.close();
+      } catch (IOException | RuntimeException e) {
+        log.debug("error closing pooled connection", e);
+      }
+    }
+  }
+}
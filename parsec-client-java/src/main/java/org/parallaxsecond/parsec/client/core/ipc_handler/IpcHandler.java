@@ -2,6 +2,7 @@ package org.parallaxsecond.parsec.client.core.ipc_handler;
 
 import java.net.URI;
 import java.nio.channels.ByteChannel;
+import java.nio.channels.SocketChannel;
 import java.time.Duration;
 
 import org.parallaxsecond.parsec.client.exceptions.InvalidSocketUrlException;
@@ -12,16 +13,80 @@ public interface IpcHandler {
   /// Default timeout for client IPC requests.
   Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
 
+  /**
+   * Create a handler for the given socket URL.
+   *
+   * <p>
+   * {@code unix:} URLs use {@link JdkUnixSocket} where the JDK supports Unix domain socket channels
+   * and the JNA based {@link UnixSocket} otherwise. A {@code transport=jdk} or
+   * {@code transport=jna} query parameter forces either one, e.g.
+   * {@code unix:/run/parsec/parsec.sock?transport=jna}.
+   */
   static IpcHandler connectFromUrl(@NonNull URI uri) {
     switch (uri.getScheme()) {
       case "unix":
-        return new UnixSocket(uri.getPath());
+        return unixSocket(uri.getPath(), transport(uri));
       default:
         throw new InvalidSocketUrlException(uri);
     }
   }
 
+  /** Create the preferred Unix domain socket handler for this JDK. */
+  static IpcHandler unixSocket(@NonNull String path) {
+    return unixSocket(path, null);
+  }
+
+  static IpcHandler unixSocket(@NonNull String path, String transport) {
+    if (transport == null) {
+      return JdkUnixSocket.isSupported() ? new JdkUnixSocket(path) : new UnixSocket(path);
+    }
+    switch (transport) {
+      case "jdk":
+        return new JdkUnixSocket(path);
+      case "jna":
+        return new UnixSocket(path);
+      default:
+        throw new IllegalArgumentException("unknown transport " + transport);
+    }
+  }
+
+  static String transport(URI uri) {
+    if (uri.getQuery() == null) {
+      return null;
+    }
+    for (String param : uri.getQuery().split("&")) {
+      if (param.startsWith("transport=")) {
+        return param.substring("transport=".length());
+      }
+    }
+    return null;
+  }
+
   ByteChannel connect();
 
   void setTimeout(Duration timeout);
+
+  /**
+   * Check whether a channel obtained from {@link #connect()} can carry another request.
+   *
+   * <p>Used by the {@link ConnectionPool} when validating idle connections, handlers that can
+   * detect a connection closed by the service should override it.
+   */
+  default boolean isReusable(ByteChannel channel) {
+    return channel.isOpen();
+  }
+
+  /**
+   * @return true if the handler implements {@link #connectSelectable()}, which lets requests be
+   *         multiplexed on a {@link SelectorLoop}
+   */
+  default boolean isSelectable() {
+    return false;
+  }
+
+  /** Open a connection as a non-blocking channel that can be registered with a selector. */
+  default SocketChannel connectSelectable() {
+    throw new UnsupportedOperationException(
+        getClass().getSimpleName() + " does not provide selectable channels");
+  }
 }
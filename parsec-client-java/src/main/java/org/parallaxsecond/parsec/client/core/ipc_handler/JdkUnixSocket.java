@@ -0,0 +1,52 @@
+package org.parallaxsecond.parsec.client.core.ipc_handler;
+
+import java.nio.channels.ByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Objects;
+
+import org.parallaxsecond.parsec.client.exceptions.IpcException;
+
+import lombok.Setter;
+
+/**
+ * IPC handler for Unix domain sockets built on {@code java.nio.channels.SocketChannel}.
+ *
+ * <p>
+ * Unix domain socket channels are only available from Java 16. This is the placeholder compiled
+ * for older runtimes, the working implementation lives in {@code META-INF/versions/16} of the
+ * multi-release jar. Check {@link #isSupported()} before using it, or let
+ * {@link IpcHandler#connectFromUrl(java.net.URI)} pick a handler.
+ */
+public class JdkUnixSocket implements IpcHandler {
+  /** Path at which the socket can be found */
+  private final Path path;
+  /** Timeout for reads and writes on the streams */
+  @Setter
+  private Duration timeout;
+
+  public JdkUnixSocket(String path) {
+    this(path, DEFAULT_TIMEOUT);
+  }
+
+  public JdkUnixSocket(String path, Duration timeout) {
+    Objects.requireNonNull(path);
+    this.path = Paths.get(path);
+    this.timeout = timeout;
+  }
+
+  public static JdkUnixSocket withDefaults() {
+    return new JdkUnixSocket(UnixSocket.DEFAULT_SOCKET_PATH, DEFAULT_TIMEOUT);
+  }
+
+  /** @return true if the running JDK supports Unix domain socket channels */
+  public static boolean isSupported() {
+    return false;
+  }
+
+  @Override
+  public ByteChannel connect() {
+    throw new IpcException("Unix domain socket channels require Java 16 or newer, socket: " + path);
+  }
+}
@@ -0,0 +1,440 @@
+package org.parallaxsecond.parsec.client.core.ipc_handler;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.parallaxsecond.parsec.client.exceptions.ConnectionClosedException;
+import org.parallaxsecond.parsec.client.exceptions.IpcException;
+import org.parallaxsecond.parsec.protocol.requests.InterfaceException;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+import org.parallaxsecond.parsec.protocol.requests.request.common.WireHeaderView;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single threaded event loop exchanging raw request and response frames with the service over
+ * non-blocking channels.
+ *
+ * <p>
+ * The wire protocol has no way of matching a response to its request, so a connection carries one
+ * request at a time. Requests are queued and spread over at most {@code maxConnections}
+ * connections opened with {@link IpcHandler#connectSelectable()}, idle connections being reused
+ * most-recently-used first. A request sent on a reused connection that the service closed before
+ * answering is sent again once on a new connection, if it cannot have run: when the connection
+ * closed before the whole request was written, or when the request is read-only.
+ *
+ * <p>
+ * Futures are completed on the event loop thread, callers should move any real work to their own
+ * executor.
+ */
+@Slf4j
+public class SelectorLoop implements AutoCloseable {
+  public static final int DEFAULT_MAX_CONNECTIONS = ConnectionPool.DEFAULT_MAX_SIZE;
+  private static final int HEADER_SIZE = WireHeaderView.SIZE;
+  private static final int BODY_LEN_OFFSET = WireHeaderView.BODY_LEN_OFFSET;
+  /** granularity at which timeouts are checked */
+  private static final long TICK_MILLIS = 50;
+  private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+  private final IpcHandler ipcHandler;
+  private final int maxConnections;
+  private final long idleTimeoutNanos;
+  private final long maxBodySize;
+  /** Timeout for a whole exchange, including the time spent waiting for a connection */
+  @Setter
+  private volatile Duration timeout;
+  private final Selector selector;
+  private final Deque<Exchange> pending = new ConcurrentLinkedDeque<>();
+  // only accessed from the event loop thread
+  private final Deque<Connection> idle = new ArrayDeque<>();
+  private final List<Connection> busy = new ArrayList<>();
+  private volatile boolean closed;
+
+  @Builder
+  public SelectorLoop(@NonNull IpcHandler ipcHandler, Integer maxConnections, Duration timeout,
+      Duration idleTimeout, Long maxBodySize) {
+    if (!ipcHandler.isSelectable()) {
+      throw new IllegalArgumentException(
+          ipcHandler.getClass().getSimpleName() + " does not provide selectable channels");
+    }
+    this.ipcHandler = ipcHandler;
+    this.maxConnections = maxConnections != null ? maxConnections : DEFAULT_MAX_CONNECTIONS;
+    if (this.maxConnections < 1) {
+      throw new IllegalArgumentException(
+          "maxConnections must be at least 1, got " + this.maxConnections);
+    }
+    this.timeout = timeout != null ? timeout : IpcHandler.DEFAULT_TIMEOUT;
+    this.idleTimeoutNanos =
+        (idleTimeout != null ? idleTimeout : ConnectionPool.DEFAULT_IDLE_TIMEOUT).toNanos();
+    this.maxBodySize = maxBodySize != null ? maxBodySize : Long.MAX_VALUE;
+    try {
+      this.selector = Selector.open();
+    } catch (IOException e) {
+      throw new IpcException("error opening selector", e);
+    }
+    Thread thread = new Thread(this::run, "parsec-selector-" + THREAD_IDS.incrementAndGet());
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Queue a request frame for sending.
+   *
+   * @param request complete request frame, header, body and authentication
+   * @return the complete response frame, header and body
+   */
+  public CompletableFuture<ByteBuffer> exchange(@NonNull ByteBuffer request) {
+    return exchange(request, null);
+  }
+
+  /**
+   * Queue a request frame for sending, with its own timeout.
+   *
+   * @param timeout timeout of the whole exchange, the loop's timeout if null
+   */
+  public CompletableFuture<ByteBuffer> exchange(@NonNull ByteBuffer request, Duration timeout) {
+    return exchange(request, timeout, null);
+  }
+
+  /**
+   * Queue a request frame for sending, with its own timeout.
+   *
+   * @param timeout timeout of the whole exchange, the loop's timeout if null
+   * @param written run on the event loop thread once the whole request has been written, may be
+   *        null
+   */
+  public CompletableFuture<ByteBuffer> exchange(@NonNull ByteBuffer request, Duration timeout,
+      Runnable written) {
+    Duration exchangeTimeout = timeout != null ? timeout : this.timeout;
+    Exchange exchange =
+        new Exchange(request, System.nanoTime() + exchangeTimeout.toNanos(), written);
+    if (closed) {
+      exchange.fail(new IpcException("selector loop is closed"));
+      return exchange.future;
+    }
+    pending.offerLast(exchange);
+    if (closed) {
+      // the loop may have shut down before the exchange was queued, nothing else would fail it
+      failPending();
+      return exchange.future;
+    }
+    selector.wakeup();
+    return exchange.future;
+  }
+
+  /** @return whether the loop has stopped, either closed or after an unexpected error */
+  public boolean isClosed() {
+    return closed;
+  }
+
+  /** Stop the event loop, failing any request still queued or in flight. */
+  @Override
+  public void close() {
+    closed = true;
+    selector.wakeup();
+  }
+
+  private void run() {
+    try {
+      while (!closed) {
+        dispatchPending();
+        selector.select(TICK_MILLIS);
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          handle(key);
+        }
+        expire(System.nanoTime());
+      }
+    } catch (IOException | RuntimeException e) {
+      log.error("selector loop failed", e);
+    } finally {
+      shutdown();
+    }
+  }
+
+  private void dispatchPending() {
+    Exchange exchange;
+    while ((exchange = pending.peekFirst()) != null) {
+      if (exchange.future.isDone()) {
+        // cancelled by the caller while queued
+        pending.pollFirst();
+        continue;
+      }
+      // a retried request goes out on a new connection
+      Connection connection = exchange.retried ? null : idle.pollFirst();
+      if (connection == null) {
+        if (busy.size() >= maxConnections) {
+          return;
+        }
+        if (busy.size() + idle.size() >= maxConnections) {
+          discard(idle.peekLast());
+        }
+      }
+      pending.pollFirst();
+      if (connection == null) {
+        try {
+          connection = open();
+        } catch (RuntimeException e) {
+          exchange.fail(e);
+          continue;
+        }
+      }
+      busy.add(connection);
+      connection.start(exchange);
+    }
+  }
+
+  private Connection open() {
+    SocketChannel channel = ipcHandler.connectSelectable();
+    try {
+      channel.configureBlocking(false);
+      Connection connection = new Connection(channel);
+      connection.key = channel.register(selector, 0, connection);
+      return connection;
+    } catch (IOException e) {
+      closeQuietly(channel);
+      throw new IpcException("error registering connection", e);
+    }
+  }
+
+  private void handle(SelectionKey key) {
+    Connection connection = (Connection) key.attachment();
+    try {
+      if (key.isValid() && key.isWritable()) {
+        connection.write();
+      }
+      if (key.isValid() && key.isReadable()) {
+        connection.read();
+      }
+    } catch (IOException e) {
+      connection.peerClosed(e.getMessage());
+    }
+  }
+
+  private void expire(long now) {
+    Iterator<Exchange> queued = pending.iterator();
+    while (queued.hasNext()) {
+      Exchange exchange = queued.next();
+      if (now - exchange.deadline > 0) {
+        queued.remove();
+        exchange.fail(new IpcException("timed out waiting for a connection"));
+      }
+    }
+    for (Connection connection : new ArrayList<>(busy)) {
+      if (now - connection.exchange.deadline > 0) {
+        connection.exchange.fail(new IpcException("request timed out"));
+        discard(connection);
+      }
+    }
+    // idle connections are most-recently-used first, so the stale ones sit at the tail
+    Connection connection;
+    while ((connection = idle.peekLast()) != null && now - connection.lastUsed > idleTimeoutNanos) {
+      discard(idle.pollLast());
+    }
+  }
+
+  private void discard(Connection connection) {
+    busy.remove(connection);
+    idle.remove(connection);
+    connection.key.cancel();
+    closeQuietly(connection.channel);
+  }
+
+  private void shutdown() {
+    closed = true;
+    failPending();
+    IpcException error = new IpcException("selector loop is closed");
+    for (Connection connection : new ArrayList<>(busy)) {
+      connection.exchange.fail(error);
+      discard(connection);
+    }
+    while (!idle.isEmpty()) {
+      discard(idle.peekFirst());
+    }
+    try {
+      selector.close();
+    } catch (IOException e) {
+      log.debug("error closing selector", e);
+    }
+  }
+
+  private void failPending() {
+    Exchange exchange;
+    while ((exchange = pending.pollFirst()) != null) {
+      exchange.fail(new IpcException("selector loop is closed"));
+    }
+  }
+
+  private static void closeQuietly(SocketChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      log.debug("error closing socket channel", e);
+    }
+  }
+
+  private static final class Exchange {
+    private final ByteBuffer request;
+    private final long deadline;
+    private final Runnable written;
+    private final CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+    /** Whether running the request twice is harmless */
+    private final boolean readOnly;
+    private boolean retried;
+
+    private Exchange(ByteBuffer request, long deadline, Runnable written) {
+      this.request = request;
+      this.deadline = deadline;
+      this.written = written;
+      this.readOnly = isReadOnly(request);
+    }
+
+    private static boolean isReadOnly(ByteBuffer request) {
+      if (request.remaining() < HEADER_SIZE) {
+        return false;
+      }
+      int opcode = request.duplicate().order(ByteOrder.LITTLE_ENDIAN)
+          .getInt(request.position() + WireHeaderView.OPCODE_OFFSET);
+      try {
+        return Opcode.fromCode(opcode).isReadOnly();
+      } catch (IllegalStateException e) {
+        return false;
+      }
+    }
+
+    private void fail(RuntimeException e) {
+      future.completeExceptionally(e);
+    }
+  }
+
+  private final class Connection {
+    private final SocketChannel channel;
+    private final ByteBuffer header =
+        ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private SelectionKey key;
+    private int exchanges;
+    private long lastUsed;
+    private Exchange exchange;
+    private ByteBuffer request;
+    private ByteBuffer response;
+    private long bytesRead;
+
+    private Connection(SocketChannel channel) {
+      this.channel = channel;
+    }
+
+    private void start(Exchange exchange) {
+      this.exchange = exchange;
+      this.request = exchange.request.duplicate();
+      this.response = null;
+      this.bytesRead = 0;
+      this.exchanges++;
+      ((Buffer) header).clear();
+      key.interestOps(SelectionKey.OP_WRITE);
+      try {
+        // most frames fit in the socket buffer, no need to wait for the selector
+        write();
+      } catch (IOException e) {
+        peerClosed(e.getMessage());
+      }
+    }
+
+    private void write() throws IOException {
+      channel.write(request);
+      if (!request.hasRemaining()) {
+        key.interestOps(SelectionKey.OP_READ);
+        if (exchange.written != null) {
+          exchange.written.run();
+        }
+      }
+    }
+
+    private void read() throws IOException {
+      if (exchange == null) {
+        // the service does not send unsolicited data, an idle connection becoming readable has
+        // been closed on the other end
+        discard(this);
+        return;
+      }
+      if (response == null) {
+        if (!fill(header)) {
+          return;
+        }
+        long bodyLen = Integer.toUnsignedLong(header.getInt(BODY_LEN_OFFSET));
+        if (bodyLen > maxBodySize || bodyLen > Integer.MAX_VALUE - HEADER_SIZE) {
+          fail(new InterfaceException(ResponseStatus.BodySizeExceedsLimit,
+              MessageFormat.format("Response body length ({0}) bigger than the limit given ({1}).",
+                  bodyLen, maxBodySize)));
+          return;
+        }
+        ((Buffer) header).flip();
+        response = ByteBuffer.allocate(HEADER_SIZE + (int) bodyLen).put(header);
+      }
+      if (!fill(response)) {
+        return;
+      }
+      ((Buffer) response).flip();
+      Exchange done = exchange;
+      exchange = null;
+      busy.remove(this);
+      lastUsed = System.nanoTime();
+      idle.offerFirst(this);
+      done.future.complete(response);
+    }
+
+    /** @return true once the buffer is full */
+    private boolean fill(ByteBuffer buffer) throws IOException {
+      int read = channel.read(buffer);
+      if (read < 0) {
+        peerClosed("connection closed by peer");
+        return false;
+      }
+      bytesRead += read;
+      return !buffer.hasRemaining();
+    }
+
+    private void peerClosed(String reason) {
+      Exchange failed = exchange;
+      discard(this);
+      if (failed == null) {
+        return;
+      }
+      // the service may close an idle connection at any time. A request it did not read in full
+      // cannot have run, and a read-only one is harmless to run twice: both can be sent again.
+      boolean unsent = request.hasRemaining();
+      if (exchanges > 1 && bytesRead == 0 && !failed.retried && (unsent || failed.readOnly)) {
+        log.debug("connection was closed by the service, retrying on a new connection");
+        failed.retried = true;
+        pending.offerFirst(failed);
+        return;
+      }
+      failed.fail(new ConnectionClosedException(reason));
+    }
+
+    private void fail(RuntimeException e) {
+      exchange.fail(e);
+      discard(this);
+    }
+  }
+}
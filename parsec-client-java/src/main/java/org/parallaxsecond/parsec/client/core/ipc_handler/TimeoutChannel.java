@@ -0,0 +1,16 @@
+package org.parallaxsecond.parsec.client.core.ipc_handler;
+
+import java.nio.channels.ByteChannel;
+import java.time.Duration;
+
+/**
+ * Channel whose read and write timeout can be changed while it is open, which lets a single call
+ * use its own timeout on a pooled connection.
+ */
+public interface TimeoutChannel extends ByteChannel {
+  /** @return timeout of reads and writes, null if it cannot be changed */
+  Duration getTimeout();
+
+  /** Change the timeout of the following reads and writes. Ignored if it cannot be changed. */
+  void setTimeout(Duration timeout);
+}
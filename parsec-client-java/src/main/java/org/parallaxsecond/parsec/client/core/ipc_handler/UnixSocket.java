@@ -38,4 +38,12 @@ public class UnixSocket implements IpcHandler {
   public ByteChannel connect() {
     return new UnixSocketChannel(path, timeout);
   }
+
+  @Override
+  public boolean isReusable(ByteChannel channel) {
+    if (channel instanceof UnixSocketChannel) {
+      return ((UnixSocketChannel) channel).isConnected();
+    }
+    return channel.isOpen();
+  }
 }
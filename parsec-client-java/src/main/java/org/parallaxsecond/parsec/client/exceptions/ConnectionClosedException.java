@@ -0,0 +1,8 @@
+package org.parallaxsecond.parsec.client.exceptions;
+
+/** The service closed the connection before the exchange could be completed */
+public class ConnectionClosedException extends IpcException {
+  public ConnectionClosedException(String message) {
+    super(message);
+  }
+}
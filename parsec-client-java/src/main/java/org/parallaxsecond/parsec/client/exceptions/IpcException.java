@@ -5,4 +5,8 @@ public class IpcException extends ClientException {
   public IpcException(String message) {
     super(message, null);
   }
+
+  public IpcException(String message, Exception e) {
+    super(message, e);
+  }
 }
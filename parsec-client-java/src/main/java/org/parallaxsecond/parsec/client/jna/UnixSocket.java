@@ -1,5 +1,6 @@
 package org.parallaxsecond.parsec.client.jna;
 
+import org.parallaxsecond.parsec.client.exceptions.ConnectionClosedException;
 import org.parallaxsecond.parsec.client.exceptions.IpcException;
 import com.sun.jna.Library;
 import com.sun.jna.Native;
@@ -20,6 +21,11 @@ public interface UnixSocket extends Library {
   int SOL_SOCKET = Platform.value().osx(0xffff).linux(1).get();
   int SO_RCVTIMEO = Platform.value().osx(0x1006).linux(20).get();
   int SO_SNDTIMEO = Platform.value().osx(0x1005).linux(21).get();
+  int MSG_PEEK = 0x2;
+  int MSG_DONTWAIT = Platform.value().osx(0x80).linux(0x40).get();
+  int EPIPE = 32;
+  int EAGAIN = Platform.value().osx(35).linux(11).get();
+  int ECONNRESET = Platform.value().osx(54).linux(104).get();
 
   UnixSocket SOCKET_IMPL = Native.load("c", UnixSocket.class);
 
@@ -72,16 +78,38 @@ public interface UnixSocket extends Library {
 
   static long readSocket(int socket, ByteBuffer buf, int size) {
     long ret = SOCKET_IMPL.read(socket, buf, size);
+    throwIfConnectionClosed(ret);
     Error.throwError(ret);
     return ret;
   }
 
   static long writeSocket(int socket, ByteBuffer buf, int size) {
     long ret = SOCKET_IMPL.write(socket, buf, size);
+    throwIfConnectionClosed(ret);
     Error.throwError(ret);
     return ret;
   }
 
+  static void throwIfConnectionClosed(long ret) {
+    if (ret < 0) {
+      int errno = Native.getLastError();
+      if (errno == EPIPE || errno == ECONNRESET) {
+        throw new ConnectionClosedException(Error.IMPL.strerror(errno));
+      }
+    }
+  }
+
+  /**
+   * Check without blocking whether the peer still holds the connection open.
+   *
+   * <p>A peek returning no data means the peer performed an orderly shutdown, pending data means
+   * the stream is out of sync with the request/response exchange. Both make the socket unusable.
+   */
+  static boolean isConnected(int socket) {
+    long ret = SOCKET_IMPL.recv(socket, ByteBuffer.allocate(1), 1, MSG_PEEK | MSG_DONTWAIT);
+    return ret < 0 && Native.getLastError() == EAGAIN;
+  }
+
   int socket(int domain, int type, int protocol);
 
   int connect(int socket, Pointer addr, int size);
@@ -94,6 +122,8 @@ public interface UnixSocket extends Library {
 
   long write(int socket, ByteBuffer pointer, long size);
 
+  long recv(int socket, ByteBuffer pointer, long size, int flags);
+
   int setsockopt(int socket, int level, int optionName, Pointer optionValue, long optionLen);
 
   interface SocketCall {
@@ -2,22 +2,24 @@ package org.parallaxsecond.parsec.client.jna;
 
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.nio.channels.ByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 
 import org.parallaxsecond.parsec.client.core.FileStat;
+import org.parallaxsecond.parsec.client.core.ipc_handler.TimeoutChannel;
+import org.parallaxsecond.parsec.client.exceptions.ConnectionClosedException;
 import org.parallaxsecond.parsec.client.exceptions.InvalidSocketAddressException;
 
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public class UnixSocketChannel implements ByteChannel {
+public class UnixSocketChannel implements TimeoutChannel {
 
   private final int socket;
   private volatile boolean open;
+  private Duration timeout;
 
   public UnixSocketChannel(@NonNull Path path, Duration timeout) {
     if (!Files.exists(path) || !FileStat.isSocket(path)) {
@@ -25,9 +27,20 @@ public class UnixSocketChannel implements ByteChannel {
     }
     this.socket = UnixSocket.unixSocket();
     UnixSocket.connect(this.socket, path.toString());
+    setTimeout(timeout);
+    this.open = true;
+  }
+
+  @Override
+  public Duration getTimeout() {
+    return timeout;
+  }
+
+  @Override
+  public void setTimeout(Duration timeout) {
     UnixSocket.setReceiveTimeout(this.socket, timeout);
     UnixSocket.setSendTimeout(this.socket, timeout);
-    this.open = true;
+    this.timeout = timeout;
   }
 
   @Override
@@ -36,7 +49,12 @@ public class UnixSocketChannel implements ByteChannel {
     int read = 0;
     int pos = dst.position();
     while (read < toRead) {
-      read += (int) UnixSocket.readSocket(this.socket, dst, toRead - read);
+      int ret = (int) UnixSocket.readSocket(this.socket, dst, toRead - read);
+      if (ret == 0) {
+        throw new ConnectionClosedException(
+            String.format("connection closed by peer after %d of %d bytes", read, toRead));
+      }
+      read += ret;
       log.debug("expected: {}, read: {}", toRead, read);
       ((Buffer) dst).position(pos + read);
     }
@@ -60,6 +78,11 @@ public class UnixSocketChannel implements ByteChannel {
     return open;
   }
 
+  /** @return true if the socket is open and the peer has not closed its end of the connection */
+  public boolean isConnected() {
+    return open && UnixSocket.isConnected(this.socket);
+  }
+
   @Override
   public void close() {
     UnixSocket.closeSocket(this.socket);
@@ -0,0 +1,56 @@
+package org.parallaxsecond.parsec.client.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+
+/**
+ * {@link OperationListener} keeping counts, byte sizes, response statuses and latency histograms
+ * per opcode and per provider, in memory.
+ *
+ * <pre>
+ * InMemoryMetrics metrics = new InMemoryMetrics();
+ * client.setOperationListener(metrics);
+ * ...
+ * long p99 = metrics.getStats(Opcode.PSA_SIGN_HASH).getLatency().getValueAtPercentile(99);
+ * </pre>
+ */
+public class InMemoryMetrics implements OperationListener {
+  private final Map<Opcode, OperationStats> byOpcode = new ConcurrentHashMap<>();
+  private final Map<ProviderId, OperationStats> byProvider = new ConcurrentHashMap<>();
+
+  @Override
+  public void operationCompleted(OperationEvent event) {
+    byOpcode.computeIfAbsent(event.getOpcode(), o -> new OperationStats()).record(event);
+    byProvider.computeIfAbsent(event.getProvider(), p -> new OperationStats()).record(event);
+  }
+
+  /** @return statistics of {@code opcode}, across providers; empty if it was never used */
+  public OperationStats getStats(Opcode opcode) {
+    OperationStats stats = byOpcode.get(opcode);
+    return stats != null ? stats : new OperationStats();
+  }
+
+  /** @return statistics of {@code provider}, across opcodes; empty if it was never used */
+  public OperationStats getStats(ProviderId provider) {
+    OperationStats stats = byProvider.get(provider);
+    return stats != null ? stats : new OperationStats();
+  }
+
+  public Map<Opcode, OperationStats> getOpcodeStats() {
+    return Collections.unmodifiableMap(byOpcode);
+  }
+
+  public Map<ProviderId, OperationStats> getProviderStats() {
+    return Collections.unmodifiableMap(byProvider);
+  }
+
+  /** Forget everything recorded so far. */
+  public void reset() {
+    byOpcode.clear();
+    byProvider.clear();
+  }
+}
@@ -0,0 +1,42 @@
+package org.parallaxsecond.parsec.client.metrics;
+
+import org.parallaxsecond.parsec.protocol.requests.AuthType;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Value;
+
+/** Outcome and timings of one operation, see {@link OperationListener}. */
+@Value
+@Builder
+public class OperationEvent {
+  Opcode opcode;
+  ProviderId provider;
+  AuthType authType;
+  /** Status returned by the service, null if no response was received */
+  ResponseStatus status;
+  /** Exception thrown to the caller, null if the operation succeeded */
+  RuntimeException error;
+  /** Bytes written, header and authentication included */
+  long requestBytes;
+  /** Bytes read, header included */
+  long responseBytes;
+  /** Time from the start of the encoding to the end of the decoding */
+  long durationNanos;
+  /** Time spent in each {@link Phase}, indexed by ordinal */
+  @Getter(AccessLevel.NONE)
+  long[] phaseNanos;
+
+  /** @return time spent in {@code phase}, 0 if it was not measured */
+  public long getNanos(Phase phase) {
+    return phaseNanos != null ? phaseNanos[phase.ordinal()] : 0;
+  }
+
+  public boolean isSuccess() {
+    return error == null;
+  }
+}
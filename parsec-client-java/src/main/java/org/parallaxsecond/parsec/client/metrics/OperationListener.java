@@ -0,0 +1,18 @@
+package org.parallaxsecond.parsec.client.metrics;
+
+/**
+ * Receives an {@link OperationEvent} for every operation sent by an
+ * {@link org.parallaxsecond.parsec.client.core.OperationClient}.
+ *
+ * <p>
+ * Listeners are called on the thread that completed the operation, once it completed, and must be
+ * thread-safe. They should return quickly: the result is only handed to the caller afterwards.
+ * Exceptions thrown by a listener are logged and otherwise ignored.
+ *
+ * <p>
+ * No events are built when no listener is set, see {@code BasicClient#setOperationListener}.
+ */
+@FunctionalInterface
+public interface OperationListener {
+  void operationCompleted(OperationEvent event);
+}
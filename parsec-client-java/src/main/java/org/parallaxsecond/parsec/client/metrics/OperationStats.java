@@ -0,0 +1,77 @@
+package org.parallaxsecond.parsec.client.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+
+/** Live counters of the operations recorded by {@link InMemoryMetrics} under one key. */
+public class OperationStats {
+  private final LongAdder count = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder requestBytes = new LongAdder();
+  private final LongAdder responseBytes = new LongAdder();
+  private final Map<ResponseStatus, LongAdder> statuses = new ConcurrentHashMap<>();
+  private final LatencyHistogram latency = new LatencyHistogram();
+  private final LatencyHistogram[] phases = new LatencyHistogram[Phase.values().length];
+
+  OperationStats() {
+    for (int i = 0; i < phases.length; i++) {
+      phases[i] = new LatencyHistogram();
+    }
+  }
+
+  void record(OperationEvent event) {
+    count.increment();
+    if (!event.isSuccess()) {
+      errors.increment();
+    }
+    requestBytes.add(event.getRequestBytes());
+    responseBytes.add(event.getResponseBytes());
+    if (event.getStatus() != null) {
+      statuses.computeIfAbsent(event.getStatus(), s -> new LongAdder()).increment();
+    }
+    latency.record(event.getDurationNanos());
+    for (Phase phase : Phase.values()) {
+      phases[phase.ordinal()].record(event.getNanos(phase));
+    }
+  }
+
+  /** @return number of operations, failed ones included */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /** @return number of operations that threw, whether or not the service responded */
+  public long getErrors() {
+    return errors.sum();
+  }
+
+  public long getRequestBytes() {
+    return requestBytes.sum();
+  }
+
+  public long getResponseBytes() {
+    return responseBytes.sum();
+  }
+
+  /** @return number of responses per status, operations without a response are not counted */
+  public Map<ResponseStatus, Long> getStatusCounts() {
+    Map<ResponseStatus, Long> counts = new EnumMap<>(ResponseStatus.class);
+    statuses.forEach((status, n) -> counts.put(status, n.sum()));
+    return Collections.unmodifiableMap(counts);
+  }
+
+  /** @return operation latencies, in nanoseconds */
+  public LatencyHistogram getLatency() {
+    return latency;
+  }
+
+  /** @return time spent in {@code phase}, in nanoseconds */
+  public LatencyHistogram getPhase(Phase phase) {
+    return phases[phase.ordinal()];
+  }
+}
@@ -0,0 +1,20 @@
+package org.parallaxsecond.parsec.client.metrics;
+
+/** Steps of an operation, timed separately in {@link OperationEvent}. */
+public enum Phase {
+  /** Converting the operation into a request body */
+  ENCODE,
+  /** Borrowing a pooled connection, or opening a new one */
+  CONNECT,
+  /** Writing the request */
+  WRITE,
+  /**
+   * From the end of the write to the first byte of the response. For requests multiplexed on a
+   * selector, the whole exchange.
+   */
+  SERVICE_WAIT,
+  /** Reading the rest of the response */
+  READ,
+  /** Checking the response status and converting the body into a result */
+  DECODE
+}
@@ -0,0 +1,199 @@
+package org.parallaxsecond.parsec.client.core;
+
+import org.parallaxsecond.parsec.client.metrics.Phase;
+import org.parallaxsecond.parsec.protocol.requests.AuthType;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events of one operation: connect, request write, response read and the whole
+ * operation, all in the {@code Parsec} category.
+ *
+ * <p>
+ * Phases follow each other, so an event starts when the previous phase ends, see
+ * {@link OperationTimer#lap(Phase)}. A phase restarted after a retry is only recorded once.
+ */
+final class FlightRecording {
+  private final String opcode;
+  private final String provider;
+  private final OperationEvent operation;
+  private ConnectEvent connect;
+  private WriteEvent write;
+  private ReadEvent read;
+
+  private FlightRecording(OperationEvent operation, Opcode opcode, ProviderId provider,
+      AuthType authType) {
+    this.opcode = name(opcode);
+    this.provider = name(provider);
+    this.operation = operation;
+    operation.opcode = this.opcode;
+    operation.provider = this.provider;
+    operation.authType = name(authType);
+    // requests encoded ahead of time go straight to connecting
+    this.connect = new ConnectEvent();
+    connect.begin();
+  }
+
+  /** @return the recording of an operation starting now, null if JFR is not recording it */
+  static FlightRecording start(Opcode opcode, ProviderId provider, AuthType authType) {
+    OperationEvent operation = new OperationEvent();
+    if (!operation.isEnabled()) {
+      return null;
+    }
+    operation.begin();
+    return new FlightRecording(operation, opcode, provider, authType);
+  }
+
+  /** End {@code phase}, which took {@code nanos}, and start the one following it. */
+  void lap(Phase phase, long nanos, long requestBytes, long responseBytes) {
+    switch (phase) {
+      case ENCODE:
+        if (connect != null) {
+          connect.begin();
+        }
+        break;
+      case CONNECT:
+        if (connect != null) {
+          connect.end();
+          if (connect.shouldCommit()) {
+            connect.opcode = opcode;
+            connect.provider = provider;
+            connect.commit();
+          }
+          connect = null;
+        }
+        write = new WriteEvent();
+        write.begin();
+        break;
+      case WRITE:
+        if (write != null) {
+          write.end();
+          if (write.shouldCommit()) {
+            write.opcode = opcode;
+            write.provider = provider;
+            write.requestSize = requestBytes;
+            write.commit();
+          }
+          write = null;
+        }
+        read = new ReadEvent();
+        read.begin();
+        break;
+      case SERVICE_WAIT:
+        if (read != null) {
+          read.serviceWait = nanos;
+        }
+        break;
+      case READ:
+        if (read != null) {
+          read.end();
+          if (read.shouldCommit()) {
+            read.opcode = opcode;
+            read.provider = provider;
+            read.responseSize = responseBytes;
+            read.commit();
+          }
+          read = null;
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  void complete(ResponseStatus status, RuntimeException error, long requestBytes,
+      long responseBytes) {
+    operation.end();
+    if (operation.shouldCommit()) {
+      operation.status = name(status);
+      operation.error = error != null ? error.toString() : null;
+      operation.requestSize = requestBytes;
+      operation.responseSize = responseBytes;
+      operation.commit();
+    }
+  }
+
+  private static String name(Enum<?> value) {
+    return value != null ? value.name() : null;
+  }
+
+  @Name("org.parallaxsecond.parsec.Operation")
+  @Label("Parsec Operation")
+  @Description("Operation sent to the Parsec service, from encoding the request to decoding the "
+      + "response")
+  @Category("Parsec")
+  static final class OperationEvent extends Event {
+    @Label("Opcode")
+    String opcode;
+    @Label("Provider")
+    String provider;
+    @Label("Authentication Type")
+    String authType;
+    @Label("Response Status")
+    @Description("Status returned by the service, missing if no response was received")
+    String status;
+    @Label("Error")
+    String error;
+    @Label("Request Size")
+    @DataAmount
+    long requestSize;
+    @Label("Response Size")
+    @DataAmount
+    long responseSize;
+  }
+
+  @Name("org.parallaxsecond.parsec.Connect")
+  @Label("Parsec Connect")
+  @Description("Connection to the Parsec service opened or borrowed from the pool")
+  @Category("Parsec")
+  @StackTrace(false)
+  static final class ConnectEvent extends Event {
+    @Label("Opcode")
+    String opcode;
+    @Label("Provider")
+    String provider;
+  }
+
+  @Name("org.parallaxsecond.parsec.RequestWrite")
+  @Label("Parsec Request Write")
+  @Category("Parsec")
+  @StackTrace(false)
+  static final class WriteEvent extends Event {
+    @Label("Opcode")
+    String opcode;
+    @Label("Provider")
+    String provider;
+    @Label("Request Size")
+    @DataAmount
+    long requestSize;
+  }
+
+  @Name("org.parallaxsecond.parsec.ResponseRead")
+  @Label("Parsec Response Read")
+  @Description("Wait for the Parsec service to respond, then read of the response")
+  @Category("Parsec")
+  @StackTrace(false)
+  static final class ReadEvent extends Event {
+    @Label("Opcode")
+    String opcode;
+    @Label("Provider")
+    String provider;
+    @Label("Response Size")
+    @DataAmount
+    long responseSize;
+    @Label("Service Wait")
+    @Description("Time until the first bytes of the response arrived")
+    @Timespan
+    long serviceWait;
+  }
+}
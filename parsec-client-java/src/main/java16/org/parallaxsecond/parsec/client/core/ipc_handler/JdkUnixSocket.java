@@ -0,0 +1,273 @@
+package org.parallaxsecond.parsec.client.core.ipc_handler;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.parallaxsecond.parsec.client.core.FileStat;
+import org.parallaxsecond.parsec.client.exceptions.ConnectionClosedException;
+import org.parallaxsecond.parsec.client.exceptions.InvalidSocketAddressException;
+import org.parallaxsecond.parsec.client.exceptions.IpcException;
+
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * IPC handler for Unix domain sockets built on {@code java.nio.channels.SocketChannel}.
+ *
+ * <p>
+ * No native structures are marshalled per call and reads and writes go straight from the buffers
+ * to the socket. Channels are used in blocking mode, which lets virtual threads unmount while
+ * waiting for the service. Timeouts are enforced by closing the channel once a read or write has
+ * been blocked for longer than the configured timeout.
+ */
+@Slf4j
+public class JdkUnixSocket implements IpcHandler {
+  private static final ScheduledExecutorService TIMEOUTS = createTimeoutExecutor();
+  /** Path at which the socket can be found */
+  private final Path path;
+  /** Timeout for reads and writes on the streams */
+  @Setter
+  private Duration timeout;
+
+  public JdkUnixSocket(String path) {
+    this(path, DEFAULT_TIMEOUT);
+  }
+
+  public JdkUnixSocket(String path, Duration timeout) {
+    Objects.requireNonNull(path);
+    this.path = Paths.get(path);
+    this.timeout = timeout;
+  }
+
+  public static JdkUnixSocket withDefaults() {
+    return new JdkUnixSocket(UnixSocket.DEFAULT_SOCKET_PATH, DEFAULT_TIMEOUT);
+  }
+
+  /** @return true if the running JDK supports Unix domain socket channels */
+  public static boolean isSupported() {
+    return true;
+  }
+
+  @Override
+  public ByteChannel connect() {
+    return new TimedChannel(open(), timeout);
+  }
+
+  @Override
+  public boolean isSelectable() {
+    return true;
+  }
+
+  @Override
+  public SocketChannel connectSelectable() {
+    SocketChannel channel = open();
+    try {
+      channel.configureBlocking(false);
+      return channel;
+    } catch (IOException e) {
+      closeQuietly(channel);
+      throw new IpcException("error configuring connection to " + path, e);
+    }
+  }
+
+  private SocketChannel open() {
+    if (!Files.exists(path) || !FileStat.isSocket(path)) {
+      throw new InvalidSocketAddressException(path);
+    }
+    SocketChannel channel = null;
+    try {
+      channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+      channel.connect(UnixDomainSocketAddress.of(path));
+      return channel;
+    } catch (IOException e) {
+      closeQuietly(channel);
+      throw new IpcException("error connecting to " + path, e);
+    }
+  }
+
+  @Override
+  public boolean isReusable(ByteChannel channel) {
+    if (channel instanceof TimedChannel) {
+      return ((TimedChannel) channel).isConnected();
+    }
+    return channel.isOpen();
+  }
+
+  private static ScheduledExecutorService createTimeoutExecutor() {
+    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+      Thread thread = Executors.defaultThreadFactory().newThread(r);
+      thread.setName("parsec-ipc-timeout");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.setRemoveOnCancelPolicy(true);
+    return executor;
+  }
+
+  private static void closeQuietly(SocketChannel channel) {
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      log.debug("error closing socket channel", e);
+    }
+  }
+
+  /**
+   * Blocking channel with the same semantics as the JNA based channel: reads fill the whole
+   * buffer, writes drain it, and a peer closing the connection is reported as
+   * {@link ConnectionClosedException}.
+   */
+  static final class TimedChannel implements TimeoutChannel, GatheringByteChannel {
+    private final SocketChannel channel;
+    private volatile long timeoutNanos;
+
+    TimedChannel(SocketChannel channel, Duration timeout) {
+      this.channel = channel;
+      this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+      int toRead = dst.remaining();
+      int read = 0;
+      ScheduledFuture<?> deadline = startDeadline();
+      try {
+        while (read < toRead) {
+          int ret = channel.read(dst);
+          if (ret < 0) {
+            throw new ConnectionClosedException(
+                String.format("connection closed by peer after %d of %d bytes", read, toRead));
+          }
+          read += ret;
+        }
+      } catch (ClosedByInterruptException e) {
+        throw interrupted("read", e);
+      } catch (AsynchronousCloseException e) {
+        throw timedOut("read", e);
+      } finally {
+        cancel(deadline);
+      }
+      return toRead;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+      return (int) write(new ByteBuffer[] {src}, 0, 1);
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs) throws IOException {
+      return write(srcs, 0, srcs.length);
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+      long toWrite = 0;
+      for (int i = offset; i < offset + length; i++) {
+        toWrite += srcs[i].remaining();
+      }
+      long written = 0;
+      ScheduledFuture<?> deadline = startDeadline();
+      try {
+        while (written < toWrite) {
+          written += channel.write(srcs, offset, length);
+        }
+      } catch (ClosedByInterruptException e) {
+        throw interrupted("write", e);
+      } catch (AsynchronousCloseException e) {
+        throw timedOut("write", e);
+      } catch (IOException e) {
+        throw new ConnectionClosedException(e.getMessage());
+      } finally {
+        cancel(deadline);
+      }
+      return written;
+    }
+
+    /**
+     * Probe the channel without blocking. The service never sends unsolicited data, so anything
+     * other than "nothing to read yet" means the connection cannot carry another request.
+     */
+    boolean isConnected() {
+      if (!channel.isOpen()) {
+        return false;
+      }
+      try {
+        channel.configureBlocking(false);
+        try {
+          return channel.read(ByteBuffer.allocate(1)) == 0;
+        } finally {
+          channel.configureBlocking(true);
+        }
+      } catch (IOException e) {
+        return false;
+      }
+    }
+
+    @Override
+    public Duration getTimeout() {
+      return Duration.ofNanos(timeoutNanos);
+    }
+
+    @Override
+    public void setTimeout(Duration timeout) {
+      this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public boolean isOpen() {
+      return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+
+    /** @return the scheduled close, null if the timeout is zero: like SO_RCVTIMEO, wait forever */
+    private ScheduledFuture<?> startDeadline() {
+      long timeout = timeoutNanos;
+      if (timeout <= 0) {
+        return null;
+      }
+      return TIMEOUTS.schedule(() -> closeQuietly(channel), timeout, TimeUnit.NANOSECONDS);
+    }
+
+    private static void cancel(ScheduledFuture<?> deadline) {
+      if (deadline != null) {
+        deadline.cancel(false);
+      }
+    }
+
+    private static IpcException interrupted(String what, ClosedByInterruptException e) {
+      // the interrupt closed the channel, keep the flag set for callers up the stack
+      Thread.currentThread().interrupt();
+      return new IpcException(String.format("%s interrupted", what), e);
+    }
+
+    private IpcException timedOut(String what, AsynchronousCloseException e) {
+      return new IpcException(String.format("%s timed out after %d ms", what,
+          TimeUnit.NANOSECONDS.toMillis(timeoutNanos)), e);
+    }
+  }
+}
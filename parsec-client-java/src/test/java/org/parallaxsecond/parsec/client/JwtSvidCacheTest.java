@@ -0,0 +1,111 @@
+package org.parallaxsecond.parsec.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.parallaxsecond.parsec.client.exceptions.SpiffeException;
+import org.parallaxsecond.parsec.protocol.requests.request.RequestAuth;
+
+class JwtSvidCacheTest {
+  private static final long LIFETIME = 300_000;
+
+  private final AtomicLong now = new AtomicLong();
+  private final AtomicInteger fetches = new AtomicInteger();
+  private volatile CountDownLatch release = new CountDownLatch(0);
+  private volatile boolean failing;
+  private volatile long lifetime = LIFETIME;
+  private final JwtSvidCache cache = new JwtSvidCache(this::fetch, Duration.ofSeconds(30),
+      Duration.ofSeconds(5), now::get, Executors.newSingleThreadScheduledExecutor());
+
+  private JwtSvidCache.Token fetch() throws Exception {
+    fetches.incrementAndGet();
+    release.await();
+    if (failing) {
+      throw new IllegalStateException("workload API unavailable");
+    }
+    return new JwtSvidCache.Token("token-" + fetches.get(), now.get() + lifetime);
+  }
+
+  @AfterEach
+  void close() {
+    cache.close();
+  }
+
+  @Test
+  void reusesTokenUntilShortlyBeforeExpiry() {
+    RequestAuth auth = cache.getRequestAuth();
+    now.set(LIFETIME - 5_001);
+    assertSame(auth, cache.getRequestAuth());
+    assertEquals(1, fetches.get());
+
+    now.set(LIFETIME - 5_000);
+    cache.getRequestAuth();
+    assertEquals(2, fetches.get());
+    assertEquals(1, cache.getHits());
+    assertEquals(2, cache.getMisses());
+  }
+
+  @Test
+  void backgroundRefreshReplacesToken() {
+    RequestAuth auth = cache.getRequestAuth();
+    cache.backgroundRefresh();
+
+    assertEquals(2, cache.getRefreshes());
+    assertNotSame(auth, cache.getRequestAuth());
+    assertEquals(2, fetches.get());
+  }
+
+  @Test
+  void reportsFetchFailures() {
+    failing = true;
+    assertThrows(SpiffeException.class, cache::getRequestAuth);
+    assertEquals(1, cache.getRefreshFailures());
+  }
+
+  @Test
+  void rejectsTokensThatAreAboutToExpire() {
+    lifetime = 5_000;
+    assertThrows(SpiffeException.class, cache::getRequestAuth);
+    assertEquals(1, cache.getRefreshFailures());
+    assertEquals(0, cache.getRefreshes());
+
+    lifetime = LIFETIME;
+    cache.getRequestAuth();
+    assertEquals(1, cache.getRefreshes());
+  }
+
+  @Test
+  void concurrentCallersShareOneFetch() throws Exception {
+    release = new CountDownLatch(1);
+    ExecutorService callers = Executors.newFixedThreadPool(4);
+    try {
+      Future<?>[] calls = new Future<?>[4];
+      for (int i = 0; i < calls.length; i++) {
+        calls[i] = callers.submit(cache::getRequestAuth);
+      }
+      while (fetches.get() == 0) {
+        Thread.sleep(1);
+      }
+      Thread.sleep(50);
+      release.countDown();
+      for (Future<?> call : calls) {
+        call.get();
+      }
+    } finally {
+      callers.shutdown();
+    }
+    assertEquals(1, fetches.get());
+  }
+}
@@ -0,0 +1,111 @@
+package org.parallaxsecond.parsec.client.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.parallaxsecond.parsec.protocol.operations.NativeResult.ListKeysResult.KeyInfo;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+
+class KeyCacheTest {
+  private final AtomicLong now = new AtomicLong();
+  private final KeyCache cache = new KeyCache(Duration.ofNanos(100), now::get);
+  private final List<KeyInfo> serviceKeys = new ArrayList<>();
+  private int loads;
+
+  private List<KeyInfo> load() {
+    loads++;
+    return new ArrayList<>(serviceKeys);
+  }
+
+  private static KeyInfo key(String name) {
+    return key(ProviderId.MBED_CRYPTO, name);
+  }
+
+  private static KeyInfo key(ProviderId providerId, String name) {
+    return KeyInfo.builder().providerId(providerId).name(name).build();
+  }
+
+  @Test
+  void servesLookupsFromListingUntilExpiry() {
+    serviceKeys.add(key("a"));
+    assertEquals("a", cache.get(ProviderId.MBED_CRYPTO, "a", this::load).getName());
+    assertNull(cache.get(ProviderId.MBED_CRYPTO, "b", this::load));
+    assertEquals(1, cache.list(this::load).size());
+    assertEquals(1, loads);
+    assertEquals(2, cache.getHits());
+    assertEquals(1, cache.getMisses());
+
+    now.set(100);
+    cache.get(ProviderId.MBED_CRYPTO, "a", this::load);
+    assertEquals(2, loads);
+  }
+
+  @Test
+  void tracksKeysChangedByTheClient() {
+    serviceKeys.add(key("a"));
+    cache.list(this::load);
+
+    cache.put(ProviderId.MBED_CRYPTO, "b", null);
+    cache.remove(ProviderId.MBED_CRYPTO, "a");
+    assertEquals("b", cache.get(ProviderId.MBED_CRYPTO, "b", this::load).getName());
+    assertNull(cache.get(ProviderId.MBED_CRYPTO, "a", this::load));
+    assertEquals(1, loads);
+
+    // an evicted key must be fetched again
+    cache.evict(ProviderId.MBED_CRYPTO, "c");
+    serviceKeys.add(key("c"));
+    assertEquals("c", cache.get(ProviderId.MBED_CRYPTO, "c", this::load).getName());
+    assertEquals(2, loads);
+  }
+
+  @Test
+  void reloadsListingForMissingKeysAtMostOncePerInterval() {
+    KeyCache cache = new KeyCache(Duration.ofNanos(100), Duration.ofNanos(10), now::get);
+    cache.list(this::load);
+    serviceKeys.add(key("created-elsewhere"));
+
+    assertNull(cache.get(ProviderId.MBED_CRYPTO, "created-elsewhere", this::load));
+    assertEquals(1, loads);
+    now.set(10);
+    assertEquals("created-elsewhere",
+        cache.get(ProviderId.MBED_CRYPTO, "created-elsewhere", this::load).getName());
+    assertNull(cache.get(ProviderId.MBED_CRYPTO, "missing", this::load));
+    assertEquals(2, loads);
+  }
+
+  @Test
+  void distinguishesKeysOfDifferentProviders() {
+    serviceKeys.add(key(ProviderId.PKCS11, "a"));
+    serviceKeys.add(key(ProviderId.MBED_CRYPTO, "a"));
+    cache.list(this::load);
+    cache.put(ProviderId.MBED_CRYPTO, "a", null);
+
+    assertEquals(ProviderId.MBED_CRYPTO, cache.get(ProviderId.MBED_CRYPTO, "a", this::load)
+        .getProviderId());
+    assertEquals(ProviderId.PKCS11, cache.get(ProviderId.PKCS11, "a", this::load).getProviderId());
+    assertEquals(ProviderId.PKCS11, cache.get(null, "a", this::load).getProviderId());
+    assertEquals(1, loads);
+  }
+
+  @Test
+  void invalidateDropsListing() {
+    cache.list(this::load);
+    cache.invalidate();
+    cache.list(this::load);
+    assertEquals(2, loads);
+  }
+
+  @Test
+  void zeroTtlDisablesCaching() {
+    KeyCache disabled = new KeyCache(Duration.ZERO, now::get);
+    disabled.list(this::load);
+    disabled.get(ProviderId.MBED_CRYPTO, "a", this::load);
+    assertEquals(2, loads);
+  }
+}
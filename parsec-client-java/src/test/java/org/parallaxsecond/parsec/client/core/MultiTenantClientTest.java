@@ -0,0 +1,50 @@
+package org.parallaxsecond.parsec.client.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.parallaxsecond.parsec.client.Authentication;
+import org.parallaxsecond.parsec.protocol.requests.AuthType;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+
+class MultiTenantClientTest {
+  private final BasicClient shared =
+      new BasicClient(null, new Authentication.None(), ProviderId.MBED_CRYPTO);
+  private final MultiTenantClient tenants =
+      MultiTenantClient.builder().client(shared).maxTenants(2).build();
+
+  @Test
+  void keepsMostRecentlyUsedTenants() {
+    BasicClient a = tenants.forApplication("a");
+    BasicClient b = tenants.forApplication("b");
+    assertSame(a, tenants.forApplication("a"));
+
+    tenants.forApplication("c");
+
+    assertEquals(2, tenants.size());
+    assertSame(a, tenants.forApplication("a"));
+    assertNotSame(b, tenants.forApplication("b"));
+    assertEquals(2, tenants.getHits());
+    assertEquals(4, tenants.getMisses());
+  }
+
+  @Test
+  void tenantsShareTheClientSettings() {
+    BasicClient a = tenants.forApplication("a");
+
+    assertEquals(AuthType.DIRECT, a.getAuthData().getAuthType());
+    assertEquals(ProviderId.MBED_CRYPTO, a.implicitProvider());
+    assertNotSame(shared.getKeyCache(), a.getKeyCache());
+    assertTrue(a.isImmutable());
+    assertThrows(UnsupportedOperationException.class,
+        () -> a.setAuthData(new Authentication.None()));
+    // the connections are shared with the tenants
+    assertThrows(IllegalStateException.class, () -> shared.setTimeout(Duration.ofSeconds(1)));
+  }
+}
@@ -0,0 +1,61 @@
+package org.parallaxsecond.parsec.client.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RandomReservoirTest {
+  /** Sizes of the requests to the service, which returns 0, 1, 2... */
+  private final List<Integer> fetches = new ArrayList<>();
+  private int next;
+  private final RandomReservoir reservoir = RandomReservoir.builder().source(this::fetch)
+      .capacity(8).lowWaterMark(4).chunkSize(4).executor(Runnable::run).build();
+
+  @Test
+  void servesSmallRequestsFromMemory() {
+    // empty at first, filled while the request goes to the service
+    assertArrayEquals(new byte[] {8, 9, 10}, reservoir.generate(3));
+    assertArrayEquals(new byte[] {0, 1, 2}, reservoir.generate(3));
+    assertArrayEquals(new byte[] {3, 4, 5}, reservoir.generate(3));
+    // below the low-water mark: filled up again, then served across the end of the ring
+    assertArrayEquals(new byte[] {6, 7, 11, 12}, reservoir.generate(4));
+
+    assertEquals(Arrays.asList(4, 4, 3, 4, 2), fetches);
+    assertEquals(3, reservoir.getHits());
+    assertEquals(1, reservoir.getMisses());
+    assertEquals(4, reservoir.getAvailable());
+  }
+
+  @Test
+  void fetchesLargeRequestsInChunks() {
+    assertEquals(10, reservoir.generate(10).length);
+
+    fetches.sort(null);
+    assertEquals(Arrays.asList(2, 4, 4), fetches);
+    assertEquals(0, reservoir.getAvailable());
+  }
+
+  @Test
+  void closeWipesTheReservoir() {
+    reservoir.generate(1);
+    reservoir.close();
+
+    assertEquals(0, reservoir.getAvailable());
+    assertThrows(IllegalStateException.class, () -> reservoir.generate(1));
+  }
+
+  private byte[] fetch(int size) {
+    fetches.add(size);
+    byte[] bytes = new byte[size];
+    for (int i = 0; i < size; i++) {
+      bytes[i] = (byte) next++;
+    }
+    return bytes;
+  }
+}
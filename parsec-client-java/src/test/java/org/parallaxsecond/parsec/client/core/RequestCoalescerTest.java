@@ -0,0 +1,93 @@
+package org.parallaxsecond.parsec.client.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.parallaxsecond.parsec.protocol.operations.NativeResult;
+import org.parallaxsecond.parsec.protocol.requests.AuthType;
+import org.parallaxsecond.parsec.protocol.requests.BodyType;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+import org.parallaxsecond.parsec.protocol.requests.request.Request;
+import org.parallaxsecond.parsec.protocol.requests.request.RequestAuth;
+import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
+import org.parallaxsecond.parsec.protocol.requests.request.RequestHeader;
+
+class RequestCoalescerTest {
+  private final RequestCoalescer coalescer = new RequestCoalescer();
+  private final AtomicInteger calls = new AtomicInteger();
+
+  @Test
+  void identicalRequestsShareOneCall() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    NativeResult result =
+        NativeResult.PingResult.builder().wireProtocolVersionMaj((byte) 1).build();
+    CompletableFuture<NativeResult> leader =
+        CompletableFuture.supplyAsync(() -> coalescer.call(request("app"), null, null, () -> {
+          calls.incrementAndGet();
+          started.countDown();
+          await(release);
+          return result;
+        }));
+    started.await();
+    CompletableFuture<NativeResult> follower = CompletableFuture
+        .supplyAsync(() -> coalescer.call(request("app"), null, null, this::ping));
+    while (coalescer.getCoalesced() == 0) {
+      Thread.yield();
+    }
+    release.countDown();
+
+    assertSame(result, leader.get());
+    assertSame(result, follower.get());
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void differentOrLaterRequestsAreSent() {
+    coalescer.call(request("app"), null, null, this::ping);
+    coalescer.call(request("app"), null, null, this::ping);
+    coalescer.call(request("other"), null, null, this::ping);
+
+    assertEquals(3, calls.get());
+    assertEquals(0, coalescer.getCoalesced());
+  }
+
+  @Test
+  void onlySmallReadOnlyRequestsAreShared() {
+    assertTrue(RequestCoalescer.coalesces(Opcode.LIST_KEYS));
+    assertTrue(RequestCoalescer.coalesces(Opcode.PSA_EXPORT_PUBLIC_KEY));
+    assertFalse(RequestCoalescer.coalesces(Opcode.PSA_HASH_COMPUTE));
+    assertFalse(RequestCoalescer.coalesces(Opcode.PSA_VERIFY_MESSAGE));
+    assertFalse(RequestCoalescer.coalesces(Opcode.PSA_GENERATE_KEY));
+  }
+
+  private NativeResult ping() {
+    calls.incrementAndGet();
+    return NativeResult.PingResult.builder().build();
+  }
+
+  private static Request request(String appName) {
+    RequestHeader header = RequestHeader.builder().provider(ProviderId.CORE)
+        .contentType(BodyType.PROTOBUF).acceptType(BodyType.PROTOBUF).authType(AuthType.DIRECT)
+        .opcode(Opcode.LIST_KEYS).build();
+    return Request.builder().header(header).body(new RequestBody(new byte[0]))
+        .auth(new RequestAuth(appName.getBytes(StandardCharsets.UTF_8))).build();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
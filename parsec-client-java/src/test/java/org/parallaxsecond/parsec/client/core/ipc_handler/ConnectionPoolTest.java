@@ -0,0 +1,137 @@
+package org.parallaxsecond.parsec.client.core.ipc_handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.parallaxsecond.parsec.client.core.ipc_handler.ConnectionPool.PooledConnection;
+import org.parallaxsecond.parsec.client.exceptions.IpcException;
+
+class ConnectionPoolTest {
+
+  private final FakeIpcHandler ipcHandler = new FakeIpcHandler();
+
+  @Test
+  void reusesReleasedConnection() {
+    ConnectionPool pool = ConnectionPool.builder().ipcHandler(ipcHandler).build();
+    PooledConnection first = pool.borrow();
+    assertFalse(first.isReused());
+    pool.release(first, true);
+
+    PooledConnection second = pool.borrow();
+    assertSame(first, second);
+    assertTrue(second.isReused());
+    assertEquals(1, ipcHandler.channels.size());
+  }
+
+  @Test
+  void closesConnectionNotReusable() {
+    ConnectionPool pool = ConnectionPool.builder().ipcHandler(ipcHandler).build();
+    PooledConnection first = pool.borrow();
+    pool.release(first, false);
+
+    assertFalse(ipcHandler.channels.get(0).isOpen());
+    assertNotSame(first, pool.borrow());
+  }
+
+  @Test
+  void discardsConnectionClosedByPeer() {
+    ConnectionPool pool = ConnectionPool.builder().ipcHandler(ipcHandler).build();
+    pool.release(pool.borrow(), true);
+    ipcHandler.channels.get(0).peerClosed = true;
+
+    PooledConnection connection = pool.borrow();
+    assertFalse(connection.isReused());
+    assertEquals(2, ipcHandler.channels.size());
+    assertFalse(ipcHandler.channels.get(0).isOpen());
+  }
+
+  @Test
+  void evictsIdleConnections() throws InterruptedException {
+    ConnectionPool pool = ConnectionPool.builder().ipcHandler(ipcHandler)
+        .idleTimeout(Duration.ofMillis(1)).build();
+    pool.release(pool.borrow(), true);
+    Thread.sleep(10);
+
+    assertFalse(pool.borrow().isReused());
+    assertFalse(ipcHandler.channels.get(0).isOpen());
+  }
+
+  @Test
+  void boundsNumberOfConnections() {
+    ConnectionPool pool = ConnectionPool.builder().ipcHandler(ipcHandler).maxSize(1)
+        .borrowTimeout(Duration.ofMillis(10)).build();
+    PooledConnection connection = pool.borrow();
+    assertEquals(1, pool.activeCount());
+    assertThrows(IpcException.class, pool::borrow);
+
+    pool.release(connection, true);
+    assertSame(connection, pool.borrow());
+  }
+
+  @Test
+  void closeClosesIdleConnections() {
+    ConnectionPool pool = ConnectionPool.builder().ipcHandler(ipcHandler).build();
+    PooledConnection connection = pool.borrow();
+    pool.close();
+    pool.release(connection, true);
+
+    assertEquals(0, pool.idleCount());
+    assertFalse(ipcHandler.channels.get(0).isOpen());
+    assertThrows(IpcException.class, pool::borrow);
+  }
+
+  private static class FakeIpcHandler implements IpcHandler {
+    private final List<FakeChannel> channels = new ArrayList<>();
+
+    @Override
+    public ByteChannel connect() {
+      FakeChannel channel = new FakeChannel();
+      channels.add(channel);
+      return channel;
+    }
+
+    @Override
+    public void setTimeout(Duration timeout) {}
+
+    @Override
+    public boolean isReusable(ByteChannel channel) {
+      return channel.isOpen() && !((FakeChannel) channel).peerClosed;
+    }
+  }
+
+  private static class FakeChannel implements ByteChannel {
+    private boolean open = true;
+    private boolean peerClosed;
+
+    @Override
+    public int read(ByteBuffer dst) {
+      return 0;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+      return 0;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return open;
+    }
+
+    @Override
+    public void close() {
+      open = false;
+    }
+  }
+}
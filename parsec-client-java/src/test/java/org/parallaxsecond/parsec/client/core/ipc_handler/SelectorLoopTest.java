@@ -0,0 +1,190 @@
+package org.parallaxsecond.parsec.client.core.ipc_handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.parallaxsecond.parsec.client.exceptions.ConnectionClosedException;
+import org.parallaxsecond.parsec.client.exceptions.IpcException;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+
+class SelectorLoopTest {
+  private static final int HEADER_SIZE = 36;
+
+  private ServerSocketChannel server;
+  private Thread serverThread;
+  private SelectorLoop loop;
+  private volatile boolean dropSecondRequest;
+  private final AtomicInteger dropped = new AtomicInteger();
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = ServerSocketChannel.open();
+    server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    // echoes each request frame back and closes the connection, like the service does
+    serverThread = new Thread(() -> {
+      while (server.isOpen()) {
+        try (SocketChannel client = server.accept()) {
+          ByteBuffer header = readFully(client, ByteBuffer.allocate(HEADER_SIZE));
+          int bodyLen = header.order(ByteOrder.LITTLE_ENDIAN).getInt(22);
+          ByteBuffer body = readFully(client, ByteBuffer.allocate(bodyLen));
+          client.write(new ByteBuffer[] {header, body});
+          if (dropSecondRequest) {
+            // reads the next request and closes the connection without answering
+            header = readFully(client, ByteBuffer.allocate(HEADER_SIZE));
+            readFully(client,
+                ByteBuffer.allocate(header.order(ByteOrder.LITTLE_ENDIAN).getInt(22)));
+            dropped.incrementAndGet();
+          }
+        } catch (IOException e) {
+          return;
+        }
+      }
+    });
+    serverThread.setDaemon(true);
+    serverThread.start();
+    loop = SelectorLoop.builder().ipcHandler(new TcpIpcHandler(server.getLocalAddress()))
+        .maxConnections(2).build();
+  }
+
+  @AfterEach
+  void stopServer() throws IOException {
+    loop.close();
+    server.close();
+  }
+
+  @Test
+  void exchangesFrames() throws Exception {
+    ByteBuffer response = loop.exchange(frame("hello")).get(5, TimeUnit.SECONDS);
+
+    assertEquals(frame("hello"), response);
+  }
+
+  @Test
+  void reportsWrittenRequestsAndFailsOnceClosed() throws Exception {
+    AtomicInteger written = new AtomicInteger();
+    loop.exchange(frame("hello"), null, written::incrementAndGet).get(5, TimeUnit.SECONDS);
+    assertEquals(1, written.get());
+
+    loop.close();
+    ExecutionException e = assertThrows(ExecutionException.class,
+        () -> loop.exchange(frame("hello")).get(5, TimeUnit.SECONDS));
+    assertTrue(e.getCause() instanceof IpcException);
+    assertTrue(loop.isClosed());
+  }
+
+  @Test
+  void sendsRequestsAfterServiceClosedConnection() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      assertEquals(frame("request " + i),
+          loop.exchange(frame("request " + i)).get(5, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  void queuesRequestsBeyondMaxConnections() throws Exception {
+    List<CompletableFuture<ByteBuffer>> responses = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      responses.add(loop.exchange(frame("request " + i)));
+    }
+    for (int i = 0; i < 10; i++) {
+      assertEquals(frame("request " + i), responses.get(i).get(5, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  void resendsOnlyRequestsThatCannotHaveRun() throws Exception {
+    dropSecondRequest = true;
+    assertEquals(frame("first"), loop.exchange(frame("first")).get(5, TimeUnit.SECONDS));
+
+    // read-only: sent again on a new connection
+    ByteBuffer ping = frame(Opcode.PING, "ping");
+    assertEquals(ping, loop.exchange(ping.duplicate()).get(5, TimeUnit.SECONDS));
+    // may have run: not sent again
+    ExecutionException e = assertThrows(ExecutionException.class,
+        () -> loop.exchange(frame(Opcode.PSA_GENERATE_KEY, "key")).get(5, TimeUnit.SECONDS));
+    assertTrue(e.getCause() instanceof ConnectionClosedException);
+    assertEquals(2, dropped.get());
+  }
+
+  private static ByteBuffer frame(String body) {
+    return frame(null, body);
+  }
+
+  private static ByteBuffer frame(Opcode opcode, String body) {
+    byte[] bytes = body.getBytes();
+    ByteBuffer frame = ByteBuffer.allocate(HEADER_SIZE + bytes.length)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    frame.putInt(22, bytes.length);
+    if (opcode != null) {
+      frame.putInt(28, opcode.getCode());
+    }
+    frame.position(HEADER_SIZE);
+    frame.put(bytes);
+    frame.flip();
+    return frame;
+  }
+
+  private static ByteBuffer readFully(SocketChannel channel, ByteBuffer buffer)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        throw new IOException("closed");
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  private static class TcpIpcHandler implements IpcHandler {
+    private final java.net.SocketAddress address;
+
+    private TcpIpcHandler(java.net.SocketAddress address) {
+      this.address = address;
+    }
+
+    @Override
+    public ByteChannel connect() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setTimeout(Duration timeout) {}
+
+    @Override
+    public boolean isSelectable() {
+      return true;
+    }
+
+    @Override
+    public SocketChannel connectSelectable() {
+      try {
+        SocketChannel channel = SocketChannel.open(address);
+        channel.configureBlocking(false);
+        return channel;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
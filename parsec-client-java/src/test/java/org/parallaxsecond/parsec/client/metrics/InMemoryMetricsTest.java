@@ -0,0 +1,78 @@
+package org.parallaxsecond.parsec.client.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.parallaxsecond.parsec.client.exceptions.ServiceException;
+import org.parallaxsecond.parsec.protocol.requests.AuthType;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+
+class InMemoryMetricsTest {
+  private final InMemoryMetrics metrics = new InMemoryMetrics();
+
+  private static OperationEvent event(Opcode opcode, ProviderId provider, ResponseStatus status,
+      long nanos) {
+    long[] phaseNanos = new long[Phase.values().length];
+    phaseNanos[Phase.SERVICE_WAIT.ordinal()] = nanos / 2;
+    return OperationEvent.builder().opcode(opcode).provider(provider).authType(AuthType.DIRECT)
+        .status(status)
+        .error(status == ResponseStatus.Success ? null : new ServiceException(status))
+        .requestBytes(100).responseBytes(200).durationNanos(nanos).phaseNanos(phaseNanos).build();
+  }
+
+  @Test
+  void aggregatesPerOpcodeAndPerProvider() {
+    metrics.operationCompleted(
+        event(Opcode.PSA_SIGN_HASH, ProviderId.MBED_CRYPTO, ResponseStatus.Success, 1000));
+    metrics.operationCompleted(event(Opcode.PSA_SIGN_HASH, ProviderId.PKCS11,
+        ResponseStatus.PsaErrorDoesNotExist, 3000));
+    metrics.operationCompleted(
+        event(Opcode.PING, ProviderId.CORE, ResponseStatus.Success, 10));
+
+    OperationStats sign = metrics.getStats(Opcode.PSA_SIGN_HASH);
+    assertEquals(2, sign.getCount());
+    assertEquals(1, sign.getErrors());
+    assertEquals(200, sign.getRequestBytes());
+    assertEquals(400, sign.getResponseBytes());
+    assertEquals(1L, sign.getStatusCounts().get(ResponseStatus.Success));
+    assertEquals(1L, sign.getStatusCounts().get(ResponseStatus.PsaErrorDoesNotExist));
+    assertEquals(3000, sign.getLatency().getMax());
+    assertEquals(2000, sign.getLatency().getMean());
+    assertEquals(1500, sign.getPhase(Phase.SERVICE_WAIT).getMax());
+    assertEquals(0, sign.getPhase(Phase.ENCODE).getMax());
+
+    assertEquals(1, metrics.getStats(ProviderId.PKCS11).getCount());
+    assertEquals(1, metrics.getStats(ProviderId.CORE).getCount());
+    assertEquals(0, metrics.getStats(Opcode.PSA_HASH_COMPUTE).getCount());
+
+    metrics.reset();
+    assertTrue(metrics.getOpcodeStats().isEmpty());
+  }
+
+  @Test
+  void percentilesAreWithinABucket() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long v = 1; v <= 1000; v++) {
+      histogram.record(v * 1000);
+    }
+    assertEquals(1000, histogram.getCount());
+    long p50 = histogram.getValueAtPercentile(50);
+    assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.125, "p50 " + p50);
+    long p99 = histogram.getValueAtPercentile(99);
+    assertTrue(p99 >= 990_000 && p99 <= 990_000 * 1.125, "p99 " + p99);
+    assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+    assertEquals(0, new LatencyHistogram().getValueAtPercentile(99));
+  }
+
+  @Test
+  void bucketsCoverEveryValue() {
+    for (long v : new long[] {0, 1, 7, 8, 9, 15, 16, 17, 1023, 1024, Long.MAX_VALUE}) {
+      int index = LatencyHistogram.index(v);
+      assertTrue(LatencyHistogram.upperBound(index) >= v, "value " + v);
+      assertTrue(index == 0 || LatencyHistogram.upperBound(index - 1) < v, "value " + v);
+    }
+  }
+}
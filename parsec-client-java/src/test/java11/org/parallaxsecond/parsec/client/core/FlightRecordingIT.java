@@ -0,0 +1,154 @@
+package org.parallaxsecond.parsec.client.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.parallaxsecond.parsec.client.exceptions.IpcException;
+import org.parallaxsecond.parsec.client.metrics.Phase;
+import org.parallaxsecond.parsec.protocol.requests.AuthType;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/** Runs against the packaged jar, so that the Java 11 {@link FlightRecording} is used. */
+class FlightRecordingIT {
+  private static final String OPERATION = "org.parallaxsecond.parsec.Operation";
+  private static final String CONNECT = "org.parallaxsecond.parsec.Connect";
+  private static final String WRITE = "org.parallaxsecond.parsec.RequestWrite";
+  private static final String READ = "org.parallaxsecond.parsec.ResponseRead";
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void recordsNothingWithoutRecording() {
+    assertNull(OperationTimer.start(null, Opcode.PING, ProviderId.CORE, AuthType.NO_AUTH));
+  }
+
+  @Test
+  void recordsEachPhaseOfAnOperation() throws IOException {
+    Map<String, RecordedEvent> events = record(() -> {
+      OperationTimer timer =
+          OperationTimer.start(null, Opcode.PSA_SIGN_HASH, ProviderId.MBED_CRYPTO, AuthType.DIRECT);
+      assertNotNull(timer);
+      timer.lap(Phase.ENCODE);
+      ByteChannel channel = timer.channel(new ServiceChannel(44));
+      timer.lap(Phase.CONNECT);
+      channel.write(ByteBuffer.allocate(40));
+      timer.lap(Phase.WRITE);
+      channel.read(ByteBuffer.allocate(44));
+      timer.lap(Phase.READ);
+      timer.lap(Phase.DECODE);
+      timer.complete(ResponseStatus.Success, null);
+    });
+
+    for (RecordedEvent event : events.values()) {
+      assertEquals("PSA_SIGN_HASH", event.getString("opcode"));
+      assertEquals("MBED_CRYPTO", event.getString("provider"));
+    }
+    RecordedEvent operation = events.get(OPERATION);
+    assertEquals("DIRECT", operation.getString("authType"));
+    assertEquals("Success", operation.getString("status"));
+    assertNull(operation.getString("error"));
+    assertEquals(40, operation.getLong("requestSize"));
+    assertEquals(44, operation.getLong("responseSize"));
+    assertNotNull(events.get(CONNECT));
+    assertEquals(40, events.get(WRITE).getLong("requestSize"));
+    RecordedEvent read = events.get(READ);
+    assertEquals(44, read.getLong("responseSize"));
+    assertFalse(read.getDuration("serviceWait").isNegative());
+    // phases follow each other within the operation
+    assertFalse(events.get(CONNECT).getStartTime().isBefore(operation.getStartTime()));
+    assertFalse(events.get(WRITE).getStartTime().isBefore(events.get(CONNECT).getEndTime()));
+    assertFalse(read.getStartTime().isBefore(events.get(WRITE).getEndTime()));
+    assertFalse(operation.getEndTime().isBefore(read.getEndTime()));
+  }
+
+  @Test
+  void recordsFailedOperations() throws IOException {
+    Map<String, RecordedEvent> events = record(() -> {
+      OperationTimer timer =
+          OperationTimer.start(null, Opcode.PING, ProviderId.CORE, AuthType.NO_AUTH);
+      timer.lap(Phase.ENCODE);
+      timer.complete(null, new IpcException("connection refused"));
+    });
+
+    RecordedEvent operation = events.get(OPERATION);
+    assertNull(operation.getString("status"));
+    assertTrue(operation.getString("error").contains("connection refused"));
+    assertEquals(0, operation.getLong("requestSize"));
+    assertNull(events.get(WRITE));
+  }
+
+  /** @return the Parsec events recorded while running {@code operation}, by event name */
+  private Map<String, RecordedEvent> record(Operation operation) throws IOException {
+    Path file = dir.resolve("parsec.jfr");
+    try (Recording recording = new Recording()) {
+      for (String name : new String[] {OPERATION, CONNECT, WRITE, READ}) {
+        recording.enable(name).withThreshold(Duration.ZERO);
+      }
+      recording.start();
+      operation.run();
+      recording.stop();
+      recording.dump(file);
+    }
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    return events.stream().filter(e -> e.getEventType().getName().startsWith("org.parallaxsecond"))
+        .collect(Collectors.toMap(e -> e.getEventType().getName(), Function.identity()));
+  }
+
+  private interface Operation {
+    void run() throws IOException;
+  }
+
+  /** Takes any request and answers with {@code responseSize} bytes */
+  private static final class ServiceChannel implements ByteChannel {
+    private int responseSize;
+
+    private ServiceChannel(int responseSize) {
+      this.responseSize = responseSize;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) {
+      int n = Math.min(responseSize, dst.remaining());
+      dst.position(dst.position() + n);
+      responseSize -= n;
+      return n;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+      int n = src.remaining();
+      src.position(src.limit());
+      return n;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
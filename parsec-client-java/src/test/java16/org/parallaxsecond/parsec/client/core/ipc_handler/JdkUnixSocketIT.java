@@ -0,0 +1,156 @@
+package org.parallaxsecond.parsec.client.core.ipc_handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.parallaxsecond.parsec.client.exceptions.ConnectionClosedException;
+import org.parallaxsecond.parsec.client.exceptions.InvalidSocketAddressException;
+import org.parallaxsecond.parsec.client.exceptions.IpcException;
+
+/** Runs against the packaged jar, so that the Java 16 version of {@link JdkUnixSocket} is used. */
+class JdkUnixSocketIT {
+  private static final Duration TIMEOUT = Duration.ofMillis(200);
+
+  @TempDir
+  Path dir;
+  private ServerSocketChannel server;
+  private JdkUnixSocket ipcHandler;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    Path path = dir.resolve("parsec.sock");
+    server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+    server.bind(UnixDomainSocketAddress.of(path));
+    ipcHandler = new JdkUnixSocket(path.toString(), TIMEOUT);
+  }
+
+  @AfterEach
+  void stopServer() throws IOException {
+    server.close();
+  }
+
+  @Test
+  void versionedClassIsLoaded() {
+    assertTrue(JdkUnixSocket.isSupported());
+    assertTrue(ipcHandler.isSelectable());
+  }
+
+  @Test
+  void readsTimeOutWhenTheServiceDoesNotAnswer() throws IOException {
+    try (ByteChannel channel = ipcHandler.connect(); SocketChannel peer = server.accept()) {
+      long start = System.nanoTime();
+      IpcException e =
+          assertThrows(IpcException.class, () -> channel.read(ByteBuffer.allocate(4)));
+
+      assertFalse(e instanceof ConnectionClosedException);
+      assertTrue(e.getMessage().contains("timed out"), e.getMessage());
+      assertTrue(System.nanoTime() - start >= TIMEOUT.toNanos());
+      assertFalse(channel.isOpen());
+    }
+  }
+
+  @Test
+  void zeroTimeoutWaitsForTheService() throws Exception {
+    ipcHandler.setTimeout(Duration.ZERO);
+    try (ByteChannel channel = ipcHandler.connect(); SocketChannel peer = server.accept()) {
+      Thread answer = new Thread(() -> {
+        try {
+          Thread.sleep(TIMEOUT.toMillis());
+          peer.write(ByteBuffer.allocate(4));
+        } catch (InterruptedException | IOException e) {
+          throw new IllegalStateException(e);
+        }
+      });
+      answer.start();
+
+      assertEquals(4, channel.read(ByteBuffer.allocate(4)));
+      answer.join();
+    }
+  }
+
+  @Test
+  void interruptsAreNotReportedAsTimeouts() throws IOException {
+    try (ByteChannel channel = ipcHandler.connect(); SocketChannel peer = server.accept()) {
+      Thread.currentThread().interrupt();
+      try {
+        IpcException e =
+            assertThrows(IpcException.class, () -> channel.read(ByteBuffer.allocate(4)));
+
+        assertTrue(e.getMessage().contains("interrupted"), e.getMessage());
+        assertTrue(Thread.currentThread().isInterrupted());
+      } finally {
+        Thread.interrupted();
+      }
+    }
+  }
+
+  @Test
+  void closedConnectionsAreReportedAsSuch() throws IOException {
+    try (ByteChannel reader = ipcHandler.connect()) {
+      server.accept().close();
+
+      assertThrows(ConnectionClosedException.class, () -> reader.read(ByteBuffer.allocate(4)));
+    }
+    try (ByteChannel writer = ipcHandler.connect()) {
+      server.accept().close();
+
+      // the first writes may still fit in the socket buffer, EPIPE comes once the peer reset it
+      assertThrows(ConnectionClosedException.class, () -> {
+        for (int i = 0; i < 100; i++) {
+          writer.write(ByteBuffer.allocate(64 * 1024));
+        }
+      });
+    }
+  }
+
+  @Test
+  void probesWhetherConnectionsCanBeReused() throws IOException {
+    try (ByteChannel channel = ipcHandler.connect(); SocketChannel peer = server.accept()) {
+      assertInstanceOf(TimeoutChannel.class, channel);
+      assertTrue(ipcHandler.isReusable(channel));
+      // still blocking after the probe
+      peer.write(ByteBuffer.wrap(new byte[] {1, 2}));
+      ByteBuffer read = ByteBuffer.allocate(2);
+      channel.read(read);
+      assertFalse(read.hasRemaining());
+
+      peer.write(ByteBuffer.wrap(new byte[] {1}));
+      assertFalse(ipcHandler.isReusable(channel));
+    }
+    try (ByteChannel channel = ipcHandler.connect()) {
+      server.accept().close();
+
+      assertFalse(ipcHandler.isReusable(channel));
+    }
+    ByteChannel channel = ipcHandler.connect();
+    server.accept().close();
+    channel.close();
+    assertFalse(ipcHandler.isReusable(channel));
+  }
+
+  @Test
+  void rejectsPathsThatAreNotSockets() throws IOException {
+    Path file = Files.createFile(dir.resolve("file"));
+
+    assertThrows(InvalidSocketAddressException.class,
+        () -> new JdkUnixSocket(file.toString()).connect());
+  }
+}
@@ -0,0 +1,97 @@
+package org.parallaxsecond.parsec.protocol.buffers;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import lombok.Getter;
+
+/**
+ * Bounded cache of direct buffers used to frame requests and responses.
+ *
+ * <p>
+ * Direct buffers can be handed to the socket without the copy a heap buffer needs, but are costly
+ * to allocate. The pool keeps up to {@code maxBuffers} buffers of {@code bufferSize} bytes, enough
+ * for most Parsec messages, shared by all threads so that the native memory held does not grow
+ * with the number of threads. Larger requests get a one-off heap buffer. Buffers allocated while
+ * every cached one is in use are dropped on release if the pool is full.
+ *
+ * <p>
+ * A buffer must not be used after it has been released, and must be released at most once.
+ */
+public final class BufferPool {
+  /** Large enough for the header and body of all but the biggest messages */
+  public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+  public static final int DEFAULT_MAX_BUFFERS = 4 * Runtime.getRuntime().availableProcessors();
+  private static final BufferPool DEFAULT =
+      new BufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_BUFFERS);
+
+  @Getter
+  private final int bufferSize;
+  /** Cached buffers, null for empty slots */
+  private final AtomicReferenceArray<ByteBuffer> slots;
+
+  public BufferPool(int bufferSize, int maxBuffers) {
+    if (bufferSize < 1 || maxBuffers < 0) {
+      throw new IllegalArgumentException(String.format(
+          "invalid pool size %d x %d bytes", maxBuffers, bufferSize));
+    }
+    this.bufferSize = bufferSize;
+    this.slots = new AtomicReferenceArray<>(maxBuffers);
+  }
+
+  /** @return the pool shared by the protocol classes */
+  public static BufferPool getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Borrow a little-endian buffer with position 0 and limit {@code size}. The content of the buffer
+   * is undefined.
+   */
+  public ByteBuffer acquire(int size) {
+    if (size > bufferSize) {
+      return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    ByteBuffer buf = poll();
+    if (buf == null) {
+      buf = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    ((Buffer) buf).clear();
+    ((Buffer) buf).limit(size);
+    return buf;
+  }
+
+  /** Hand back a buffer obtained from {@link #acquire(int)}. */
+  public void release(ByteBuffer buf) {
+    if (buf == null || !buf.isDirect() || buf.capacity() != bufferSize) {
+      return;
+    }
+    int n = slots.length();
+    for (int i = 0, slot = firstSlot(n); i < n; i++, slot = (slot + 1) % n) {
+      if (slots.get(slot) == null && slots.compareAndSet(slot, null, buf)) {
+        return;
+      }
+    }
+    // the pool is full, leave the buffer to the garbage collector
+  }
+
+  private ByteBuffer poll() {
+    int n = slots.length();
+    for (int i = 0, slot = firstSlot(n); i < n; i++, slot = (slot + 1) % n) {
+      if (slots.get(slot) != null) {
+        ByteBuffer buf = slots.getAndSet(slot, null);
+        if (buf != null) {
+          return buf;
+        }
+      }
+    }
+    return null;
+  }
+
+  /** Threads start looking at different slots, so that they rarely contend for the same one. */
+  private static int firstSlot(int n) {
+    return n == 0 ? 0 : (int) (Thread.currentThread().getId() % n);
+  }
+}
@@ -8,12 +8,21 @@ import lombok.Builder;
 import lombok.Value;
 import org.parallaxsecond.parsec.protobuf.psa_key_attributes.PsaKeyAttributes;
 
+import com.google.protobuf.ByteString;
+
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
-/** Container type for result conversion values, holding a native result object to be */
-/** passed in/out of the converter. */
+/**
+ * Container type for result conversion values, holding a native result object to be passed in/out
+ * of the converter.
+ *
+ * <p>Results carrying large payloads keep them as an immutable {@link ByteString}, so that they are
+ * not copied again after being decoded. Besides the usual {@code byte[]} getter, which returns a
+ * copy, they expose the payload as a {@link ByteString} and as a read-only {@link ByteBuffer}.
+ */
 public interface NativeResult {
   Opcode getOpcode();
 
@@ -177,7 +186,34 @@ public interface NativeResult {
      * The `signature` field contains the resulting bytes from the signing operation. The format of
      * the signature is as specified by the provider doing the signing.
      */
-    byte[] signature;
+    ByteString signature;
+
+    /** @return a copy of the signature */
+    public byte[] getSignature() {
+      return signature == null ? null : signature.toByteArray();
+    }
+
+    /** @return the signature, without copying it */
+    public ByteString getSignatureByteString() {
+      return signature;
+    }
+
+    /** @return a read-only view of the signature, without copying it */
+    public ByteBuffer getSignatureBuffer() {
+      return signature == null ? null : signature.asReadOnlyByteBuffer();
+    }
+
+    public static class PsaSignHashResultBuilder {
+      public PsaSignHashResultBuilder signature(byte[] signature) {
+        this.signature = signature == null ? null : ByteString.copyFrom(signature);
+        return this;
+      }
+
+      public PsaSignHashResultBuilder signature(ByteString signature) {
+        this.signature = signature;
+        return this;
+      }
+    }
   }
   /** PsaHashCompute result */
   @Value
@@ -185,7 +221,34 @@ public interface NativeResult {
   class PsaHashComputeResult implements NativeResult {
     Opcode opcode = Opcode.PSA_HASH_COMPUTE;
     /** The `hash` field contains the hash of the message. */
-    byte[] hash;
+    ByteString hash;
+
+    /** @return a copy of the hash */
+    public byte[] getHash() {
+      return hash == null ? null : hash.toByteArray();
+    }
+
+    /** @return the hash, without copying it */
+    public ByteString getHashByteString() {
+      return hash;
+    }
+
+    /** @return a read-only view of the hash, without copying it */
+    public ByteBuffer getHashBuffer() {
+      return hash == null ? null : hash.asReadOnlyByteBuffer();
+    }
+
+    public static class PsaHashComputeResultBuilder {
+      public PsaHashComputeResultBuilder hash(byte[] hash) {
+        this.hash = hash == null ? null : ByteString.copyFrom(hash);
+        return this;
+      }
+
+      public PsaHashComputeResultBuilder hash(ByteString hash) {
+        this.hash = hash;
+        return this;
+      }
+    }
   }
   /** PsaHashCompare result */
   @Value
@@ -225,7 +288,34 @@ public interface NativeResult {
      * encrypted data and the authentication tag are defined as separate outputs, the authentication
      * tag is appended to the encrypted data.
      */
-    byte[] ciphertext;
+    ByteString ciphertext;
+
+    /** @return a copy of the ciphertext */
+    public byte[] getCiphertext() {
+      return ciphertext == null ? null : ciphertext.toByteArray();
+    }
+
+    /** @return the ciphertext, without copying it */
+    public ByteString getCiphertextByteString() {
+      return ciphertext;
+    }
+
+    /** @return a read-only view of the ciphertext, without copying it */
+    public ByteBuffer getCiphertextBuffer() {
+      return ciphertext == null ? null : ciphertext.asReadOnlyByteBuffer();
+    }
+
+    public static class PsaAeadEncryptResultBuilder {
+      public PsaAeadEncryptResultBuilder ciphertext(byte[] ciphertext) {
+        this.ciphertext = ciphertext == null ? null : ByteString.copyFrom(ciphertext);
+        return this;
+      }
+
+      public PsaAeadEncryptResultBuilder ciphertext(ByteString ciphertext) {
+        this.ciphertext = ciphertext;
+        return this;
+      }
+    }
   }
   /** PsaAeadDecrypt result */
   @Value
@@ -234,7 +324,34 @@ public interface NativeResult {
     Opcode opcode = Opcode.PSA_AEAD_DECRYPT;
 
     /** The `plaintext` field contains the authenticated and decrypted data. */
-    byte[] plaintext;
+    ByteString plaintext;
+
+    /** @return a copy of the plaintext */
+    public byte[] getPlaintext() {
+      return plaintext == null ? null : plaintext.toByteArray();
+    }
+
+    /** @return the plaintext, without copying it */
+    public ByteString getPlaintextByteString() {
+      return plaintext;
+    }
+
+    /** @return a read-only view of the plaintext, without copying it */
+    public ByteBuffer getPlaintextBuffer() {
+      return plaintext == null ? null : plaintext.asReadOnlyByteBuffer();
+    }
+
+    public static class PsaAeadDecryptResultBuilder {
+      public PsaAeadDecryptResultBuilder plaintext(byte[] plaintext) {
+        this.plaintext = plaintext == null ? null : ByteString.copyFrom(plaintext);
+        return this;
+      }
+
+      public PsaAeadDecryptResultBuilder plaintext(ByteString plaintext) {
+        this.plaintext = plaintext;
+        return this;
+      }
+    }
   }
   /** PsaGenerateRandom result */
   @Value
@@ -242,7 +359,34 @@ public interface NativeResult {
   class PsaGenerateRandomResult implements NativeResult {
     Opcode opcode = Opcode.PSA_GENERATE_RANDOM;
     /** Random bytes. */
-    byte[] randomBytes;
+    ByteString randomBytes;
+
+    /** @return a copy of the random bytes */
+    public byte[] getRandomBytes() {
+      return randomBytes == null ? null : randomBytes.toByteArray();
+    }
+
+    /** @return the random bytes, without copying them */
+    public ByteString getRandomBytesByteString() {
+      return randomBytes;
+    }
+
+    /** @return a read-only view of the random bytes, without copying them */
+    public ByteBuffer getRandomBytesBuffer() {
+      return randomBytes == null ? null : randomBytes.asReadOnlyByteBuffer();
+    }
+
+    public static class PsaGenerateRandomResultBuilder {
+      public PsaGenerateRandomResultBuilder randomBytes(byte[] randomBytes) {
+        this.randomBytes = randomBytes == null ? null : ByteString.copyFrom(randomBytes);
+        return this;
+      }
+
+      public PsaGenerateRandomResultBuilder randomBytes(ByteString randomBytes) {
+        this.randomBytes = randomBytes;
+        return this;
+      }
+    }
   }
   /** PsaRawKeyAgreement result */
   @Value
@@ -19,7 +19,7 @@ public class ListAuthenticatorsProtobufOpConverter implements ProtobufOpConverte
 
   @Override
   public RequestBody operationToBody(NativeOperation operation) {
-    return new RequestBody(ListAuthenticators.Operation.newBuilder().build().toByteArray());
+    return new RequestBody(ListAuthenticators.Operation.newBuilder().build());
   }
 
   @Override
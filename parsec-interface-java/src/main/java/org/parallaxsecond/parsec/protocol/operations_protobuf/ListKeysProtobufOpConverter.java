@@ -19,7 +19,7 @@ public class ListKeysProtobufOpConverter implements ProtobufOpConverter {
 
   @Override
   public RequestBody operationToBody(NativeOperation operation) {
-    return new RequestBody(ListKeys.Operation.newBuilder().build().toByteArray());
+    return new RequestBody(ListKeys.Operation.newBuilder().build());
   }
 
   @Override
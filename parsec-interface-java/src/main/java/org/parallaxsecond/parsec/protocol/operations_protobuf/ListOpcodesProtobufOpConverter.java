@@ -3,29 +3,57 @@ package org.parallaxsecond.parsec.protocol.operations_protobuf;
 import org.parallaxsecond.parsec.protocol.operations.NativeOperation;
 import org.parallaxsecond.parsec.protocol.operations.NativeResult;
 import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
 import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
 import org.parallaxsecond.parsec.protocol.requests.response.ResponseBody;
 import com.google.protobuf.InvalidProtocolBufferException;
+import org.parallaxsecond.parsec.protobuf.list_opcodes.ListOpcodes;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 public class ListOpcodesProtobufOpConverter implements ProtobufOpConverter {
   @Override
-  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode) {
-    throw new IllegalStateException("not implemented"); // FIXME
+  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode)
+      throws InvalidProtocolBufferException {
+    ListOpcodes.Operation protoBufOp = ListOpcodes.Operation.parseFrom(body.getBuffer());
+    return NativeOperation.ListOpcodesOperation.builder()
+        .providerId(ProviderId.fromCode((byte) protoBufOp.getProviderId()))
+        .build();
   }
 
   @Override
   public RequestBody operationToBody(NativeOperation operation) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    NativeOperation.ListOpcodesOperation listOpcodesOperation =
+        (NativeOperation.ListOpcodesOperation) operation;
+    return new RequestBody(
+        ListOpcodes.Operation.newBuilder()
+            .setProviderId(listOpcodesOperation.getProviderId().getId())
+            .build());
   }
 
   @Override
   public ResponseBody resultToBody(NativeResult result) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    NativeResult.ListOpcodesResult listOpcodesResult = (NativeResult.ListOpcodesResult) result;
+    ListOpcodes.Result.Builder builder = ListOpcodes.Result.newBuilder();
+    for (Opcode opcode : listOpcodesResult.getOpcodes()) {
+      builder.addOpcodes(opcode.getCode());
+    }
+    return new ResponseBody(builder.build().toByteArray());
   }
 
   @Override
   public NativeResult tryBodyToResult(ResponseBody body, Opcode opcode)
       throws InvalidProtocolBufferException {
-    throw new IllegalStateException("not implemented"); // FIXME
+    ListOpcodes.Result listOpcodesResult = ListOpcodes.Result.parseFrom(body.getBuffer());
+    Set<Opcode> opcodes = EnumSet.noneOf(Opcode.class);
+    for (int code : listOpcodesResult.getOpcodesList()) {
+      try {
+        opcodes.add(Opcode.fromCode(code));
+      } catch (IllegalStateException e) {
+        // supported by a newer service, unknown to this client
+      }
+    }
+    return NativeResult.ListOpcodesResult.builder().opcodes(opcodes).build();
   }
 }
@@ -20,7 +20,7 @@ public class ListProvidersProtobufOpConverter implements ProtobufOpConverter {
 
   @Override
   public RequestBody operationToBody(NativeOperation operation) {
-    return new RequestBody(ListProviders.Operation.newBuilder().build().toByteArray());
+    return new RequestBody(ListProviders.Operation.newBuilder().build());
   }
 
   @Override
@@ -17,7 +17,7 @@ public class PingProtobufOpConverter implements ProtobufOpConverter {
 
   @Override
   public RequestBody operationToBody(NativeOperation operation) {
-    return new RequestBody(Ping.Operation.newBuilder().build().toByteArray());
+    return new RequestBody(Ping.Operation.newBuilder().build());
   }
 
   @Override
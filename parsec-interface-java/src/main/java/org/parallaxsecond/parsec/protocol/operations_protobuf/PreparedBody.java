@@ -0,0 +1,67 @@
+package org.parallaxsecond.parsec.protocol.operations_protobuf;
+
+import java.io.IOException;
+
+import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+
+/**
+ * Protobuf operation body whose invariant fields, such as the key name and algorithm, are encoded
+ * once.
+ *
+ * <p>
+ * Each body is the encoded invariant fields followed by the variable {@code bytes} fields given to
+ * {@link #body(byte[]...)}. Since the variable fields have higher field numbers than the invariant
+ * ones, this is exactly how the whole message would be encoded. As with protobuf, {@code null} and
+ * empty values are left out.
+ */
+public final class PreparedBody {
+  private final ByteString invariantFields;
+  private final int[] fieldNumbers;
+
+  /**
+   * @param invariantFields operation with only the invariant fields set
+   * @param fieldNumbers numbers of the variable fields, in increasing order
+   */
+  public PreparedBody(MessageLite invariantFields, int... fieldNumbers) {
+    this.invariantFields = invariantFields.toByteString();
+    this.fieldNumbers = fieldNumbers.clone();
+  }
+
+  /**
+   * Body holding the values of the variable fields, in the order given to the constructor. The
+   * values are not copied and must not be modified until the request has been written.
+   */
+  public RequestBody body(byte[]... values) {
+    if (values.length != fieldNumbers.length) {
+      throw new IllegalArgumentException(
+          "expected " + fieldNumbers.length + " values, got " + values.length);
+    }
+    int size = invariantFields.size();
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null && values[i].length > 0) {
+        size += CodedOutputStream.computeByteArraySize(fieldNumbers[i], values[i]);
+      }
+    }
+    final int serializedSize = size;
+    return new RequestBody(new RequestBody.Encoder() {
+      @Override
+      public int getSerializedSize() {
+        return serializedSize;
+      }
+
+      @Override
+      public void writeTo(CodedOutputStream out) throws IOException {
+        out.writeRawBytes(invariantFields);
+        for (int i = 0; i < values.length; i++) {
+          if (values[i] != null && values[i].length > 0) {
+            out.writeByteArray(fieldNumbers[i], values[i]);
+          }
+        }
+      }
+    });
+  }
+}
@@ -6,26 +6,59 @@ import org.parallaxsecond.parsec.protocol.requests.Opcode;
 import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
 import org.parallaxsecond.parsec.protocol.requests.response.ResponseBody;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnsafeByteOperations;
+import org.parallaxsecond.parsec.protobuf.psa_aead_decrypt.PsaAeadDecrypt;
 
 public class PsaAeadDecryptProtobufOpConverter implements ProtobufOpConverter {
   @Override
-  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode) {
-    throw new IllegalStateException("not implemented"); // FIXME
+  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode)
+      throws InvalidProtocolBufferException {
+    PsaAeadDecrypt.Operation protoBufOp = PsaAeadDecrypt.Operation.parseFrom(body.getBuffer());
+    return NativeOperation.PsaAeadDecryptOperation.builder()
+        .keyName(protoBufOp.getKeyName())
+        .alg(protoBufOp.getAlg())
+        .nonce(protoBufOp.getNonce().toByteArray())
+        .additionalData(protoBufOp.getAdditionalData().toByteArray())
+        .ciphertext(protoBufOp.getCiphertext().toByteArray())
+        .build();
   }
 
   @Override
   public RequestBody operationToBody(NativeOperation operation) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    NativeOperation.PsaAeadDecryptOperation aeadDecryptOperation =
+        (NativeOperation.PsaAeadDecryptOperation) operation;
+    PsaAeadDecrypt.Operation.Builder builder = PsaAeadDecrypt.Operation.newBuilder()
+        .setKeyName(aeadDecryptOperation.getKeyName())
+        .setAlg(aeadDecryptOperation.getAlg())
+        .setCiphertext(UnsafeByteOperations.unsafeWrap(aeadDecryptOperation.getCiphertext()));
+    // the nonce and additional data are optional
+    if (aeadDecryptOperation.getNonce() != null) {
+      builder.setNonce(UnsafeByteOperations.unsafeWrap(aeadDecryptOperation.getNonce()));
+    }
+    if (aeadDecryptOperation.getAdditionalData() != null) {
+      builder.setAdditionalData(
+          UnsafeByteOperations.unsafeWrap(aeadDecryptOperation.getAdditionalData()));
+    }
+    return new RequestBody(builder.build());
   }
 
   @Override
   public ResponseBody resultToBody(NativeResult result) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    NativeResult.PsaAeadDecryptResult aeadDecryptResult =
+        (NativeResult.PsaAeadDecryptResult) result;
+    return new ResponseBody(
+        PsaAeadDecrypt.Result.newBuilder()
+            .setPlaintext(aeadDecryptResult.getPlaintextByteString())
+            .build()
+            .toByteArray());
   }
 
   @Override
   public NativeResult tryBodyToResult(ResponseBody body, Opcode opcode)
       throws InvalidProtocolBufferException {
-    throw new IllegalStateException("not implemented"); // FIXME
+    PsaAeadDecrypt.Result aeadDecryptResult = PsaAeadDecrypt.Result.parseFrom(body.getBuffer());
+    return NativeResult.PsaAeadDecryptResult.builder()
+        .plaintext(aeadDecryptResult.getPlaintext())
+        .build();
   }
 }
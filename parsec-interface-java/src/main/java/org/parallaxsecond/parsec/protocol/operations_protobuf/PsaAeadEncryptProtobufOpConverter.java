@@ -6,26 +6,59 @@ import org.parallaxsecond.parsec.protocol.requests.Opcode;
 import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
 import org.parallaxsecond.parsec.protocol.requests.response.ResponseBody;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnsafeByteOperations;
+import org.parallaxsecond.parsec.protobuf.psa_aead_encrypt.PsaAeadEncrypt;
 
 public class PsaAeadEncryptProtobufOpConverter implements ProtobufOpConverter {
   @Override
-  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode) {
-    throw new IllegalStateException("not implemented"); // FIXME
+  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode)
+      throws InvalidProtocolBufferException {
+    PsaAeadEncrypt.Operation protoBufOp = PsaAeadEncrypt.Operation.parseFrom(body.getBuffer());
+    return NativeOperation.PsaAeadEncryptOperation.builder()
+        .keyName(protoBufOp.getKeyName())
+        .alg(protoBufOp.getAlg())
+        .nonce(protoBufOp.getNonce().toByteArray())
+        .additionalData(protoBufOp.getAdditionalData().toByteArray())
+        .plaintext(protoBufOp.getPlaintext().toByteArray())
+        .build();
   }
 
   @Override
   public RequestBody operationToBody(NativeOperation operation) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    NativeOperation.PsaAeadEncryptOperation aeadEncryptOperation =
+        (NativeOperation.PsaAeadEncryptOperation) operation;
+    PsaAeadEncrypt.Operation.Builder builder = PsaAeadEncrypt.Operation.newBuilder()
+        .setKeyName(aeadEncryptOperation.getKeyName())
+        .setAlg(aeadEncryptOperation.getAlg())
+        .setPlaintext(UnsafeByteOperations.unsafeWrap(aeadEncryptOperation.getPlaintext()));
+    // the nonce and additional data are optional
+    if (aeadEncryptOperation.getNonce() != null) {
+      builder.setNonce(UnsafeByteOperations.unsafeWrap(aeadEncryptOperation.getNonce()));
+    }
+    if (aeadEncryptOperation.getAdditionalData() != null) {
+      builder.setAdditionalData(
+          UnsafeByteOperations.unsafeWrap(aeadEncryptOperation.getAdditionalData()));
+    }
+    return new RequestBody(builder.build());
   }
 
   @Override
   public ResponseBody resultToBody(NativeResult result) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    NativeResult.PsaAeadEncryptResult aeadEncryptResult =
+        (NativeResult.PsaAeadEncryptResult) result;
+    return new ResponseBody(
+        PsaAeadEncrypt.Result.newBuilder()
+            .setCiphertext(aeadEncryptResult.getCiphertextByteString())
+            .build()
+            .toByteArray());
   }
 
   @Override
   public NativeResult tryBodyToResult(ResponseBody body, Opcode opcode)
       throws InvalidProtocolBufferException {
-    throw new IllegalStateException("not implemented"); // FIXME
+    PsaAeadEncrypt.Result aeadEncryptResult = PsaAeadEncrypt.Result.parseFrom(body.getBuffer());
+    return NativeResult.PsaAeadEncryptResult.builder()
+        .ciphertext(aeadEncryptResult.getCiphertext())
+        .build();
   }
 }
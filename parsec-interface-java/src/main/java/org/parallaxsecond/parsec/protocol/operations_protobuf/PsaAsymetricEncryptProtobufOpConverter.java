@@ -5,27 +5,58 @@ import org.parallaxsecond.parsec.protocol.operations.NativeResult;
 import org.parallaxsecond.parsec.protocol.requests.Opcode;
 import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
 import org.parallaxsecond.parsec.protocol.requests.response.ResponseBody;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnsafeByteOperations;
+import org.parallaxsecond.parsec.protobuf.psa_asymmetric_encrypt.PsaAsymmetricEncrypt;
 
 public class PsaAsymetricEncryptProtobufOpConverter implements ProtobufOpConverter {
   @Override
-  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode) {
-    throw new IllegalStateException("not implemented"); // FIXME
+  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode)
+      throws InvalidProtocolBufferException {
+    PsaAsymmetricEncrypt.Operation protoBufOp =
+        PsaAsymmetricEncrypt.Operation.parseFrom(body.getBuffer());
+    return NativeOperation.PsaAsymmetricEncryptOperation.builder()
+        .keyName(protoBufOp.getKeyName())
+        .alg(protoBufOp.getAlg())
+        .plaintext(protoBufOp.getPlaintext().toByteArray())
+        .salt(protoBufOp.getSalt().toByteArray())
+        .build();
   }
 
   @Override
   public RequestBody operationToBody(NativeOperation operation) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    NativeOperation.PsaAsymmetricEncryptOperation encryptOperation =
+        (NativeOperation.PsaAsymmetricEncryptOperation) operation;
+    PsaAsymmetricEncrypt.Operation.Builder builder = PsaAsymmetricEncrypt.Operation.newBuilder()
+        .setKeyName(encryptOperation.getKeyName())
+        .setAlg(encryptOperation.getAlg())
+        .setPlaintext(UnsafeByteOperations.unsafeWrap(encryptOperation.getPlaintext()));
+    // the salt is optional
+    if (encryptOperation.getSalt() != null) {
+      builder.setSalt(UnsafeByteOperations.unsafeWrap(encryptOperation.getSalt()));
+    }
+    return new RequestBody(builder.build());
   }
 
   @Override
   public ResponseBody resultToBody(NativeResult result) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    NativeResult.PsaAsymmetricEncryptResult encryptResult =
+        (NativeResult.PsaAsymmetricEncryptResult) result;
+    return new ResponseBody(
+        PsaAsymmetricEncrypt.Result.newBuilder()
+            .setCiphertext(ByteString.copyFrom(encryptResult.getCiphertext()))
+            .build()
+            .toByteArray());
   }
 
   @Override
   public NativeResult tryBodyToResult(ResponseBody body, Opcode opcode)
       throws InvalidProtocolBufferException {
-    throw new IllegalStateException("not implemented"); // FIXME
+    PsaAsymmetricEncrypt.Result encryptResult =
+        PsaAsymmetricEncrypt.Result.parseFrom(body.getBuffer());
+    return NativeResult.PsaAsymmetricEncryptResult.builder()
+        .ciphertext(encryptResult.getCiphertext().toByteArray())
+        .build();
   }
 }
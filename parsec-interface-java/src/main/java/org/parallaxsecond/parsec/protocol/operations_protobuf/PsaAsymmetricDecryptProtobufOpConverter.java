@@ -5,27 +5,58 @@ import org.parallaxsecond.parsec.protocol.operations.NativeResult;
 import org.parallaxsecond.parsec.protocol.requests.Opcode;
 import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
 import org.parallaxsecond.parsec.protocol.requests.response.ResponseBody;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnsafeByteOperations;
+import org.parallaxsecond.parsec.protobuf.psa_asymmetric_decrypt.PsaAsymmetricDecrypt;
 
 public class PsaAsymmetricDecryptProtobufOpConverter implements ProtobufOpConverter {
   @Override
-  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode) {
-    throw new IllegalStateException("not implemented"); // FIXME
+  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode)
+      throws InvalidProtocolBufferException {
+    PsaAsymmetricDecrypt.Operation protoBufOp =
+        PsaAsymmetricDecrypt.Operation.parseFrom(body.getBuffer());
+    return NativeOperation.PsaAsymmetricDecryptOperation.builder()
+        .keyName(protoBufOp.getKeyName())
+        .alg(protoBufOp.getAlg())
+        .ciphertext(protoBufOp.getCiphertext().toByteArray())
+        .salt(protoBufOp.getSalt().toByteArray())
+        .build();
   }
 
   @Override
   public RequestBody operationToBody(NativeOperation operation) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    NativeOperation.PsaAsymmetricDecryptOperation decryptOperation =
+        (NativeOperation.PsaAsymmetricDecryptOperation) operation;
+    PsaAsymmetricDecrypt.Operation.Builder builder = PsaAsymmetricDecrypt.Operation.newBuilder()
+        .setKeyName(decryptOperation.getKeyName())
+        .setAlg(decryptOperation.getAlg())
+        .setCiphertext(UnsafeByteOperations.unsafeWrap(decryptOperation.getCiphertext()));
+    // the salt is optional
+    if (decryptOperation.getSalt() != null) {
+      builder.setSalt(UnsafeByteOperations.unsafeWrap(decryptOperation.getSalt()));
+    }
+    return new RequestBody(builder.build());
   }
 
   @Override
   public ResponseBody resultToBody(NativeResult result) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    NativeResult.PsaAsymmetricDecryptResult decryptResult =
+        (NativeResult.PsaAsymmetricDecryptResult) result;
+    return new ResponseBody(
+        PsaAsymmetricDecrypt.Result.newBuilder()
+            .setPlaintext(ByteString.copyFrom(decryptResult.getPlaintext()))
+            .build()
+            .toByteArray());
   }
 
   @Override
   public NativeResult tryBodyToResult(ResponseBody body, Opcode opcode)
       throws InvalidProtocolBufferException {
-    throw new IllegalStateException("not implemented"); // FIXME
+    PsaAsymmetricDecrypt.Result decryptResult =
+        PsaAsymmetricDecrypt.Result.parseFrom(body.getBuffer());
+    return NativeResult.PsaAsymmetricDecryptResult.builder()
+        .plaintext(decryptResult.getPlaintext().toByteArray())
+        .build();
   }
 }
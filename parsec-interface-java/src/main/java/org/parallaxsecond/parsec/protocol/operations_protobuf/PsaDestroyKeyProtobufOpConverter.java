@@ -6,26 +6,37 @@ import org.parallaxsecond.parsec.protocol.requests.Opcode;
 import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
 import org.parallaxsecond.parsec.protocol.requests.response.ResponseBody;
 import com.google.protobuf.InvalidProtocolBufferException;
+import org.parallaxsecond.parsec.protobuf.psa_destroy_key.PsaDestroyKey;
 
 public class PsaDestroyKeyProtobufOpConverter implements ProtobufOpConverter {
   @Override
-  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode) {
-    throw new IllegalStateException("not implemented"); // FIXME
+  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode)
+      throws InvalidProtocolBufferException {
+    PsaDestroyKey.Operation protoBufOp = PsaDestroyKey.Operation.parseFrom(body.getBuffer());
+    return NativeOperation.PsaDestroyKeyOperation.builder()
+        .keyName(protoBufOp.getKeyName())
+        .build();
   }
 
   @Override
   public RequestBody operationToBody(NativeOperation operation) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    NativeOperation.PsaDestroyKeyOperation destroyKeyOperation =
+        (NativeOperation.PsaDestroyKeyOperation) operation;
+    return new RequestBody(
+        PsaDestroyKey.Operation.newBuilder()
+            .setKeyName(destroyKeyOperation.getKeyName())
+            .build());
   }
 
   @Override
   public ResponseBody resultToBody(NativeResult result) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    return new ResponseBody(PsaDestroyKey.Result.newBuilder().build().toByteArray());
   }
 
   @Override
   public NativeResult tryBodyToResult(ResponseBody body, Opcode opcode)
       throws InvalidProtocolBufferException {
-    throw new IllegalStateException("not implemented"); // FIXME
+    PsaDestroyKey.Result.parseFrom(body.getBuffer());
+    return NativeResult.PsaDestroyKeyResult.builder().build();
   }
 }
@@ -6,26 +6,48 @@ import org.parallaxsecond.parsec.protocol.requests.Opcode;
 import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
 import org.parallaxsecond.parsec.protocol.requests.response.ResponseBody;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnsafeByteOperations;
+import org.parallaxsecond.parsec.protobuf.psa_export_public_key.PsaExportPublicKey;
 
 public class PsaExportPublicKeyProtobufOpConverter implements ProtobufOpConverter {
   @Override
-  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode) {
-    throw new IllegalStateException("not implemented"); // FIXME
+  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode)
+      throws InvalidProtocolBufferException {
+    PsaExportPublicKey.Operation protoBufOp =
+        PsaExportPublicKey.Operation.parseFrom(body.getBuffer());
+    return NativeOperation.PsaExportPublicKeyOperation.builder()
+        .keyName(protoBufOp.getKeyName())
+        .build();
   }
 
   @Override
   public RequestBody operationToBody(NativeOperation operation) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    NativeOperation.PsaExportPublicKeyOperation exportPublicKeyOperation =
+        (NativeOperation.PsaExportPublicKeyOperation) operation;
+    return new RequestBody(
+        PsaExportPublicKey.Operation.newBuilder()
+            .setKeyName(exportPublicKeyOperation.getKeyName())
+            .build());
   }
 
   @Override
   public ResponseBody resultToBody(NativeResult result) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    NativeResult.PsaExportPublicKeyResult exportPublicKeyResult =
+        (NativeResult.PsaExportPublicKeyResult) result;
+    return new ResponseBody(
+        PsaExportPublicKey.Result.newBuilder()
+            .setData(UnsafeByteOperations.unsafeWrap(exportPublicKeyResult.getData()))
+            .build()
+            .toByteArray());
   }
 
   @Override
   public NativeResult tryBodyToResult(ResponseBody body, Opcode opcode)
       throws InvalidProtocolBufferException {
-    throw new IllegalStateException("not implemented"); // FIXME
+    PsaExportPublicKey.Result exportPublicKeyResult =
+        PsaExportPublicKey.Result.parseFrom(body.getBuffer());
+    return NativeResult.PsaExportPublicKeyResult.builder()
+        .data(exportPublicKeyResult.getData().toByteArray())
+        .build();
   }
 }
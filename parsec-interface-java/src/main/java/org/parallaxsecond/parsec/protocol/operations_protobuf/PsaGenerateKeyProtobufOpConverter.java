@@ -28,8 +28,7 @@ public class PsaGenerateKeyProtobufOpConverter implements ProtobufOpConverter {
         PsaGenerateKey.Operation.newBuilder()
             .setKeyName(psaGenerateKeyOperation.getKeyName())
             .setAttributes(psaGenerateKeyOperation.getAttributes())
-            .build()
-            .toByteArray());
+            .build());
   }
 
   @Override
@@ -5,7 +5,6 @@ import org.parallaxsecond.parsec.protocol.operations.NativeResult;
 import org.parallaxsecond.parsec.protocol.requests.Opcode;
 import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
 import org.parallaxsecond.parsec.protocol.requests.response.ResponseBody;
-import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import org.parallaxsecond.parsec.protobuf.psa_generate_random.PsaGenerateRandom;
 
@@ -23,9 +22,7 @@ public class PsaGenerateRandomProtobufOpConverter implements ProtobufOpConverter
     return new RequestBody(
         PsaGenerateRandom.Operation.newBuilder()
             .setSize(psaGenerateRandomOperation.getSize())
-            .build()
-            .toByteArray()
-    );
+            .build());
   }
 
   @Override
@@ -33,7 +30,7 @@ public class PsaGenerateRandomProtobufOpConverter implements ProtobufOpConverter
     NativeResult.PsaGenerateRandomResult psaGenerateRandomResult = (NativeResult.PsaGenerateRandomResult) result;
     return new ResponseBody(
         PsaGenerateRandom.Result.newBuilder()
-            .setRandomBytes(ByteString.copyFrom(psaGenerateRandomResult.getRandomBytes()))
+            .setRandomBytes(psaGenerateRandomResult.getRandomBytesByteString())
             .build()
             .toByteArray()
     );
@@ -45,7 +42,7 @@ public class PsaGenerateRandomProtobufOpConverter implements ProtobufOpConverter
       throws InvalidProtocolBufferException {
     PsaGenerateRandom.Result psaGenerateRandomResult = PsaGenerateRandom.Result.parseFrom(body.getBuffer());
     return NativeResult.PsaGenerateRandomResult.builder()
-        .randomBytes(psaGenerateRandomResult.getRandomBytes().toByteArray())
+        .randomBytes(psaGenerateRandomResult.getRandomBytes())
         .build();
   }
 }
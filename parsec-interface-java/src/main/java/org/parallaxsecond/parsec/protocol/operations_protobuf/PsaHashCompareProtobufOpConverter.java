@@ -6,26 +6,41 @@ import org.parallaxsecond.parsec.protocol.requests.Opcode;
 import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
 import org.parallaxsecond.parsec.protocol.requests.response.ResponseBody;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnsafeByteOperations;
+import org.parallaxsecond.parsec.protobuf.psa_hash_compare.PsaHashCompare;
 
 public class PsaHashCompareProtobufOpConverter implements ProtobufOpConverter {
   @Override
-  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode) {
-    throw new IllegalStateException("not implemented"); // FIXME
+  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode)
+      throws InvalidProtocolBufferException {
+    PsaHashCompare.Operation protoBufOp = PsaHashCompare.Operation.parseFrom(body.getBuffer());
+    return NativeOperation.PsaHashCompareOperation.builder()
+        .alg(protoBufOp.getAlg())
+        .input(protoBufOp.getInput().toByteArray())
+        .hash(protoBufOp.getHash().toByteArray())
+        .build();
   }
 
   @Override
   public RequestBody operationToBody(NativeOperation operation) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    NativeOperation.PsaHashCompareOperation hashCompareOperation =
+        (NativeOperation.PsaHashCompareOperation) operation;
+    return new RequestBody(
+        PsaHashCompare.Operation.newBuilder()
+            .setAlg(hashCompareOperation.getAlg())
+            .setInput(UnsafeByteOperations.unsafeWrap(hashCompareOperation.getInput()))
+            .setHash(UnsafeByteOperations.unsafeWrap(hashCompareOperation.getHash()))
+            .build());
   }
 
   @Override
   public ResponseBody resultToBody(NativeResult result) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    return new ResponseBody(PsaHashCompare.Result.newBuilder().build().toByteArray());
   }
 
   @Override
   public NativeResult tryBodyToResult(ResponseBody body, Opcode opcode)
       throws InvalidProtocolBufferException {
-    throw new IllegalStateException("not implemented"); // FIXME
+    return NativeResult.PsaHashCompareResult.builder().build();
   }
 }
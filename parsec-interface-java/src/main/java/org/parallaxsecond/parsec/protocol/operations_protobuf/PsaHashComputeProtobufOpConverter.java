@@ -6,26 +6,48 @@ import org.parallaxsecond.parsec.protocol.requests.Opcode;
 import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
 import org.parallaxsecond.parsec.protocol.requests.response.ResponseBody;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnsafeByteOperations;
+import org.parallaxsecond.parsec.protobuf.psa_hash_compute.PsaHashCompute;
 
 public class PsaHashComputeProtobufOpConverter implements ProtobufOpConverter {
   @Override
-  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode) {
-    throw new IllegalStateException("not implemented"); // FIXME
+  public NativeOperation bodyToOperation(RequestBody body, Opcode opcode)
+      throws InvalidProtocolBufferException {
+    PsaHashCompute.Operation protoBufOp = PsaHashCompute.Operation.parseFrom(body.getBuffer());
+    return NativeOperation.PsaHashComputeOperation.builder()
+        .alg(protoBufOp.getAlg())
+        .input(protoBufOp.getInput().toByteArray())
+        .build();
   }
 
   @Override
   public RequestBody operationToBody(NativeOperation operation) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    NativeOperation.PsaHashComputeOperation hashComputeOperation =
+        (NativeOperation.PsaHashComputeOperation) operation;
+    return new RequestBody(
+        PsaHashCompute.Operation.newBuilder()
+            .setAlg(hashComputeOperation.getAlg())
+            .setInput(UnsafeByteOperations.unsafeWrap(hashComputeOperation.getInput()))
+            .build());
   }
 
   @Override
   public ResponseBody resultToBody(NativeResult result) {
-    throw new IllegalStateException("not implemented"); // FIXME
+    NativeResult.PsaHashComputeResult hashComputeResult =
+        (NativeResult.PsaHashComputeResult) result;
+    return new ResponseBody(
+        PsaHashCompute.Result.newBuilder()
+            .setHash(hashComputeResult.getHashByteString())
+            .build()
+            .toByteArray());
   }
 
   @Override
   public NativeResult tryBodyToResult(ResponseBody body, Opcode opcode)
       throws InvalidProtocolBufferException {
-    throw new IllegalStateException("not implemented"); // FIXME
+    PsaHashCompute.Result hashComputeResult = PsaHashCompute.Result.parseFrom(body.getBuffer());
+    return NativeResult.PsaHashComputeResult.builder()
+        .hash(hashComputeResult.getHash())
+        .build();
   }
 }
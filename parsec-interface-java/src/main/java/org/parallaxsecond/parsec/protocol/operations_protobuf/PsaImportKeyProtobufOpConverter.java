@@ -1,7 +1,7 @@
 package org.parallaxsecond.parsec.protocol.operations_protobuf;
 
-import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnsafeByteOperations;
 import org.parallaxsecond.parsec.protobuf.psa_import_key.PsaImportKey;
 import org.parallaxsecond.parsec.protocol.operations.NativeOperation;
 import org.parallaxsecond.parsec.protocol.operations.NativeResult;
@@ -29,10 +29,9 @@ public class PsaImportKeyProtobufOpConverter implements ProtobufOpConverter {
         return new RequestBody(
                 PsaImportKey.Operation.newBuilder()
                         .setKeyName(psaImportKeyOperation.getKeyName())
-                        .setData(ByteString.copyFrom(psaImportKeyOperation.getData()))
+                        .setData(UnsafeByteOperations.unsafeWrap(psaImportKeyOperation.getData()))
                         .setAttributes(psaImportKeyOperation.getAttributes())
-                        .build()
-                        .toByteArray());
+                        .build());
     }
 
     @Override
@@ -5,8 +5,8 @@ import org.parallaxsecond.parsec.protocol.operations.NativeResult;
 import org.parallaxsecond.parsec.protocol.requests.Opcode;
 import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
 import org.parallaxsecond.parsec.protocol.requests.response.ResponseBody;
-import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnsafeByteOperations;
 import org.parallaxsecond.parsec.protobuf.psa_sign_hash.PsaSignHash;
 
 public class PsaSignHashProtobufOpConverter implements ProtobufOpConverter {
@@ -28,9 +28,8 @@ public class PsaSignHashProtobufOpConverter implements ProtobufOpConverter {
         PsaSignHash.Operation.newBuilder()
             .setKeyName(signHashOperation.getKeyName())
             .setAlg(signHashOperation.getAlg())
-            .setHash(ByteString.copyFrom(signHashOperation.getHash()))
-            .build()
-            .toByteArray());
+            .setHash(UnsafeByteOperations.unsafeWrap(signHashOperation.getHash()))
+            .build());
   }
 
   @Override
@@ -39,7 +38,7 @@ public class PsaSignHashProtobufOpConverter implements ProtobufOpConverter {
 
     return new ResponseBody(
         PsaSignHash.Result.newBuilder()
-            .setSignature(ByteString.copyFrom(psaSignResult.getSignature()))
+            .setSignature(psaSignResult.getSignatureByteString())
             .build()
             .toByteArray());
   }
@@ -49,7 +48,7 @@ public class PsaSignHashProtobufOpConverter implements ProtobufOpConverter {
       throws InvalidProtocolBufferException {
     PsaSignHash.Result signHashResult = PsaSignHash.Result.parseFrom(body.getBuffer());
     return NativeResult.PsaSignHashResult.builder()
-        .signature(signHashResult.getSignature().toByteArray())
+        .signature(signHashResult.getSignature())
         .build();
   }
 }
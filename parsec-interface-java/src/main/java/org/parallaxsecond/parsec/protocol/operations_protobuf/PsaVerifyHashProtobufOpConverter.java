@@ -5,8 +5,8 @@ import org.parallaxsecond.parsec.protocol.operations.NativeResult;
 import org.parallaxsecond.parsec.protocol.requests.Opcode;
 import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
 import org.parallaxsecond.parsec.protocol.requests.response.ResponseBody;
-import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnsafeByteOperations;
 import org.parallaxsecond.parsec.protobuf.psa_verify_hash.PsaVerifyHash;
 
 public class PsaVerifyHashProtobufOpConverter implements ProtobufOpConverter {
@@ -28,11 +28,10 @@ public class PsaVerifyHashProtobufOpConverter implements ProtobufOpConverter {
     return new RequestBody(
         PsaVerifyHash.Operation.newBuilder()
             .setAlg(verifyHashOperation.getAlg())
-            .setHash(ByteString.copyFrom(verifyHashOperation.getHash()))
-            .setSignature(ByteString.copyFrom(verifyHashOperation.getSignature()))
+            .setHash(UnsafeByteOperations.unsafeWrap(verifyHashOperation.getHash()))
+            .setSignature(UnsafeByteOperations.unsafeWrap(verifyHashOperation.getSignature()))
             .setKeyName(verifyHashOperation.getKeyName())
-            .build()
-            .toByteArray());
+            .build());
   }
 
   @Override
@@ -25,8 +25,15 @@ public enum AuthType {
   private final byte id;
   private final String description;
 
+  /** Shared copy of {@link #values()}, which clones the array on each call */
+  private static final AuthType[] VALUES = values();
+
   public static AuthType fromCode(byte authType) {
-    return values()[authType];
+    int index = Byte.toUnsignedInt(authType);
+    if (index >= VALUES.length) {
+      throw new IllegalStateException("unknown AuthType for code " + index);
+    }
+    return VALUES[index];
   }
 
   @Override
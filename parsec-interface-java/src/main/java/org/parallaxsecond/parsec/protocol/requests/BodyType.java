@@ -15,7 +15,14 @@ public enum BodyType {
   PROTOBUF((byte) 0);
   private final byte id;
 
+  /** Shared copy of {@link #values()}, which clones the array on each call */
+  private static final BodyType[] VALUES = values();
+
   public static BodyType fromCode(byte code) {
-    return values()[code];
+    int index = Byte.toUnsignedInt(code);
+    if (index >= VALUES.length) {
+      throw new IllegalStateException("unknown BodyType for code " + index);
+    }
+    return VALUES[index];
   }
 }
@@ -3,8 +3,6 @@ package org.parallaxsecond.parsec.protocol.requests;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
-import java.util.stream.Stream;
-
 /**
  * Listing of available operations and their associated opcode.
  *
@@ -16,63 +14,78 @@ import java.util.stream.Stream;
 @RequiredArgsConstructor
 public enum Opcode {
   /** Ping operation */
-  PING(0x0001, true, false),
+  PING(0x0001, true, false, true),
   /** PsaGenerateKey operation */
-  PSA_GENERATE_KEY(0x0002, false, false),
+  PSA_GENERATE_KEY(0x0002, false, false, false),
   /** PsaDestroyKey operation */
-  PSA_DESTROY_KEY(0x0003, false, false),
+  PSA_DESTROY_KEY(0x0003, false, false, false),
   /** PsaSignHash operation */
-  PSA_SIGN_HASH(0x0004, false, false),
+  PSA_SIGN_HASH(0x0004, false, false, false),
   /** PsaVerifyHash operation */
-  PSA_VERIFY_HASH(0x0005, false, false),
+  PSA_VERIFY_HASH(0x0005, false, false, true),
   /** PsaImportKey operation */
-  PSA_IMPORT_KEY(0x0006, false, false),
+  PSA_IMPORT_KEY(0x0006, false, false, false),
   /** PsaExportPublicKey operation */
-  PSA_EXPORT_PUBLIC_KEY(0x0007, false, false),
+  PSA_EXPORT_PUBLIC_KEY(0x0007, false, false, true),
   /** ListProviders operation */
-  LIST_PROVIDERS(0x0008, false, false),
+  LIST_PROVIDERS(0x0008, false, false, true),
   /** ListOpcodes operation */
-  LIST_OPCODES(0x0009, true, false),
+  LIST_OPCODES(0x0009, true, false, true),
   /** PsaAsymmetricEncrypt operation */
-  PSA_ASYMMETRIC_ENCRYPT(0x000A, false, false),
+  PSA_ASYMMETRIC_ENCRYPT(0x000A, false, false, false),
   /** PsaAsymmetricDecrypt operation */
-  PSA_ASYMMETRIC_DECRYPT(0x000B, false, false),
+  PSA_ASYMMETRIC_DECRYPT(0x000B, false, false, false),
   /** PsaExportKey operation */
-  PSA_EXPORT_KEY(0x000C, false, false),
+  PSA_EXPORT_KEY(0x000C, false, false, true),
   /** PsaGenerateRandom operation */
-  PSA_GENERATE_RANDOM(0x000D, false, false),
+  PSA_GENERATE_RANDOM(0x000D, false, false, false),
   /** ListAuthenticators operation */
-  LIST_AUTHENTICATORS(0x000E, true, false),
+  LIST_AUTHENTICATORS(0x000E, true, false, true),
   /** PsaHashCompute operation */
-  PSA_HASH_COMPUTE(0x000F, false, false),
+  PSA_HASH_COMPUTE(0x000F, false, false, true),
   /** PsaHashCompare operation */
-  PSA_HASH_COMPARE(0x0010, false, false),
+  PSA_HASH_COMPARE(0x0010, false, false, true),
   /** PsaAeadEncrypt */
-  PSA_AEAD_ENCRYPT(0x0011, false, false),
+  PSA_AEAD_ENCRYPT(0x0011, false, false, false),
   /** PsaAeadDecrypt */
-  PSA_AEAD_DECRYPT(0x0012, false, false),
+  PSA_AEAD_DECRYPT(0x0012, false, false, false),
   /** PsaRawKeyAgreement operation */
-  PSA_RAW_KEY_AGREEMENT(0x0013, false, false),
+  PSA_RAW_KEY_AGREEMENT(0x0013, false, false, false),
   /** PsaSignMessage operation */
-  PSA_SIGN_MESSAGE(0x0018, false, false),
+  PSA_SIGN_MESSAGE(0x0018, false, false, false),
   /** PsaVerifyMessage operation */
-  PSA_VERIFY_MESSAGE(0x0019, false, false),
+  PSA_VERIFY_MESSAGE(0x0019, false, false, true),
   /** ListKeys operation */
-  LIST_KEYS(0x001A, true, false),
+  LIST_KEYS(0x001A, true, false, true),
   /** ListClients operation (admin operation) */
-  LIST_CLIENTS(0x001B, true, true),
+  LIST_CLIENTS(0x001B, true, true, true),
   /** DeleteClient operation (admin operation) */
-  DELETE_CLIENT(0x001C, true, true);
+  DELETE_CLIENT(0x001C, true, true, false);
 
   private final int code;
   private final boolean core;
   private final boolean admin;
+  /**
+   * Whether the operation leaves the state of the service unchanged, so that identical requests
+   * sent at the same time get the same result
+   */
+  private final boolean readOnly;
+
+  /** Opcodes indexed by code, {@code null} for the unassigned ones */
+  private static final Opcode[] BY_CODE = new Opcode[DELETE_CLIENT.code + 1];
+
+  static {
+    for (Opcode opcode : values()) {
+      BY_CODE[opcode.code] = opcode;
+    }
+  }
 
   public static Opcode fromCode(int opcode) {
-    return Stream.of(values())
-        .filter(v -> v.getCode() == opcode)
-        .findFirst()
-        .orElseThrow(IllegalStateException::new);
+    Opcode value = opcode >= 0 && opcode < BY_CODE.length ? BY_CODE[opcode] : null;
+    if (value == null) {
+      throw new IllegalStateException("unknown opcode " + opcode);
+    }
+    return value;
   }
 
   public boolean isCrypto() {
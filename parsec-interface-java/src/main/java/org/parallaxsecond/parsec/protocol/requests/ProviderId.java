@@ -25,8 +25,15 @@ public enum ProviderId {
   @Getter private final byte id;
   private final String description;
 
+  /** Shared copy of {@link #values()}, which clones the array on each call */
+  private static final ProviderId[] VALUES = values();
+
   public static ProviderId fromCode(byte provider) {
-    return values()[provider];
+    int index = Byte.toUnsignedInt(provider);
+    if (index >= VALUES.length) {
+      throw new IllegalStateException("unknown ProviderId for code " + index);
+    }
+    return VALUES[index];
   }
 
   @Override
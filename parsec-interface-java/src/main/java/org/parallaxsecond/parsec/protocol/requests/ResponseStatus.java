@@ -118,12 +118,25 @@ public enum ResponseStatus {
     this((short) id, description);
   }
 
-  public static ResponseStatus fromCode(int code) {
+  /** Statuses indexed by code, {@code null} for the unassigned ones */
+  private static final ResponseStatus[] BY_CODE;
+
+  static {
+    int max = 0;
+    for (ResponseStatus status : values()) {
+      max = Math.max(max, status.id);
+    }
+    BY_CODE = new ResponseStatus[max + 1];
     for (ResponseStatus status : values()) {
-      if (status.getId() == code) {
-        return status;
-      }
+      BY_CODE[status.id] = status;
+    }
+  }
+
+  public static ResponseStatus fromCode(int code) {
+    ResponseStatus status = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    if (status == null) {
+      throw new IllegalStateException("unknown responseStatus for code " + code);
     }
-    throw new IllegalStateException("unknown responseStatus for code " + code);
+    return status;
   }
 }
@@ -1,21 +1,34 @@
 package org.parallaxsecond.parsec.protocol.requests.request;
 
 import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.text.MessageFormat;
 
+import org.parallaxsecond.parsec.protocol.buffers.BufferPool;
 import org.parallaxsecond.parsec.protocol.requests.InterfaceException;
 import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
 import org.parallaxsecond.parsec.protocol.requests.request.common.WireHeader_1_0;
+import org.parallaxsecond.parsec.protocol.requests.request.common.WireHeaderView;
 
 import lombok.Builder;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
-/** Representation of the request wire format. */
+/**
+ * Representation of the request wire format.
+ *
+ * <p>
+ * Closing a request wipes its authentication data, unless it is shared with other requests. A
+ * request must not be written once closed.
+ */
 @Builder
 @RequiredArgsConstructor
-public class Request {
+@Getter
+public class Request implements AutoCloseable {
   /** Request header */
   private final RequestHeader header;
   /**
@@ -68,10 +81,63 @@ public class Request {
    * fails, `ResponseStatus::InvalidEncoding` is returned.
    */
   public void writeToStream(WritableByteChannel channel) throws IOException {
-    header.toRaw().bodyLen(body.length()).authLen((short) auth.getBuffer().length()).build()
-        .writeToStream(channel);
-    body.writeToStream(channel);
-    auth.writeToStream(channel);
+    // a single direct buffer lets the whole request leave in one write, without the copy to
+    // native memory a heap buffer needs
+    BufferPool pool = BufferPool.getDefault();
+    ByteBuffer frame = pool.acquire(frameSize());
+    try {
+      writeTo(frame);
+      ((Buffer) frame).flip();
+      while (frame.hasRemaining()) {
+        channel.write(frame);
+      }
+    } finally {
+      wipeAuth(frame);
+      pool.release(frame);
+    }
+  }
+
+  /** Serialise the request into a new heap buffer, ready to be written. */
+  public ByteBuffer toByteBuffer() {
+    ByteBuffer frame = ByteBuffer.allocate(frameSize()).order(ByteOrder.LITTLE_ENDIAN);
+    writeTo(frame);
+    ((Buffer) frame).flip();
+    return frame;
+  }
+
+  private int frameSize() {
+    return WireHeaderView.SIZE + body.length() + auth.length();
+  }
+
+  private void writeTo(ByteBuffer frame) {
+    writeHeader(frame, body.length(), (short) auth.length());
+    body.writeTo(frame);
+    auth.writeTo(frame);
+  }
+
+  /** Serialise the header at the position of {@code frame}. */
+  void writeHeader(ByteBuffer frame, int bodyLen, short authLen) {
+    header.toRaw().bodyLen(bodyLen).authLen(authLen).build().writeTo(frame);
+  }
+
+  /**
+   * Wipe the authentication data from a frame written by this request, such as the one returned
+   * by {@link #toByteBuffer()}, once it has been sent.
+   */
+  public void wipeAuth(ByteBuffer frame) {
+    if (!auth.isSecret()) {
+      return;
+    }
+    int authLen = auth.length();
+    for (int i = WireHeaderView.SIZE + body.length(); i < frame.limit() && authLen-- > 0; i++) {
+      frame.put(i, (byte) 0);
+    }
+  }
+
+  /** Wipe the authentication data once the request has been sent. */
+  @Override
+  public void close() {
+    auth.zeroize();
   }
 
   @Override
@@ -1,35 +1,125 @@
 package org.parallaxsecond.parsec.protocol.requests.request;
 
+import org.parallaxsecond.parsec.protocol.buffers.BufferPool;
 import org.parallaxsecond.parsec.protocol.secrecy.Secret;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 import java.io.IOException;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 
-@RequiredArgsConstructor
 public class RequestAuth {
+  /** Empty authentication, as sent with {@code AuthType.NO_AUTH} */
+  public static final RequestAuth EMPTY = immutable(new byte[0]);
+
   @Getter private final Secret.SecretBytes buffer;
+  /** Whether the value is shared between requests and must not be zeroized */
+  @Getter private final boolean immutable;
+  /** Whether the value must be wiped from the frames it was copied into once they are sent */
+  @Getter private final boolean secret;
 
   public RequestAuth() {
     this(new byte[0]);
   }
 
   public RequestAuth(byte[] bytes) {
-    this.buffer = new Secret.SecretBytes(bytes);
+    this(new Secret.SecretBytes(bytes));
+  }
+
+  public RequestAuth(Secret.SecretBytes buffer) {
+    this(buffer, false, true);
+  }
+
+  private RequestAuth(Secret.SecretBytes buffer, boolean immutable, boolean secret) {
+    this.buffer = buffer;
+    this.immutable = immutable;
+    this.secret = secret;
+  }
+
+  /**
+   * Authentication data that never changes within the process, such as an application name or a
+   * user ID. It is encoded once and the same instance can be used by every request. Neither
+   * {@link #zeroize()} nor the framing of requests wipe it, so it must not hold a secret.
+   */
+  public static RequestAuth immutable(byte[] bytes) {
+    return new RequestAuth(new Secret.SecretBytes(bytes), true, false);
+  }
+
+  /**
+   * A secret shared by several requests, such as a bearer token. {@link #zeroize()} leaves it
+   * untouched, but it is still wiped from every frame it is copied into. The secret itself is wiped
+   * when its owner closes it, or once it becomes unreachable.
+   */
+  public static RequestAuth shared(Secret.SecretBytes buffer) {
+    return new RequestAuth(buffer, true, true);
+  }
+
+  /** @return the length of the authentication data, in bytes */
+  public int length() {
+    return buffer.length();
+  }
+
+  /** Copy the authentication data at the position of {@code frame}. */
+  public void writeTo(ByteBuffer frame) {
+    buffer.writeTo(frame);
+  }
+
+  /** Wipe the authentication data, unless it is {@link #isImmutable() immutable}. */
+  public void zeroize() {
+    if (!immutable) {
+      buffer.zeroize();
+    }
   }
 
   public static RequestAuth readFromStream(ReadableByteChannel channel, short authLen)
       throws IOException {
-    ByteBuffer buf = ByteBuffer.allocate(authLen).order(ByteOrder.LITTLE_ENDIAN);
-    channel.read(buf);
-    return new RequestAuth(buf.array());
+    BufferPool pool = BufferPool.getDefault();
+    ByteBuffer buf = pool.acquire(authLen);
+    byte[] bytes = new byte[authLen];
+    try {
+      channel.read(buf);
+      ((Buffer) buf).flip();
+      buf.get(bytes);
+      return new RequestAuth(bytes);
+    } finally {
+      // SecretBytes keeps its own copy
+      Arrays.fill(bytes, (byte) 0);
+      ((Buffer) buf).clear();
+      for (int i = 0; i < authLen; i++) {
+        buf.put(i, (byte) 0);
+      }
+      pool.release(buf);
+    }
   }
 
   public void writeToStream(WritableByteChannel channel) throws IOException {
-    channel.write(ByteBuffer.wrap(buffer.getValue()));
+    // copied straight from the secret, an off-heap value never goes through the heap
+    BufferPool pool = BufferPool.getDefault();
+    ByteBuffer buf = pool.acquire(length());
+    try {
+      writeTo(buf);
+      ((Buffer) buf).flip();
+      while (buf.hasRemaining()) {
+        channel.write(buf);
+      }
+    } finally {
+      if (secret) {
+        for (int i = 0; i < buf.limit(); i++) {
+          buf.put(i, (byte) 0);
+        }
+      }
+      pool.release(buf);
+    }
+  }
+
+  /**
+   * @return a buffer over the authentication bytes, ready to be written. For an off-heap secret it
+   *     wraps a copy, which the caller should wipe once written.
+   */
+  public ByteBuffer toBuffer() {
+    return ByteBuffer.wrap(buffer.getValue());
   }
 }
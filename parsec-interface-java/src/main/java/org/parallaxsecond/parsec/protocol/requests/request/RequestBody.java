@@ -3,36 +3,124 @@ package org.parallaxsecond.parsec.protocol.requests.request;
 import java.io.IOException;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import org.parallaxsecond.parsec.protocol.buffers.BufferPool;
+import org.parallaxsecond.parsec.protocol.requests.InterfaceException;
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
 
-@RequiredArgsConstructor
 public class RequestBody {
-  @Getter
-  private final ByteBuffer buffer;
+  private ByteBuffer buffer;
+  /** Encodes the body, if it was not built from bytes */
+  private final Encoder encoder;
+  /** The buffer the body was read into, if borrowed from the {@link BufferPool} */
+  private ByteBuffer pooled;
+
+  public RequestBody(ByteBuffer buffer) {
+    this.buffer = buffer;
+    this.encoder = null;
+  }
 
   public RequestBody(byte[] buf) {
     this(ByteBuffer.wrap(buf));
   }
 
+  /**
+   * Body holding a protobuf message. The message is only encoded when the request is framed,
+   * directly into the frame buffer.
+   */
+  public RequestBody(MessageLite message) {
+    this(new Encoder() {
+      @Override
+      public int getSerializedSize() {
+        return message.getSerializedSize();
+      }
+
+      @Override
+      public void writeTo(CodedOutputStream out) throws IOException {
+        message.writeTo(out);
+      }
+    });
+  }
+
+  /** Body encoded by {@code encoder} when the request is framed, directly into the frame buffer. */
+  public RequestBody(Encoder encoder) {
+    this.encoder = encoder;
+  }
+
+  /** Read a body into a pooled buffer, to be handed back with {@link #release()}. */
   public static RequestBody readFromStream(ReadableByteChannel channel, int len)
       throws IOException {
-    ByteBuffer buf = ByteBuffer.allocate(len).order(ByteOrder.LITTLE_ENDIAN);
+    ByteBuffer buf = BufferPool.getDefault().acquire(len);
+    RequestBody body = new RequestBody(buf);
+    body.pooled = buf;
     channel.read(buf);
     ((Buffer) buf).flip();
-    return new RequestBody(buf);
+    return body;
+  }
+
+  /** @return the serialised body, encoding it first if needed */
+  public ByteBuffer getBuffer() {
+    if (buffer == null) {
+      byte[] bytes = new byte[encoder.getSerializedSize()];
+      CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+      try {
+        encoder.writeTo(out);
+        out.checkNoSpaceLeft();
+      } catch (IOException e) {
+        throw new InterfaceException(ResponseStatus.SerializingBodyFailed, e);
+      }
+      buffer = ByteBuffer.wrap(bytes);
+    }
+    return buffer;
+  }
+
+  /**
+   * Serialise the body at the position of {@code frame}, which must have {@link #length()} bytes
+   * remaining. The body itself is left untouched, so it can be written again.
+   */
+  public void writeTo(ByteBuffer frame) {
+    if (buffer != null) {
+      frame.put(buffer.duplicate());
+      return;
+    }
+    try {
+      CodedOutputStream out = CodedOutputStream.newInstance(frame);
+      encoder.writeTo(out);
+      out.flush();
+    } catch (IOException e) {
+      throw new InterfaceException(ResponseStatus.SerializingBodyFailed, e);
+    }
+  }
+
+  /**
+   * Return the buffer of a body read from a stream to the pool. The body must not be used
+   * afterwards.
+   */
+  public void release() {
+    if (pooled != null) {
+      BufferPool.getDefault().release(pooled);
+      pooled = null;
+    }
   }
 
   public void writeToStream(WritableByteChannel channel) throws IOException {
-    channel.write(buffer);
+    channel.write(getBuffer());
   }
 
   public int length() {
-    return buffer.remaining();
+    return buffer != null ? buffer.remaining() : encoder.getSerializedSize();
+  }
+
+  /** Serialises a body of known size, in the same way as a protobuf message. */
+  public interface Encoder {
+    int getSerializedSize();
+
+    void writeTo(CodedOutputStream out) throws IOException;
   }
 
   @Override
@@ -0,0 +1,47 @@
+package org.parallaxsecond.parsec.protocol.requests.request;
+
+import java.nio.ByteBuffer;
+
+import org.parallaxsecond.parsec.protocol.requests.request.common.WireHeaderView;
+
+import lombok.Getter;
+
+/**
+ * Header shared by many requests, serialised once.
+ *
+ * <p>
+ * Requests created from a template copy the serialised header into their frame and only fill in
+ * the body and authentication lengths.
+ */
+public final class RequestTemplate {
+  @Getter
+  private final RequestHeader header;
+  private final ByteBuffer rawHeader;
+
+  public RequestTemplate(RequestHeader header) {
+    this.header = header;
+    this.rawHeader = header.toRaw().build().toBuffer().asReadOnlyBuffer();
+  }
+
+  /** @return a request with the template header */
+  public Request newRequest(RequestBody body, RequestAuth auth) {
+    return new TemplateRequest(this, body, auth);
+  }
+
+  private static final class TemplateRequest extends Request {
+    private final ByteBuffer rawHeader;
+
+    private TemplateRequest(RequestTemplate template, RequestBody body, RequestAuth auth) {
+      super(template.header, body, auth);
+      this.rawHeader = template.rawHeader;
+    }
+
+    @Override
+    void writeHeader(ByteBuffer frame, int bodyLen, short authLen) {
+      int start = frame.position();
+      frame.put(rawHeader.duplicate());
+      frame.putInt(start + WireHeaderView.BODY_LEN_OFFSET, bodyLen);
+      frame.putShort(start + WireHeaderView.AUTH_LEN_OFFSET, authLen);
+    }
+  }
+}
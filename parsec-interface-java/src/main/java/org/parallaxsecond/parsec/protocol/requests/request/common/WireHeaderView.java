@@ -0,0 +1,151 @@
+package org.parallaxsecond.parsec.protocol.requests.request.common;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.text.MessageFormat;
+
+import org.parallaxsecond.parsec.protocol.requests.InterfaceException;
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+
+/**
+ * Flyweight over a serialised version 1.0 wire header.
+ *
+ * <p>
+ * Fields are read straight out of the buffer when accessed, so parsing a header allocates nothing.
+ * A view can be pointed at another header with {@link #wrap(ByteBuffer)}. It must not be used once
+ * the underlying buffer has been modified or handed back to a pool.
+ *
+ * <p>
+ * {@link WireHeader_1_0} remains the immutable representation, see {@link #toHeader()}.
+ */
+public final class WireHeaderView {
+  /** Size of the whole header, including magic number and header size */
+  public static final int SIZE = WireHeader_1_0.REQUEST_HDR_SIZE + 6;
+  public static final int MAGIC_NUMBER_OFFSET = 0;
+  public static final int HDR_SIZE_OFFSET = 4;
+  public static final int VERSION_MAJ_OFFSET = 6;
+  public static final int VERSION_MIN_OFFSET = 7;
+  public static final int FLAGS_OFFSET = 8;
+  public static final int PROVIDER_OFFSET = 10;
+  public static final int SESSION_OFFSET = 11;
+  public static final int CONTENT_TYPE_OFFSET = 19;
+  public static final int ACCEPT_TYPE_OFFSET = 20;
+  public static final int AUTH_TYPE_OFFSET = 21;
+  public static final int BODY_LEN_OFFSET = 22;
+  public static final int AUTH_LEN_OFFSET = 26;
+  public static final int OPCODE_OFFSET = 28;
+  public static final int STATUS_OFFSET = 32;
+  public static final int RESERVED1_OFFSET = 34;
+  public static final int RESERVED2_OFFSET = 35;
+
+  private ByteBuffer buf;
+  private int offset;
+
+  /** Point the view at the header starting at the position of a little-endian buffer. */
+  public WireHeaderView wrap(ByteBuffer buf) {
+    return wrap(buf, buf.position());
+  }
+
+  /**
+   * Point the view at the header starting at {@code offset} in a little-endian buffer, checking
+   * its constant fields.
+   *
+   * <p>
+   * # Errors - same as {@link WireHeader_1_0#readFromStream}.
+   */
+  public WireHeaderView wrap(ByteBuffer buf, int offset) {
+    if (buf.order() != ByteOrder.LITTLE_ENDIAN) {
+      throw new IllegalArgumentException("wire headers are little-endian");
+    }
+    this.buf = buf;
+    this.offset = offset;
+    validate();
+    return this;
+  }
+
+  private void validate() {
+    int available = buf.limit() - offset;
+    int magicNumber = available >= HDR_SIZE_OFFSET ? buf.getInt(offset + MAGIC_NUMBER_OFFSET) : 0;
+    if (magicNumber != WireHeader_1_0.MAGIC_NUMBER) {
+      throw new InterfaceException(ResponseStatus.InvalidHeader, MessageFormat.format(
+          "Expected magic number {0}, got {1}", WireHeader_1_0.MAGIC_NUMBER, magicNumber));
+    }
+    short hdrSize = available >= VERSION_MAJ_OFFSET ? buf.getShort(offset + HDR_SIZE_OFFSET) : 0;
+    int remaining = available - VERSION_MAJ_OFFSET;
+    if (hdrSize != WireHeader_1_0.REQUEST_HDR_SIZE || remaining < hdrSize) {
+      throw new InterfaceException(ResponseStatus.InvalidHeader,
+          MessageFormat.format("Expected request header size {0}, got {1}, remaining {2}",
+              WireHeader_1_0.REQUEST_HDR_SIZE, hdrSize, remaining));
+    }
+    int versionMaj = buf.get(offset + VERSION_MAJ_OFFSET);
+    int versionMin = buf.get(offset + VERSION_MIN_OFFSET);
+    if (versionMaj != WireHeader_1_0.WIRE_PROTOCOL_VERSION_MAJ
+        || versionMin != WireHeader_1_0.WIRE_PROTOCOL_VERSION_MIN) {
+      throw new InterfaceException(ResponseStatus.WireProtocolVersionNotSupported,
+          MessageFormat.format("Expected wire protocol version {0}.{1}, got {2}.{3} instead",
+              WireHeader_1_0.WIRE_PROTOCOL_VERSION_MAJ, WireHeader_1_0.WIRE_PROTOCOL_VERSION_MIN,
+              versionMaj, versionMin));
+    }
+    if (getReserved1() != 0x00 || getReserved2() != 0x00) {
+      throw new InterfaceException(ResponseStatus.InvalidHeader,
+          MessageFormat.format("expected reserved1 0, got {0}, reserved2 0, got {1}",
+              getReserved1(), getReserved2()));
+    }
+  }
+
+  public short getFlags() {
+    return buf.getShort(offset + FLAGS_OFFSET);
+  }
+
+  public byte getProvider() {
+    return buf.get(offset + PROVIDER_OFFSET);
+  }
+
+  public long getSession() {
+    return buf.getLong(offset + SESSION_OFFSET);
+  }
+
+  public byte getContentType() {
+    return buf.get(offset + CONTENT_TYPE_OFFSET);
+  }
+
+  public byte getAcceptType() {
+    return buf.get(offset + ACCEPT_TYPE_OFFSET);
+  }
+
+  public byte getAuthType() {
+    return buf.get(offset + AUTH_TYPE_OFFSET);
+  }
+
+  public int getBodyLen() {
+    return buf.getInt(offset + BODY_LEN_OFFSET);
+  }
+
+  public short getAuthLen() {
+    return buf.getShort(offset + AUTH_LEN_OFFSET);
+  }
+
+  public int getOpcode() {
+    return buf.getInt(offset + OPCODE_OFFSET);
+  }
+
+  public short getStatus() {
+    return buf.getShort(offset + STATUS_OFFSET);
+  }
+
+  public byte getReserved1() {
+    return buf.get(offset + RESERVED1_OFFSET);
+  }
+
+  public byte getReserved2() {
+    return buf.get(offset + RESERVED2_OFFSET);
+  }
+
+  /** Copy the fields into an immutable {@link WireHeader_1_0}. */
+  public WireHeader_1_0 toHeader() {
+    return WireHeader_1_0.builder().flags(getFlags()).provider(getProvider())
+        .session(getSession()).contentType(getContentType()).acceptType(getAcceptType())
+        .authType(getAuthType()).bodyLen(getBodyLen()).authLen(getAuthLen()).opcode(getOpcode())
+        .status(getStatus()).reserved1(getReserved1()).reserved2(getReserved2()).build();
+  }
+}
@@ -6,10 +6,8 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
-import java.text.MessageFormat;
 
-import org.parallaxsecond.parsec.protocol.requests.InterfaceException;
-import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+import org.parallaxsecond.parsec.protocol.buffers.BufferPool;
 
 import lombok.Builder;
 import lombok.Getter;
@@ -65,41 +63,15 @@ public class WireHeader_1_0 {
   private final byte reserved2;
 
   public static WireHeader_1_0 readFromStream(ReadableByteChannel channel) throws IOException {
-    ByteBuffer buf = ByteBuffer.allocate(REQUEST_HDR_SIZE + 6).order(ByteOrder.LITTLE_ENDIAN);
-
-    channel.read(buf);
-    ((Buffer) buf).flip();
-
-    int magicNumber = buf.getInt();
-    if (magicNumber != MAGIC_NUMBER) {
-      throw new InterfaceException(ResponseStatus.InvalidHeader,
-          MessageFormat.format("Expected magic number {0}, got {1}", MAGIC_NUMBER, magicNumber));
-    }
-    short hdrSize = buf.getShort();
-    if (hdrSize != REQUEST_HDR_SIZE || buf.remaining() < hdrSize) {
-      throw new InterfaceException(ResponseStatus.InvalidHeader,
-          MessageFormat.format("Expected request header size {0}, got {1}, remaining {2}",
-              REQUEST_HDR_SIZE, hdrSize, buf.remaining()));
-    }
-    int versionMaj = buf.get();
-    int versionMin = buf.get();
-    if (versionMaj != WIRE_PROTOCOL_VERSION_MAJ || versionMin != WIRE_PROTOCOL_VERSION_MIN) {
-      throw new InterfaceException(ResponseStatus.WireProtocolVersionNotSupported,
-          MessageFormat.format("Expected wire protocol version {0}.{1}, got {2}.{3} instead",
-              WIRE_PROTOCOL_VERSION_MAJ, WIRE_PROTOCOL_VERSION_MIN, versionMaj, versionMin));
-    }
-
-    WireHeader_1_0 wireHeader = WireHeader_1_0.builder().flags(buf.getShort()).provider(buf.get())
-        .session(buf.getLong()).contentType(buf.get()).acceptType(buf.get()).authType(buf.get())
-        .bodyLen(buf.getInt()).authLen(buf.getShort()).opcode(buf.getInt()).status(buf.getShort())
-        .reserved1(buf.get()).reserved2(buf.get()).build();
-
-    if (wireHeader.reserved1 != 0x00 || wireHeader.reserved2 != 0x00) {
-      throw new InterfaceException(ResponseStatus.InvalidHeader,
-          MessageFormat.format("expected reserved1 0, got {0}, reserved2 0, got {1}",
-              wireHeader.reserved1, wireHeader.reserved2));
+    BufferPool pool = BufferPool.getDefault();
+    ByteBuffer buf = pool.acquire(REQUEST_HDR_SIZE + 6);
+    try {
+      channel.read(buf);
+      ((Buffer) buf).flip();
+      return new WireHeaderView().wrap(buf).toHeader();
+    } finally {
+      pool.release(buf);
     }
-    return wireHeader;
   }
 
   /**
@@ -110,8 +82,20 @@ public class WireHeader_1_0 {
    * writing the header bytes fails, `ResponseStatus::ConnectionError` is returned.
    */
   public void writeToStream(WritableByteChannel channel) throws IOException {
-    ByteBuffer buf = ByteBuffer.allocate(REQUEST_HDR_SIZE + 6).order(ByteOrder.LITTLE_ENDIAN)
-        .putInt(MAGIC_NUMBER) // 4
+    channel.write(toBuffer());
+  }
+
+  /** Serialise the header into a new buffer, ready to be written. */
+  public ByteBuffer toBuffer() {
+    ByteBuffer buf = ByteBuffer.allocate(REQUEST_HDR_SIZE + 6).order(ByteOrder.LITTLE_ENDIAN);
+    writeTo(buf);
+    ((Buffer) buf).flip();
+    return buf;
+  }
+
+  /** Serialise the header at the position of a little-endian buffer. */
+  public void writeTo(ByteBuffer buf) {
+    buf.putInt(MAGIC_NUMBER) // 4
         .putShort(REQUEST_HDR_SIZE) // 6
         .put(WIRE_PROTOCOL_VERSION_MAJ) // 7
         .put(WIRE_PROTOCOL_VERSION_MIN) // 8
@@ -127,8 +111,5 @@ public class WireHeader_1_0 {
         .putShort(status) // 34
         .put(reserved1) // 35
         .put(reserved2); // 36
-    ((Buffer) buf).flip();
-
-    channel.write(buf);
   }
 }
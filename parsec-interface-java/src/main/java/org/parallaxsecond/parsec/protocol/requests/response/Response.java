@@ -1,13 +1,16 @@
 package org.parallaxsecond.parsec.protocol.requests.response;
 
+import org.parallaxsecond.parsec.protocol.buffers.BufferPool;
 import org.parallaxsecond.parsec.protocol.requests.InterfaceException;
 import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
-import org.parallaxsecond.parsec.protocol.requests.request.common.WireHeader_1_0;
+import org.parallaxsecond.parsec.protocol.requests.request.common.WireHeaderView;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.text.MessageFormat;
@@ -37,18 +40,30 @@ public class Response {
   public static Response readFromStream(ReadableByteChannel channel, long bodyLenLimit)
       throws IOException {
 
-    WireHeader_1_0 rawHeader = WireHeader_1_0.readFromStream(channel);
-    int bodyLen = rawHeader.getBodyLen();
-    if (bodyLen > bodyLenLimit) {
-      throw new InterfaceException(
-          ResponseStatus.BodySizeExceedsLimit,
-          MessageFormat.format(
-              "Request body length ({0}) bigger than the limit given ({1}).",
-              bodyLen, bodyLenLimit));
+    // read the header through a flyweight view, no intermediate raw header is built
+    BufferPool pool = BufferPool.getDefault();
+    ByteBuffer buf = pool.acquire(WireHeaderView.SIZE);
+    final ResponseHeader header;
+    final int bodyLen;
+    try {
+      channel.read(buf);
+      ((Buffer) buf).flip();
+      WireHeaderView rawHeader = new WireHeaderView().wrap(buf);
+      bodyLen = rawHeader.getBodyLen();
+      if (bodyLen > bodyLenLimit) {
+        throw new InterfaceException(
+            ResponseStatus.BodySizeExceedsLimit,
+            MessageFormat.format(
+                "Request body length ({0}) bigger than the limit given ({1}).",
+                bodyLen, bodyLenLimit));
+      }
+      header = ResponseHeader.fromRaw(rawHeader);
+    } finally {
+      pool.release(buf);
     }
 
     ResponseBody body = ResponseBody.readFromStream(channel, bodyLen);
-    return Response.builder().header(ResponseHeader.fromRaw(rawHeader)).body(body).build();
+    return new Response(header, body);
   }
 
   /**
@@ -1,5 +1,7 @@
 package org.parallaxsecond.parsec.protocol.requests.response;
 
+import org.parallaxsecond.parsec.protocol.buffers.BufferPool;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,22 +18,39 @@ import java.nio.channels.WritableByteChannel;
 @Slf4j
 public class ResponseBody {
   private final ByteBuffer buffer;
+  /** The buffer the body was read into, if borrowed from the {@link BufferPool} */
+  @Getter(AccessLevel.NONE)
+  private ByteBuffer pooled;
 
   public ResponseBody(byte[] buffer) {
     this(ByteBuffer.wrap(buffer));
   }
 
+  /** Read a body into a pooled buffer, to be handed back with {@link #release()}. */
   public static ResponseBody readFromStream(ReadableByteChannel channel, int len)
       throws IOException {
-    ByteBuffer buf = ByteBuffer.allocate(len).order(ByteOrder.LITTLE_ENDIAN);
+    ByteBuffer buf = BufferPool.getDefault().acquire(len);
     int read = channel.read(buf);
     if (read != len) {
       log.warn("expected to read {} but only got {}", len, read);
     }
     ((Buffer)buf).flip();
-    ((Buffer)buf).limit(Math.min(len, read));
+    ((Buffer)buf).limit(Math.max(0, Math.min(len, read)));
 
-    return new ResponseBody(buf.slice());
+    ResponseBody body = new ResponseBody(buf.slice().order(ByteOrder.LITTLE_ENDIAN));
+    body.pooled = buf;
+    return body;
+  }
+
+  /**
+   * Return the buffer of a body read from a stream to the pool. The body must not be used
+   * afterwards.
+   */
+  public void release() {
+    if (pooled != null) {
+      BufferPool.getDefault().release(pooled);
+      pooled = null;
+    }
   }
 
   public void writeToStream(WritableByteChannel channel) throws IOException {
@@ -4,6 +4,7 @@ import org.parallaxsecond.parsec.protocol.requests.BodyType;
 import org.parallaxsecond.parsec.protocol.requests.Opcode;
 import org.parallaxsecond.parsec.protocol.requests.ProviderId;
 import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+import org.parallaxsecond.parsec.protocol.requests.request.common.WireHeaderView;
 import org.parallaxsecond.parsec.protocol.requests.request.common.WireHeader_1_0;
 import lombok.Builder;
 import lombok.Getter;
@@ -40,6 +41,16 @@ public class ResponseHeader {
         .build();
   }
 
+  /** Decode the header straight from a wire header view, without copying it first. */
+  public static ResponseHeader fromRaw(WireHeaderView wireHeader) {
+    return new ResponseHeader(
+        ProviderId.fromCode(wireHeader.getProvider()),
+        wireHeader.getSession(),
+        BodyType.fromCode(wireHeader.getContentType()),
+        Opcode.fromCode(wireHeader.getOpcode()),
+        ResponseStatus.fromCode(wireHeader.getStatus()));
+  }
+
   public WireHeader_1_0.WireHeader_1_0Builder toRaw() {
     return WireHeader_1_0.builder()
         .flags((short) 0)
@@ -2,37 +2,104 @@ package org.parallaxsecond.parsec.protocol.secrecy;
 
 import lombok.Getter;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
-@RequiredArgsConstructor
-public class Secret<T, N> {
+/**
+ * Value that is wiped once it is no longer needed.
+ *
+ * <p>
+ * Close the secret, or call {@link #zeroize()}, as soon as the value has been used. A secret that
+ * is never closed is wiped by a background thread once it becomes unreachable.
+ */
+public class Secret<T, N> implements AutoCloseable {
   protected final N nullValue;
   @Getter protected final T value;
+  private final SecretCleaner.Cleanable cleanable;
+
+  public Secret(N nullValue, T value) {
+    this(nullValue, value, null);
+  }
+
+  /**
+   * @param wipe wipes the value, run once when the secret is closed or becomes unreachable. It must
+   *     not refer to the secret itself, or the secret would never become unreachable.
+   */
+  protected Secret(N nullValue, T value, Runnable wipe) {
+    this.nullValue = nullValue;
+    this.value = value;
+    this.cleanable = wipe != null ? SecretCleaner.register(this, wipe) : null;
+  }
+
+  public void zeroize() {
+    if (cleanable != null) {
+      cleanable.clean();
+    }
+  }
 
   @Override
-  protected void finalize() throws Throwable {
-    super.finalize();
+  public void close() {
     zeroize();
   }
 
-  public void zeroize() {}
-
+  /** Bytes kept either on the heap or, with {@link #offHeap(byte[])}, in native memory. */
   public static class SecretBytes extends Secret<byte[], Byte> {
+    /** Native copy of the value, null if the value is on the heap */
+    private final ByteBuffer offHeap;
+
     public SecretBytes(@NonNull byte[] value) {
-      super((byte) 0, Arrays.copyOf(value, value.length));
+      this(Arrays.copyOf(value, value.length), null);
     }
 
-    public void zeroize() {
-      if (value == null) {
-        return;
+    private SecretBytes(byte[] heap, ByteBuffer offHeap) {
+      super((byte) 0, heap, heap != null ? () -> Arrays.fill(heap, (byte) 0) : () -> {
+        for (int i = 0; i < offHeap.capacity(); i++) {
+          offHeap.put(i, (byte) 0);
+        }
+      });
+      this.offHeap = offHeap;
+    }
+
+    /**
+     * Copy {@code value} to native memory, so that the secret is not moved around or left behind
+     * by the garbage collector. The caller should wipe {@code value} afterwards.
+     */
+    public static SecretBytes offHeap(@NonNull byte[] value) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(value.length);
+      buffer.put(value);
+      return new SecretBytes(null, buffer);
+    }
+
+    /**
+     * @return the value. For an {@link #isOffHeap() off-heap} secret this is a copy, which the
+     *     caller should wipe once used.
+     */
+    @Override
+    public byte[] getValue() {
+      if (offHeap == null) {
+        return value;
       }
-      Arrays.fill(value, nullValue);
+      byte[] copy = new byte[offHeap.capacity()];
+      ((ByteBuffer) offHeap.duplicate().clear()).get(copy);
+      return copy;
+    }
+
+    public boolean isOffHeap() {
+      return offHeap != null;
     }
 
     public int length() {
-      return value.length;
+      return offHeap != null ? offHeap.capacity() : value.length;
+    }
+
+    /** Copy the value at the position of {@code dst}, without going through the heap. */
+    public void writeTo(ByteBuffer dst) {
+      if (offHeap != null) {
+        dst.put((ByteBuffer) offHeap.duplicate().clear());
+      } else {
+        dst.put(value);
+      }
     }
   }
 }
@@ -0,0 +1,63 @@
+package org.parallaxsecond.parsec.protocol.secrecy;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wipes secrets that become unreachable without being closed.
+ *
+ * <p>
+ * This works like {@code java.lang.ref.Cleaner}, which is not available on Java 8: each secret is
+ * tracked by a phantom reference, and a daemon thread runs the wipe action of the references the
+ * garbage collector enqueues. Unlike finalization, this does not delay reclaiming the secret.
+ */
+final class SecretCleaner {
+  private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+  /** Keeps the references reachable until they are cleaned */
+  private static final Set<Cleanable> PENDING = ConcurrentHashMap.newKeySet();
+
+  static {
+    Thread thread = new Thread(SecretCleaner::run, "parsec-secret-cleaner");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private SecretCleaner() {}
+
+  static Cleanable register(Object secret, Runnable wipe) {
+    Cleanable cleanable = new Cleanable(secret, wipe);
+    PENDING.add(cleanable);
+    return cleanable;
+  }
+
+  private static void run() {
+    while (true) {
+      try {
+        ((Cleanable) QUEUE.remove()).clean();
+      } catch (InterruptedException e) {
+        // daemon thread, keep cleaning until the JVM exits
+      } catch (RuntimeException e) {
+        // a failed wipe must not stop the others
+      }
+    }
+  }
+
+  static final class Cleanable extends PhantomReference<Object> {
+    private final Runnable wipe;
+
+    private Cleanable(Object secret, Runnable wipe) {
+      super(secret, QUEUE);
+      this.wipe = wipe;
+    }
+
+    /** Run the wipe action, unless it already ran. */
+    void clean() {
+      if (PENDING.remove(this)) {
+        clear();
+        wipe.run();
+      }
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package org.parallaxsecond.parsec.protocol.buffers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.jupiter.api.Test;
+
+class BufferPoolTest {
+
+  private final BufferPool pool = new BufferPool(64, 1);
+
+  @Test
+  void reusesReleasedBuffer() {
+    ByteBuffer first = pool.acquire(10);
+    assertTrue(first.isDirect());
+    assertEquals(ByteOrder.LITTLE_ENDIAN, first.order());
+    assertEquals(0, first.position());
+    assertEquals(10, first.limit());
+    first.put((byte) 1);
+    pool.release(first);
+
+    ByteBuffer second = pool.acquire(20);
+    assertSame(first, second);
+    assertEquals(0, second.position());
+    assertEquals(20, second.limit());
+  }
+
+  @Test
+  void allocatesHeapBufferForLargeMessages() {
+    ByteBuffer buf = pool.acquire(65);
+    assertFalse(buf.isDirect());
+    assertEquals(65, buf.remaining());
+    pool.release(buf);
+
+    assertNotSame(buf, pool.acquire(65));
+  }
+
+  @Test
+  void keepsAtMostMaxBuffers() {
+    ByteBuffer first = pool.acquire(1);
+    ByteBuffer second = pool.acquire(1);
+    pool.release(first);
+    pool.release(second);
+
+    assertSame(first, pool.acquire(1));
+    assertNotSame(second, pool.acquire(1));
+  }
+
+  @Test
+  void sharesBuffersBetweenThreads() throws InterruptedException {
+    ByteBuffer[] released = new ByteBuffer[1];
+    Thread thread = new Thread(() -> {
+      released[0] = pool.acquire(1);
+      pool.release(released[0]);
+    });
+    thread.start();
+    thread.join();
+
+    assertSame(released[0], pool.acquire(1));
+  }
+}
@@ -0,0 +1,66 @@
+package org.parallaxsecond.parsec.protocol.operations_protobuf;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+import org.parallaxsecond.parsec.protobuf.psa_algorithm.PsaAlgorithm;
+import org.parallaxsecond.parsec.protobuf.psa_asymmetric_encrypt.PsaAsymmetricEncrypt;
+import org.parallaxsecond.parsec.protobuf.psa_verify_hash.PsaVerifyHash;
+import org.parallaxsecond.parsec.protocol.requests.request.RequestBody;
+
+import com.google.protobuf.ByteString;
+
+class PreparedBodyTest {
+
+  private final PsaAlgorithm.Algorithm.AsymmetricSignature alg =
+      PsaAlgorithm.Algorithm.AsymmetricSignature.newBuilder()
+          .setRsaPkcs1V15Sign(PsaAlgorithm.Algorithm.AsymmetricSignature.RsaPkcs1v15Sign
+              .newBuilder().setHashAlg(PsaAlgorithm.Algorithm.AsymmetricSignature.SignHash
+                  .newBuilder().setSpecific(PsaAlgorithm.Algorithm.Hash.SHA_256)))
+          .build();
+
+  @Test
+  void encodesLikeTheWholeMessage() {
+    byte[] hash = new byte[32];
+    byte[] signature = new byte[256];
+    hash[0] = 1;
+    signature[0] = 2;
+    PsaVerifyHash.Operation.Builder operation =
+        PsaVerifyHash.Operation.newBuilder().setKeyName("key").setAlg(alg);
+    PreparedBody prepared = new PreparedBody(operation.build(),
+        PsaVerifyHash.Operation.HASH_FIELD_NUMBER, PsaVerifyHash.Operation.SIGNATURE_FIELD_NUMBER);
+
+    RequestBody body = prepared.body(hash, signature);
+    byte[] expected = operation.setHash(ByteString.copyFrom(hash))
+        .setSignature(ByteString.copyFrom(signature)).build().toByteArray();
+
+    assertEquals(expected.length, body.length());
+    assertArrayEquals(expected, bytes(body.getBuffer()));
+    ByteBuffer frame = ByteBuffer.allocateDirect(expected.length);
+    prepared.body(hash, signature).writeTo(frame);
+    frame.flip();
+    assertArrayEquals(expected, bytes(frame));
+  }
+
+  @Test
+  void leavesOutMissingValues() {
+    PsaAsymmetricEncrypt.Operation.Builder operation =
+        PsaAsymmetricEncrypt.Operation.newBuilder().setKeyName("key");
+    PreparedBody prepared = new PreparedBody(operation.build(),
+        PsaAsymmetricEncrypt.Operation.PLAINTEXT_FIELD_NUMBER,
+        PsaAsymmetricEncrypt.Operation.SALT_FIELD_NUMBER);
+
+    byte[] expected =
+        operation.setPlaintext(ByteString.copyFromUtf8("hello")).build().toByteArray();
+    assertArrayEquals(expected, bytes(prepared.body("hello".getBytes(), null).getBuffer()));
+  }
+
+  private static byte[] bytes(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+}
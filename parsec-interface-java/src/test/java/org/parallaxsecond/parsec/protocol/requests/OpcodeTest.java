@@ -13,6 +13,12 @@ class OpcodeTest {
     }
   }
 
+  @Test
+  void testFromUnknownCode() {
+    assertThrows(IllegalStateException.class, () -> Opcode.fromCode(0x0014));
+    assertThrows(IllegalStateException.class, () -> Opcode.fromCode(-1));
+  }
+
   @Test
   void isCrypto() {
     assertFalse(Opcode.LIST_KEYS.isCrypto());
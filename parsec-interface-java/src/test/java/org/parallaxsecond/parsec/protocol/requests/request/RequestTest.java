@@ -0,0 +1,156 @@
+package org.parallaxsecond.parsec.protocol.requests.request;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import com.google.protobuf.UnsafeByteOperations;
+
+import org.junit.jupiter.api.Test;
+import org.parallaxsecond.parsec.protobuf.psa_hash_compute.PsaHashCompute;
+import org.parallaxsecond.parsec.protocol.requests.AuthType;
+import org.parallaxsecond.parsec.protocol.requests.BodyType;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+import org.parallaxsecond.parsec.protocol.requests.request.common.WireHeader_1_0;
+import org.parallaxsecond.parsec.protocol.secrecy.Secret;
+
+class RequestTest {
+
+  private final RequestHeader header = RequestHeader.builder().provider(ProviderId.MBED_CRYPTO)
+      .contentType(BodyType.PROTOBUF).acceptType(BodyType.PROTOBUF).authType(AuthType.DIRECT)
+      .opcode(Opcode.PSA_SIGN_HASH).build();
+  private final Request request = Request.builder().header(header)
+      .body(new RequestBody(new byte[] {1, 2, 3, 4, 5})).auth(new RequestAuth(new byte[] {9, 8}))
+      .build();
+
+  @Test
+  void writesWholeRequestInOneWrite() throws IOException {
+    RecordingChannel channel = new RecordingChannel();
+    request.writeToStream(channel);
+
+    assertEquals(1, channel.writes);
+    assertArrayEquals(request.toByteBuffer().array(), channel.out.toByteArray());
+  }
+
+  @Test
+  void framesHeaderBodyAndAuth() throws IOException {
+    ByteBuffer frame = request.toByteBuffer();
+    WireHeader_1_0 header =
+        WireHeader_1_0.readFromStream(Channels.newChannel(new ByteArrayInputStream(frame.array())));
+
+    assertEquals(36 + 5 + 2, frame.remaining());
+    assertEquals(5, header.getBodyLen());
+    assertEquals(2, header.getAuthLen());
+    assertEquals(9, frame.get(41));
+    // the body is not consumed, the request can be sent again
+    assertArrayEquals(frame.array(), request.toByteBuffer().array());
+  }
+
+  @Test
+  void encodesMessageBodyIntoFrame() throws IOException {
+    PsaHashCompute.Operation operation = PsaHashCompute.Operation.newBuilder()
+        .setInput(UnsafeByteOperations.unsafeWrap(new byte[300])).build();
+    Request messageRequest = Request.builder().header(header)
+        .body(new RequestBody(operation)).auth(new RequestAuth(new byte[] {9, 8})).build();
+
+    RecordingChannel channel = new RecordingChannel();
+    messageRequest.writeToStream(channel);
+    byte[] frame = channel.out.toByteArray();
+    byte[] encoded = operation.toByteArray();
+    byte[] body = new byte[encoded.length];
+    System.arraycopy(frame, 36, body, 0, body.length);
+
+    assertEquals(36 + encoded.length + 2, frame.length);
+    assertArrayEquals(encoded, body);
+    assertArrayEquals(frame, messageRequest.toByteBuffer().array());
+  }
+
+  @Test
+  void templateRequestsMatchBuiltRequests() {
+    Request templated = new RequestTemplate(header).newRequest(
+        new RequestBody(new byte[] {1, 2, 3, 4, 5}), new RequestAuth(new byte[] {9, 8}));
+
+    assertArrayEquals(request.toByteBuffer().array(), templated.toByteBuffer().array());
+  }
+
+  @Test
+  void immutableAuthIsNotZeroized() throws IOException {
+    RequestAuth shared = RequestAuth.immutable(new byte[] {9, 8});
+    Request first = new RequestTemplate(header).newRequest(
+        new RequestBody(new byte[] {1, 2, 3, 4, 5}), shared);
+    first.writeToStream(new RecordingChannel());
+    shared.zeroize();
+
+    assertArrayEquals(request.toByteBuffer().array(), first.toByteBuffer().array());
+
+    RequestAuth secret = new RequestAuth(new byte[] {9, 8});
+    secret.zeroize();
+    assertArrayEquals(new byte[2], secret.getBuffer().getValue());
+  }
+
+  @Test
+  void sharedSecretIsWipedFromReleasedFrame() throws IOException {
+    byte[] token = "header.payload.signature".getBytes(StandardCharsets.UTF_8);
+    RequestAuth shared = RequestAuth.shared(new Secret.SecretBytes(token.clone()));
+    RecordingChannel channel = new RecordingChannel();
+    new RequestTemplate(header).newRequest(new RequestBody(new byte[] {1, 2, 3, 4, 5}), shared)
+        .writeToStream(channel);
+
+    byte[] released = new byte[token.length];
+    for (int i = 0; i < released.length; i++) {
+      released[i] = channel.frame.get(36 + 5 + i);
+    }
+    assertArrayEquals(new byte[token.length], released);
+    // the token itself is left for the next requests
+    assertArrayEquals(token, shared.getBuffer().getValue());
+  }
+
+  @Test
+  void offHeapAuthIsWipedFromReleasedBuffer() throws IOException {
+    byte[] token = "header.payload.signature".getBytes(StandardCharsets.UTF_8);
+    RequestAuth auth = RequestAuth.shared(Secret.SecretBytes.offHeap(token));
+    RecordingChannel channel = new RecordingChannel();
+    auth.writeToStream(channel);
+
+    assertArrayEquals(token, channel.out.toByteArray());
+    byte[] released = new byte[token.length];
+    for (int i = 0; i < released.length; i++) {
+      released[i] = channel.frame.get(i);
+    }
+    assertArrayEquals(new byte[token.length], released);
+  }
+
+  private static class RecordingChannel implements WritableByteChannel {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private int writes;
+    /** Last buffer written, kept to look at it once released */
+    private ByteBuffer frame;
+
+    @Override
+    public int write(ByteBuffer src) {
+      writes++;
+      frame = src;
+      int n = src.remaining();
+      while (src.hasRemaining()) {
+        out.write(src.get());
+      }
+      return n;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
@@ -0,0 +1,54 @@
+package org.parallaxsecond.parsec.protocol.requests.request.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.jupiter.api.Test;
+import org.parallaxsecond.parsec.protocol.requests.InterfaceException;
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+
+class WireHeaderViewTest {
+
+  private final WireHeader_1_0 header = WireHeader_1_0.builder().flags((short) 0).provider((byte) 1)
+      .session(0x0102030405060708L).contentType((byte) 0).acceptType((byte) 0)
+      .authType((byte) 1).bodyLen(300).authLen((short) 12).opcode(0x0004).status((short) 1153)
+      .reserved1((byte) 0).reserved2((byte) 0).build();
+
+  @Test
+  void readsFieldsInPlace() {
+    ByteBuffer buf = ByteBuffer.allocate(WireHeaderView.SIZE + 4).order(ByteOrder.LITTLE_ENDIAN);
+    buf.position(4);
+    header.writeTo(buf);
+    WireHeaderView view = new WireHeaderView().wrap(buf, 4);
+
+    assertEquals(1, view.getProvider());
+    assertEquals(0x0102030405060708L, view.getSession());
+    assertEquals(1, view.getAuthType());
+    assertEquals(300, view.getBodyLen());
+    assertEquals(12, view.getAuthLen());
+    assertEquals(0x0004, view.getOpcode());
+    assertEquals(1153, view.getStatus());
+    assertEquals(header.getSession(), view.toHeader().getSession());
+  }
+
+  @Test
+  void rejectsBadMagicNumber() {
+    ByteBuffer buf = header.toBuffer();
+    buf.putInt(WireHeaderView.MAGIC_NUMBER_OFFSET, 0);
+
+    InterfaceException e =
+        assertThrows(InterfaceException.class, () -> new WireHeaderView().wrap(buf));
+    assertEquals(ResponseStatus.InvalidHeader, e.getResponseStatus());
+  }
+
+  @Test
+  void rejectsTruncatedHeader() {
+    ByteBuffer buf = header.toBuffer();
+    buf.limit(WireHeaderView.SIZE - 1);
+
+    assertThrows(InterfaceException.class, () -> new WireHeaderView().wrap(buf));
+  }
+}
@@ -0,0 +1,44 @@
+package org.parallaxsecond.parsec.protocol.secrecy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+class SecretTest {
+
+  @Test
+  void closeWipesHeapSecret() {
+    byte[] value = {1, 2, 3};
+    Secret.SecretBytes secret = new Secret.SecretBytes(value);
+    assertFalse(secret.isOffHeap());
+    try (Secret.SecretBytes s = secret) {
+      assertArrayEquals(value, s.getValue());
+    }
+    assertArrayEquals(new byte[3], secret.getValue());
+    // the caller's array is left alone
+    assertArrayEquals(new byte[] {1, 2, 3}, value);
+  }
+
+  @Test
+  void offHeapSecretIsCopiedOnDemand() {
+    Secret.SecretBytes secret = Secret.SecretBytes.offHeap(new byte[] {1, 2, 3});
+    assertTrue(secret.isOffHeap());
+    assertEquals(3, secret.length());
+    assertArrayEquals(new byte[] {1, 2, 3}, secret.getValue());
+
+    ByteBuffer frame = ByteBuffer.allocate(4);
+    frame.put((byte) 9);
+    secret.writeTo(frame);
+    assertArrayEquals(new byte[] {9, 1, 2, 3}, frame.array());
+    // the secret can be written again
+    secret.writeTo(ByteBuffer.allocate(3));
+
+    secret.zeroize();
+    assertArrayEquals(new byte[3], secret.getValue());
+  }
+}
@@ -120,4 +120,18 @@ class SecureRandomParsecTest {
     }
   }
 
+  @Test
+  @SneakyThrows
+  @Order(2)
+  void drbgNextBytes() {
+    SecureRandom drbg = SecureRandom.getInstance(ParsecProvider.DRBG, parsec.getName());
+    byte[] first = new byte[64];
+    byte[] second = new byte[64];
+    drbg.nextBytes(first);
+    drbg.setSeed(new byte[] {1, 2, 3});
+    drbg.nextBytes(second);
+    assertFalse(Arrays.equals(first, second));
+    assertFalse(Arrays.equals(new byte[64], second));
+  }
+
 }
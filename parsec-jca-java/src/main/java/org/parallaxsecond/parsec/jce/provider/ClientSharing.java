@@ -0,0 +1,168 @@
+package org.parallaxsecond.parsec.jce.provider;
+
+import java.io.Serializable;
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.parallaxsecond.parsec.client.core.BasicClient;
+import org.parallaxsecond.parsec.client.core.ipc_handler.IpcHandler;
+
+/**
+ * How the Parsec clients used by a {@link ParsecProvider} are shared.
+ *
+ * <p>
+ * Creating a client asks the service for the default provider and authenticator, so sharing
+ * clients saves two round trips on each operation. Shared clients are created on first use; if
+ * that fails, the next call tries again. They keep the provider and authenticator they were
+ * created with; {@link #resetGlobalClients()} makes {@link #GLOBAL} ones pick up a change.
+ */
+public enum ClientSharing {
+  /** One client per socket and application name, shared by all providers of the JVM */
+  GLOBAL {
+    @Override
+    ParsecClientAccessor accessor(String key, ClientFactory factory) {
+      return new Global(key, factory);
+    }
+  },
+  /** One client per provider */
+  PROVIDER {
+    @Override
+    ParsecClientAccessor accessor(String key, ClientFactory factory) {
+      return new PerProvider(factory);
+    }
+  },
+  /** One client per provider and thread */
+  THREAD {
+    @Override
+    ParsecClientAccessor accessor(String key, ClientFactory factory) {
+      return new PerThread(factory);
+    }
+  },
+  /** A new client for each call */
+  CALL {
+    @Override
+    ParsecClientAccessor accessor(String key, ClientFactory factory) {
+      return factory::create;
+    }
+  };
+
+  public static final ClientSharing DEFAULT = GLOBAL;
+
+  private static final Map<String, BasicClient> GLOBAL_CLIENTS = new ConcurrentHashMap<>();
+
+  /**
+   * @param localVerification whether the clients verify signatures locally. Clients that do are not
+   *        shared with those that do not.
+   */
+  ParsecClientAccessor accessor(URI socketUri, String appName, boolean localVerification) {
+    return accessor(socketUri + " " + appName + (localVerification ? " local" : ""),
+        () -> newClient(socketUri, appName, localVerification));
+  }
+
+  /**
+   * @param key identifies the clients {@code factory} creates, {@link #GLOBAL} accessors with the
+   *        same key share one client
+   */
+  abstract ParsecClientAccessor accessor(String key, ClientFactory factory);
+
+  /** Case insensitive {@link #valueOf(String)}. */
+  public static ClientSharing parse(String name) {
+    return valueOf(name.trim().toUpperCase(Locale.ROOT));
+  }
+
+  /**
+   * Forget the clients shared by {@link #GLOBAL} providers, e.g. after the default provider or
+   * authenticator of the service changed. Providers create new clients on their next call, calls
+   * already running complete on the old ones.
+   */
+  public static void resetGlobalClients() {
+    GLOBAL_CLIENTS.clear();
+  }
+
+  private static BasicClient newClient(URI socketUri, String appName,
+      boolean localVerification) {
+    BasicClient client = BasicClient.client(appName, IpcHandler.connectFromUrl(socketUri));
+    client.setLocalVerification(localVerification);
+    return client;
+  }
+
+  /** Creates the clients of an accessor */
+  interface ClientFactory extends Serializable {
+    BasicClient create();
+  }
+
+  private static final class Global implements ParsecClientAccessor {
+    private final String key;
+    private final ClientFactory factory;
+
+    private Global(String key, ClientFactory factory) {
+      this.key = key;
+      this.factory = factory;
+    }
+
+    @Override
+    public BasicClient get() {
+      return GLOBAL_CLIENTS.computeIfAbsent(key, k -> factory.create());
+    }
+  }
+
+  private static final class PerProvider implements ParsecClientAccessor {
+    private final ClientFactory factory;
+    private transient volatile BasicClient client;
+
+    private PerProvider(ClientFactory factory) {
+      this.factory = factory;
+    }
+
+    @Override
+    public BasicClient get() {
+      BasicClient c = client;
+      if (c == null) {
+        synchronized (this) {
+          c = client;
+          if (c == null) {
+            c = factory.create();
+            client = c;
+          }
+        }
+      }
+      return c;
+    }
+  }
+
+  private static final class PerThread implements ParsecClientAccessor {
+    private final ClientFactory factory;
+    private transient volatile ThreadLocal<BasicClient> clients;
+
+    private PerThread(ClientFactory factory) {
+      this.factory = factory;
+    }
+
+    @Override
+    public BasicClient get() {
+      ThreadLocal<BasicClient> local = clients();
+      BasicClient c = local.get();
+      if (c == null) {
+        c = factory.create();
+        local.set(c);
+      }
+      return c;
+    }
+
+    private ThreadLocal<BasicClient> clients() {
+      ThreadLocal<BasicClient> local = clients;
+      if (local == null) {
+        synchronized (this) {
+          local = clients;
+          if (local == null) {
+            local = new ThreadLocal<>();
+            clients = local;
+          }
+        }
+      }
+      return local;
+    }
+  }
+}
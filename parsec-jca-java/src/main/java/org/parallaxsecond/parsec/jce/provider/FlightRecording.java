@@ -0,0 +1,34 @@
+package org.parallaxsecond.parsec.jce.provider;
+
+/**
+ * Java Flight Recorder events of the provider, for signatures and random bytes produced by the
+ * Parsec service.
+ *
+ * <p>
+ * The {@code jdk.jfr} API is not part of Java 8. This is the placeholder compiled for older
+ * runtimes, which records nothing; the working implementation lives in {@code META-INF/versions/11}
+ * of the multi-release jar.
+ */
+final class FlightRecording {
+  private static final FlightRecording NONE = new FlightRecording();
+
+  private FlightRecording() {}
+
+  /** Start recording a signature made by the service. */
+  static FlightRecording sign(String algorithm, String keyName) {
+    return NONE;
+  }
+
+  /** Start recording a signature verified by the service. */
+  static FlightRecording verify(String algorithm, String keyName) {
+    return NONE;
+  }
+
+  /** Start recording random bytes fetched from the service. */
+  static FlightRecording generateRandom(int size) {
+    return NONE;
+  }
+
+  /** End and commit the event. */
+  void end(boolean success) {}
+}
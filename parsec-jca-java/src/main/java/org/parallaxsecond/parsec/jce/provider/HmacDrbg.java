@@ -0,0 +1,128 @@
+package org.parallaxsecond.parsec.jce.provider;
+
+import java.security.GeneralSecurityException;
+import java.security.ProviderException;
+import java.util.Arrays;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * HMAC_DRBG with HMAC-SHA-256, as specified in NIST SP 800-90A Rev. 1, section 10.1.2. Not thread
+ * safe, see {@link StripedDrbg}.
+ */
+final class HmacDrbg {
+  /** Security strength, in bytes */
+  static final int STRENGTH = 32;
+  /** Max bytes per generate request, 2^19 bits */
+  static final int MAX_REQUEST = 1 << 16;
+  private static final String HMAC = "HmacSHA256";
+
+  private final Mac mac;
+  private final byte[] key = new byte[STRENGTH];
+  private final byte[] value = new byte[STRENGTH];
+  private long reseedCounter;
+
+  /**
+   * @param entropy entropy input, at least {@link #STRENGTH} bytes
+   * @param nonce at least half of {@link #STRENGTH} bytes
+   * @param personalization personalization string, may be null
+   */
+  HmacDrbg(byte[] entropy, byte[] nonce, byte[] personalization) {
+    try {
+      mac = Mac.getInstance(HMAC);
+    } catch (GeneralSecurityException e) {
+      throw new ProviderException("HMAC-SHA-256 is not available", e);
+    }
+    Arrays.fill(value, (byte) 1);
+    update(entropy, nonce, personalization);
+    reseedCounter = 1;
+  }
+
+  /** @return the number of generate requests since the last (re)seed, plus one */
+  long getReseedCounter() {
+    return reseedCounter;
+  }
+
+  void reseed(byte[] entropy, byte[] additionalInput) {
+    update(entropy, additionalInput);
+    reseedCounter = 1;
+  }
+
+  /**
+   * Fill {@code out}, of at most {@link #MAX_REQUEST} bytes. The caller reseeds once the reseed
+   * counter exceeds its reseed interval.
+   */
+  void generate(byte[] out, int offset, int length, byte[] additionalInput) {
+    if (length > MAX_REQUEST) {
+      throw new IllegalArgumentException("at most " + MAX_REQUEST + " bytes per request");
+    }
+    boolean additional = additionalInput != null && additionalInput.length > 0;
+    if (additional) {
+      update(additionalInput);
+    }
+    for (int done = 0; done < length; done += STRENGTH) {
+      hmac(value, value);
+      System.arraycopy(value, 0, out, offset + done, Math.min(STRENGTH, length - done));
+    }
+    if (additional) {
+      update(additionalInput);
+    } else {
+      update();
+    }
+    reseedCounter++;
+  }
+
+  /** Wipe the internal state. */
+  void destroy() {
+    Arrays.fill(key, (byte) 0);
+    Arrays.fill(value, (byte) 0);
+  }
+
+  /** HMAC_DRBG_Update, with the provided data as the concatenation of {@code data} */
+  private void update(byte[]... data) {
+    boolean provided = false;
+    for (byte[] d : data) {
+      provided |= d != null && d.length > 0;
+    }
+    updateRound((byte) 0, data);
+    if (provided) {
+      updateRound((byte) 1, data);
+    }
+  }
+
+  private void updateRound(byte separator, byte[]... data) {
+    init(key);
+    mac.update(value);
+    mac.update(separator);
+    for (byte[] d : data) {
+      if (d != null) {
+        mac.update(d);
+      }
+    }
+    doFinal(key);
+    init(key);
+    hmac(value, value);
+  }
+
+  private void hmac(byte[] in, byte[] out) {
+    mac.update(in);
+    doFinal(out);
+  }
+
+  private void init(byte[] k) {
+    try {
+      mac.init(new SecretKeySpec(k, HMAC));
+    } catch (GeneralSecurityException e) {
+      throw new ProviderException(e);
+    }
+  }
+
+  private void doFinal(byte[] out) {
+    try {
+      mac.doFinal(out, 0);
+    } catch (GeneralSecurityException e) {
+      throw new ProviderException(e);
+    }
+  }
+}
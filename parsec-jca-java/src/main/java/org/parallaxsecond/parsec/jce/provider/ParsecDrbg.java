@@ -0,0 +1,39 @@
+package org.parallaxsecond.parsec.jce.provider;
+
+import java.security.SecureRandomSpi;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * NIST SP 800-90A HMAC_DRBG seeded with random bytes of the Parsec service, registered as
+ * {@code DRBG}. Only the seeds come from the service, the random bytes are generated in memory.
+ *
+ * <p>
+ * The generators are shared by all the {@code DRBG} instances of a provider, and configured by
+ * its {@code drbgReseedInterval} and {@code drbgPredictionResistance} settings.
+ * {@link java.security.SecureRandom#setSeed(byte[])} reseeds the generator of the calling thread,
+ * mixing in the seed as additional input. On Java 9 and later, prediction resistance and
+ * additional input can also be requested per call with
+ * {@code DrbgParameters.nextBytes(int, boolean, byte[])}.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public final class ParsecDrbg extends SecureRandomSpi {
+  private final ParsecClientAccessor parsecClientFactory;
+  private final StripedDrbg drbg;
+
+  @Override
+  protected void engineSetSeed(byte[] seed) {
+    drbg.reseed(seed);
+  }
+
+  @Override
+  protected void engineNextBytes(byte[] bytes) {
+    drbg.nextBytes(bytes, false, null);
+  }
+
+  @Override
+  protected byte[] engineGenerateSeed(int numBytes) {
+    return parsecClientFactory.get().psaGenerateRandom(numBytes);
+  }
+}
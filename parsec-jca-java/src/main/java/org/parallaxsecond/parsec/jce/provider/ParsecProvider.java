@@ -1,58 +1,123 @@
 package org.parallaxsecond.parsec.jce.provider;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
 import java.security.Provider;
 import java.security.ProviderException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import org.parallaxsecond.parsec.client.core.BasicClient;
-import org.parallaxsecond.parsec.client.core.ipc_handler.IpcHandler;
+import org.parallaxsecond.parsec.client.core.RandomReservoir;
 
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
-/** Parsec JCA Security Provider */
+/**
+ * Parsec JCA Security Provider.
+ *
+ * <p>
+ * By default, all the providers of the JVM share one Parsec client per socket and application name,
+ * see {@link ClientSharing#GLOBAL}, where earlier versions created a new client for each call. The
+ * client keeps the default provider and authenticator the service reported when it was created:
+ * call {@link ClientSharing#resetGlobalClients()} after changing them, or set the
+ * {@code clientSharing} property to {@link ClientSharing#CALL} for the former behaviour.
+ */
 @Slf4j
 public final class ParsecProvider extends Provider {
         public static final String MESSAGE_DIGEST = "MessageDigest";
         public static final String SECURE_RANDOM = "SecureRandom";
+        /** {@link ParsecDrbg}, seeded by the Parsec service */
+        public static final String DRBG = "DRBG";
         public static final String PROVIDER_NAME = "PARSEC";
         private static final double VERSION = 648000 / Math.PI;
+        private static final String DEFAULT_APP_NAME = "parsec-jca-provider";
         @Getter
         private final ParsecClientAccessor parsecClientAccessor;
+        private final URI socketUri;
+        private final String parsecAppName;
+        @Getter
+        private final ClientSharing clientSharing;
+        /** Random bytes prefetched for {@link SecureRandomParsec}, null if disabled */
+        @Getter
+        private final transient RandomReservoir randomReservoir;
+        private final Long drbgReseedInterval;
+        private final boolean drbgPredictionResistance;
+        private final boolean localVerification;
+        /** Generators shared by the {@link ParsecDrbg} instances */
+        private final transient StripedDrbg drbg;
 
         /**
          * Constructs a provider with .
          *
          * @param socketUri URI of the domain socket the parsec daemon listens on.
+         * @param clientSharing how Parsec clients are shared, {@link ClientSharing#DEFAULT}, one
+         *     client for the whole JVM, when null.
+         * @param randomReservoirSize bytes of randomness prefetched from the service for
+         *     {@link java.security.SecureRandom}, see {@link RandomReservoir}. Disabled when null
+         *     or 0.
+         * @param drbgReseedInterval random byte requests between reseeds of the {@link #DRBG}
+         *     generators, 65536 when null.
+         * @param drbgPredictionResistance reseed the {@link #DRBG} generators before every request,
+         *     false when null.
+         * @param localVerification verify signatures with the public keys exported by the service
+         *     instead of sending each one to the service, see
+         *     {@link BasicClient#setLocalVerification(boolean)}. False when null.
          */
         @Builder
-        public ParsecProvider(URI socketUri, String parsecAppName) {
+        public ParsecProvider(URI socketUri, String parsecAppName, ClientSharing clientSharing,
+                        Integer randomReservoirSize, Long drbgReseedInterval,
+                        Boolean drbgPredictionResistance, Boolean localVerification) {
                 super(PROVIDER_NAME, VERSION,
                                 String.format("%s provider, version %s.", PROVIDER_NAME, VERSION));
-                // create a new client each time for now
 
                 if (parsecAppName == null) {
-                        parsecAppName = "parsec-jca-provider";
+                        parsecAppName = DEFAULT_APP_NAME;
                 }
-                final String parsecAppName_ = parsecAppName;
-
-                this.parsecClientAccessor = () -> BasicClient.client(parsecAppName_,
-                                IpcHandler.connectFromUrl(socketUri));
+                if (clientSharing == null) {
+                        clientSharing = ClientSharing.DEFAULT;
+                }
+                this.socketUri = socketUri;
+                this.parsecAppName = parsecAppName;
+                this.clientSharing = clientSharing;
+                this.localVerification = Boolean.TRUE.equals(localVerification);
+                this.parsecClientAccessor = clientSharing.accessor(socketUri, parsecAppName,
+                                this.localVerification);
+                ParsecClientAccessor accessor = this.parsecClientAccessor;
+                this.randomReservoir = randomReservoirSize != null && randomReservoirSize > 0
+                                ? RandomReservoir.builder()
+                                                .source(n -> accessor.get().psaGenerateRandom(n))
+                                                .capacity(randomReservoirSize).build()
+                                : null;
+                this.drbgReseedInterval = drbgReseedInterval;
+                this.drbgPredictionResistance = Boolean.TRUE.equals(drbgPredictionResistance);
+                this.drbg = new StripedDrbg(n -> accessor.get().psaGenerateRandom(n),
+                                drbgReseedInterval, this.drbgPredictionResistance);
 
                 ps(MESSAGE_DIGEST, "None", NoneMessageDigest.class.getCanonicalName(),
                                 NoneMessageDigest::new);
 
                 ps(SECURE_RANDOM, "NativePRNG", SecureRandomParsec.class.getCanonicalName(),
-                                SecureRandomParsec::new);
+                                this::secureRandom);
                 ps(SECURE_RANDOM, "NativePRNGBlocking", SecureRandomParsec.class.getCanonicalName(),
-                                SecureRandomParsec::new);
+                                this::secureRandom);
                 ps(SECURE_RANDOM, "NativePRNGNonBlocking",
-                                SecureRandomParsec.class.getCanonicalName(),
-                                SecureRandomParsec::new);
+                                SecureRandomParsec.class.getCanonicalName(), this::secureRandom);
+                // the generators are synchronized, no need for SecureRandom to lock on each call
+                putService(new ParsecProviderService(this, SECURE_RANDOM, DRBG,
+                                ParsecDrbg.class.getCanonicalName(),
+                                Collections.singletonMap("ThreadSafe", "true"),
+                                accessor -> new ParsecDrbg(accessor, drbg)));
 
                 ps("KeyManagerFactory", "X509", KeyManagerFactoryImpl.class.getCanonicalName(),
                                 KeyManagerFactoryImpl::new);
@@ -61,6 +126,67 @@ public final class ParsecProvider extends Provider {
 
         }
 
+        /**
+         * Creates a provider configured by {@code configArg}, overriding
+         * {@link Provider#configure(String)} on Java 9 and later.
+         *
+         * <p>
+         * {@code configArg} is the path of a properties file, or {@code --} followed by the
+         * properties themselves, separated by newlines or commas. The {@code socketUri},
+         * {@code parsecAppName}, {@code clientSharing}, {@code randomReservoirSize},
+         * {@code drbgReseedInterval}, {@code drbgPredictionResistance} and
+         * {@code localVerification} properties default to the values of this provider.
+         */
+        public Provider configure(String configArg) {
+                Properties config = new Properties();
+                try {
+                        if (configArg.startsWith("--")) {
+                                config.load(new StringReader(
+                                                configArg.substring(2).replace(',', '\n')));
+                        } else {
+                                try (InputStream in = Files.newInputStream(Paths.get(configArg))) {
+                                        config.load(in);
+                                }
+                        }
+                } catch (IOException e) {
+                        throw new UncheckedIOException(
+                                        "Cannot read provider configuration " + configArg, e);
+                }
+                String configuredUri = config.getProperty("socketUri");
+                String configuredSharing = config.getProperty("clientSharing");
+                String configuredReservoir = config.getProperty("randomReservoirSize");
+                String configuredReseed = config.getProperty("drbgReseedInterval");
+                String configuredPrediction = config.getProperty("drbgPredictionResistance");
+                String configuredLocal = config.getProperty("localVerification");
+                return ParsecProvider.builder()
+                                .socketUri(configuredUri != null ? URI.create(configuredUri.trim())
+                                                : socketUri)
+                                .parsecAppName(config.getProperty("parsecAppName", parsecAppName)
+                                                .trim())
+                                .clientSharing(configuredSharing != null
+                                                ? ClientSharing.parse(configuredSharing)
+                                                : clientSharing)
+                                .randomReservoirSize(configuredReservoir != null
+                                                ? Integer.valueOf(configuredReservoir.trim())
+                                                : randomReservoir != null
+                                                                ? randomReservoir.getCapacity()
+                                                                : null)
+                                .drbgReseedInterval(configuredReseed != null
+                                                ? Long.valueOf(configuredReseed.trim())
+                                                : drbgReseedInterval)
+                                .drbgPredictionResistance(configuredPrediction != null
+                                                ? Boolean.valueOf(configuredPrediction.trim())
+                                                : drbgPredictionResistance)
+                                .localVerification(configuredLocal != null
+                                                ? Boolean.valueOf(configuredLocal.trim())
+                                                : localVerification)
+                                .build();
+        }
+
+        private SecureRandomParsec secureRandom(ParsecClientAccessor accessor) {
+                return new SecureRandomParsec(accessor, randomReservoir);
+        }
+
         private void signature(ParsecSignatureInfo parsecSignatureInfo) {
                 ps("Signature", parsecSignatureInfo.getAlgorithmName(),
                                 ParsecSignature.class.getCanonicalName(),
@@ -69,7 +195,7 @@ public final class ParsecProvider extends Provider {
 
         private void ps(String type, String algorithm, String className,
                         Function<ParsecClientAccessor, Object> parsecClientFactory) {
-                putService(new ParsecProviderService(this, type, algorithm, className,
+                putService(new ParsecProviderService(this, type, algorithm, className, null,
                                 parsecClientFactory));
         }
 
@@ -77,8 +203,9 @@ public final class ParsecProvider extends Provider {
                 private final Function<ParsecClientAccessor, Object> objectFactory;
 
                 ParsecProviderService(Provider p, String type, String algo, String className,
+                                Map<String, String> attributes,
                                 Function<ParsecClientAccessor, Object> objectFactory) {
-                        super(p, type, algo, className, null, null);
+                        super(p, type, algo, className, null, attributes);
                         this.objectFactory = objectFactory;
                 }
 
@@ -73,14 +73,19 @@ public final class ParsecSignature extends SignatureSpi {
   @Override
   protected byte[] engineSign() throws SignatureException {
     byte[] digest = this.messageDigest.digest();
+    FlightRecording recording = FlightRecording.sign(signatureInfo.getAlgorithmName(), keyName);
+    boolean success = false;
     try {
       NativeResult.PsaSignHashResult r = parsecClientAccessor.get().psaSignHash(keyName, digest,
           signatureInfo.getParsecAlgorithm());
       log.info(String.format("Signed with algorithm %s", signatureInfo.getAlgorithmName()));
 
+      success = true;
       return r.getSignature();
     } catch (ServiceException | ClientException e) {
       throw new SignatureException("error signing value, signatureInfo: " + signatureInfo, e);
+    } finally {
+      recording.end(success);
     }
   }
 
@@ -122,12 +127,17 @@ public final class ParsecSignature extends SignatureSpi {
       return valid;
     }
     byte[] digest = this.messageDigest.digest();
+    FlightRecording recording = FlightRecording.verify(signatureInfo.getAlgorithmName(), keyName);
+    boolean success = false;
     try {
       parsecClientAccessor.get().psaVerifyHash(keyName, digest, signatureInfo.getParsecAlgorithm(),
           sigBytes);
+      success = true;
       return true;
     } catch (ServiceException | ClientException e) {
       throw new SignatureException("error verifying value, signatureInfo: " + signatureInfo, e);
+    } finally {
+      recording.end(success);
     }
   }
 
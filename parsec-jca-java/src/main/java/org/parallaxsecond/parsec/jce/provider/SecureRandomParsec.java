@@ -2,6 +2,8 @@ package org.parallaxsecond.parsec.jce.provider;
 
 import java.security.SecureRandomSpi;
 
+import org.parallaxsecond.parsec.client.core.RandomReservoir;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -9,6 +11,12 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public final class SecureRandomParsec extends SecureRandomSpi {
   private final ParsecClientAccessor parsecClientFactory;
+  /** Serves the random bytes if not null, see {@link ParsecProvider#getRandomReservoir()} */
+  private final RandomReservoir reservoir;
+
+  public SecureRandomParsec(ParsecClientAccessor parsecClientFactory) {
+    this(parsecClientFactory, null);
+  }
 
   @Override
   protected void engineSetSeed(byte[] seed) {
@@ -19,8 +27,19 @@ public final class SecureRandomParsec extends SecureRandomSpi {
 
   @Override
   protected void engineNextBytes(byte[] bytes) {
-    byte[] parsecBytes = parsecClientFactory.get().psaGenerateRandom(bytes.length);
-    System.arraycopy(parsecBytes, 0, bytes, 0, parsecBytes.length);
+    FlightRecording recording = FlightRecording.generateRandom(bytes.length);
+    boolean success = false;
+    try {
+      if (reservoir != null) {
+        reservoir.nextBytes(bytes);
+      } else {
+        byte[] parsecBytes = parsecClientFactory.get().psaGenerateRandom(bytes.length);
+        System.arraycopy(parsecBytes, 0, bytes, 0, parsecBytes.length);
+      }
+      success = true;
+    } finally {
+      recording.end(success);
+    }
   }
 
   @Override
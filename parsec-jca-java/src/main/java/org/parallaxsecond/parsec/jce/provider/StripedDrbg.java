@@ -0,0 +1,134 @@
+package org.parallaxsecond.parsec.jce.provider;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * {@link HmacDrbg} instances seeded from the Parsec service, each shared by the threads whose id
+ * maps to it, so that threads rarely wait for each other.
+ *
+ * <p>
+ * Each instance is instantiated on first use and reseeded after {@code reseedInterval} generate
+ * requests, with entropy from {@code entropySource}. With prediction resistance, it is reseeded
+ * before every request.
+ */
+final class StripedDrbg {
+  /** Generate requests between reseeds */
+  static final long DEFAULT_RESEED_INTERVAL = 1 << 16;
+  /** Max reseed interval of SP 800-90A, 2^48 */
+  static final long MAX_RESEED_INTERVAL = 1L << 48;
+
+  private final IntFunction<byte[]> entropySource;
+  private final long reseedInterval;
+  private final boolean predictionResistance;
+  private final Stripe[] stripes;
+
+  /**
+   * @param entropySource random bytes from the Parsec service
+   * @param reseedInterval generate requests between reseeds, {@link #DEFAULT_RESEED_INTERVAL} if
+   *        null
+   * @param predictionResistance reseed before every request
+   */
+  StripedDrbg(IntFunction<byte[]> entropySource, Long reseedInterval,
+      boolean predictionResistance) {
+    this.entropySource = entropySource;
+    this.reseedInterval = reseedInterval != null ? reseedInterval : DEFAULT_RESEED_INTERVAL;
+    if (this.reseedInterval < 1 || this.reseedInterval > MAX_RESEED_INTERVAL) {
+      throw new IllegalArgumentException(
+          "reseedInterval must be between 1 and 2^48, got " + reseedInterval);
+    }
+    this.predictionResistance = predictionResistance;
+    // a power of two, at least twice the number of processors
+    int count = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+    this.stripes = new Stripe[count];
+    for (int i = 0; i < count; i++) {
+      stripes[i] = new Stripe(i);
+    }
+  }
+
+  /**
+   * Fill {@code bytes}.
+   *
+   * @param predictionResistance reseed before generating, in addition to the configured prediction
+   *        resistance
+   * @param additionalInput mixed into the state, may be null
+   */
+  void nextBytes(byte[] bytes, boolean predictionResistance, byte[] additionalInput) {
+    stripe().nextBytes(bytes, predictionResistance || this.predictionResistance,
+        additionalInput);
+  }
+
+  /** Reseed the instance of the current thread with fresh entropy and {@code additionalInput}. */
+  void reseed(byte[] additionalInput) {
+    stripe().reseed(additionalInput);
+  }
+
+  private Stripe stripe() {
+    return stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+  }
+
+  private final class Stripe {
+    private final int index;
+    private HmacDrbg drbg;
+
+    private Stripe(int index) {
+      this.index = index;
+    }
+
+    synchronized void nextBytes(byte[] bytes, boolean reseedFirst, byte[] additionalInput) {
+      boolean reseeded = instantiate();
+      if ((reseedFirst && !reseeded) || drbg.getReseedCounter() > reseedInterval) {
+        reseedDrbg(additionalInput);
+        // already mixed in by the reseed
+        additionalInput = null;
+      }
+      for (int offset = 0; offset < bytes.length; offset += HmacDrbg.MAX_REQUEST) {
+        if (drbg.getReseedCounter() > reseedInterval) {
+          reseedDrbg(null);
+        }
+        drbg.generate(bytes, offset, Math.min(HmacDrbg.MAX_REQUEST, bytes.length - offset),
+            additionalInput);
+      }
+    }
+
+    synchronized void reseed(byte[] additionalInput) {
+      if (!instantiate()) {
+        reseedDrbg(additionalInput);
+      }
+    }
+
+    private void reseedDrbg(byte[] additionalInput) {
+      byte[] entropy = entropy(HmacDrbg.STRENGTH);
+      drbg.reseed(entropy, additionalInput);
+      Arrays.fill(entropy, (byte) 0);
+    }
+
+    /** @return whether the instance was just instantiated */
+    private boolean instantiate() {
+      if (drbg != null) {
+        return false;
+      }
+      byte[] seed = entropy(HmacDrbg.STRENGTH * 3 / 2);
+      // distinct for each instance, in case the service returned the same seed twice
+      byte[] personalization = ByteBuffer.allocate(Integer.BYTES * 2)
+          .putInt(System.identityHashCode(StripedDrbg.this)).putInt(index).array();
+      byte[] entropy = Arrays.copyOf(seed, HmacDrbg.STRENGTH);
+      byte[] nonce = Arrays.copyOfRange(seed, HmacDrbg.STRENGTH, seed.length);
+      drbg = new HmacDrbg(entropy, nonce, personalization);
+      Arrays.fill(seed, (byte) 0);
+      Arrays.fill(entropy, (byte) 0);
+      Arrays.fill(nonce, (byte) 0);
+      return true;
+    }
+
+    private byte[] entropy(int size) {
+      byte[] entropy = entropySource.apply(size);
+      if (entropy.length < size) {
+        throw new IllegalStateException(
+            "expected " + size + " random bytes from the service, got " + entropy.length);
+      }
+      return entropy;
+    }
+  }
+}
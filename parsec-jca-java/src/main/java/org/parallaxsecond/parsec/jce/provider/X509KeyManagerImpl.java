@@ -18,7 +18,9 @@ import java.util.stream.Stream;
 import javax.net.ssl.X509KeyManager;
 import javax.security.auth.x500.X500Principal;
 
+import org.parallaxsecond.parsec.client.exceptions.NotFoundException;
 import org.parallaxsecond.parsec.jce.provider.KeyStoreExtensions.WithAlias;
+import org.parallaxsecond.parsec.protobuf.psa_key_attributes.PsaKeyAttributes;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -112,26 +114,30 @@ public final class X509KeyManagerImpl implements X509KeyManager {
             return null;
         }
 
-        return parsecClientFactory.get().listKeys().getKeys().stream()
-                .filter(k -> k.getName().equals(alias))
-                .filter(k -> ParsecKeyAttributesHelper.algorithm(k.getAttributes()) != null)
-                .findFirst().map(keyInfo -> {
-                    String algorithm = ParsecKeyAttributesHelper.algorithm(keyInfo.getAttributes());
-                    String format = ParsecKeyAttributesHelper.format(keyInfo.getAttributes());
-                    switch (algorithm) {
-                        case "RSA":
-                            if (!(certificate.getPublicKey() instanceof RSAPublicKey)) {
-                                return null;
-                            }
-                            RSAPublicKey rsaPublicKey = (RSAPublicKey) certificate.getPublicKey();
-                            return ParsecRsaPrivateKey.builder().parsecName(keyInfo.getName())
-                                    .algorithm(algorithm).format(format)
-                                    .modulus(rsaPublicKey.getModulus())
-                                    .publicExponent(rsaPublicKey.getPublicExponent()).build();
-                        default:
-                            throw new IllegalStateException(
-                                    "unsupported key algorithm " + algorithm);
-                    }
-                }).orElse(null);
+        // served from the client's key cache, without listing all keys on each handshake
+        PsaKeyAttributes.KeyAttributes attributes;
+        try {
+            attributes = parsecClientFactory.get().keyAttributes(alias);
+        } catch (NotFoundException e) {
+            return null;
+        }
+        String algorithm = ParsecKeyAttributesHelper.algorithm(attributes);
+        if (algorithm == null) {
+            return null;
+        }
+        String format = ParsecKeyAttributesHelper.format(attributes);
+        switch (algorithm) {
+            case "RSA":
+                if (!(certificate.getPublicKey() instanceof RSAPublicKey)) {
+                    return null;
+                }
+                RSAPublicKey rsaPublicKey = (RSAPublicKey) certificate.getPublicKey();
+                return ParsecRsaPrivateKey.builder().parsecName(alias)
+                        .algorithm(algorithm).format(format)
+                        .modulus(rsaPublicKey.getModulus())
+                        .publicExponent(rsaPublicKey.getPublicExponent()).build();
+            default:
+                throw new IllegalStateException("unsupported key algorithm " + algorithm);
+        }
     }
 }
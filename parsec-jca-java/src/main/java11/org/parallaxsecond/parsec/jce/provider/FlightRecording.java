@@ -0,0 +1,95 @@
+package org.parallaxsecond.parsec.jce.provider;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder events of the provider, for signatures and random bytes produced by the
+ * Parsec service. The requests behind them are recorded by the client, in the same category.
+ */
+final class FlightRecording {
+  private static final FlightRecording NONE = new FlightRecording(null);
+
+  private final Event event;
+
+  private FlightRecording(Event event) {
+    this.event = event;
+  }
+
+  /** Start recording a signature made by the service. */
+  static FlightRecording sign(String algorithm, String keyName) {
+    return signature("sign", algorithm, keyName);
+  }
+
+  /** Start recording a signature verified by the service. */
+  static FlightRecording verify(String algorithm, String keyName) {
+    return signature("verify", algorithm, keyName);
+  }
+
+  private static FlightRecording signature(String operation, String algorithm, String keyName) {
+    SignatureEvent event = new SignatureEvent();
+    if (!event.isEnabled()) {
+      return NONE;
+    }
+    event.operation = operation;
+    event.algorithm = algorithm;
+    event.keyName = keyName;
+    event.begin();
+    return new FlightRecording(event);
+  }
+
+  /** Start recording random bytes fetched from the service. */
+  static FlightRecording generateRandom(int size) {
+    SecureRandomEvent event = new SecureRandomEvent();
+    if (!event.isEnabled()) {
+      return NONE;
+    }
+    event.size = size;
+    event.begin();
+    return new FlightRecording(event);
+  }
+
+  /** End and commit the event. */
+  void end(boolean success) {
+    if (event == null) {
+      return;
+    }
+    event.end();
+    if (event.shouldCommit()) {
+      if (event instanceof SignatureEvent) {
+        ((SignatureEvent) event).success = success;
+      } else {
+        ((SecureRandomEvent) event).success = success;
+      }
+      event.commit();
+    }
+  }
+
+  @Name("org.parallaxsecond.parsec.jca.Signature")
+  @Label("Parsec JCA Signature")
+  @Category({"Parsec", "JCA"})
+  static final class SignatureEvent extends Event {
+    @Label("Operation")
+    String operation;
+    @Label("Algorithm")
+    String algorithm;
+    @Label("Key Name")
+    String keyName;
+    @Label("Success")
+    boolean success;
+  }
+
+  @Name("org.parallaxsecond.parsec.jca.SecureRandom")
+  @Label("Parsec JCA SecureRandom")
+  @Category({"Parsec", "JCA"})
+  static final class SecureRandomEvent extends Event {
+    @Label("Size")
+    @DataAmount
+    int size;
+    @Label("Success")
+    boolean success;
+  }
+}
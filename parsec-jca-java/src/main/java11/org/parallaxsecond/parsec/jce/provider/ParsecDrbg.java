@@ -0,0 +1,71 @@
+package org.parallaxsecond.parsec.jce.provider;
+
+import java.security.DrbgParameters;
+import java.security.SecureRandomParameters;
+import java.security.SecureRandomSpi;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * NIST SP 800-90A HMAC_DRBG seeded with random bytes of the Parsec service, registered as
+ * {@code DRBG}. Only the seeds come from the service, the random bytes are generated in memory.
+ *
+ * <p>
+ * Java 9 and later version, taking {@link DrbgParameters.NextBytes} and
+ * {@link DrbgParameters.Reseed} for prediction resistance and additional input on demand.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public final class ParsecDrbg extends SecureRandomSpi {
+  private static final int STRENGTH_BITS = HmacDrbg.STRENGTH * 8;
+
+  private final ParsecClientAccessor parsecClientFactory;
+  private final StripedDrbg drbg;
+
+  @Override
+  protected void engineSetSeed(byte[] seed) {
+    drbg.reseed(seed);
+  }
+
+  @Override
+  protected void engineNextBytes(byte[] bytes) {
+    drbg.nextBytes(bytes, false, null);
+  }
+
+  @Override
+  protected void engineNextBytes(byte[] bytes, SecureRandomParameters params) {
+    if (params == null) {
+      engineNextBytes(bytes);
+      return;
+    }
+    if (!(params instanceof DrbgParameters.NextBytes)) {
+      throw new IllegalArgumentException("Expected DrbgParameters.NextBytes, got " + params);
+    }
+    DrbgParameters.NextBytes nextBytes = (DrbgParameters.NextBytes) params;
+    if (nextBytes.getStrength() > STRENGTH_BITS) {
+      throw new IllegalArgumentException("Strength " + nextBytes.getStrength()
+          + " is above the instantiated strength of " + STRENGTH_BITS);
+    }
+    drbg.nextBytes(bytes, nextBytes.getPredictionResistance(), nextBytes.getAdditionalInput());
+  }
+
+  @Override
+  protected void engineReseed(SecureRandomParameters params) {
+    if (params != null && !(params instanceof DrbgParameters.Reseed)) {
+      throw new IllegalArgumentException("Expected DrbgParameters.Reseed, got " + params);
+    }
+    // always with fresh entropy, so with prediction resistance
+    drbg.reseed(params != null ? ((DrbgParameters.Reseed) params).getAdditionalInput() : null);
+  }
+
+  @Override
+  protected SecureRandomParameters engineGetParameters() {
+    return DrbgParameters.instantiation(STRENGTH_BITS, DrbgParameters.Capability.PR_AND_RESEED,
+        null);
+  }
+
+  @Override
+  protected byte[] engineGenerateSeed(int numBytes) {
+    return parsecClientFactory.get().psaGenerateRandom(numBytes);
+  }
+}
@@ -0,0 +1,85 @@
+package org.parallaxsecond.parsec.jce.provider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.parallaxsecond.parsec.client.Authentication;
+import org.parallaxsecond.parsec.client.core.BasicClient;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+
+class ClientSharingTest {
+  private final AtomicInteger created = new AtomicInteger();
+
+  @AfterEach
+  void resetGlobalClients() {
+    ClientSharing.resetGlobalClients();
+  }
+
+  @Test
+  void globalClientsAreSharedByKeyUntilReset() {
+    ParsecClientAccessor a = ClientSharing.GLOBAL.accessor("socket app", this::create);
+    ParsecClientAccessor b = ClientSharing.GLOBAL.accessor("socket app", this::create);
+    ParsecClientAccessor other = ClientSharing.GLOBAL.accessor("socket other", this::create);
+    BasicClient client = a.get();
+
+    assertSame(client, b.get());
+    assertNotSame(client, other.get());
+    assertEquals(2, created.get());
+
+    ClientSharing.resetGlobalClients();
+    assertNotSame(client, b.get());
+    assertSame(b.get(), a.get());
+  }
+
+  @Test
+  void providerClientsAreSharedByOneAccessor() {
+    ParsecClientAccessor a = ClientSharing.PROVIDER.accessor("socket app", this::create);
+    ParsecClientAccessor b = ClientSharing.PROVIDER.accessor("socket app", this::create);
+
+    assertSame(a.get(), a.get());
+    assertNotSame(a.get(), b.get());
+    assertEquals(2, created.get());
+  }
+
+  @Test
+  void threadClientsAreSharedByOneThread() throws Exception {
+    ParsecClientAccessor accessor = ClientSharing.THREAD.accessor("socket app", this::create);
+    BasicClient client = accessor.get();
+    assertSame(client, accessor.get());
+
+    ExecutorService other = Executors.newSingleThreadExecutor();
+    try {
+      assertNotSame(client, other.submit(accessor::get).get());
+    } finally {
+      other.shutdown();
+    }
+    assertEquals(2, created.get());
+  }
+
+  @Test
+  void callClientsAreNeverShared() {
+    ParsecClientAccessor accessor = ClientSharing.CALL.accessor("socket app", this::create);
+
+    assertNotSame(accessor.get(), accessor.get());
+    assertEquals(2, created.get());
+  }
+
+  @Test
+  void parsesNamesIgnoringCase() {
+    assertEquals(ClientSharing.THREAD, ClientSharing.parse(" Thread "));
+    assertThrows(IllegalArgumentException.class, () -> ClientSharing.parse("process"));
+  }
+
+  private BasicClient create() {
+    created.incrementAndGet();
+    return new BasicClient(null, new Authentication.None(), ProviderId.MBED_CRYPTO);
+  }
+}
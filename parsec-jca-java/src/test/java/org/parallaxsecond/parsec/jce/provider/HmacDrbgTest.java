@@ -0,0 +1,123 @@
+package org.parallaxsecond.parsec.jce.provider;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class HmacDrbgTest {
+  // NIST CAVP HMAC_DRBG.rsp, [SHA-256], 1024 returned bits, two generate calls
+
+  @Test
+  void matchesNistVectorsWithoutReseed() {
+    assertGenerates(
+        "e528e9abf2dece54d47c7e75e5fe302149f817ea9fb4bee6f4199697d04d5b89"
+            + "d54fbb978a15b5c443c9ec21036d2460b6f73ebad0dc2aba6e624abf07745bc1"
+            + "07694bb7547bb0995f70de25d6b29e2d3011bb19d27676c07162c8b5ccde0668"
+            + "961df86803482cb37ed6d5c0bb8d50cf1f50d476aa0458bdaba806f48be9dcb8",
+        new HmacDrbg(hex("ca851911349384bffe89de1cbdc46e6831e44d34a4fb935ee285dd14b71a7488"),
+            hex("659ba96c601dc69fc902940805ec0ca8"), null),
+        null, null);
+    assertGenerates(
+        "cf5ad5984f9e43917aa9087380dac46e410ddc8a7731859c84e9d0f31bd43655"
+            + "b924159413e2293b17610f211e09f770f172b8fb693a35b85d3b9e5e63b1dc25"
+            + "2ac0e115002e9bedfb4b5b6fd43f33b8e0eafb2d072e1a6fee1f159df9b51e6c"
+            + "8da737e60d5032dd30544ec51558c6f080bdbdab1de8a939e961e06b5f1aca37",
+        new HmacDrbg(hex("79737479ba4e7642a221fcfd1b820b134e9e3540a35bb48ffae29c20f5418ea3"),
+            hex("3593259c092bef4129bc2c6c9e19f343"), null),
+        null, null);
+    assertGenerates(
+        "75183aaaf3574bc68003352ad655d0e9ce9dd17552723b47fab0e84ef903694a"
+            + "32987eeddbdc48efd24195dbdac8a46ba2d972f5808f23a869e71343140361f5"
+            + "8b243e62722088fe10a98e43372d252b144e00c89c215a76a121734bdc485486"
+            + "f65c0b16b8963524a3a70e6f38f169c12f6cbdd169dd48fe4421a235847a23ff",
+        new HmacDrbg(hex("b340907445b97a8b589264de4a17c0bea11bb53ad72f9f33297f05d2879d898d"),
+            hex("65cb27735d83c0708f72684ea58f7ee5"), null),
+        null, null);
+  }
+
+  @Test
+  void matchesNistVectorWithReseed() {
+    // drbgvectors_pr_false
+    HmacDrbg drbg =
+        new HmacDrbg(hex("06032cd5eed33f39265f49ecb142c511da9aff2af71203bffaf34a9ca5bd9c0d"),
+            hex("0e66f71edc43e42a45ad3c6fc6cdc4df"), null);
+    drbg.reseed(hex("01920a4e669ed3a85ae8a33b35a74ad7fb2a6bb4cf395ce00334a9c9a5a5d552"), null);
+
+    assertGenerates(
+        "76fc79fe9b50beccc991a11b5635783a83536add03c157fb30645e611c2898bb"
+            + "2b1bc215000209208cd506cb28da2a51bdb03826aaf2bd2335d576d519160842"
+            + "e7158ad0949d1a9ec3e66ea1b1a064b005de914eac2e9d4f2d72a8616a802254"
+            + "22918250ff66a41bd2f864a6a38cc5b6499dc43f7f2bd09e1e0f8f5885935124",
+        drbg, null, null);
+  }
+
+  // Personalization strings and additional input, checked against the HMAC_DRBG of the JDK
+  private static final String ENTROPY =
+      "05ac9fc4c62a02e3f90840da5616218c6de5743d66b8e0fbf833759c5928b53d";
+  private static final String NONCE = "2b89a17904922ed8f017a63044848545";
+  private static final String ADDITIONAL_1 =
+      "2791126b8b52ee1fd9392a0a13e0083bed4186dc649b739607ac70ec8dcecf9b";
+  private static final String ADDITIONAL_2 =
+      "43bac13bae715092cf7eb280a2e10a962faf7233c41412f69bc74a35a584e54c";
+
+  @Test
+  void mixesAdditionalInput() {
+    assertGenerates(
+        "0e10ca84b22e344eff2dfe05133c4e9b8c1c7a72bb748e13284a3a616e69bf55"
+            + "a0b659259b2793ce25068065ca65d24487d96217cea05d1a9bea4a178ad96967"
+            + "331e843dc350f4936357c07c12ea37972c6d0bca04c55313088fa38bee8d77a2"
+            + "8309e4f641e62b78e46e70e833267f007a183a11bfd4650e6eae532d27c675fe",
+        new HmacDrbg(hex(ENTROPY), hex(NONCE), null), ADDITIONAL_1, ADDITIONAL_2);
+    assertGenerates(
+        "7d7647b4e1fbf0e81079fa440323d51c4c681e60b3928ac154cad3c3cd3e3e8d"
+            + "b855d0be336367cf3374361e50626ddfd9f06e4740792bf7294fdbf2c208be72"
+            + "da62309dec239d60cbd263ae814def8a238f37e01132cd7ae999d3dfd7e8a3cf"
+            + "a52bb79de9069ce1b2a532d1bc5552c7df149210fd1283bb26cc000d32cf9db5",
+        new HmacDrbg(hex(ENTROPY), hex(NONCE),
+            hex("e2d2c4a5b7ff5ea2a2a0a9a5c3fb7a3bc69dc2b0fc9db22b5ba4d40dfdd3c8b0")),
+        ADDITIONAL_1, ADDITIONAL_2);
+  }
+
+  @Test
+  void mixesAdditionalInputOnReseed() {
+    HmacDrbg drbg = new HmacDrbg(hex(ENTROPY), hex(NONCE), null);
+    drbg.reseed(hex("f6e68bb0587c6dcdc6f9ab8c8b0d5e2a1b0d34bbd2f2b1d2c6fe40e8d3d0c1ab"),
+        hex("a7c3f9e8c0d2b1a4f5e6d7c8b9a0f1e2d3c4b5a6978877665544332211001122"));
+
+    assertGenerates(
+        "df4ce1491edeafe569ce8ec2eb3cdeb4a4a19273921280e89ab7a306f364d08d"
+            + "a08c6414c1bbf521b3e9da71fff56c2e0fe817739342e9633ea8a313b66148df"
+            + "b96b9802f38180f564e8a1be13885c167a9631d9213857c53dd50181f5849e5f"
+            + "56c9cb02a4d8865aa85dc813691b96c1f555e61a0b1f52edd854443e88901cfc",
+        drbg, ADDITIONAL_1, ADDITIONAL_2);
+  }
+
+  @Test
+  void rejectsOversizedRequests() {
+    HmacDrbg drbg = new HmacDrbg(hex(ENTROPY), hex(NONCE), null);
+    byte[] out = new byte[HmacDrbg.MAX_REQUEST + 1];
+
+    assertThrows(IllegalArgumentException.class, () -> drbg.generate(out, 0, out.length, null));
+  }
+
+  /** Generate twice, as the CAVP tests do, and compare the second output */
+  private static void assertGenerates(String expected, HmacDrbg drbg, String additional1,
+      String additional2) {
+    byte[] out = new byte[expected.length() / 2];
+    drbg.generate(out, 0, out.length, hex(additional1));
+    drbg.generate(out, 0, out.length, hex(additional2));
+    assertArrayEquals(hex(expected), out);
+  }
+
+  private static byte[] hex(String hex) {
+    if (hex == null) {
+      return null;
+    }
+    byte[] bytes = new byte[hex.length() / 2];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+    }
+    return bytes;
+  }
+}
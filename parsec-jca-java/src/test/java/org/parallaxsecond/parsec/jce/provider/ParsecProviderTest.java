@@ -0,0 +1,51 @@
+package org.parallaxsecond.parsec.jce.provider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParsecProviderTest {
+  private final ParsecProvider provider =
+      ParsecProvider.builder().socketUri(URI.create("unix:/run/parsec/parsec.sock")).build();
+
+  @Test
+  void configuresFromInlineProperties() {
+    ParsecProvider configured = (ParsecProvider) provider
+        .configure("--clientSharing=thread, randomReservoirSize=64");
+
+    assertEquals(ClientSharing.THREAD, configured.getClientSharing());
+    assertEquals(64, configured.getRandomReservoir().getCapacity());
+    assertEquals(ClientSharing.DEFAULT, provider.getClientSharing());
+    assertNull(provider.getRandomReservoir());
+  }
+
+  @Test
+  void keepsUnsetPropertiesFromFile(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("parsec.properties");
+    Files.write(file, "drbgReseedInterval = 16\n".getBytes(StandardCharsets.UTF_8));
+    ParsecProvider base = ParsecProvider.builder().clientSharing(ClientSharing.CALL)
+        .randomReservoirSize(32).build();
+
+    ParsecProvider configured = (ParsecProvider) base.configure(file.toString());
+
+    assertEquals(ClientSharing.CALL, configured.getClientSharing());
+    assertEquals(32, configured.getRandomReservoir().getCapacity());
+  }
+
+  @Test
+  void rejectsInvalidValues() {
+    assertThrows(IllegalArgumentException.class,
+        () -> provider.configure("--clientSharing=process"));
+    assertThrows(IllegalArgumentException.class,
+        () -> provider.configure("--randomReservoirSize=many"));
+  }
+}
@@ -0,0 +1,63 @@
+package org.parallaxsecond.parsec.jce.provider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class StripedDrbgTest {
+  private static final int INSTANTIATE = HmacDrbg.STRENGTH * 3 / 2;
+  private static final int RESEED = HmacDrbg.STRENGTH;
+
+  private final Random random = new Random(1);
+  /** Sizes requested from the entropy source */
+  private final List<Integer> draws = new ArrayList<>();
+
+  private byte[] entropy(int size) {
+    draws.add(size);
+    byte[] bytes = new byte[size];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+
+  @Test
+  void reseedsAfterTheInterval() {
+    StripedDrbg drbg = new StripedDrbg(this::entropy, 3L, false);
+
+    generate(drbg, 3, false);
+    assertEquals(Arrays.asList(INSTANTIATE), draws);
+    generate(drbg, 3, false);
+    assertEquals(Arrays.asList(INSTANTIATE, RESEED), draws);
+    generate(drbg, 1, false);
+    assertEquals(Arrays.asList(INSTANTIATE, RESEED, RESEED), draws);
+  }
+
+  @Test
+  void reseedsBeforeEveryRequestWithPredictionResistance() {
+    StripedDrbg drbg = new StripedDrbg(this::entropy, null, true);
+
+    generate(drbg, 3, false);
+    assertEquals(Arrays.asList(INSTANTIATE, RESEED, RESEED), draws);
+  }
+
+  @Test
+  void reseedsOnRequestForPredictionResistance() {
+    StripedDrbg drbg = new StripedDrbg(this::entropy, null, false);
+
+    generate(drbg, 2, false);
+    generate(drbg, 1, true);
+    drbg.reseed(null);
+    assertEquals(Arrays.asList(INSTANTIATE, RESEED, RESEED), draws);
+  }
+
+  /** Requests from one thread, served by a single instance */
+  private static void generate(StripedDrbg drbg, int requests, boolean predictionResistance) {
+    for (int i = 0; i < requests; i++) {
+      drbg.nextBytes(new byte[16], predictionResistance, null);
+    }
+  }
+}
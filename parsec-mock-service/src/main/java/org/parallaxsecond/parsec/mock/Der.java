@@ -0,0 +1,158 @@
+package org.parallaxsecond.parsec.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/** Just enough DER to move between the PSA key and signature formats and the JCA ones. */
+final class Der {
+  private static final byte SEQUENCE = 0x30;
+  private static final byte INTEGER = 0x02;
+  private static final byte BIT_STRING = 0x03;
+  private static final byte OCTET_STRING = 0x04;
+  /** AlgorithmIdentifier of rsaEncryption, with NULL parameters */
+  private static final byte[] RSA_ALGORITHM = {0x30, 0x0d, 0x06, 0x09, 0x2a, (byte) 0x86, 0x48,
+      (byte) 0x86, (byte) 0xf7, 0x0d, 0x01, 0x01, 0x01, 0x05, 0x00};
+  /** Prefix of the AlgorithmIdentifier of the NIST hashes, before the last byte of the OID */
+  private static final byte[] NIST_HASH_OID = {0x06, 0x09, 0x60, (byte) 0x86, 0x48, 0x01, 0x65,
+      0x03, 0x04, 0x02};
+
+  private Der() {}
+
+  /** Wrap a PKCS#1 RSAPrivateKey, the PSA export format, in a PKCS#8 PrivateKeyInfo. */
+  static byte[] rsaPrivateKeyToPkcs8(byte[] rsaPrivateKey) {
+    return tlv(SEQUENCE, concat(new byte[] {INTEGER, 1, 0}, RSA_ALGORITHM,
+        tlv(OCTET_STRING, rsaPrivateKey)));
+  }
+
+  /** Wrap a PKCS#1 RSAPublicKey, the PSA export format, in an X.509 SubjectPublicKeyInfo. */
+  static byte[] rsaPublicKeyToSpki(byte[] rsaPublicKey) {
+    return tlv(SEQUENCE,
+        concat(RSA_ALGORITHM, tlv(BIT_STRING, concat(new byte[] {0}, rsaPublicKey))));
+  }
+
+  /** @return the PKCS#1 RSAPublicKey, the PSA export format, of a modulus and exponent */
+  static byte[] rsaPublicKey(BigInteger modulus, BigInteger publicExponent) {
+    return tlv(SEQUENCE, concat(tlv(INTEGER, modulus.toByteArray()),
+        tlv(INTEGER, publicExponent.toByteArray())));
+  }
+
+  /**
+   * @return the DigestInfo of a PKCS#1 v1.5 signature, for a JCA digest name
+   * @throws IllegalArgumentException if the digest is not supported
+   */
+  static byte[] digestInfo(String digest, byte[] hash) {
+    final byte[] algorithm;
+    switch (digest) {
+      case "MD5":
+        algorithm = new byte[] {0x30, 0x0c, 0x06, 0x08, 0x2a, (byte) 0x86, 0x48, (byte) 0x86,
+            (byte) 0xf7, 0x0d, 0x02, 0x05, 0x05, 0x00};
+        break;
+      case "SHA-1":
+        algorithm = new byte[] {0x30, 0x09, 0x06, 0x05, 0x2b, 0x0e, 0x03, 0x02, 0x1a, 0x05, 0x00};
+        break;
+      default:
+        algorithm = tlv(SEQUENCE, concat(NIST_HASH_OID, new byte[] {nistHashId(digest), 0x05, 0}));
+    }
+    return tlv(SEQUENCE, concat(algorithm, tlv(OCTET_STRING, hash)));
+  }
+
+  private static byte nistHashId(String digest) {
+    switch (digest) {
+      case "SHA-256":
+        return 1;
+      case "SHA-384":
+        return 2;
+      case "SHA-512":
+        return 3;
+      case "SHA-224":
+        return 4;
+      case "SHA-512/224":
+        return 5;
+      case "SHA-512/256":
+        return 6;
+      case "SHA3-224":
+        return 7;
+      case "SHA3-256":
+        return 8;
+      case "SHA3-384":
+        return 9;
+      case "SHA3-512":
+        return 10;
+      default:
+        throw new IllegalArgumentException("no PKCS#1 DigestInfo for " + digest);
+    }
+  }
+
+  /** Convert a DER ECDSA-Sig-Value to the PSA format, r and s as big endian integers of size n. */
+  static byte[] ecdsaToRaw(byte[] der, int n) {
+    int[] pos = {0};
+    expect(der, pos, SEQUENCE);
+    readLength(der, pos);
+    byte[] raw = new byte[2 * n];
+    for (int i = 0; i < 2; i++) {
+      expect(der, pos, INTEGER);
+      int len = readLength(der, pos);
+      byte[] value =
+          new BigInteger(1, Arrays.copyOfRange(der, pos[0], pos[0] + len)).toByteArray();
+      // drop the sign byte, right align in n bytes
+      int start = value.length > n ? value.length - n : 0;
+      int size = value.length - start;
+      System.arraycopy(value, start, raw, (i + 1) * n - size, size);
+      pos[0] += len;
+    }
+    return raw;
+  }
+
+  /** Convert a PSA ECDSA signature, r followed by s, to a DER ECDSA-Sig-Value. */
+  static byte[] rawToEcdsa(byte[] raw) {
+    int n = raw.length / 2;
+    byte[] r = new BigInteger(1, Arrays.copyOfRange(raw, 0, n)).toByteArray();
+    byte[] s = new BigInteger(1, Arrays.copyOfRange(raw, n, raw.length)).toByteArray();
+    return tlv(SEQUENCE, concat(tlv(INTEGER, r), tlv(INTEGER, s)));
+  }
+
+  private static void expect(byte[] der, int[] pos, byte tag) {
+    if (pos[0] >= der.length || der[pos[0]] != tag) {
+      throw new IllegalArgumentException("malformed DER, expected tag " + tag);
+    }
+    pos[0]++;
+  }
+
+  private static int readLength(byte[] der, int[] pos) {
+    int first = der[pos[0]++] & 0xff;
+    if (first < 0x80) {
+      return first;
+    }
+    int len = 0;
+    for (int i = 0; i < (first & 0x7f); i++) {
+      len = (len << 8) | (der[pos[0]++] & 0xff);
+    }
+    return len;
+  }
+
+  private static byte[] tlv(byte tag, byte[] value) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(value.length + 6);
+    out.write(tag);
+    int len = value.length;
+    if (len < 0x80) {
+      out.write(len);
+    } else {
+      int bytes = len > 0xffffff ? 4 : len > 0xffff ? 3 : len > 0xff ? 2 : 1;
+      out.write(0x80 | bytes);
+      for (int i = bytes - 1; i >= 0; i--) {
+        out.write(len >>> (8 * i));
+      }
+    }
+    out.write(value, 0, value.length);
+    return out.toByteArray();
+  }
+
+  private static byte[] concat(byte[]... parts) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (byte[] part : parts) {
+      out.write(part, 0, part.length);
+    }
+    return out.toByteArray();
+  }
+}
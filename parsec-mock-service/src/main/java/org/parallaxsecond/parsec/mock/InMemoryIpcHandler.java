@@ -0,0 +1,32 @@
+package org.parallaxsecond.parsec.mock;
+
+import java.nio.channels.ByteChannel;
+import java.time.Duration;
+
+import org.parallaxsecond.parsec.client.core.ipc_handler.IpcHandler;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Connects a client to a {@link MockParsecService} in the same JVM, through in-memory channels.
+ *
+ * <p>
+ * Nothing goes through the operating system, so the cost measured is that of the client and the
+ * protocol, not that of the socket.
+ */
+@RequiredArgsConstructor
+public class InMemoryIpcHandler implements IpcHandler {
+  @NonNull
+  private final MockParsecService service;
+
+  @Override
+  public ByteChannel connect() {
+    return service.connectInMemory();
+  }
+
+  @Override
+  public void setTimeout(Duration timeout) {
+    // the service does not go away without closing the channels
+  }
+}
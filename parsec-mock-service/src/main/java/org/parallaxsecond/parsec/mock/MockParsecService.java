@@ -0,0 +1,462 @@
+package org.parallaxsecond.parsec.mock;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.URI;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.parallaxsecond.parsec.protocol.operations.NativeOperation;
+import org.parallaxsecond.parsec.protocol.operations.NativeResult;
+import org.parallaxsecond.parsec.protocol.operations_protobuf.ProtobufConverter;
+import org.parallaxsecond.parsec.protocol.requests.AuthType;
+import org.parallaxsecond.parsec.protocol.requests.BodyType;
+import org.parallaxsecond.parsec.protocol.requests.InterfaceException;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+import org.parallaxsecond.parsec.protocol.requests.request.Request;
+import org.parallaxsecond.parsec.protocol.requests.request.RequestHeader;
+import org.parallaxsecond.parsec.protocol.requests.response.Response;
+import org.parallaxsecond.parsec.protocol.requests.response.ResponseBody;
+import org.parallaxsecond.parsec.protocol.requests.response.ResponseHeader;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-JVM stand-in for the Parsec service, so that the client can be tested and benchmarked without
+ * a container.
+ *
+ * <p>
+ * The service speaks the Parsec wire protocol with protobuf bodies, over a Unix domain socket when
+ * {@code socketPath} is given, and over in-memory channels from {@link #connectInMemory()} (see
+ * {@link InMemoryIpcHandler}). It answers the core provider operations itself and hands the crypto
+ * operations to a {@link SoftwareCryptoEngine}, which it lists as the default provider.
+ *
+ * <p>
+ * Requests are served by {@code concurrency} threads, one connection at a time each, like the
+ * service's own thread pool. Each response is held back by {@code latency}, to stand in for the
+ * time a hardware backend would take.
+ */
+@Slf4j
+public class MockParsecService implements AutoCloseable {
+  public static final int DEFAULT_CONCURRENCY = 8;
+  public static final int DEFAULT_MAX_BODY_SIZE = 1 << 20;
+  private static final byte WIRE_PROTOCOL_VERSION_MAJ = 1;
+  private static final byte WIRE_PROTOCOL_VERSION_MIN = 0;
+  private static final Set<Opcode> CORE_OPCODES = Collections.unmodifiableSet(EnumSet.of(
+      Opcode.PING, Opcode.LIST_PROVIDERS, Opcode.LIST_OPCODES, Opcode.LIST_AUTHENTICATORS,
+      Opcode.LIST_KEYS));
+  private static final Pattern JWT_SUBJECT = Pattern.compile("\"sub\"\\s*:\\s*\"([^\"]*)\"");
+
+  private final ProtobufConverter converter = new ProtobufConverter();
+  @Getter
+  private final SoftwareCryptoEngine engine;
+  private final List<AuthType> authenticators;
+  private final long latencyNanos;
+  private final int maxBodySize;
+  private final ExecutorService workers;
+  private final Path socketPath;
+  private final ServerSocketChannel server;
+  private final LongAdder requests = new LongAdder();
+  private volatile boolean closed;
+
+  /**
+   * @param socketPath Unix domain socket to listen on, none if null
+   * @param concurrency number of connections served at the same time, {@link #DEFAULT_CONCURRENCY}
+   *        if null
+   * @param latency time added to each response, none if null
+   * @param authenticators authenticators the service accepts, in order of preference, only
+   *        {@link AuthType#DIRECT} if null
+   * @param engine crypto provider, a new {@link SoftwareCryptoEngine} if null
+   * @param maxBodySize largest request body accepted, {@link #DEFAULT_MAX_BODY_SIZE} if null
+   */
+  @Builder
+  public MockParsecService(Path socketPath, Integer concurrency, Duration latency,
+      List<AuthType> authenticators, SoftwareCryptoEngine engine, Integer maxBodySize)
+      throws IOException {
+    this.engine = engine != null ? engine : new SoftwareCryptoEngine();
+    this.authenticators = authenticators != null && !authenticators.isEmpty()
+        ? Collections.unmodifiableList(new ArrayList<>(authenticators))
+        : Collections.singletonList(AuthType.DIRECT);
+    this.latencyNanos = latency != null ? latency.toNanos() : 0;
+    this.maxBodySize = maxBodySize != null ? maxBodySize : DEFAULT_MAX_BODY_SIZE;
+    this.workers = Executors.newFixedThreadPool(
+        concurrency != null ? concurrency : DEFAULT_CONCURRENCY, daemon("parsec-mock-worker"));
+    this.socketPath = socketPath;
+    if (socketPath != null) {
+      Files.deleteIfExists(socketPath);
+      this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+      this.server.bind(UnixDomainSocketAddress.of(socketPath));
+      Thread acceptor = daemon("parsec-mock-acceptor").newThread(this::accept);
+      acceptor.start();
+    } else {
+      this.server = null;
+    }
+  }
+
+  /** @return a service reachable only through {@link #connectInMemory()} */
+  public static MockParsecService inMemory() {
+    try {
+      return builder().build();
+    } catch (IOException e) {
+      // no socket, nothing to fail
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** @return the {@code unix:} URI of the socket, for {@code IpcHandler.connectFromUrl} */
+  public URI getSocketUri() {
+    if (socketPath == null) {
+      throw new IllegalStateException("the service does not listen on a socket");
+    }
+    return URI.create("unix:" + socketPath.toAbsolutePath());
+  }
+
+  /** @return the number of requests answered so far */
+  public long getRequests() {
+    return requests.sum();
+  }
+
+  /** Open a connection to the service that does not go through the operating system. */
+  public ByteChannel connectInMemory() {
+    try {
+      Pipe toService = Pipe.open();
+      Pipe toClient = Pipe.open();
+      serve(new DuplexChannel(toService.source(), toClient.sink()));
+      return new DuplexChannel(toClient.source(), toService.sink());
+    } catch (IOException e) {
+      throw new IllegalStateException("failed to open in-memory connection", e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    workers.shutdownNow();
+    if (server != null) {
+      server.close();
+      Files.deleteIfExists(socketPath);
+    }
+  }
+
+  private void accept() {
+    while (!closed) {
+      try {
+        serve(server.accept());
+      } catch (ClosedChannelException e) {
+        return;
+      } catch (IOException e) {
+        log.warn("Failed to accept connection", e);
+      }
+    }
+  }
+
+  private void serve(ByteChannel connection) throws IOException {
+    try {
+      workers.execute(() -> handleConnection(connection));
+    } catch (RejectedExecutionException e) {
+      connection.close();
+      throw new ClosedChannelException();
+    }
+  }
+
+  /** Answer requests until the client closes the connection. */
+  private void handleConnection(ByteChannel connection) {
+    try (ByteChannel channel = connection) {
+      ReadableByteChannel in = new ReadFully(channel);
+      while (!closed) {
+        Request request;
+        try {
+          request = Request.readFromStream(in, maxBodySize);
+        } catch (EOFException e) {
+          return;
+        }
+        Response response;
+        try {
+          response = handle(request);
+        } finally {
+          request.getBody().release();
+          request.close();
+        }
+        if (latencyNanos > 0) {
+          Thread.sleep(latencyNanos / 1_000_000, (int) (latencyNanos % 1_000_000));
+        }
+        response.writeToStream(channel);
+        requests.increment();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      if (!closed) {
+        log.debug("Connection closed", e);
+      }
+    } catch (InterfaceException e) {
+      // the stream cannot be resynchronised after a malformed header
+      log.warn("Dropping connection after malformed request: {}", e.getMessage());
+    }
+  }
+
+  private Response handle(Request request) {
+    RequestHeader header = request.getHeader();
+    try {
+      NativeOperation operation;
+      try {
+        operation = converter.bodyToOperation(request.getBody(), header.getOpcode());
+      } catch (IllegalStateException e) {
+        // no protobuf converter for the opcode yet
+        throw new InterfaceException(ResponseStatus.PsaErrorNotSupported, e);
+      } catch (Exception e) {
+        throw new InterfaceException(ResponseStatus.DeserializingBodyFailed, e);
+      }
+      NativeResult result = execute(header, application(request), operation);
+      return response(header, ResponseStatus.Success, converter.resultToBody(result));
+    } catch (InterfaceException e) {
+      log.debug("{} failed: {}", header.getOpcode(), e.getMessage());
+      return response(header, e.getResponseStatus(), new ResponseBody(new byte[0]));
+    } catch (RuntimeException e) {
+      log.warn("{} failed", header.getOpcode(), e);
+      return response(header, ResponseStatus.PsaErrorGenericError, new ResponseBody(new byte[0]));
+    }
+  }
+
+  private NativeResult execute(RequestHeader header, String application,
+      NativeOperation operation) {
+    switch (operation.getOpcode()) {
+      case PING:
+        return NativeResult.PingResult.builder().wireProtocolVersionMaj(WIRE_PROTOCOL_VERSION_MAJ)
+            .wireProtocolVersionMin(WIRE_PROTOCOL_VERSION_MIN).build();
+      case LIST_PROVIDERS:
+        return NativeResult.ListProvidersResult.builder()
+            .providers(List.of(providerInfo(engine.getProviderId()), providerInfo(ProviderId.CORE)))
+            .build();
+      case LIST_AUTHENTICATORS:
+        return NativeResult.ListAuthenticatorsResult.builder()
+            .authenticators(authenticators.stream().map(MockParsecService::authenticatorInfo)
+                .collect(Collectors.toList()))
+            .build();
+      case LIST_OPCODES:
+        return NativeResult.ListOpcodesResult.builder()
+            .opcodes(opcodes(((NativeOperation.ListOpcodesOperation) operation).getProviderId()))
+            .build();
+      case LIST_KEYS:
+        // keys of all providers, listed by the core provider
+        return engine.execute(authenticated(application, operation), operation);
+      default:
+        if (header.getProvider() != engine.getProviderId()) {
+          throw new InterfaceException(ResponseStatus.ProviderNotRegistered,
+              "provider " + header.getProvider() + " is not registered");
+        }
+        return engine.execute(authenticated(application, operation), operation);
+    }
+  }
+
+  /** @return the opcodes supported by {@code provider} */
+  private Set<Opcode> opcodes(ProviderId provider) {
+    if (provider == ProviderId.CORE) {
+      return CORE_OPCODES;
+    }
+    if (provider != engine.getProviderId()) {
+      throw new InterfaceException(ResponseStatus.ProviderNotRegistered,
+          "provider " + provider + " is not registered");
+    }
+    return SoftwareCryptoEngine.OPCODES;
+  }
+
+  private static String authenticated(String application, NativeOperation operation) {
+    if (application == null) {
+      throw new InterfaceException(ResponseStatus.NotAuthenticated,
+          operation.getOpcode() + " needs an authenticated application");
+    }
+    return application;
+  }
+
+  /** @return the application the request comes from, null if it is not authenticated */
+  private String application(Request request) {
+    AuthType authType = request.getHeader().getAuthType();
+    if (authType == AuthType.NO_AUTH) {
+      return null;
+    }
+    if (!authenticators.contains(authType)) {
+      throw new InterfaceException(ResponseStatus.AuthenticatorNotRegistered,
+          "authenticator " + authType + " is not registered");
+    }
+    byte[] auth = request.getAuth().getBuffer().getValue();
+    switch (authType) {
+      case DIRECT:
+        return new String(auth, StandardCharsets.UTF_8);
+      case UNIX_PEER_CREDENTIALS:
+        // trusted as sent, the peer credentials of the socket are not checked
+        return "uid:" + ByteBuffer.wrap(auth).order(ByteOrder.LITTLE_ENDIAN).getInt();
+      case JWT:
+      case JWT_SVID:
+        // the signature is not checked
+        return jwtSubject(new String(auth, StandardCharsets.UTF_8));
+      default:
+        throw new InterfaceException(ResponseStatus.AuthenticatorNotRegistered,
+            "authenticator " + authType + " is not supported");
+    }
+  }
+
+  private static String jwtSubject(String token) {
+    String[] parts = token.split("\\.");
+    if (parts.length == 3) {
+      try {
+        Matcher subject = JWT_SUBJECT.matcher(
+            new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8));
+        if (subject.find()) {
+          return subject.group(1);
+        }
+      } catch (IllegalArgumentException e) {
+        // not base64, rejected below
+      }
+    }
+    throw new InterfaceException(ResponseStatus.AuthenticationError, "malformed JWT");
+  }
+
+  private static Response response(RequestHeader request, ResponseStatus status,
+      ResponseBody body) {
+    BodyType contentType =
+        request.getAcceptType() != null ? request.getAcceptType() : BodyType.PROTOBUF;
+    return new Response(ResponseHeader.builder().provider(request.getProvider())
+        .session(request.getSession()).contentType(contentType).opcode(request.getOpcode())
+        .status(status).build(), body);
+  }
+
+  private static NativeResult.ListProvidersResult.ProviderInfo providerInfo(ProviderId id) {
+    return NativeResult.ListProvidersResult.ProviderInfo.builder().uuid(providerUuid(id))
+        .description(id.toString()).vendor("Arm").versionMaj(1).versionMin(0).versionRev(0)
+        .id(id).build();
+  }
+
+  /** UUIDs the service gives its providers */
+  private static UUID providerUuid(ProviderId id) {
+    switch (id) {
+      case CORE:
+        return UUID.fromString("47049873-2a43-4845-9d72-831eab668784");
+      case MBED_CRYPTO:
+        return UUID.fromString("1c1139dc-ad7c-47dc-ad6b-db6fdb466552");
+      default:
+        return new UUID(0, id.getId());
+    }
+  }
+
+  private static NativeResult.ListAuthenticatorsResult.AuthenticatorInfo authenticatorInfo(
+      AuthType authType) {
+    return NativeResult.ListAuthenticatorsResult.AuthenticatorInfo.builder()
+        .description(authType.getDescription()).versionMaj(1).versionMin(0).versionRev(0)
+        .id(authType).build();
+  }
+
+  private static ThreadFactory daemon(String name) {
+    AtomicInteger count = new AtomicInteger();
+    return r -> {
+      Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /** One end of an in-memory connection, reading from one pipe and writing to the other. */
+  private static final class DuplexChannel implements ByteChannel {
+    private final Pipe.SourceChannel source;
+    private final Pipe.SinkChannel sink;
+
+    private DuplexChannel(Pipe.SourceChannel source, Pipe.SinkChannel sink) {
+      this.source = source;
+      this.sink = sink;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+      return source.read(dst);
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+      int written = 0;
+      while (src.hasRemaining()) {
+        written += sink.write(src);
+      }
+      return written;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return source.isOpen() && sink.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        sink.close();
+      } finally {
+        source.close();
+      }
+    }
+  }
+
+  /**
+   * The request decoders read each field with a single call, fill the buffer before returning and
+   * turn the end of the stream into an {@link EOFException}.
+   */
+  private static final class ReadFully implements ReadableByteChannel {
+    private final ReadableByteChannel channel;
+
+    private ReadFully(ReadableByteChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+      int total = 0;
+      while (dst.hasRemaining()) {
+        int read = channel.read(dst);
+        if (read < 0) {
+          throw new EOFException();
+        }
+        total += read;
+      }
+      return total;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,535 @@
+package org.parallaxsecond.parsec.mock;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.interfaces.ECKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.parallaxsecond.parsec.protobuf.psa_algorithm.PsaAlgorithm;
+import org.parallaxsecond.parsec.protobuf.psa_key_attributes.PsaKeyAttributes;
+import org.parallaxsecond.parsec.protocol.operations.NativeOperation;
+import org.parallaxsecond.parsec.protocol.operations.NativeResult;
+import org.parallaxsecond.parsec.protocol.operations.NativeResult.ListKeysResult.KeyInfo;
+import org.parallaxsecond.parsec.protocol.requests.InterfaceException;
+import org.parallaxsecond.parsec.protocol.requests.Opcode;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+import org.parallaxsecond.parsec.protocol.requests.ResponseStatus;
+
+import lombok.Getter;
+
+/**
+ * PSA Crypto operations of a Parsec provider, implemented with the JCA providers of the JVM.
+ *
+ * <p>
+ * Keys are kept in memory, in a separate namespace for each application. Supported are RSA key
+ * pairs and public keys, SECP R1 key pairs (generated, not imported), and AES and ChaCha20 keys;
+ * export of public keys; PKCS#1 v1.5 and ECDSA signatures of hashes; PKCS#1 v1.5 and OAEP
+ * encryption; GCM and ChaCha20-Poly1305; hashes and random numbers. Anything else fails with
+ * {@link ResponseStatus#PsaErrorNotSupported}.
+ */
+public class SoftwareCryptoEngine {
+  /** Opcodes of the operations {@link #execute} runs */
+  public static final Set<Opcode> OPCODES = Collections.unmodifiableSet(EnumSet.of(
+      Opcode.LIST_KEYS, Opcode.PSA_GENERATE_KEY, Opcode.PSA_IMPORT_KEY, Opcode.PSA_DESTROY_KEY,
+      Opcode.PSA_EXPORT_PUBLIC_KEY, Opcode.PSA_SIGN_HASH, Opcode.PSA_VERIFY_HASH,
+      Opcode.PSA_ASYMMETRIC_ENCRYPT, Opcode.PSA_ASYMMETRIC_DECRYPT, Opcode.PSA_AEAD_ENCRYPT,
+      Opcode.PSA_AEAD_DECRYPT, Opcode.PSA_HASH_COMPUTE, Opcode.PSA_HASH_COMPARE,
+      Opcode.PSA_GENERATE_RANDOM));
+  private static final int DEFAULT_RSA_BITS = 2048;
+
+  @Getter
+  private final ProviderId providerId;
+  private final Map<String, StoredKey> keys = new ConcurrentHashMap<>();
+  private final SecureRandom random = new SecureRandom();
+
+  public SoftwareCryptoEngine() {
+    this(ProviderId.MBED_CRYPTO);
+  }
+
+  /** @param providerId provider the engine pretends to be */
+  public SoftwareCryptoEngine(ProviderId providerId) {
+    this.providerId = providerId;
+  }
+
+  /**
+   * Run a crypto operation on behalf of an application.
+   *
+   * @throws InterfaceException carrying the status of the failed operation
+   */
+  public NativeResult execute(String application, NativeOperation operation) {
+    try {
+      switch (operation.getOpcode()) {
+        case LIST_KEYS:
+          return listKeys(application);
+        case PSA_GENERATE_KEY:
+          return generateKey(application, (NativeOperation.PsaGenerateKeyOperation) operation);
+        case PSA_IMPORT_KEY:
+          return importKey(application, (NativeOperation.PsaImportKeyOperation) operation);
+        case PSA_DESTROY_KEY:
+          return destroyKey(application, (NativeOperation.PsaDestroyKeyOperation) operation);
+        case PSA_EXPORT_PUBLIC_KEY:
+          return exportPublicKey(application,
+              (NativeOperation.PsaExportPublicKeyOperation) operation);
+        case PSA_SIGN_HASH:
+          return signHash(application, (NativeOperation.PsaSignHashOperation) operation);
+        case PSA_VERIFY_HASH:
+          return verifyHash(application, (NativeOperation.PsaVerifyHashOperation) operation);
+        case PSA_ASYMMETRIC_ENCRYPT:
+          return asymmetricEncrypt(application,
+              (NativeOperation.PsaAsymmetricEncryptOperation) operation);
+        case PSA_ASYMMETRIC_DECRYPT:
+          return asymmetricDecrypt(application,
+              (NativeOperation.PsaAsymmetricDecryptOperation) operation);
+        case PSA_AEAD_ENCRYPT:
+          return aeadEncrypt(application, (NativeOperation.PsaAeadEncryptOperation) operation);
+        case PSA_AEAD_DECRYPT:
+          return aeadDecrypt(application, (NativeOperation.PsaAeadDecryptOperation) operation);
+        case PSA_HASH_COMPUTE:
+          return hashCompute((NativeOperation.PsaHashComputeOperation) operation);
+        case PSA_HASH_COMPARE:
+          return hashCompare((NativeOperation.PsaHashCompareOperation) operation);
+        case PSA_GENERATE_RANDOM:
+          return generateRandom((NativeOperation.PsaGenerateRandomOperation) operation);
+        default:
+          throw notSupported(operation.getOpcode().toString());
+      }
+    } catch (NoSuchAlgorithmException e) {
+      throw new InterfaceException(ResponseStatus.PsaErrorNotSupported, e);
+    } catch (InvalidKeyException e) {
+      throw new InterfaceException(ResponseStatus.PsaErrorInvalidArgument, e);
+    } catch (GeneralSecurityException e) {
+      throw new InterfaceException(ResponseStatus.PsaErrorGenericError, e);
+    }
+  }
+
+  private NativeResult listKeys(String application) {
+    List<KeyInfo> infos = new ArrayList<>();
+    String prefix = application + '\0';
+    keys.forEach((id, key) -> {
+      if (id.startsWith(prefix)) {
+        infos.add(KeyInfo.builder().providerId(providerId).name(key.name)
+            .attributes(key.attributes).build());
+      }
+    });
+    return NativeResult.ListKeysResult.builder().keys(infos).build();
+  }
+
+  private NativeResult generateKey(String application,
+      NativeOperation.PsaGenerateKeyOperation op) throws GeneralSecurityException {
+    PsaKeyAttributes.KeyAttributes attributes = op.getAttributes();
+    PsaKeyAttributes.KeyType type = attributes.getKeyType();
+    int bits = attributes.getKeyBits();
+    final StoredKey key;
+    if (type.hasRsaKeyPair()) {
+      KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+      generator.initialize(bits != 0 ? bits : DEFAULT_RSA_BITS, random);
+      key = new StoredKey(op.getKeyName(), generator.generateKeyPair());
+    } else if (type.hasEccKeyPair()) {
+      if (type.getEccKeyPair().getCurveFamily() != PsaKeyAttributes.KeyType.EccFamily.SECP_R1) {
+        throw notSupported("curve family " + type.getEccKeyPair().getCurveFamily());
+      }
+      KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+      generator.initialize(new ECGenParameterSpec("secp" + (bits != 0 ? bits : 256) + "r1"),
+          random);
+      key = new StoredKey(op.getKeyName(), generator.generateKeyPair());
+    } else if (type.hasAes() || type.hasChacha20()) {
+      String algorithm = type.hasAes() ? "AES" : "ChaCha20";
+      KeyGenerator generator = KeyGenerator.getInstance(algorithm);
+      generator.init(bits != 0 ? bits : 256, random);
+      key = new StoredKey(op.getKeyName(), generator.generateKey());
+    } else {
+      throw notSupported("key type " + type);
+    }
+    store(application, key, attributes);
+    return NativeResult.PsaGenerateKeyResult.builder().build();
+  }
+
+  private NativeResult importKey(String application, NativeOperation.PsaImportKeyOperation op)
+      throws GeneralSecurityException {
+    PsaKeyAttributes.KeyAttributes attributes = op.getAttributes();
+    PsaKeyAttributes.KeyType type = attributes.getKeyType();
+    byte[] data = op.getData();
+    final StoredKey key;
+    if (type.hasRsaKeyPair()) {
+      KeyFactory factory = KeyFactory.getInstance("RSA");
+      RSAPrivateCrtKey privateKey = (RSAPrivateCrtKey) factory
+          .generatePrivate(new PKCS8EncodedKeySpec(Der.rsaPrivateKeyToPkcs8(data)));
+      PublicKey publicKey = factory.generatePublic(
+          new RSAPublicKeySpec(privateKey.getModulus(), privateKey.getPublicExponent()));
+      key = new StoredKey(op.getKeyName(), new KeyPair(publicKey, privateKey));
+    } else if (type.hasRsaPublicKey()) {
+      PublicKey publicKey = KeyFactory.getInstance("RSA")
+          .generatePublic(new X509EncodedKeySpec(Der.rsaPublicKeyToSpki(data)));
+      key = new StoredKey(op.getKeyName(), new KeyPair(publicKey, null));
+    } else if (type.hasAes() || type.hasChacha20()) {
+      key = new StoredKey(op.getKeyName(),
+          new SecretKeySpec(data, type.hasAes() ? "AES" : "ChaCha20"));
+    } else {
+      throw notSupported("import of key type " + type);
+    }
+    store(application, key, attributes);
+    return NativeResult.PsaImportKeyResult.builder().build();
+  }
+
+  private NativeResult destroyKey(String application, NativeOperation.PsaDestroyKeyOperation op) {
+    if (keys.remove(id(application, op.getKeyName())) == null) {
+      throw doesNotExist(op.getKeyName());
+    }
+    return NativeResult.PsaDestroyKeyResult.builder().build();
+  }
+
+  private NativeResult exportPublicKey(String application,
+      NativeOperation.PsaExportPublicKeyOperation op) {
+    PublicKey publicKey = key(application, op.getKeyName()).publicKey();
+    final byte[] data;
+    if (publicKey instanceof RSAPublicKey) {
+      RSAPublicKey rsa = (RSAPublicKey) publicKey;
+      data = Der.rsaPublicKey(rsa.getModulus(), rsa.getPublicExponent());
+    } else {
+      // uncompressed point: 0x04, x and y as big endian integers of the field size
+      ECPublicKey ec = (ECPublicKey) publicKey;
+      int n = (ec.getParams().getCurve().getField().getFieldSize() + 7) / 8;
+      data = new byte[1 + 2 * n];
+      data[0] = 4;
+      unsigned(ec.getW().getAffineX(), data, 1, n);
+      unsigned(ec.getW().getAffineY(), data, 1 + n, n);
+    }
+    return NativeResult.PsaExportPublicKeyResult.builder().data(data).build();
+  }
+
+  /** Write {@code value} big endian in {@code size} bytes at {@code offset}. */
+  private static void unsigned(BigInteger value, byte[] out, int offset, int size) {
+    byte[] bytes = value.toByteArray();
+    int start = bytes.length > size ? bytes.length - size : 0;
+    int length = bytes.length - start;
+    System.arraycopy(bytes, start, out, offset + size - length, length);
+  }
+
+  private NativeResult signHash(String application, NativeOperation.PsaSignHashOperation op)
+      throws GeneralSecurityException {
+    StoredKey key = key(application, op.getKeyName());
+    key.require(key.attributes.getKeyPolicy().getKeyUsageFlags().getSignHash(), "sign hashes");
+    PsaAlgorithm.Algorithm.AsymmetricSignature alg = op.getAlg();
+    final byte[] signature;
+    if (alg.hasRsaPkcs1V15Sign()) {
+      String digest = digest(alg.getRsaPkcs1V15Sign().getHashAlg());
+      Signature signer = Signature.getInstance("NONEwithRSA");
+      signer.initSign(key.privateKey(), random);
+      signer.update(Der.digestInfo(digest, checkHash(digest, op.getHash())));
+      signature = signer.sign();
+    } else if (alg.hasEcdsa()) {
+      checkHash(digest(alg.getEcdsa().getHashAlg()), op.getHash());
+      Signature signer = Signature.getInstance("NONEwithECDSA");
+      signer.initSign(key.privateKey(), random);
+      signer.update(op.getHash());
+      signature = Der.ecdsaToRaw(signer.sign(), key.fieldSize());
+    } else {
+      throw notSupported("signature algorithm " + alg);
+    }
+    return NativeResult.PsaSignHashResult.builder().signature(signature).build();
+  }
+
+  private NativeResult verifyHash(String application, NativeOperation.PsaVerifyHashOperation op)
+      throws GeneralSecurityException {
+    StoredKey key = key(application, op.getKeyName());
+    key.require(key.attributes.getKeyPolicy().getKeyUsageFlags().getVerifyHash(),
+        "verify hashes");
+    PsaAlgorithm.Algorithm.AsymmetricSignature alg = op.getAlg();
+    final boolean valid;
+    if (alg.hasRsaPkcs1V15Sign()) {
+      String digest = digest(alg.getRsaPkcs1V15Sign().getHashAlg());
+      Signature verifier = Signature.getInstance("NONEwithRSA");
+      verifier.initVerify(key.publicKey());
+      verifier.update(Der.digestInfo(digest, checkHash(digest, op.getHash())));
+      valid = verifier.verify(op.getSignature());
+    } else if (alg.hasEcdsa()) {
+      checkHash(digest(alg.getEcdsa().getHashAlg()), op.getHash());
+      Signature verifier = Signature.getInstance("NONEwithECDSA");
+      verifier.initVerify(key.publicKey());
+      verifier.update(op.getHash());
+      valid = op.getSignature().length == 2 * key.fieldSize()
+          && verifier.verify(Der.rawToEcdsa(op.getSignature()));
+    } else {
+      throw notSupported("signature algorithm " + alg);
+    }
+    if (!valid) {
+      throw new InterfaceException(ResponseStatus.PsaErrorInvalidSignature,
+          "invalid signature for key " + op.getKeyName());
+    }
+    return NativeResult.PsaVerifyHashResult.builder().build();
+  }
+
+  private NativeResult asymmetricEncrypt(String application,
+      NativeOperation.PsaAsymmetricEncryptOperation op) throws GeneralSecurityException {
+    StoredKey key = key(application, op.getKeyName());
+    key.require(key.attributes.getKeyPolicy().getKeyUsageFlags().getEncrypt(), "encrypt");
+    Cipher cipher = rsaCipher(op.getAlg(), Cipher.ENCRYPT_MODE, key.publicKey(), op.getSalt());
+    return NativeResult.PsaAsymmetricEncryptResult.builder()
+        .ciphertext(cipher.doFinal(op.getPlaintext())).build();
+  }
+
+  private NativeResult asymmetricDecrypt(String application,
+      NativeOperation.PsaAsymmetricDecryptOperation op) throws GeneralSecurityException {
+    StoredKey key = key(application, op.getKeyName());
+    key.require(key.attributes.getKeyPolicy().getKeyUsageFlags().getDecrypt(), "decrypt");
+    Cipher cipher = rsaCipher(op.getAlg(), Cipher.DECRYPT_MODE, key.privateKey(), op.getSalt());
+    try {
+      return NativeResult.PsaAsymmetricDecryptResult.builder()
+          .plaintext(cipher.doFinal(op.getCiphertext())).build();
+    } catch (BadPaddingException e) {
+      throw new InterfaceException(ResponseStatus.PsaErrorInvalidPadding, e);
+    }
+  }
+
+  private Cipher rsaCipher(PsaAlgorithm.Algorithm.AsymmetricEncryption alg, int mode, Key key,
+      byte[] salt) throws GeneralSecurityException {
+    if (alg.hasRsaPkcs1V15Crypt()) {
+      Cipher cipher = Cipher.getInstance("RSA/ECB/PKCS1Padding");
+      cipher.init(mode, key, random);
+      return cipher;
+    }
+    if (alg.hasRsaOaep()) {
+      String digest = digest(alg.getRsaOaep().getHashAlg());
+      Cipher cipher = Cipher.getInstance("RSA/ECB/OAEPPadding");
+      cipher.init(mode, key, new OAEPParameterSpec(digest, "MGF1", new MGF1ParameterSpec(digest),
+          salt != null ? new PSource.PSpecified(salt) : PSource.PSpecified.DEFAULT), random);
+      return cipher;
+    }
+    throw notSupported("encryption algorithm " + alg);
+  }
+
+  private NativeResult aeadEncrypt(String application, NativeOperation.PsaAeadEncryptOperation op)
+      throws GeneralSecurityException {
+    StoredKey key = key(application, op.getKeyName());
+    key.require(key.attributes.getKeyPolicy().getKeyUsageFlags().getEncrypt(), "encrypt");
+    Cipher cipher =
+        aeadCipher(op.getAlg(), Cipher.ENCRYPT_MODE, key, op.getNonce(), op.getAdditionalData());
+    return NativeResult.PsaAeadEncryptResult.builder()
+        .ciphertext(cipher.doFinal(op.getPlaintext())).build();
+  }
+
+  private NativeResult aeadDecrypt(String application, NativeOperation.PsaAeadDecryptOperation op)
+      throws GeneralSecurityException {
+    StoredKey key = key(application, op.getKeyName());
+    key.require(key.attributes.getKeyPolicy().getKeyUsageFlags().getDecrypt(), "decrypt");
+    Cipher cipher =
+        aeadCipher(op.getAlg(), Cipher.DECRYPT_MODE, key, op.getNonce(), op.getAdditionalData());
+    try {
+      return NativeResult.PsaAeadDecryptResult.builder()
+          .plaintext(cipher.doFinal(op.getCiphertext())).build();
+    } catch (AEADBadTagException e) {
+      throw new InterfaceException(ResponseStatus.PsaErrorInvalidSignature, e);
+    }
+  }
+
+  private Cipher aeadCipher(PsaAlgorithm.Algorithm.Aead alg, int mode, StoredKey key,
+      byte[] nonce, byte[] additionalData) throws GeneralSecurityException {
+    PsaAlgorithm.Algorithm.Aead.AeadWithDefaultLengthTag base;
+    int tagBits = 128;
+    if (alg.hasAeadWithShortenedTag()) {
+      base = alg.getAeadWithShortenedTag().getAeadAlg();
+      tagBits = alg.getAeadWithShortenedTag().getTagLength() * 8;
+    } else {
+      base = alg.getAeadWithDefaultLengthTag();
+    }
+    final Cipher cipher;
+    switch (base) {
+      case GCM:
+        cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(mode, key.secretKey(), new GCMParameterSpec(tagBits, nonce));
+        break;
+      case CHACHA20_POLY1305:
+        if (tagBits != 128) {
+          throw notSupported("shortened ChaCha20-Poly1305 tag");
+        }
+        cipher = Cipher.getInstance("ChaCha20-Poly1305");
+        cipher.init(mode, key.secretKey(), new IvParameterSpec(nonce));
+        break;
+      default:
+        throw notSupported("AEAD algorithm " + base);
+    }
+    if (additionalData != null) {
+      cipher.updateAAD(additionalData);
+    }
+    return cipher;
+  }
+
+  private NativeResult hashCompute(NativeOperation.PsaHashComputeOperation op)
+      throws NoSuchAlgorithmException {
+    return NativeResult.PsaHashComputeResult.builder()
+        .hash(MessageDigest.getInstance(digest(op.getAlg())).digest(op.getInput())).build();
+  }
+
+  private NativeResult hashCompare(NativeOperation.PsaHashCompareOperation op)
+      throws NoSuchAlgorithmException {
+    byte[] hash = MessageDigest.getInstance(digest(op.getAlg())).digest(op.getInput());
+    if (!MessageDigest.isEqual(hash, op.getHash())) {
+      throw new InterfaceException(ResponseStatus.PsaErrorInvalidSignature, "hash mismatch");
+    }
+    return NativeResult.PsaHashCompareResult.builder().build();
+  }
+
+  private NativeResult generateRandom(NativeOperation.PsaGenerateRandomOperation op) {
+    byte[] bytes = new byte[Math.toIntExact(op.getSize())];
+    random.nextBytes(bytes);
+    return NativeResult.PsaGenerateRandomResult.builder().randomBytes(bytes).build();
+  }
+
+  private void store(String application, StoredKey key,
+      PsaKeyAttributes.KeyAttributes attributes) {
+    key.attributes = attributes.getKeyBits() != 0 ? attributes
+        : attributes.toBuilder().setKeyBits(key.bits()).build();
+    if (keys.putIfAbsent(id(application, key.name), key) != null) {
+      throw new InterfaceException(ResponseStatus.PsaErrorAlreadyExists,
+          "key " + key.name + " already exists");
+    }
+  }
+
+  private StoredKey key(String application, String keyName) {
+    StoredKey key = keys.get(id(application, keyName));
+    if (key == null) {
+      throw doesNotExist(keyName);
+    }
+    return key;
+  }
+
+  private static String id(String application, String keyName) {
+    return application + '\0' + keyName;
+  }
+
+  /** @return the JCA name of a PSA hash */
+  private static String digest(PsaAlgorithm.Algorithm.Hash hash) {
+    // SHA_256 is SHA-256, SHA3_256 is SHA3-256, SHA_512_224 is SHA-512/224
+    String name = hash.name().replace('_', '-');
+    return name.startsWith("SHA-512-") ? "SHA-512/" + name.substring("SHA-512-".length()) : name;
+  }
+
+  private static String digest(PsaAlgorithm.Algorithm.AsymmetricSignature.SignHash signHash) {
+    if (signHash.hasAny()) {
+      throw new InterfaceException(ResponseStatus.PsaErrorInvalidArgument,
+          "signing requires a specific hash algorithm");
+    }
+    return digest(signHash.getSpecific());
+  }
+
+  private static byte[] checkHash(String digest, byte[] hash) throws NoSuchAlgorithmException {
+    if (hash.length != MessageDigest.getInstance(digest).getDigestLength()) {
+      throw new InterfaceException(ResponseStatus.PsaErrorInvalidArgument,
+          "expected a " + digest + " hash, got " + hash.length + " bytes");
+    }
+    return hash;
+  }
+
+  private static InterfaceException notSupported(String what) {
+    return new InterfaceException(ResponseStatus.PsaErrorNotSupported, what + " not supported");
+  }
+
+  private static InterfaceException doesNotExist(String keyName) {
+    return new InterfaceException(ResponseStatus.PsaErrorDoesNotExist,
+        "key " + keyName + " does not exist");
+  }
+
+  private static final class StoredKey {
+    private final String name;
+    private final KeyPair keyPair;
+    private final SecretKey secretKey;
+    private PsaKeyAttributes.KeyAttributes attributes;
+
+    private StoredKey(String name, KeyPair keyPair) {
+      this.name = name;
+      this.keyPair = keyPair;
+      this.secretKey = null;
+    }
+
+    private StoredKey(String name, SecretKey secretKey) {
+      this.name = name;
+      this.keyPair = null;
+      this.secretKey = secretKey;
+    }
+
+    private void require(boolean permitted, String usage) {
+      if (!permitted) {
+        throw new InterfaceException(ResponseStatus.PsaErrorNotPermitted,
+            "key " + name + " is not allowed to " + usage);
+      }
+    }
+
+    private PrivateKey privateKey() {
+      if (keyPair == null || keyPair.getPrivate() == null) {
+        throw new InterfaceException(ResponseStatus.PsaErrorInvalidArgument,
+            "key " + name + " is not a key pair");
+      }
+      return keyPair.getPrivate();
+    }
+
+    private PublicKey publicKey() {
+      if (keyPair == null) {
+        throw new InterfaceException(ResponseStatus.PsaErrorInvalidArgument,
+            "key " + name + " is not an asymmetric key");
+      }
+      return keyPair.getPublic();
+    }
+
+    private SecretKey secretKey() {
+      if (secretKey == null) {
+        throw new InterfaceException(ResponseStatus.PsaErrorInvalidArgument,
+            "key " + name + " is not a symmetric key");
+      }
+      return secretKey;
+    }
+
+    /** @return the size of the field of an EC key, in bytes */
+    private int fieldSize() {
+      return (((ECKey) publicKey()).getParams().getCurve().getField().getFieldSize() + 7) / 8;
+    }
+
+    private int bits() {
+      if (secretKey != null) {
+        return secretKey.getEncoded().length * 8;
+      }
+      PublicKey publicKey = keyPair.getPublic();
+      if (publicKey instanceof RSAKey) {
+        BigInteger modulus = ((RSAKey) publicKey).getModulus();
+        return modulus.bitLength();
+      }
+      return ((ECKey) publicKey).getParams().getCurve().getField().getFieldSize();
+    }
+  }
+}
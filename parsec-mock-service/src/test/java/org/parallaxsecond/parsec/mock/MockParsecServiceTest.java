@@ -0,0 +1,267 @@
+package org.parallaxsecond.parsec.mock;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.parallaxsecond.parsec.client.Authentication;
+import org.parallaxsecond.parsec.client.core.AsyncBasicClient;
+import org.parallaxsecond.parsec.client.core.BasicClient;
+import org.parallaxsecond.parsec.client.core.ipc_handler.IpcHandler;
+import org.parallaxsecond.parsec.client.exceptions.InvalidProviderException;
+import org.parallaxsecond.parsec.client.exceptions.ServiceException;
+import org.parallaxsecond.parsec.protobuf.psa_algorithm.PsaAlgorithm;
+import org.parallaxsecond.parsec.protobuf.psa_key_attributes.PsaKeyAttributes;
+import org.parallaxsecond.parsec.protocol.requests.ProviderId;
+
+class MockParsecServiceTest {
+  private static final PsaAlgorithm.Algorithm.AsymmetricSignature RSA_SHA256 =
+      PsaAlgorithm.Algorithm.AsymmetricSignature.newBuilder()
+          .setRsaPkcs1V15Sign(PsaAlgorithm.Algorithm.AsymmetricSignature.RsaPkcs1v15Sign
+              .newBuilder().setHashAlg(PsaAlgorithm.Algorithm.AsymmetricSignature.SignHash
+                  .newBuilder().setSpecific(PsaAlgorithm.Algorithm.Hash.SHA_256)))
+          .build();
+  private static final PsaAlgorithm.Algorithm.AsymmetricSignature ECDSA_SHA256 =
+      PsaAlgorithm.Algorithm.AsymmetricSignature.newBuilder()
+          .setEcdsa(PsaAlgorithm.Algorithm.AsymmetricSignature.Ecdsa.newBuilder()
+              .setHashAlg(PsaAlgorithm.Algorithm.AsymmetricSignature.SignHash.newBuilder()
+                  .setSpecific(PsaAlgorithm.Algorithm.Hash.SHA_256)))
+          .build();
+
+  private MockParsecService service;
+
+  @AfterEach
+  void close() throws Exception {
+    if (service != null) {
+      service.close();
+    }
+  }
+
+  @Test
+  void signsAndVerifiesInMemory() throws Exception {
+    service = MockParsecService.inMemory();
+    BasicClient client = BasicClient.client("app", new InMemoryIpcHandler(service));
+
+    assertEquals(ProviderId.MBED_CRYPTO, client.implicitProvider());
+    assertEquals(1, client.ping().getWireProtocolVersionMaj());
+
+    byte[] hash = hash();
+    for (PsaAlgorithm.Algorithm.AsymmetricSignature alg : generateSigningKeys(client)) {
+      String keyName = keyName(alg);
+      byte[] signature = client.psaSignHash(keyName, hash, alg).getSignature();
+      client.psaVerifyHash(keyName, hash, alg, signature);
+
+      signature[signature.length - 1] ^= 1;
+      assertThrows(ServiceException.class,
+          () -> client.psaVerifyHash(keyName, hash, alg, signature));
+    }
+    assertEquals(2, client.listKeys().getKeys().size());
+    assertEquals(32, client.psaGenerateRandom(32).length);
+  }
+
+  @Test
+  void verifiesLocallyWithExportedKey() throws Exception {
+    service = MockParsecService.inMemory();
+    BasicClient client = BasicClient.client("app", new InMemoryIpcHandler(service));
+    client.setLocalVerification(true);
+
+    byte[] hash = hash();
+    for (PsaAlgorithm.Algorithm.AsymmetricSignature alg : generateSigningKeys(client)) {
+      String keyName = keyName(alg);
+      byte[] signature = client.psaSignHash(keyName, hash, alg).getSignature();
+      // the first verification exports the public key
+      client.psaVerifyHash(keyName, hash, alg, signature);
+
+      long requests = service.getRequests();
+      client.psaVerifyHash(keyName, hash, alg, signature);
+      signature[signature.length - 1] ^= 1;
+      assertThrows(ServiceException.class,
+          () -> client.psaVerifyHash(keyName, hash, alg, signature));
+      assertEquals(requests, service.getRequests());
+
+      signature[signature.length - 1] ^= 1;
+      client.psaDestroyKey(keyName);
+      assertThrows(ServiceException.class,
+          () -> client.psaVerifyHash(keyName, hash, alg, signature));
+    }
+  }
+
+  @Test
+  void encryptsAndDecryptsInMemory() {
+    service = MockParsecService.inMemory();
+    BasicClient client = BasicClient.client("app", new InMemoryIpcHandler(service));
+    PsaAlgorithm.Algorithm.AsymmetricEncryption alg =
+        PsaAlgorithm.Algorithm.AsymmetricEncryption.newBuilder()
+            .setRsaPkcs1V15Crypt(
+                PsaAlgorithm.Algorithm.AsymmetricEncryption.RsaPkcs1v15Crypt.newBuilder())
+            .build();
+    client.psaGenerateKey("rsa", PsaKeyAttributes.KeyAttributes.newBuilder()
+        .setKeyType(rsaKeyPair()).setKeyBits(1024)
+        .setKeyPolicy(PsaKeyAttributes.KeyPolicy.newBuilder()
+            .setKeyUsageFlags(
+                PsaKeyAttributes.UsageFlags.newBuilder().setEncrypt(true).setDecrypt(true))
+            .setKeyAlgorithm(PsaAlgorithm.Algorithm.newBuilder().setAsymmetricEncryption(alg)))
+        .build());
+
+    byte[] plaintext = "hello".getBytes(StandardCharsets.UTF_8);
+    byte[] ciphertext = client.psaAsymmetricEncrypt("rsa", alg, plaintext, null).getCiphertext();
+
+    assertArrayEquals(plaintext,
+        client.psaAsymmetricDecrypt("rsa", alg, ciphertext, null).getPlaintext());
+  }
+
+  @Test
+  void preflightRejectsImpossibleOperationsLocally() {
+    service = MockParsecService.inMemory();
+    BasicClient client = BasicClient.client("app", new InMemoryIpcHandler(service));
+    client.setPreflight(true);
+    PsaKeyAttributes.KeyAttributes signing = signingKey(rsaKeyPair(), RSA_SHA256, 1024);
+    PsaKeyAttributes.KeyAttributes verifyOnly = signing.toBuilder()
+        .setKeyPolicy(signing.getKeyPolicy().toBuilder()
+            .setKeyUsageFlags(PsaKeyAttributes.UsageFlags.newBuilder().setVerifyHash(true)))
+        .build();
+    client.psaGenerateKey("key", verifyOnly);
+    assertEquals(1, client.listKeys().getKeys().size());
+
+    long requests = service.getRequests();
+    assertThrows(ServiceException.class,
+        () -> client.psaSignHash("key", new byte[32], RSA_SHA256));
+    assertThrows(ServiceException.class,
+        () -> client.psaSignMessage("key", new byte[32], RSA_SHA256));
+    assertEquals(requests, service.getRequests());
+    assertEquals(16, client.psaGenerateRandom(16).length);
+  }
+
+  @Test
+  void asyncKeyChangesUpdateKeyCache() throws Exception {
+    service = MockParsecService.inMemory();
+    BasicClient client = BasicClient.client("app", new InMemoryIpcHandler(service));
+    AsyncBasicClient async = new AsyncBasicClient(client);
+    assertTrue(client.listKeys().getKeys().isEmpty());
+
+    async.psaGenerateKey("key", signingKey(rsaKeyPair(), RSA_SHA256, 1024)).get();
+    long requests = service.getRequests();
+    assertEquals(1, client.listKeys().getKeys().size());
+    async.psaDestroyKey("key").get();
+    assertTrue(client.listKeys().getKeys().isEmpty());
+    assertEquals(requests + 1, service.getRequests());
+
+    // a failed change leaves the key unknown, the next listing asks the service
+    assertThrows(ExecutionException.class, () -> async.psaDestroyKey("key").get());
+    assertTrue(client.listKeys().getKeys().isEmpty());
+    assertEquals(requests + 3, service.getRequests());
+  }
+
+  @Test
+  void keysAreSeparatedByApplication() {
+    service = MockParsecService.inMemory();
+    BasicClient alice = BasicClient.client("alice", new InMemoryIpcHandler(service));
+    BasicClient bob = BasicClient.client("bob", new InMemoryIpcHandler(service));
+
+    alice.psaGenerateKey("key", signingKey(rsaKeyPair(), RSA_SHA256, 1024));
+
+    assertEquals(1, alice.listKeys().getKeys().size());
+    assertTrue(bob.listKeys().getKeys().isEmpty());
+    assertThrows(ServiceException.class,
+        () -> bob.psaSignHash("key", new byte[32], RSA_SHA256));
+  }
+
+  @Test
+  void immutableClientsShareOneConnection() {
+    service = MockParsecService.inMemory();
+    BasicClient parent = BasicClient.client("alice", new InMemoryIpcHandler(service));
+    BasicClient shared = parent.toImmutable();
+    BasicClient bob = shared.withAuthentication(new Authentication.Direct("bob"));
+
+    shared.psaGenerateKey("key", signingKey(rsaKeyPair(), RSA_SHA256, 1024));
+
+    assertEquals(1, shared.listKeys().getKeys().size());
+    assertTrue(bob.listKeys().getKeys().isEmpty());
+    assertEquals(Duration.ofSeconds(1), bob.withTimeout(Duration.ofSeconds(1)).getCallTimeout());
+    // settings of the parent do not leak into its views
+    AtomicInteger reported = new AtomicInteger();
+    parent.setOperationListener(event -> reported.incrementAndGet());
+    bob.ping();
+    assertEquals(0, reported.get());
+    parent.ping();
+    assertEquals(1, reported.get());
+    assertThrows(InvalidProviderException.class,
+        () -> shared.withProvider(ProviderId.CORE).psaGenerateRandom(8));
+    assertThrows(UnsupportedOperationException.class,
+        () -> bob.setImplicitProvider(ProviderId.PKCS11));
+  }
+
+  @Test
+  void servesUnixSocket(@TempDir Path dir) throws Exception {
+    service = MockParsecService.builder().socketPath(dir.resolve("parsec.sock")).build();
+    BasicClient client =
+        BasicClient.client("app", IpcHandler.connectFromUrl(service.getSocketUri()));
+
+    byte[] random = client.psaGenerateRandom(16);
+
+    assertEquals(16, random.length);
+    assertTrue(service.getRequests() > 0);
+    service.close();
+    assertTrue(Files.notExists(dir.resolve("parsec.sock")));
+    service = null;
+  }
+
+  @Test
+  void derSignaturesRoundTrip() {
+    byte[] raw = new byte[64];
+    raw[0] = (byte) 0x80;
+    raw[63] = 1;
+
+    assertArrayEquals(raw, Der.ecdsaToRaw(Der.rawToEcdsa(raw), 32));
+  }
+
+  private static byte[] hash() throws Exception {
+    return MessageDigest.getInstance("SHA-256").digest("hello".getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** Generate an RSA and an ECC signing key, named after {@link #keyName} */
+  private static PsaAlgorithm.Algorithm.AsymmetricSignature[] generateSigningKeys(
+      BasicClient client) {
+    client.psaGenerateKey(keyName(RSA_SHA256), signingKey(rsaKeyPair(), RSA_SHA256, 2048));
+    client.psaGenerateKey(keyName(ECDSA_SHA256), signingKey(eccKeyPair(), ECDSA_SHA256, 256));
+    return new PsaAlgorithm.Algorithm.AsymmetricSignature[] {RSA_SHA256, ECDSA_SHA256};
+  }
+
+  private static String keyName(PsaAlgorithm.Algorithm.AsymmetricSignature alg) {
+    return alg.hasEcdsa() ? "ecc" : "rsa";
+  }
+
+  private static PsaKeyAttributes.KeyType rsaKeyPair() {
+    return PsaKeyAttributes.KeyType.newBuilder()
+        .setRsaKeyPair(PsaKeyAttributes.KeyType.RsaKeyPair.newBuilder()).build();
+  }
+
+  private static PsaKeyAttributes.KeyType eccKeyPair() {
+    return PsaKeyAttributes.KeyType.newBuilder()
+        .setEccKeyPair(PsaKeyAttributes.KeyType.EccKeyPair.newBuilder()
+            .setCurveFamily(PsaKeyAttributes.KeyType.EccFamily.SECP_R1))
+        .build();
+  }
+
+  private static PsaKeyAttributes.KeyAttributes signingKey(PsaKeyAttributes.KeyType type,
+      PsaAlgorithm.Algorithm.AsymmetricSignature alg, int bits) {
+    return PsaKeyAttributes.KeyAttributes.newBuilder().setKeyType(type).setKeyBits(bits)
+        .setKeyPolicy(PsaKeyAttributes.KeyPolicy.newBuilder()
+            .setKeyUsageFlags(PsaKeyAttributes.UsageFlags.newBuilder().setSignHash(true)
+                .setVerifyHash(true))
+            .setKeyAlgorithm(PsaAlgorithm.Algorithm.newBuilder().setAsymmetricSignature(alg)))
+        .build();
+  }
+}